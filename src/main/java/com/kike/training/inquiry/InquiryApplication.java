@@ -3,9 +3,14 @@ package com.kike.training.inquiry;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 
-@SpringBootApplication( exclude = { DataSourceAutoConfiguration.class })
+// Las conexiones R2DBC (perfil 'r2dbc') las crea R2dbcConfig, una por país, igual que los DataSources.
+// El gestor de transacciones reactivo se excluye para que @Transactional siga usando el de JDBC.
+@SpringBootApplication( exclude = { DataSourceAutoConfiguration.class, R2dbcAutoConfiguration.class,
+		R2dbcTransactionManagerAutoConfiguration.class })
 @EnableAspectJAutoProxy
 public class InquiryApplication {
 
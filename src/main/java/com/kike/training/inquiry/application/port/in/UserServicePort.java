@@ -1,9 +1,13 @@
 package com.kike.training.inquiry.application.port.in;
 
+import com.kike.training.inquiry.domain.model.KeysetPage;
+import com.kike.training.inquiry.domain.model.PurgeProgress;
 import com.kike.training.inquiry.domain.model.User;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Puerto de entrada (Input Port) para el servicio de gestión de usuarios.
@@ -56,6 +60,14 @@ public interface UserServicePort {
      */
     User insertUserNative(User user);
 
+    /**
+     * Inserta varios usuarios con un único batch JDBC y IDs asignados en cliente.
+     *
+     * @param users Los usuarios a insertar.
+     * @return Los usuarios insertados, con su ID.
+     */
+    List<User> batchInsertUsersNative(List<User> users);
+
     /**
      * Actualiza un usuario existente mediante SQL nativo.
      *
@@ -75,6 +87,14 @@ public interface UserServicePort {
      */
     void deleteAllUsersNative();
 
+    /**
+     * Elimina todos los usuarios de la base de datos actual por bloques (o con TRUNCATE si el motor lo
+     * admite), informando del progreso. Si se interrumpe, se reanuda volviendo a llamarlo.
+     *
+     * @param progress Recibe un mensaje por bloque y uno final.
+     */
+    void purgeUsers(Consumer<PurgeProgress> progress);
+
     /**
      * Busca un usuario por ID usando una query SQL nativa.
      *
@@ -89,4 +109,29 @@ public interface UserServicePort {
      * @return Una lista de todos los usuarios.
      */
     List<User> findAllNative();
+
+    /**
+     * Recupera una página de usuarios ordenados por ID con paginación por clave.
+     *
+     * @param limit  Número máximo de usuarios por página.
+     * @param cursor Cursor opaco devuelto por la página anterior, o {@code null} para la primera.
+     * @return La página, con el cursor de la siguiente si hay más usuarios.
+     */
+    KeysetPage<User> getUsersPage(int limit, String cursor);
+
+    /**
+     * Recorre todos los usuarios del país actual en streaming, sin materializar la lista completa.
+     *
+     * @param action Acción a ejecutar para cada usuario, en orden de ID.
+     */
+    void forEachUser(Consumer<User> action);
+
+    /**
+     * Busca un usuario por ID devolviendo solo los campos pedidos (proyección).
+     *
+     * @param id     El ID del usuario.
+     * @param fields Los campos a devolver.
+     * @return Un Optional con el mapa campo → valor si el usuario existe.
+     */
+    Optional<Map<String, Object>> getUserFieldsById(Long id, List<String> fields);
 }
@@ -0,0 +1,91 @@
+package com.kike.training.inquiry.application.rest;
+
+import com.kike.training.inquiry.application.service.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+/**
+ * Controlador REST para las exportaciones completas de tablas (WEXHVLOC y users) en CSV.
+ *
+ * <p>Las respuestas se escriben en streaming desde el cursor de la base de datos (ver {@link ExportService}),
+ * en el hilo asíncrono de Spring MVC; por eso aquí solo se validan los parámetros y se preparan las cabeceras.</p>
+ */
+@RestController
+@RequestMapping("/api/v1/exports")
+public class ExportController {
+
+    private static final MediaType APPLICATION_GZIP = MediaType.parseMediaType("application/gzip");
+    private static final MediaType APPLICATION_ZIP = MediaType.parseMediaType("application/zip");
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Endpoint para EXPORTAR una tabla de un país como CSV comprimido con gzip.
+     * Mapeado a: GET /api/v1/exports/{countryCode}/{table}   (table: wexhvloc | users)
+     *
+     * @param countryCode País.
+     * @param table       Tabla a exportar.
+     * @return Status 200 OK con el fichero {@code <table>-<país>.csv.gz};
+     *         400 Bad Request si la tabla no es exportable; 404 Not Found si el país no existe.
+     */
+    @GetMapping("/{countryCode}/{table}")
+    public ResponseEntity<StreamingResponseBody> exportTenant(@PathVariable String countryCode, @PathVariable String table) {
+        ExportService.Table exportTable = parseTable(table);
+        String tenant = exportService.resolveTenants(List.of(countryCode)).get(0);
+        StreamingResponseBody body = out -> exportService.exportGzip(tenant, exportTable, out);
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_GZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment(exportTable.fileName() + "-" + tenant + ".csv.gz"))
+                .body(body);
+    }
+
+    /**
+     * Endpoint para EXPORTAR una tabla de varios países como un ZIP con un CSV por país.
+     * Mapeado a: GET /api/v1/exports/archive/{table}?countries=ES,DE   (sin countries: todos los países)
+     *
+     * @param table     Tabla a exportar.
+     * @param countries Países, en el orden en que aparecerán en el ZIP (opcional).
+     * @return Status 200 OK con el fichero {@code <table>.zip};
+     *         400 Bad Request si la tabla no es exportable; 404 Not Found si algún país no existe;
+     *         503 Service Unavailable si hay demasiadas exportaciones en curso.
+     */
+    @GetMapping("/archive/{table}")
+    public ResponseEntity<StreamingResponseBody> exportArchive(@PathVariable String table,
+                                                               @RequestParam(required = false) List<String> countries) {
+        ExportService.Table exportTable = parseTable(table);
+        List<String> tenants = exportService.resolveTenants(countries);
+        StreamingResponseBody body = out -> exportService.exportZip(tenants, exportTable, out);
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_ZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment(exportTable.fileName() + ".zip"))
+                .body(body);
+    }
+
+    private static ExportService.Table parseTable(String table) {
+        try {
+            return ExportService.Table.fromName(table);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    private static String attachment(String fileName) {
+        return ContentDisposition.attachment().filename(fileName).build().toString();
+    }
+}
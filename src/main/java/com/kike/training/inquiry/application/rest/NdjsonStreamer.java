@@ -0,0 +1,105 @@
+package com.kike.training.inquiry.application.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kike.training.inquiry.infrastructure.db.config.DataSourceContextHolder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Utilidad para devolver listados completos como NDJSON (un objeto JSON por línea) en streaming.
+ *
+ * ¿POR QUÉ EXISTE?
+ * Devolver una tabla entera como `List` obliga a tener todas las filas en memoria a la vez, y después
+ * otra vez como un único array JSON. Aquí cada fila se escribe en la respuesta en cuanto sale del
+ * `ResultSet` y se descarta: la memoria por petición es la del buffer del `JsonGenerator` (unos KB),
+ * sin importar el tamaño de la tabla.
+ *
+ * DETALLES IMPORTANTES:
+ * - El cuerpo se escribe en un hilo ASÍNCRONO de Spring MVC, cuando el método del controlador ya ha
+ *   terminado y el aspecto de enrutamiento ya ha limpiado el contexto. Por eso el tenant se vuelve a
+ *   establecer (y a limpiar) dentro del propio {@link StreamingResponseBody}.
+ * - Se hace flush cada {@link #FLUSH_EVERY_ROWS} filas para que el cliente reciba datos de forma continua.
+ * - Si el cliente se desconecta, la escritura lanza una `IOException`; la propagamos para que
+ *   `JdbcTemplate` cierre el `ResultSet` y la consulta se aborte en lugar de seguir leyendo para nadie.
+ */
+@Component
+@Slf4j
+public class NdjsonStreamer {
+
+    private static final int FLUSH_EVERY_ROWS = 200;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+
+    public NdjsonStreamer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        // Sin flush tras cada valor: el flush lo controlamos nosotros por bloques de filas.
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Crea el cuerpo de una respuesta NDJSON.
+     *
+     * @param tenant   País (tenant) en cuyo contexto se leen las filas.
+     * @param producer Función que recorre las filas y entrega cada una al consumidor que recibe.
+     * @return El cuerpo en streaming, listo para devolver en un {@code ResponseEntity}.
+     */
+    public <T> StreamingResponseBody stream(String tenant, Consumer<Consumer<T>> producer) {
+        return stream(tenant.toUpperCase(), producer, true, FLUSH_EVERY_ROWS);
+    }
+
+    /**
+     * Crea el cuerpo de una respuesta NDJSON cuyo productor enruta por su cuenta (por ejemplo, porque
+     * trabaja con varios países a la vez): no se establece ningún tenant en el hilo asíncrono.
+     * Pensado para mensajes de progreso, así que se hace flush tras cada objeto.
+     *
+     * @param producer Función que genera los objetos y entrega cada uno al consumidor que recibe.
+     */
+    public <T> StreamingResponseBody stream(Consumer<Consumer<T>> producer) {
+        return stream("*", producer, false, 1);
+    }
+
+    private <T> StreamingResponseBody stream(String lookupKey, Consumer<Consumer<T>> producer, boolean routed, int flushEvery) {
+        return outputStream -> {
+            if (routed) {
+                DataSourceContextHolder.setBranchContext(lookupKey);
+            }
+            long start = System.nanoTime();
+            long[] rows = {0};
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Sin separador entre valores raíz: escribimos nosotros el salto de línea de cada fila.
+                generator.setRootValueSeparator(null);
+
+                producer.accept(row -> {
+                    try {
+                        rowWriter.writeValue(generator, row);
+                        generator.writeRaw('\n');
+                        if (++rows[0] % flushEvery == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.flush();
+                log.info("NDJSON de '{}': {} filas enviadas en {} ms.", lookupKey, rows[0], (System.nanoTime() - start) / 1_000_000);
+            } catch (UncheckedIOException e) {
+                log.info("NDJSON de '{}' cancelado tras {} filas: el cliente se ha desconectado.", lookupKey, rows[0]);
+                throw e.getCause();
+            } finally {
+                if (routed) {
+                    DataSourceContextHolder.clearBranchContext();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package com.kike.training.inquiry.application.rest;
+
+import com.kike.training.inquiry.application.service.ReactiveUserService;
+import com.kike.training.inquiry.domain.model.User;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Endpoints reactivos de usuarios (perfil {@code r2dbc}), equivalentes a los básicos de {@link UserController}.
+ *
+ * <p>A diferencia de {@link UserController}, aquí no interviene el {@code DataSourceRoutingAspect}: el país
+ * se pasa al servicio, que lo pone en el contexto de Reactor de la cadena.</p>
+ */
+@RestController
+@RequestMapping("/api/reactive/users")
+@Profile("r2dbc")
+public class ReactiveUserController {
+
+    private final ReactiveUserService reactiveUserService;
+
+    public ReactiveUserController(ReactiveUserService reactiveUserService) {
+        this.reactiveUserService = reactiveUserService;
+    }
+
+    @PostMapping("/{countryCode}")
+    public Mono<ResponseEntity<User>> createUser(@PathVariable String countryCode, @RequestBody User user) {
+        return reactiveUserService.createUser(countryCode, user)
+                .map(saved -> ResponseEntity.created(URI.create(String.format("/api/reactive/users/%s/%d", countryCode, saved.getId())))
+                        .body(saved));
+    }
+
+    /**
+     * Todos los usuarios del país. Con {@code Accept: application/x-ndjson}, en streaming.
+     */
+    @GetMapping(value = "/{countryCode}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<User> getAllUsers(@PathVariable String countryCode) {
+        return reactiveUserService.getAllUsers(countryCode);
+    }
+
+    @GetMapping("/{countryCode}/{id}")
+    public Mono<ResponseEntity<User>> getUserById(@PathVariable String countryCode, @PathVariable Long id) {
+        return reactiveUserService.getUserById(countryCode, id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{countryCode}/{id}")
+    public Mono<ResponseEntity<Void>> deleteUser(@PathVariable String countryCode, @PathVariable Long id) {
+        return reactiveUserService.deleteUser(countryCode, id)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+}
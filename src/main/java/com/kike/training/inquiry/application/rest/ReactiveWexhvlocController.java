@@ -0,0 +1,112 @@
+package com.kike.training.inquiry.application.rest;
+
+import com.kike.training.inquiry.application.service.ReactiveWexhvlocService;
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.domain.model.WexhvlocKey;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.net.URI;
+
+/**
+ * Endpoints reactivos de WEXHVLOC (perfil {@code r2dbc}), sobre el adaptador R2DBC.
+ *
+ * <p>Son los mismos contratos que los de {@link WexhvlocController} bajo {@code /api/v1/reactive/...},
+ * para poder lanzar la misma carga contra las dos pilas. Devuelven {@link Mono}/{@link Flux}: Spring MVC
+ * los atiende sin ocupar el hilo de Tomcat mientras la base de datos trabaja, y el mismo controlador
+ * funcionaría sin cambios sobre WebFlux.</p>
+ */
+@RestController
+@RequestMapping("/api/v1/reactive/exhibition-locations")
+@Profile("r2dbc")
+public class ReactiveWexhvlocController {
+
+    private static final String BASE_PATH = "/api/v1/reactive/exhibition-locations";
+
+    private final ReactiveWexhvlocService reactiveWexhvlocService;
+
+    public ReactiveWexhvlocController(ReactiveWexhvlocService reactiveWexhvlocService) {
+        this.reactiveWexhvlocService = reactiveWexhvlocService;
+    }
+
+    /**
+     * Mapeado a: POST /api/v1/reactive/exhibition-locations
+     *
+     * @return 201 Created con la localización y su URI; 409 Conflict si la clave ya existe.
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Wexhvloc>> createExhibitionLocation(@RequestBody Wexhvloc exhibitionLocation) {
+        return reactiveWexhvlocService.createExhibitionLocation(exhibitionLocation)
+                .map(created -> ResponseEntity.created(locationOf(created)).body(created));
+    }
+
+    /**
+     * Mapeado a: GET /api/v1/reactive/exhibition-locations?cdisoloc=..&cdcompany=..&cddealer=..&chassis=..&nmexhvl=..&cdexhvl=..
+     *
+     * @return 200 OK con la localización; 404 Not Found si no existe.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Wexhvloc>> findExhibitionLocation(
+            @RequestParam String cdisoloc, @RequestParam BigDecimal cdcompany,
+            @RequestParam BigDecimal cddealer, @RequestParam String chassis,
+            @RequestParam BigDecimal nmexhvl, @RequestParam String cdexhvl) {
+        return reactiveWexhvlocService.findExhibitionLocation(new WexhvlocKey(cdisoloc, cdcompany, cddealer, chassis, nmexhvl, cdexhvl))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Mapeado a: GET /api/v1/reactive/exhibition-locations/dealer?cdisoloc=ES&cdcompany=1&cddealer=54321&limit=50
+     * Con {@code Accept: application/x-ndjson} cada fila se escribe en cuanto llega de la base de datos.
+     *
+     * @return Las primeras {@code limit} localizaciones del concesionario, en orden de clave.
+     */
+    @GetMapping(value = "/dealer", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Wexhvloc> findDealerExhibitionLocations(
+            @RequestParam String cdisoloc, @RequestParam BigDecimal cdcompany, @RequestParam BigDecimal cddealer,
+            @RequestParam(defaultValue = "50") int limit) {
+        return reactiveWexhvlocService.findDealerExhibitionLocations(cdisoloc, cdcompany, cddealer, limit);
+    }
+
+    /**
+     * Mapeado a: DELETE /api/v1/reactive/exhibition-locations?cdisoloc=..&... (clave completa)
+     *
+     * @return 204 No Content; 404 Not Found si no existía.
+     */
+    @DeleteMapping
+    public Mono<ResponseEntity<Void>> deleteExhibitionLocation(
+            @RequestParam String cdisoloc, @RequestParam BigDecimal cdcompany,
+            @RequestParam BigDecimal cddealer, @RequestParam String chassis,
+            @RequestParam BigDecimal nmexhvl, @RequestParam String cdexhvl) {
+        return reactiveWexhvlocService.deleteExhibitionLocation(new WexhvlocKey(cdisoloc, cdcompany, cddealer, chassis, nmexhvl, cdexhvl))
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+
+    /**
+     * URI del recurso creado. Se construye a partir de la ruta fija, y no de la petición actual, porque el
+     * {@code map} puede ejecutarse en un hilo del driver, fuera del contexto de la petición.
+     */
+    private static URI locationOf(Wexhvloc created) {
+        return UriComponentsBuilder.fromPath(BASE_PATH)
+                .queryParam("cdisoloc", created.getCdisoloc())
+                .queryParam("cdcompany", created.getCdcompany())
+                .queryParam("cddealer", created.getCddealer())
+                .queryParam("chassis", created.getChassis())
+                .queryParam("nmexhvl", created.getNmexhvl())
+                .queryParam("cdexhvl", created.getCdexhvl())
+                .build()
+                .toUri();
+    }
+}
@@ -0,0 +1,40 @@
+package com.kike.training.inquiry.application.rest;
+
+import com.kike.training.inquiry.application.service.WexhvlocReportService;
+import com.kike.training.inquiry.domain.model.WexhvlocReport;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador REST para los informes agregados que abarcan varios países.
+ *
+ * <p>Los cálculos y la caché están en {@link WexhvlocReportService}; aquí solo se exponen.</p>
+ */
+@RestController
+@RequestMapping("/api/v1/reports")
+public class ReportController {
+
+    private final WexhvlocReportService reportService;
+
+    public ReportController(WexhvlocReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    /**
+     * Endpoint para obtener los recuentos de localizaciones por país, por estado y por concesionario.
+     * Mapeado a: GET /api/v1/reports/exhibition-locations?countries=ES,DE   (sin countries: todos los países)
+     *
+     * @param countries Países a incluir (opcional).
+     * @return Status 200 OK con el informe; 404 Not Found si algún país no existe;
+     *         504 Gateway Timeout si algún país no responde a tiempo.
+     */
+    @GetMapping("/exhibition-locations")
+    public ResponseEntity<WexhvlocReport> exhibitionLocationCounts(@RequestParam(required = false) List<String> countries) {
+        return ResponseEntity.ok(reportService.report(countries));
+    }
+}
@@ -1,11 +1,17 @@
 package com.kike.training.inquiry.application.rest; // Paquete sugerido para controladores
 
 import com.kike.training.inquiry.application.port.in.UserServicePort;
+import com.kike.training.inquiry.domain.model.KeysetPage;
+import com.kike.training.inquiry.domain.model.PurgeProgress;
 import com.kike.training.inquiry.domain.model.User;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controlador REST para gestionar las operaciones de los usuarios.
@@ -26,9 +32,11 @@ import java.util.List;
 public class UserController {
 
     private final UserServicePort userService;
+    private final NdjsonStreamer ndjsonStreamer;
 
-    public UserController(UserServicePort userService) {
+    public UserController(UserServicePort userService, NdjsonStreamer ndjsonStreamer) {
         this.userService = userService;
+        this.ndjsonStreamer = ndjsonStreamer;
     }
 
     // =============================================
@@ -61,6 +69,21 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Variante en streaming de {@link #getAllUsers(String)}: se elige con {@code Accept: application/x-ndjson}.
+     * Cada usuario se escribe como una línea JSON en cuanto se lee de la base de datos, así que la memoria
+     * usada no depende del tamaño de la tabla.
+     *
+     * @param countryCode El código del país a consultar.
+     * @return Un cuerpo NDJSON en streaming.
+     */
+    @GetMapping(value = "/{countryCode}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers(@PathVariable String countryCode) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonStreamer.stream(countryCode, userService::forEachUser));
+    }
+
     /**
      * Busca un usuario por su ID en la base de datos de un país específico.
      *
@@ -93,6 +116,19 @@ public class UserController {
         return ResponseEntity.created(location).body(savedUser);
     }
 
+    /**
+     * Inserta varios usuarios de una vez con un único batch JDBC (IDs asignados por bloques en cliente).
+     *
+     * @param countryCode Código del país interceptado por el Aspect.
+     * @param users Usuarios a insertar.
+     * @return HTTP 201 con los usuarios creados y sus IDs.
+     */
+    @PostMapping("/{countryCode}/native/batch")
+    public ResponseEntity<List<User>> createUsersNativeBatch(@PathVariable String countryCode, @RequestBody List<User> users) {
+        List<User> savedUsers = userService.batchInsertUsersNative(users);
+        return ResponseEntity.status(HttpStatus.CREATED).body(savedUsers);
+    }
+
     /**
      * Obtiene todos los usuarios mediante SQL nativo.
      *
@@ -105,6 +141,52 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Obtiene una página de usuarios ordenados por ID (paginación por clave / keyset).
+     * Para la página siguiente, se reenvía el {@code nextCursor} recibido como parámetro {@code cursor}.
+     *
+     * @param countryCode Código del país interceptado por el Aspect.
+     * @param limit Número máximo de usuarios por página (por defecto 50).
+     * @param cursor Cursor opaco de la página anterior (vacío para la primera página).
+     * @return HTTP 200 con la página, o 400 si el límite o el cursor no son válidos.
+     */
+    @GetMapping("/{countryCode}/page")
+    public ResponseEntity<KeysetPage<User>> getUsersPage(@PathVariable String countryCode,
+                                                         @RequestParam(defaultValue = "50") int limit,
+                                                         @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(userService.getUsersPage(limit, cursor));
+    }
+
+    /**
+     * Variante con proyección de {@link #getUserById(String, Long)}: {@code ?fields=id,username}.
+     * Solo se leen de la base de datos (y se envían) las columnas pedidas.
+     *
+     * @param countryCode El código del país donde buscar.
+     * @param id El ID del usuario a buscar.
+     * @param fields Los campos a devolver (id, username, email).
+     * @return Un JSON parcial con los campos pedidos, 404 si no existe o 400 si algún campo no es válido.
+     */
+    @GetMapping(value = {"/{countryCode}/{id}", "/{countryCode}/native/{id}"}, params = "fields")
+    public ResponseEntity<Map<String, Object>> getUserFieldsById(@PathVariable String countryCode, @PathVariable Long id,
+                                                                 @RequestParam List<String> fields) {
+        return userService.getUserFieldsById(id, fields)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Variante en streaming de {@link #getAllUsersNative(String)} ({@code Accept: application/x-ndjson}).
+     *
+     * @param countryCode Código del país.
+     * @return Un cuerpo NDJSON en streaming.
+     */
+    @GetMapping(value = "/{countryCode}/native", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsersNative(@PathVariable String countryCode) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonStreamer.stream(countryCode, userService::forEachUser));
+    }
+
     /**
      * Busca un usuario por su ID con SQL manual.
      *
@@ -156,4 +238,18 @@ public class UserController {
         userService.deleteAllUsersNative();
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Variante de {@link #deleteAllUsersNative(String)} que informa del progreso: se elige con
+     * {@code Accept: application/x-ndjson}. Envía un {@link PurgeProgress} por bloque borrado y uno final.
+     *
+     * @param countryCode El código del país.
+     * @return Un cuerpo NDJSON en streaming.
+     */
+    @DeleteMapping(value = "/{countryCode}/native", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> purgeUsersNative(@PathVariable String countryCode) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonStreamer.<PurgeProgress>stream(countryCode, userService::purgeUsers));
+    }
 }
@@ -0,0 +1,368 @@
+package com.kike.training.inquiry.application.rest;
+
+import com.kike.training.inquiry.application.service.WexhvlocService;
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.domain.model.WexhvlocChangeEvent;
+import com.kike.training.inquiry.domain.model.WexhvlocKey;
+import com.kike.training.inquiry.infrastructure.db.config.TenantExecutor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Feed de cambios de WEXHVLOC por país, con Server-Sent Events.
+ *
+ * ¿POR QUÉ EXISTE?
+ * Los cuadros de mando de los concesionarios consultaban la API cada pocos segundos para ver si algo
+ * había cambiado, multiplicando la carga del AS400. Con este feed se suscriben una vez y reciben los
+ * cambios (altas, modificaciones y bajas) en cuanto se confirman, sin consultar la base de datos.
+ *
+ * ¿CÓMO FUNCIONA?
+ * - Los cambios llegan como {@link WexhvlocChangeEvent}, después del commit.
+ * - Cada suscriptor tiene un buffer ACOTADO. Si se llena (cliente lento), se vacía y se le envía un
+ *   único evento {@code resync}: el cliente debe recargar su vista por la API normal.
+ * - Ningún suscriptor tiene un hilo propio: un pool pequeño y compartido vacía los buffers que tienen
+ *   eventos pendientes, y un único hilo programado envía un latido periódico a todos. Mil suscriptores
+ *   inactivos no ocupan ningún hilo.
+ * - Un envío a un cliente que no lee se queda bloqueado en el socket y ocupa un hilo del pool. Para que
+ *   unos pocos clientes atascados no paren el feed de todos: mientras un suscriptor está enviando no se
+ *   encola más trabajo para él (sus eventos esperan en su buffer), y si un envío dura más de
+ *   {@code send-timeout-ms}, el suscriptor se da de baja, se cierra su conexión con error y se
+ *   interrumpe el hilo que estaba enviando para devolverlo al pool.
+ * - El id de cada evento es el TSLSTUPD de la fila. Al reconectar, el navegador lo devuelve en la
+ *   cabecera {@code Last-Event-ID} y se reenvían las filas modificadas desde ese instante (ver {@link #subscribe}).
+ *   Las bajas no llevan id (no tienen TSLSTUPD), así que no mueven el token del cliente; tampoco se pueden
+ *   recuperar al reanudar (la fila ya no existe): si se necesitan, hay que recargar.
+ *
+ * ENTREGA "AL MENOS UNA VEZ":
+ * TSLSTUPD no es una secuencia: varias filas pueden compartirlo y una transacción puede confirmarse
+ * después de otra con un TSLSTUPD posterior. Por eso la reanudación incluye el instante del token
+ * ({@code >=}) y además retrocede {@code resume-overlap-ms}. Una fila puede llegar repetida (siempre
+ * con su contenido completo y el mismo TSLSTUPD), pero no se pierde; el cliente deduplica por clave + TSLSTUPD.
+ */
+@Component
+@Slf4j
+public class WexhvlocChangeFeed {
+
+    static final String EVENT_READY = "ready";
+    static final String EVENT_RESYNC = "resync";
+
+    private final WexhvlocService wexhvlocService;
+    private final TenantExecutor tenantExecutor;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long resumeOverlapMillis;
+    private final long sendTimeoutNanos;
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeat;
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    public WexhvlocChangeFeed(WexhvlocService wexhvlocService,
+                              TenantExecutor tenantExecutor,
+                              @Value("${wexhvloc.changes.buffer-size:256}") int bufferSize,
+                              @Value("${wexhvloc.changes.timeout-ms:1800000}") long timeoutMillis,
+                              @Value("${wexhvloc.changes.resume-overlap-ms:5000}") long resumeOverlapMillis,
+                              @Value("${wexhvloc.changes.heartbeat-seconds:15}") long heartbeatSeconds,
+                              @Value("${wexhvloc.changes.dispatcher-threads:2}") int dispatcherThreads,
+                              @Value("${wexhvloc.changes.send-timeout-ms:5000}") long sendTimeoutMillis) {
+        this.wexhvlocService = wexhvlocService;
+        this.tenantExecutor = tenantExecutor;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.resumeOverlapMillis = resumeOverlapMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads,
+                Thread.ofPlatform().name("sse-dispatch-", 0).daemon(true).factory());
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("sse-heartbeat").daemon(true).factory());
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        long checkMillis = Math.max(1, sendTimeoutMillis / 2);
+        this.heartbeat.scheduleAtFixedRate(this::dropStalledSubscribers, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abre una suscripción al feed de un país.
+     *
+     * @param cdisoloc  País.
+     * @param cdcompany Compañía, o {@code null} para todas.
+     * @param cddealer  Concesionario, o {@code null} para todos.
+     * @param resumeFrom TSLSTUPD del último evento recibido (token de reanudación), o {@code null}.
+     * @return El emisor SSE que devuelve el controlador.
+     * @throws ResponseStatusException (400) sin país; (404) si el país no tiene base de datos configurada.
+     */
+    public SseEmitter subscribe(String cdisoloc, Integer cdcompany, Integer cddealer, LocalDateTime resumeFrom) {
+        String tenant = requireTenant(cdisoloc);
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(tenant, cdcompany, cddealer, emitter);
+
+        List<Subscriber> tenantSubscribers = subscribers.computeIfAbsent(tenant, t -> new CopyOnWriteArrayList<>());
+        emitter.onCompletion(() -> tenantSubscribers.remove(subscriber));
+        emitter.onTimeout(() -> tenantSubscribers.remove(subscriber));
+        emitter.onError(e -> tenantSubscribers.remove(subscriber));
+        // Se registra ANTES de leer los cambios perdidos: lo que se confirme mientras tanto se encola,
+        // como mucho llega dos veces, pero no se pierde.
+        tenantSubscribers.add(subscriber);
+
+        subscriber.offer(SseEmitter.event().name(EVENT_READY).data(tenant));
+        if (resumeFrom != null) {
+            LocalDateTime from = resumeFrom.minusNanos(resumeOverlapMillis * 1_000_000);
+            List<Wexhvloc> missed = wexhvlocService.findExhibitionLocationsModifiedSince(tenant, cdcompany, cddealer, from, bufferSize + 1);
+            if (missed.size() > bufferSize) {
+                subscriber.offer(SseEmitter.event().name(EVENT_RESYNC).data(tenant));
+            } else {
+                missed.forEach(subscriber::replay);
+            }
+        }
+        subscriber.requestDrain();
+        log.debug("Nueva suscripción al feed de '{}' (compañía {}, concesionario {}); {} suscriptores.",
+                tenant, cdcompany, cddealer, tenantSubscribers.size());
+        return emitter;
+    }
+
+    /**
+     * País normalizado, si tiene base de datos: una suscripción a un país inventado no debe crear su lista.
+     */
+    private String requireTenant(String cdisoloc) {
+        if (cdisoloc == null || cdisoloc.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Hay que indicar el país (cdisoloc).");
+        }
+        String tenant = cdisoloc.trim().toUpperCase();
+        if (!tenantExecutor.getTenants().contains(tenant)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No hay base de datos configurada para el país '" + tenant + "'.");
+        }
+        return tenant;
+    }
+
+    /**
+     * Reparte un cambio confirmado entre los suscriptores de su país.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(WexhvlocChangeEvent event) {
+        List<Subscriber> tenantSubscribers = subscribers.get(event.tenant());
+        if (tenantSubscribers == null || tenantSubscribers.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : tenantSubscribers) {
+            boolean queued = false;
+            for (Wexhvloc row : event.rows()) {
+                if (subscriber.matches(row) && !subscriber.alreadyReplayed(event.type(), row)) {
+                    subscriber.offer(toSse(event.type(), row));
+                    queued = true;
+                }
+            }
+            if (queued) {
+                subscriber.requestDrain();
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        subscribers.values().forEach(list -> list.forEach(subscriber -> {
+            subscriber.offer(SseEmitter.event().comment("heartbeat"));
+            subscriber.requestDrain();
+        }));
+    }
+
+    /**
+     * Da de baja a los suscriptores con un envío bloqueado más de {@code send-timeout-ms}.
+     */
+    private void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(list -> list.forEach(subscriber -> {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > sendTimeoutNanos) {
+                subscriber.drop(new IOException("El cliente no ha aceptado un evento en "
+                        + TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos) + " ms."));
+            }
+        }));
+    }
+
+    /**
+     * Evento SSE de una fila: nombre según el tipo de cambio, id = TSLSTUPD (token de reanudación).
+     * De las bajas solo se envía la clave, y sin id: no tienen TSLSTUPD, y un id inventado (la hora
+     * actual) haría que el cliente reanudase por delante de cambios que todavía no ha recibido.
+     */
+    private static SseEmitter.SseEventBuilder toSse(WexhvlocChangeEvent.Type type, Wexhvloc row) {
+        boolean deleted = type == WexhvlocChangeEvent.Type.DELETED;
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name(type.name().toLowerCase());
+        if (!deleted && row.getTslstupd() != null) {
+            event.id(row.getTslstupd().toString());
+        }
+        return event.data(deleted ? WexhvlocKey.of(row).normalized() : row, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Versión de una fila: su clave y su TSLSTUPD. Dos eventos con la misma versión llevan el mismo contenido.
+     */
+    private static String version(Wexhvloc row) {
+        return WexhvlocKey.of(row).normalized() + "@" + row.getTslstupd();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(list -> list.forEach(s -> s.emitter.complete()));
+    }
+
+    // =====================================
+    // = Suscriptor                        =
+    // =====================================
+
+    private final class Subscriber {
+        private final String tenant;
+        private final Integer cdcompany;
+        private final Integer cddealer;
+        private final SseEmitter emitter;
+        /** Eventos pendientes de enviar; acceso sincronizado sobre la propia cola. */
+        private final Queue<SseEmitter.SseEventBuilder> buffer = new ArrayDeque<>();
+        /**
+         * Hay un vaciado en marcha o encolado en el dispatcher: garantiza que solo un hilo escribe en este
+         * emisor a la vez y que un cliente lento no acumula tareas en el dispatcher.
+         */
+        private final AtomicBoolean draining = new AtomicBoolean();
+        /** Instante ({@link System#nanoTime()}) en que empezó el envío en curso; 0 si no hay ninguno. */
+        private volatile long sendingSince;
+        /** Hilo que está vaciando el buffer, para interrumpirlo si el envío se queda bloqueado. */
+        private volatile Thread sender;
+        /**
+         * Versiones reenviadas al reanudar (como mucho {@code bufferSize}): si el mismo cambio llega además
+         * en directo, porque se confirmó mientras se leían los perdidos, no se envía dos veces.
+         */
+        private final Set<String> replayed = ConcurrentHashMap.newKeySet();
+
+        private Subscriber(String tenant, Integer cdcompany, Integer cddealer, SseEmitter emitter) {
+            this.tenant = tenant;
+            this.cdcompany = cdcompany;
+            this.cddealer = cddealer;
+            this.emitter = emitter;
+        }
+
+        boolean matches(Wexhvloc row) {
+            return matches(cdcompany, row.getCdcompany()) && matches(cddealer, row.getCddealer());
+        }
+
+        private static boolean matches(Integer filter, BigDecimal value) {
+            return filter == null || (value != null && value.intValue() == filter);
+        }
+
+        /**
+         * Encola una fila leída al reanudar, recordando su versión.
+         */
+        void replay(Wexhvloc row) {
+            replayed.add(version(row));
+            offer(toSse(WexhvlocChangeEvent.Type.UPSERTED, row));
+        }
+
+        /**
+         * {@code true} si esta versión de la fila ya se ha enviado al reanudar (las bajas nunca se reenvían así).
+         */
+        boolean alreadyReplayed(WexhvlocChangeEvent.Type type, Wexhvloc row) {
+            return type != WexhvlocChangeEvent.Type.DELETED && !replayed.isEmpty() && replayed.contains(version(row));
+        }
+
+        /**
+         * Encola un evento. Si el buffer está lleno, descarta lo pendiente y deja solo un {@code resync}.
+         */
+        void offer(SseEmitter.SseEventBuilder event) {
+            synchronized (buffer) {
+                if (buffer.size() >= bufferSize) {
+                    buffer.clear();
+                    buffer.add(SseEmitter.event().name(EVENT_RESYNC).data(tenant));
+                    log.info("Suscriptor del feed de '{}' desbordado: se le pide resincronizar.", tenant);
+                    return;
+                }
+                buffer.add(event);
+            }
+        }
+
+        /**
+         * Pide un vaciado del buffer, salvo que ya haya uno en marcha o encolado (ese vaciado se lleva
+         * también los eventos nuevos).
+         */
+        void requestDrain() {
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        /**
+         * Envía los eventos pendientes. Se ejecuta en el dispatcher compartido, nunca en un hilo propio.
+         */
+        private void drain() {
+            sender = Thread.currentThread();
+            try {
+                SseEmitter.SseEventBuilder next;
+                while ((next = poll()) != null) {
+                    sendingSince = System.nanoTime();
+                    emitter.send(next);
+                    sendingSince = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado, emisor ya completado o envío interrumpido por bloqueado: se da de baja.
+                drop(e);
+                return;
+            } finally {
+                sendingSince = 0;
+                sender = null;
+                Thread.interrupted(); // La interrupción era para este envío, no para la siguiente tarea del pool.
+                draining.set(false);
+            }
+            // Un evento encolado justo mientras se soltaba el testigo no debe quedarse sin enviar.
+            if (!isEmpty()) {
+                requestDrain();
+            }
+        }
+
+        /**
+         * Da de baja al suscriptor y cierra su conexión con error. Si tiene un envío en marcha, interrumpe
+         * el hilo que lo hace; el cierre se hace en un hilo aparte porque el emisor no se puede completar
+         * mientras otro hilo está dentro de {@code send}.
+         */
+        void drop(Throwable cause) {
+            if (!subscribers.getOrDefault(tenant, List.of()).remove(this)) {
+                return; // Ya dado de baja.
+            }
+            log.info("Suscriptor del feed de '{}' dado de baja: {}", tenant, cause.getMessage());
+            Thread blocked = sender;
+            if (blocked != null && blocked != Thread.currentThread()) {
+                blocked.interrupt();
+            }
+            Thread.ofVirtual().name("sse-close-" + tenant).start(() -> emitter.completeWithError(cause));
+        }
+
+        private SseEmitter.SseEventBuilder poll() {
+            synchronized (buffer) {
+                return buffer.poll();
+            }
+        }
+
+        private boolean isEmpty() {
+            synchronized (buffer) {
+                return buffer.isEmpty();
+            }
+        }
+    }
+}
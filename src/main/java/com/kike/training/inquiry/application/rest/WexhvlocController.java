@@ -1,15 +1,41 @@
 package com.kike.training.inquiry.application.rest;
 
+import com.kike.training.inquiry.application.service.WexhvlocBatchService;
+import com.kike.training.inquiry.application.service.WexhvlocImportService;
 import com.kike.training.inquiry.application.service.WexhvlocService;
+import com.kike.training.inquiry.domain.model.BatchRowResult;
+import com.kike.training.inquiry.domain.model.CompactWexhvloc;
+import com.kike.training.inquiry.domain.model.DealerSummary;
+import com.kike.training.inquiry.domain.model.ExhibitionPeriod;
+import com.kike.training.inquiry.domain.model.ImportEvent;
+import com.kike.training.inquiry.domain.model.KeysetPage;
+import com.kike.training.inquiry.domain.model.MultiGetResult;
+import com.kike.training.inquiry.domain.model.PurgeProgress;
+import com.kike.training.inquiry.domain.model.UpsertResult;
 import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.domain.model.WexhvlocKey;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -24,10 +50,20 @@ import java.util.Optional;
 public class WexhvlocController {
 
     private final WexhvlocService wexhvlocService;
+    private final WexhvlocBatchService wexhvlocBatchService;
+    private final WexhvlocChangeFeed changeFeed;
+    private final WexhvlocImportService importService;
+    private final NdjsonStreamer ndjsonStreamer;
 
     @Autowired
-    public WexhvlocController(WexhvlocService wexhvlocService) {
+    public WexhvlocController(WexhvlocService wexhvlocService, WexhvlocBatchService wexhvlocBatchService,
+                              WexhvlocChangeFeed changeFeed, WexhvlocImportService importService,
+                              NdjsonStreamer ndjsonStreamer) {
         this.wexhvlocService = wexhvlocService;
+        this.wexhvlocBatchService = wexhvlocBatchService;
+        this.changeFeed = changeFeed;
+        this.importService = importService;
+        this.ndjsonStreamer = ndjsonStreamer;
     }
 
     /**
@@ -58,6 +94,59 @@ public class WexhvlocController {
         return ResponseEntity.created(location).body(createdLocation);
     }
 
+    /**
+     * Endpoint para CREAR muchas localizaciones de exhibición de una vez (posiblemente de varios países).
+     * Mapeado a: POST /api/v1/exhibition-locations/batch
+     *
+     * <p>Las filas se agrupan por {@code CDISOLOC}; cada país se inserta en paralelo, en lotes JDBC
+     * y en una única transacción por país.</p>
+     *
+     * @param exhibitionLocations La lista de objetos Wexhvloc a crear.
+     * @return Status 200 OK con un {@link BatchRowResult} por fila, en el mismo orden que la petición.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchRowResult>> createExhibitionLocations(@RequestBody List<Wexhvloc> exhibitionLocations) {
+        return ResponseEntity.ok(wexhvlocBatchService.createExhibitionLocations(exhibitionLocations));
+    }
+
+    /**
+     * Endpoint para INSERTAR O ACTUALIZAR muchas localizaciones de un mismo país (upsert con MERGE).
+     * Mapeado a: POST /api/v1/exhibition-locations/upsert?cdisoloc=ES
+     *
+     * @param cdisoloc            País de todas las filas (se usa para enrutar al tenant).
+     * @param exhibitionLocations La lista de objetos Wexhvloc a insertar o actualizar.
+     * @return Status 200 OK con el número de filas insertadas y actualizadas.
+     *         Status 400 Bad Request si alguna fila es de otro país.
+     */
+    @PostMapping("/upsert")
+    public ResponseEntity<UpsertResult> upsertExhibitionLocations(@RequestParam String cdisoloc,
+                                                                  @RequestBody List<Wexhvloc> exhibitionLocations) {
+        return ResponseEntity.ok(wexhvlocService.upsertExhibitionLocations(cdisoloc, exhibitionLocations));
+    }
+
+    /**
+     * Endpoint para IMPORTAR un CSV de localizaciones (de cualquier país) enviado como cuerpo de la petición.
+     * Mapeado a: POST /api/v1/exhibition-locations/import (Content-Type: text/csv)
+     *
+     * <p>La cabecera del CSV es la misma que genera la exportación. El fichero se lee mientras se sube:
+     * si la base de datos no da abasto, se deja de leer y el cliente espera (ver {@link WexhvlocImportService}).
+     * No hay variante {@code multipart/form-data}: el contenedor guardaría la subida entera antes de
+     * entregarla, y el tamaño del fichero dejaría de estar acotado solo por la red.</p>
+     *
+     * @param request La petición, de cuyo cuerpo se lee el CSV (UTF-8).
+     * @return Status 200 OK con el informe en NDJSON: un {@link ImportEvent} por línea rechazada,
+     *         eventos de progreso y un resumen final.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importExhibitionLocations(HttpServletRequest request) throws IOException {
+        InputStream csv = request.getInputStream();
+        StreamingResponseBody body = ndjsonStreamer.<ImportEvent>stream(report ->
+                importService.importCsv(new InputStreamReader(csv, StandardCharsets.UTF_8), report));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * Endpoint para LEER una localización de exhibición por su clave primaria compuesta.
      * Mapeado a: GET /api/v1/exhibition-locations?cdisoloc=...&cdcompany=... etc.
@@ -86,6 +175,203 @@ public class WexhvlocController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * Endpoint para LEER muchas localizaciones de una vez por su clave compuesta (posiblemente de varios países).
+     * Mapeado a: POST /api/v1/exhibition-locations/_mget
+     *
+     * <p>Sustituye a una ráfaga de GETs de una en una (p. ej., las 50-200 localizaciones de la exposición de
+     * un concesionario): las claves se agrupan por {@code CDISOLOC} y cada país se resuelve con una consulta
+     * por bloque de claves, con los países en paralelo. Es un POST solo porque la lista de claves no cabe en
+     * la URL; no modifica nada.</p>
+     *
+     * @param keys Las claves a buscar.
+     * @return Status 200 OK con un {@link MultiGetResult} por clave, en el mismo orden que la petición
+     *         (las claves que no existen vienen como {@code NOT_FOUND}, no se omiten);
+     *         400 Bad Request si se piden más claves de las permitidas.
+     */
+    @PostMapping("/_mget")
+    public ResponseEntity<List<MultiGetResult>> findExhibitionLocations(@RequestBody List<WexhvlocKey> keys) {
+        return ResponseEntity.ok(wexhvlocBatchService.findExhibitionLocations(keys));
+    }
+
+    /**
+     * Variante con proyección del endpoint de lectura: {@code GET ...&fields=chassis,dtiniloc,dtfinloc}.
+     * Solo se leen y se devuelven los campos pedidos, validados contra la lista de columnas de WEXHVLOC.
+     *
+     * @param fields Propiedades a devolver (nombres de las propiedades de {@link Wexhvloc}).
+     * @return Status 200 OK con un JSON parcial; 404 si no existe; 400 si algún campo no es válido.
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<Map<String, Object>> findExhibitionLocationFields(
+            @RequestParam String cdisoloc, @RequestParam BigDecimal cdcompany,
+            @RequestParam BigDecimal cddealer, @RequestParam String chassis,
+            @RequestParam BigDecimal nmexhvl, @RequestParam String cdexhvl,
+            @RequestParam List<String> fields) {
+        return wexhvlocService.findExhibitionLocationFields(cdisoloc, cdcompany, cddealer, chassis, nmexhvl, cdexhvl, fields)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Endpoint para LISTAR todas las localizaciones de un chasis dentro de un país.
+     * Mapeado a: GET /api/v1/exhibition-locations/chassis?cdisoloc=...&chassis=...
+     *
+     * @param cdisoloc País.
+     * @param chassis  Número de chasis.
+     * @return Status 200 OK con la lista (vacía si el chasis no tiene localizaciones).
+     */
+    @GetMapping("/chassis")
+    public ResponseEntity<List<Wexhvloc>> findChassisExhibitionLocations(@RequestParam String cdisoloc, @RequestParam String chassis) {
+        return ResponseEntity.ok(wexhvlocService.findChassisExhibitionLocations(cdisoloc, chassis));
+    }
+
+    /**
+     * Endpoint para LISTAR las localizaciones de un concesionario, paginadas por clave (keyset).
+     * Mapeado a: GET /api/v1/exhibition-locations/dealer?cdisoloc=...&cdcompany=...&cddealer=...&limit=...&cursor=...
+     *
+     * <p>Para obtener la página siguiente se reenvía el {@code nextCursor} de la respuesta como {@code cursor}.</p>
+     *
+     * @param cdisoloc  País del concesionario.
+     * @param cdcompany Compañía del concesionario.
+     * @param cddealer  Código del concesionario.
+     * @param limit     Número máximo de registros por página (por defecto 50).
+     * @param cursor    Cursor opaco de la página anterior (vacío para la primera página).
+     * @return Status 200 OK con la página; 400 Bad Request si el límite o el cursor no son válidos.
+     */
+    @GetMapping("/dealer")
+    public ResponseEntity<KeysetPage<Wexhvloc>> findDealerExhibitionLocations(
+            @RequestParam String cdisoloc, @RequestParam BigDecimal cdcompany, @RequestParam BigDecimal cddealer,
+            @RequestParam(defaultValue = "50") int limit, @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(wexhvlocService.findDealerExhibitionLocations(cdisoloc, cdcompany, cddealer, limit, cursor));
+    }
+
+    /**
+     * Variante compacta del listado por concesionario.
+     * Mapeado a: GET /api/v1/exhibition-locations/dealer?compact=true&cdisoloc=...&cdcompany=...&cddealer=...
+     *
+     * <p>Devuelve los mismos registros y cursores, pero leídos como {@link CompactWexhvloc}: números
+     * primitivos y textos sin los espacios de relleno de las columnas CHAR.</p>
+     */
+    @GetMapping(value = "/dealer", params = "compact=true")
+    public ResponseEntity<KeysetPage<CompactWexhvloc>> findCompactDealerExhibitionLocations(
+            @RequestParam String cdisoloc, @RequestParam BigDecimal cdcompany, @RequestParam BigDecimal cddealer,
+            @RequestParam(defaultValue = "50") int limit, @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(wexhvlocService.findCompactDealerExhibitionLocations(cdisoloc, cdcompany, cddealer, limit, cursor));
+    }
+
+    /**
+     * Endpoint para LEER el resumen de un concesionario: número de localizaciones, primer DTINILOC y
+     * último DTFINLOC (99999999 si alguna exposición sigue abierta).
+     * Mapeado a: GET /api/v1/exhibition-locations/dealer/summary?cdisoloc=...&cdcompany=...&cddealer=...
+     *
+     * @return Status 200 OK con el resumen; 404 Not Found si el concesionario no tiene localizaciones;
+     *         503 Service Unavailable si el resumen está desactivado.
+     */
+    @GetMapping("/dealer/summary")
+    public ResponseEntity<DealerSummary> findDealerSummary(@RequestParam String cdisoloc, @RequestParam int cdcompany,
+                                                           @RequestParam int cddealer) {
+        return wexhvlocService.findDealerSummary(cdisoloc, cdcompany, cddealer)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Endpoint para RECONSTRUIR el resumen por concesionario de un país a partir de WEXHVLOC.
+     * Mapeado a: POST /api/v1/exhibition-locations/dealer/summary/rebuild?cdisoloc=ES
+     *
+     * @param cdisoloc País.
+     * @return Status 200 OK con el número de concesionarios resumidos ({@code {"dealers": n}}).
+     */
+    @PostMapping("/dealer/summary/rebuild")
+    public ResponseEntity<Map<String, Long>> rebuildDealerSummaries(@RequestParam String cdisoloc) {
+        return ResponseEntity.ok(Map.of("dealers", wexhvlocService.rebuildDealerSummaries(cdisoloc)));
+    }
+
+    /**
+     * Endpoint para BORRAR todas las localizaciones de un concesionario, por bloques y con progreso.
+     * Mapeado a: DELETE /api/v1/exhibition-locations/dealer?cdisoloc=...&cdcompany=...&cddealer=...
+     *
+     * @return Status 200 OK con un {@link PurgeProgress} por bloque borrado y uno final, en NDJSON.
+     */
+    @DeleteMapping(value = "/dealer", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> purgeDealerExhibitionLocations(
+            @RequestParam String cdisoloc, @RequestParam BigDecimal cdcompany, @RequestParam BigDecimal cddealer) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonStreamer.<PurgeProgress>stream(cdisoloc, progress ->
+                        wexhvlocService.purgeDealerExhibitionLocations(cdisoloc, cdcompany, cddealer, progress)));
+    }
+
+    /**
+     * Endpoint para LISTAR las localizaciones de un país expuestas en una fecha.
+     * Mapeado a: GET /api/v1/exhibition-locations/active?cdisoloc=...&date=yyyymmdd[&cdcompany=...&cddealer=...]
+     *
+     * @param cdisoloc  País.
+     * @param date      Fecha yyyymmdd.
+     * @param cdcompany Compañía (opcional).
+     * @param cddealer  Concesionario (opcional).
+     * @return Status 200 OK con la clave y las fechas de cada periodo activo; 400 Bad Request si la fecha no es válida.
+     */
+    @GetMapping("/active")
+    public ResponseEntity<List<ExhibitionPeriod>> findActiveExhibitionPeriods(
+            @RequestParam String cdisoloc, @RequestParam int date,
+            @RequestParam(required = false) Integer cdcompany, @RequestParam(required = false) Integer cddealer) {
+        return ResponseEntity.ok(wexhvlocService.findActiveExhibitionPeriods(cdisoloc, date, cdcompany, cddealer));
+    }
+
+    /**
+     * Endpoint para LISTAR las localizaciones de un país cuyo periodo de exposición se solapa con un rango de fechas.
+     * Mapeado a: GET /api/v1/exhibition-locations/overlapping?cdisoloc=...&from=yyyymmdd&to=yyyymmdd[&cdcompany=...&cddealer=...]
+     *
+     * @param cdisoloc  País.
+     * @param from      Fecha inicial yyyymmdd (incluida).
+     * @param to        Fecha final yyyymmdd (incluida).
+     * @param cdcompany Compañía (opcional).
+     * @param cddealer  Concesionario (opcional).
+     * @return Status 200 OK con los periodos; 400 Bad Request si las fechas no son válidas.
+     */
+    @GetMapping("/overlapping")
+    public ResponseEntity<List<ExhibitionPeriod>> findOverlappingExhibitionPeriods(
+            @RequestParam String cdisoloc, @RequestParam int from, @RequestParam int to,
+            @RequestParam(required = false) Integer cdcompany, @RequestParam(required = false) Integer cddealer) {
+        return ResponseEntity.ok(wexhvlocService.findOverlappingExhibitionPeriods(cdisoloc, from, to, cdcompany, cddealer));
+    }
+
+    /**
+     * Endpoint para SUSCRIBIRSE a los cambios de un país (Server-Sent Events).
+     * Mapeado a: GET /api/v1/exhibition-locations/changes?cdisoloc=...[&cdcompany=...&cddealer=...]
+     *
+     * <p>Eventos: {@code ready} (suscripción activa), {@code upserted}, {@code updated}, {@code deleted} y
+     * {@code resync} (se han perdido eventos: hay que recargar). El id de cada evento es su TSLSTUPD (las
+     * bajas no llevan id); para reanudar, se envía en la cabecera {@code Last-Event-ID} (el navegador lo hace
+     * solo) o en {@code since}. Al reanudar, una fila puede llegar repetida, pero no se pierde.</p>
+     *
+     * @param cdisoloc    País.
+     * @param cdcompany   Compañía (opcional).
+     * @param cddealer    Concesionario (opcional).
+     * @param lastEventId Id del último evento recibido (opcional).
+     * @param since       Alternativa a {@code Last-Event-ID} para clientes que no pueden enviar cabeceras.
+     * @return El flujo de eventos; 400 Bad Request si el token de reanudación no es una fecha válida;
+     *         404 Not Found si el país no tiene base de datos configurada.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToChanges(@RequestParam String cdisoloc,
+                                         @RequestParam(required = false) Integer cdcompany,
+                                         @RequestParam(required = false) Integer cddealer,
+                                         @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                         @RequestParam(required = false) String since) {
+        String token = lastEventId != null && !lastEventId.isBlank() ? lastEventId : since;
+        LocalDateTime resumeFrom = null;
+        if (token != null && !token.isBlank()) {
+            try {
+                resumeFrom = LocalDateTime.parse(token.trim());
+            } catch (DateTimeParseException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Token de reanudación no válido: " + token, e);
+            }
+        }
+        return changeFeed.subscribe(cdisoloc, cdcompany, cddealer, resumeFrom);
+    }
+
     /**
      * Endpoint para ACTUALIZAR una localización de exhibición existente.
      * Mapeado a: PUT /api/v1/exhibition-locations
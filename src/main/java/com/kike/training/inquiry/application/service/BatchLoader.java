@@ -0,0 +1,274 @@
+package com.kike.training.inquiry.application.service;
+
+import com.kike.training.inquiry.infrastructure.db.config.TenantExecutor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Agrupador de lecturas por clave ("micro-batching", al estilo DataLoader): junta las búsquedas de
+ * claves DISTINTAS que llegan casi a la vez y las resuelve con UNA consulta de varias claves.
+ *
+ * ¿POR QUÉ EXISTE?
+ * Aunque exista {@code _mget}, muchos caminos del servidor siguen buscando registros de uno en uno
+ * (N peticiones, N consultas). Con tráfico alto, cada consulta paga su ida y vuelta al AS400 y su turno
+ * en el pool del país, aunque todas pudieran ir en la misma sentencia.
+ *
+ * ¿CÓMO FUNCIONA?
+ * Es la lectura gemela de {@link WexhvlocGroupCommitter}:
+ * - Las búsquedas de un mismo país se encolan; la primera de una ráfaga programa un envío dentro de
+ *   {@code window-micros}, y si antes se juntan {@code max-batch} búsquedas, el envío sale en el acto.
+ * - El planificador compartido solo mide la ventana: las consultas se ejecutan en el hilo de envío
+ *   del país ({@link BatchLoaders}), así que un país lento no retrasa los envíos de los demás. Por país
+ *   hay como mucho un envío en marcha o pendiente; ese envío vacía la cola en grupos de {@code max-batch}.
+ * - Un envío ejecuta la función de lote (una consulta {@code IN} o de claves con OR) en el contexto del
+ *   país y completa el future de cada llamante con el valor de SU clave ({@code null} si no existe).
+ * - Si la consulta falla, todas las búsquedas del envío reciben ese mismo error.
+ * - Cada llamante espera como mucho {@code timeout-ms}; si se agota, recibe un 503.
+ * - Si el llamante está dentro de una transacción, NO se agrupa: la consulta del lote iría por otra
+ *   conexión y no vería los cambios aún sin confirmar de esa transacción.
+ * - Un país sin DataSource configurado tampoco se agrupa (ni crea cola ni métricas): va directo, y la
+ *   búsqueda directa decide qué hacer con él.
+ *
+ * Complementa al {@link SingleFlight}, que va delante: este agrupa claves distintas; aquel, claves iguales.
+ *
+ * MÉTRICAS (Micrometer, etiquetas {@code lookup} y {@code tenant}):
+ * - {@code inquiry.batch_loader.batch.size} (histograma): claves distintas por consulta.
+ * - {@code inquiry.batch_loader.wait} (histograma de tiempos): espera de cada búsqueda hasta su envío.
+ *
+ * Se crea con {@link BatchLoaders#create}, que comparte configuración, planificador e hilos de envío entre todos.
+ */
+@Slf4j
+final class BatchLoader<K, V> {
+
+    private final String lookup;
+    private final Function<List<K>, Map<K, V>> batchFunction;
+    private final TenantExecutor tenantExecutor;
+    private final ScheduledExecutorService scheduler;
+    private final Function<String, Executor> dispatchers;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long windowMicros;
+    private final int maxBatch;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+    private final Map<String, TenantQueue<K, V>> queues = new ConcurrentHashMap<>();
+
+    /**
+     * @param scheduler   Solo programa el final de cada ventana; nunca ejecuta consultas.
+     * @param dispatchers Hilo de envío de cada país, donde se ejecutan sus consultas.
+     */
+    BatchLoader(String lookup, Function<List<K>, Map<K, V>> batchFunction, TenantExecutor tenantExecutor,
+                ScheduledExecutorService scheduler, Function<String, Executor> dispatchers, MeterRegistry meterRegistry,
+                boolean enabled, long windowMicros, int maxBatch, int queueCapacity, long timeoutMillis) {
+        this.lookup = lookup;
+        this.batchFunction = batchFunction;
+        this.tenantExecutor = tenantExecutor;
+        this.scheduler = scheduler;
+        this.dispatchers = dispatchers;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.windowMicros = windowMicros;
+        this.maxBatch = maxBatch;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Devuelve el valor de la clave, resolviéndolo junto con las demás búsquedas del país que lleguen
+     * en la misma ventana. Si no se puede agrupar (agrupación desactivada, sin país o país desconocido,
+     * dentro de una transacción o cola llena), se resuelve solo con {@code direct} en el hilo actual.
+     *
+     * @param tenant País de la clave.
+     * @param key    Clave a buscar; debe ser comparable con {@code equals} con las que devuelve la función de lote.
+     * @param direct Búsqueda de una sola clave, en el contexto del país ya establecido.
+     * @return El valor, o {@code null} si la clave no existe.
+     * @throws ResponseStatusException (503) si el grupo no se resuelve en {@code timeout-ms}.
+     */
+    V load(String tenant, K key, Supplier<V> direct) {
+        if (!enabled || tenant == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return direct.get();
+        }
+        TenantQueue<K, V> queue = queueFor(tenant.toUpperCase());
+        if (queue == null) {
+            return direct.get();
+        }
+        PendingLookup<K, V> pending = new PendingLookup<>(key, System.nanoTime(), new CompletableFuture<>());
+        if (!queue.lookups.offer(pending)) {
+            // Una lectura siempre puede ir sola: con la cola llena no se rechaza, se deja de agrupar.
+            return direct.get();
+        }
+        if (queue.lookups.size() >= maxBatch) {
+            requestDrain(queue);
+        } else if (queue.windowScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(() -> {
+                queue.windowScheduled.set(false);
+                requestDrain(queue);
+            }, windowMicros, TimeUnit.MICROSECONDS);
+        }
+        return await(queue, pending);
+    }
+
+    /**
+     * Cola del país, o {@code null} si el país no tiene DataSource: así una petición con un país
+     * cualquiera no registra métricas nuevas. La lista de países solo se consulta la primera vez.
+     */
+    private TenantQueue<K, V> queueFor(String tenant) {
+        TenantQueue<K, V> queue = queues.get(tenant);
+        if (queue != null || !tenantExecutor.getTenants().contains(tenant)) {
+            return queue;
+        }
+        return queues.computeIfAbsent(tenant, this::newQueue);
+    }
+
+    /**
+     * Espera el valor como mucho {@code timeout-ms}. Si se agota y la búsqueda aún no había salido, se
+     * retira de la cola para que ningún envío posterior la resuelva en balde.
+     */
+    private V await(TenantQueue<K, V> queue, PendingLookup<K, V> pending) {
+        try {
+            return pending.result().get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            queue.lookups.remove(pending);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "La lectura agrupada no se ha resuelto en " + timeoutMillis + " ms.");
+        } catch (InterruptedException e) {
+            queue.lookups.remove(pending);
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Espera de la lectura agrupada interrumpida.");
+        }
+    }
+
+    private TenantQueue<K, V> newQueue(String tenant) {
+        return new TenantQueue<>(tenant, new ArrayBlockingQueue<>(queueCapacity),
+                DistributionSummary.builder("inquiry.batch_loader.batch.size")
+                        .description("Claves distintas resueltas por cada consulta del agrupador de lecturas")
+                        .tag("lookup", lookup)
+                        .tag("tenant", tenant)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                Timer.builder("inquiry.batch_loader.wait")
+                        .description("Espera de cada lectura hasta que sale la consulta de su grupo")
+                        .tag("lookup", lookup)
+                        .tag("tenant", tenant)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    /**
+     * Encarga al hilo de envío del país que vacíe su cola, salvo que ya haya un envío en marcha o pendiente
+     * (que también recogerá lo que acaba de llegar).
+     */
+    private void requestDrain(TenantQueue<K, V> queue) {
+        if (queue.draining.compareAndSet(false, true)) {
+            dispatchers.apply(queue.tenant).execute(() -> drain(queue));
+        }
+    }
+
+    /**
+     * Vacía la cola de un país en consultas de hasta {@code maxBatch} búsquedas, en el contexto del país.
+     */
+    private void drain(TenantQueue<K, V> queue) {
+        try {
+            tenantExecutor.runInTenant(queue.tenant, () -> {
+                List<PendingLookup<K, V>> batch = new ArrayList<>(maxBatch);
+                while (true) {
+                    if (queue.lookups.drainTo(batch, maxBatch) == 0) {
+                        // Se desmarca y se vuelve a mirar: lo que llegue justo entre medias no se queda sin envío.
+                        queue.draining.set(false);
+                        if (queue.lookups.isEmpty() || !queue.draining.compareAndSet(false, true)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    dispatch(queue, batch);
+                    batch.clear();
+                }
+            });
+        } catch (RuntimeException e) {
+            queue.draining.set(false);
+            log.error("Error inesperado en el agrupador de lecturas '{}' de '{}'.", lookup, queue.tenant, e);
+        }
+    }
+
+    /**
+     * Vacía las colas de todos los países en el hilo actual (al parar la aplicación: ninguna búsqueda se
+     * queda sin respuesta). Las colas con un envío en marcha las termina ese envío.
+     */
+    void flushAll() {
+        queues.values().forEach(queue -> {
+            if (queue.draining.compareAndSet(false, true)) {
+                drain(queue);
+            }
+        });
+    }
+
+    /**
+     * Resuelve un grupo de búsquedas con una llamada a la función de lote y reparte los valores.
+     */
+    private void dispatch(TenantQueue<K, V> queue, List<PendingLookup<K, V>> batch) {
+        long start = System.nanoTime();
+        batch.forEach(pending -> queue.waits.record(start - pending.enqueuedAt(), TimeUnit.NANOSECONDS));
+        try {
+            List<K> keys = batch.stream().map(PendingLookup::key).distinct().toList();
+            Map<K, V> values = batchFunction.apply(keys);
+            queue.batchSizes.record(keys.size());
+            batch.forEach(pending -> pending.result().complete(values.get(pending.key())));
+            log.debug("Agrupador '{}' de '{}': {} búsquedas, {} claves en {} ms.",
+                    lookup, queue.tenant, batch.size(), keys.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    // =====================================
+    // = Estructuras internas              =
+    // =====================================
+
+    private record PendingLookup<K, V>(K key, long enqueuedAt, CompletableFuture<V> result) {
+    }
+
+    private static final class TenantQueue<K, V> {
+        private final String tenant;
+        private final BlockingQueue<PendingLookup<K, V>> lookups;
+        private final DistributionSummary batchSizes;
+        private final Timer waits;
+        /** Hay una ventana programada en el planificador. */
+        private final AtomicBoolean windowScheduled = new AtomicBoolean();
+        /** Hay un envío en marcha o pendiente en el hilo de envío del país. */
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private TenantQueue(String tenant, BlockingQueue<PendingLookup<K, V>> lookups,
+                            DistributionSummary batchSizes, Timer waits) {
+            this.tenant = tenant;
+            this.lookups = lookups;
+            this.batchSizes = batchSizes;
+            this.waits = waits;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.kike.training.inquiry.application.service;
+
+import com.kike.training.inquiry.infrastructure.db.config.TenantExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+
+/**
+ * Crea los {@link BatchLoader} de los servicios con una configuración, un planificador y unos hilos de
+ * envío comunes.
+ *
+ * El planificador ({@code threads} hilos "batch-loader-") solo marca el final de cada ventana. Las
+ * consultas van en un hilo de envío por país ("batch-loader-&lt;PAÍS&gt;"), que se crea la primera vez que
+ * el país lo necesita: un país lento solo retrasa sus propias lecturas, y estos hilos no compiten con
+ * el pool del {@link TenantExecutor} (donde una lectura agrupada podría acabar esperando a una tarea
+ * encolada detrás de ella misma).
+ *
+ * Es opcional ({@code inquiry.batch-loader.enabled}, desactivado por defecto): a cambio de menos
+ * consultas, cada lectura por clave puede esperar hasta {@code window-micros} antes de empezar.
+ * Desactivado, los agrupadores existen pero cada lectura va directa a la base de datos.
+ */
+@Component
+@Slf4j
+public class BatchLoaders {
+
+    private final TenantExecutor tenantExecutor;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long windowMicros;
+    private final int maxBatch;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, ExecutorService> dispatchers = new ConcurrentHashMap<>();
+    private final List<BatchLoader<?, ?>> loaders = new CopyOnWriteArrayList<>();
+
+    public BatchLoaders(TenantExecutor tenantExecutor,
+                        MeterRegistry meterRegistry,
+                        @Value("${inquiry.batch-loader.enabled:false}") boolean enabled,
+                        @Value("${inquiry.batch-loader.window-micros:500}") long windowMicros,
+                        @Value("${inquiry.batch-loader.max-batch:100}") int maxBatch,
+                        @Value("${inquiry.batch-loader.queue-capacity:2000}") int queueCapacity,
+                        @Value("${inquiry.batch-loader.timeout-ms:5000}") long timeoutMillis,
+                        @Value("${inquiry.batch-loader.threads:1}") int threads) {
+        this.tenantExecutor = tenantExecutor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.windowMicros = windowMicros;
+        this.maxBatch = maxBatch;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+        this.scheduler = Executors.newScheduledThreadPool(threads,
+                Thread.ofPlatform().name("batch-loader-", 0).daemon(true).factory());
+        if (enabled) {
+            log.info("Agrupación de lecturas por clave activada: ventana de {} µs, hasta {} claves por consulta.", windowMicros, maxBatch);
+        }
+    }
+
+    /**
+     * Crea un agrupador de lecturas.
+     *
+     * @param lookup        Nombre de la lectura, para la etiqueta {@code lookup} de las métricas.
+     * @param batchFunction Resuelve varias claves del país actualmente enrutado con una consulta; las
+     *                      claves que no existen no aparecen en el mapa.
+     */
+    <K, V> BatchLoader<K, V> create(String lookup, Function<List<K>, Map<K, V>> batchFunction) {
+        BatchLoader<K, V> loader = new BatchLoader<>(lookup, batchFunction, tenantExecutor, scheduler, this::dispatcher,
+                meterRegistry, enabled, windowMicros, maxBatch, queueCapacity, timeoutMillis);
+        loaders.add(loader);
+        return loader;
+    }
+
+    /**
+     * Hilo de envío del país. Solo se pide para países con DataSource, así que hay uno por país como mucho.
+     */
+    private ExecutorService dispatcher(String tenant) {
+        return dispatchers.computeIfAbsent(tenant, t -> Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("batch-loader-" + t).daemon(true).factory()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Se vacían las colas antes de parar: ninguna lectura encolada se queda sin respuesta.
+        scheduler.shutdown();
+        loaders.forEach(BatchLoader::flushAll);
+        dispatchers.values().forEach(ExecutorService::shutdown);
+    }
+}
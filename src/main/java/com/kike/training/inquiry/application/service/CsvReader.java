@@ -0,0 +1,140 @@
+package com.kike.training.inquiry.application.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de CSV (RFC 4180) incremental: devuelve un registro cada vez, leyendo del {@link Reader}
+ * solo lo necesario, así que nunca tiene el fichero entero en memoria.
+ *
+ * <p>Admite campos entre comillas con comas, comillas dobladas ({@code ""}) y saltos de línea dentro.
+ * Las líneas vacías se ignoran. Para que un fichero mal formado (por ejemplo, una comilla sin cerrar)
+ * no haga crecer la memoria sin límite, un campo no puede superar {@link #MAX_FIELD_LENGTH} caracteres:
+ * el resto del registro se lee sin guardarlo y solo ESE registro se rechaza; el siguiente
+ * {@link #next()} continúa con el registro que le sigue.</p>
+ */
+final class CsvReader {
+
+    static final int MAX_FIELD_LENGTH = 10_000;
+
+    private final Reader reader;
+    private long line = 1;
+    private long recordLine;
+    /** Algún campo del registro en curso ha superado {@link #MAX_FIELD_LENGTH}. */
+    private boolean tooLong;
+    /** Carácter leído de más al mirar qué sigue a una comilla; -2 si no hay ninguno. */
+    private int lookahead = -2;
+
+    CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Número de línea (empezando en 1) donde empieza el último registro devuelto por {@link #next()}.
+     */
+    long recordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Lee el siguiente registro.
+     *
+     * @return Los campos del registro, o {@code null} al final del fichero.
+     * @throws IllegalArgumentException si un campo supera {@link #MAX_FIELD_LENGTH} caracteres. El registro
+     *                                  ya se ha consumido entero, y {@link #recordLine()} indica dónde empezaba.
+     */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean any = false;
+        recordLine = line;
+        tooLong = false;
+
+        int c;
+        while ((c = read()) != -1) {
+            any = true;
+            if (inQuotes) {
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        lookahead = following;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    append(field, (char) c);
+                }
+                continue;
+            }
+            switch (c) {
+                case ',' -> {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                }
+                case '"' -> {
+                    if (field.isEmpty()) {
+                        inQuotes = true;
+                    } else {
+                        append(field, '"');
+                    }
+                }
+                case '\r' -> {
+                    // Se ignora: los saltos de línea Windows (\r\n) terminan en el '\n'.
+                }
+                case '\n' -> {
+                    line++;
+                    if (fields.isEmpty() && field.isEmpty()) {
+                        // Línea vacía: no es un registro.
+                        recordLine = line;
+                        any = false;
+                        continue;
+                    }
+                    fields.add(field.toString());
+                    return complete(fields);
+                }
+                default -> append(field, (char) c);
+            }
+        }
+        if (!any || (fields.isEmpty() && field.isEmpty())) {
+            return null;
+        }
+        fields.add(field.toString());
+        return complete(fields);
+    }
+
+    /**
+     * Devuelve el registro ya leído, o lo rechaza si algún campo se ha truncado.
+     */
+    private List<String> complete(List<String> fields) {
+        if (tooLong) {
+            throw new IllegalArgumentException("Campo de más de " + MAX_FIELD_LENGTH + " caracteres (¿comillas sin cerrar?).");
+        }
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (lookahead != -2) {
+            int c = lookahead;
+            lookahead = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void append(StringBuilder field, char c) {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            // No se lanza aquí: hay que llegar al final del registro para que el siguiente empiece bien.
+            tooLong = true;
+            return;
+        }
+        field.append(c);
+    }
+}
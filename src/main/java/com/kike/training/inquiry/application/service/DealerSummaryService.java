@@ -0,0 +1,231 @@
+package com.kike.training.inquiry.application.service;
+
+import com.kike.training.inquiry.domain.model.DealerSummary;
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.domain.port.out.DealerSummaryRepository;
+import com.kike.training.inquiry.infrastructure.db.config.TenantExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Mantenimiento y lectura del resumen por concesionario de WEXHVLOC (tabla WEXHVLOC_DEALER_SUMMARY,
+ * migración V5): número de localizaciones, primer DTINILOC y último DTFINLOC de cada concesionario.
+ *
+ * ¿POR QUÉ EXISTE?
+ * Los cuadros de mando pedían esos datos con un {@code COUNT/MIN/MAX} sobre WEXHVLOC en cada carga.
+ * Con el resumen, cada consulta es la lectura de UNA fila por clave primaria.
+ *
+ * ¿CÓMO FUNCIONA?
+ * - Los servicios que escriben en WEXHVLOC llaman a este servicio DENTRO de su transacción, así que
+ *   el resumen se confirma o se deshace junto con las filas:
+ *   - Altas ({@link #locationsInserted}): incremento puro, sin leer WEXHVLOC (suma el número de
+ *     filas y amplía el rango de fechas).
+ *   - Upserts y bajas ({@link #dealersChanged}): no se sabe cuántas filas eran nuevas ni si la fecha
+ *     borrada era el mínimo, así que se recalcula el concesionario afectado, leyendo solo su tramo
+ *     del índice de la clave.
+ *   - Las actualizaciones de {@code WexhvlocService#updateExhibitionLocation} no tocan fechas ni número
+ *     de filas: no cambian el resumen.
+ * - {@link #rebuild} lo recalcula entero, por bloques de concesionarios y con una transacción por
+ *   bloque, para corregir cualquier desviación (p. ej., escrituras hechas por fuera de la aplicación).
+ *   Puede ejecutarse con tráfico: ver {@link #rebuild} para cómo convive con los incrementos.
+ * - Con {@code wexhvloc.dealer-summary.enabled=false} (el valor por defecto) no se mantiene ni se
+ *   puede consultar.
+ *
+ * ACTIVACIÓN:
+ * Flyway solo crea la tabla en las bases H2 (perfiles local, test y la simulación 'localOS'), y ahí se
+ * activa. En DB2 for i hay que crearla y cargarla ANTES de activar el resumen; si no, cada escritura
+ * fallaría al mantenerlo. El DDL es el de la migración V5:
+ * <pre>
+ * CREATE TABLE WEXHVLOC_DEALER_SUMMARY (
+ *     CDISOLOC  CHAR(2)    DEFAULT ' ' NOT NULL,
+ *     CDCOMPANY NUMERIC(1) DEFAULT 0   NOT NULL,
+ *     CDDEALER  NUMERIC(5) DEFAULT 0   NOT NULL,
+ *     NBLOCS    DECIMAL(9) DEFAULT 0   NOT NULL,
+ *     DTINIMIN  DECIMAL(8) DEFAULT 0   NOT NULL,
+ *     DTFINMAX  DECIMAL(8) DEFAULT 0   NOT NULL,
+ *     TSLSTUPD  TIMESTAMP  DEFAULT CURRENT_TIMESTAMP NOT NULL,
+ *     CONSTRAINT WEXHVLOC_DEALER_SUMMARY_PK PRIMARY KEY (CDISOLOC, CDCOMPANY, CDDEALER)
+ * );
+ * </pre>
+ * Después se activa {@code wexhvloc.dealer-summary.enabled=true} en el perfil del entorno y se lanza
+ * {@link #rebuild} en cada país para la carga inicial.
+ */
+@Service
+@Slf4j
+public class DealerSummaryService {
+
+    /**
+     * Intentos de cada bloque de {@link #rebuild} antes de dar el error por bueno.
+     */
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    private final DealerSummaryRepository dealerSummaryRepository;
+    private final TenantExecutor tenantExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int rebuildChunkDealers;
+
+    public DealerSummaryService(DealerSummaryRepository dealerSummaryRepository,
+                                TenantExecutor tenantExecutor,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${wexhvloc.dealer-summary.enabled:false}") boolean enabled,
+                                @Value("${wexhvloc.dealer-summary.rebuild-chunk-dealers:500}") int rebuildChunkDealers) {
+        this.dealerSummaryRepository = dealerSummaryRepository;
+        this.tenantExecutor = tenantExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.rebuildChunkDealers = rebuildChunkDealers;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // =====================================
+    // = Mantenimiento incremental         =
+    // =====================================
+
+    /**
+     * Suma al resumen las filas recién insertadas. Debe llamarse en la transacción del INSERT.
+     */
+    public void locationsInserted(List<Wexhvloc> rows) {
+        if (!enabled) {
+            return;
+        }
+        Map<DealerKey, long[]> deltas = new LinkedHashMap<>();
+        for (Wexhvloc row : rows) {
+            // [filas, menor DTINILOC, mayor DTFINLOC]
+            long[] delta = deltas.computeIfAbsent(DealerKey.of(row), k -> new long[]{0, Integer.MAX_VALUE, 0});
+            int end = toInt(row.getDtfinloc());
+            delta[0]++;
+            delta[1] = Math.min(delta[1], toInt(row.getDtiniloc()));
+            delta[2] = Math.max(delta[2], end == 0 ? DealerSummary.OPEN_END : end);
+        }
+        deltas.forEach((dealer, delta) -> dealerSummaryRepository.addLocations(
+                dealer.cdisoloc(), dealer.cdcompany(), dealer.cddealer(), delta[0], (int) delta[1], (int) delta[2]));
+    }
+
+    /**
+     * Recalcula el resumen de los concesionarios de las filas indicadas (upserts y bajas; de las bajas
+     * basta con la clave). Debe llamarse en la transacción de la escritura, DESPUÉS de ejecutarla.
+     */
+    public void dealersChanged(List<Wexhvloc> rows) {
+        if (!enabled) {
+            return;
+        }
+        Set<DealerKey> dealers = new LinkedHashSet<>();
+        rows.forEach(row -> dealers.add(DealerKey.of(row)));
+        dealers.forEach(dealer -> dealerSummaryRepository.refresh(dealer.cdisoloc(), dealer.cdcompany(), dealer.cddealer()));
+    }
+
+    // =====================================
+    // = Consulta y reconstrucción         =
+    // =====================================
+
+    /**
+     * Resumen de un concesionario del país actualmente enrutado.
+     *
+     * @throws ResponseStatusException 503 si el resumen está desactivado.
+     */
+    public Optional<DealerSummary> find(String cdisoloc, int cdcompany, int cddealer) {
+        requireEnabled();
+        return dealerSummaryRepository.find(cdisoloc, cdcompany, cddealer);
+    }
+
+    /**
+     * Recalcula el resumen de un país entero, por bloques de {@code rebuild-chunk-dealers} concesionarios.
+     * Cada bloque se calcula y se sustituye en su propia transacción, así que ni se bloquea la tabla de
+     * resumen entera ni se mantiene una transacción larga abierta.
+     *
+     * <p>Concurrencia con las escrituras: un bloque primero BORRA su rango del resumen y solo después
+     * vuelve a agregar WEXHVLOC para insertarlo ({@link DealerSummaryRepository#rebuildRange}). El
+     * borrado bloquea las filas del rango hasta el commit, así que:</p>
+     * <ul>
+     *   <li>Una escritura que ya había tocado el resumen hace esperar al borrado hasta su commit, y el
+     *       agregado posterior ya ve sus filas.</li>
+     *   <li>Una escritura que llega después espera al commit del bloque y suma su incremento sobre el
+     *       valor reconstruido, que no incluía sus filas aún sin confirmar.</li>
+     * </ul>
+     * <p>Así ningún incremento se pierde. El único choque posible es que una escritura cree a la vez el
+     * resumen de un concesionario que no lo tenía: el bloque falla con clave duplicada y se repite.</p>
+     *
+     * @param tenant País.
+     * @return Número de concesionarios resumidos.
+     * @throws ResponseStatusException 503 si el resumen está desactivado.
+     */
+    public long rebuild(String tenant) {
+        requireEnabled();
+        return tenantExecutor.callInTenant(tenant, () -> {
+            long start = System.nanoTime();
+            long dealers = 0;
+            DealerSummary after = null;
+            while (true) {
+                DealerSummary from = after;
+                List<DealerSummary> chunk = rebuildChunk(from);
+                dealers += chunk.size();
+                if (chunk.size() < rebuildChunkDealers) {
+                    break;
+                }
+                after = chunk.get(chunk.size() - 1);
+            }
+            log.info("Resumen por concesionario de '{}' reconstruido: {} concesionarios en {} ms.",
+                    tenant, dealers, (System.nanoTime() - start) / 1_000_000);
+            return dealers;
+        });
+    }
+
+    /**
+     * Reconstruye el bloque de concesionarios que sigue a {@code from}, repitiéndolo si choca con la
+     * creación simultánea del resumen de un concesionario (ver {@link #rebuild}).
+     */
+    private List<DealerSummary> rebuildChunk(DealerSummary from) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    // La consulta sin bloqueos solo fija el rango del bloque; los valores los agrega rebuildRange.
+                    List<DealerSummary> computed = dealerSummaryRepository.computeChunk(from, rebuildChunkDealers);
+                    // El último bloque (incompleto) llega hasta el final: borra también los concesionarios sobrantes.
+                    DealerSummary last = computed.size() < rebuildChunkDealers ? null : computed.get(computed.size() - 1);
+                    dealerSummaryRepository.rebuildRange(from, last);
+                    return computed;
+                });
+            } catch (DuplicateKeyException e) {
+                if (attempt >= MAX_CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Bloque del resumen tras {} en conflicto con una escritura; se repite.", from, e);
+            }
+        }
+    }
+
+    private void requireEnabled() {
+        if (!enabled) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "El resumen por concesionario está desactivado (wexhvloc.dealer-summary.enabled).");
+        }
+    }
+
+    private static int toInt(BigDecimal value) {
+        return value == null ? 0 : value.intValue();
+    }
+
+    private record DealerKey(String cdisoloc, int cdcompany, int cddealer) {
+        static DealerKey of(Wexhvloc row) {
+            return new DealerKey(row.getCdisoloc().trim(), toInt(row.getCdcompany()), toInt(row.getCddealer()));
+        }
+    }
+}
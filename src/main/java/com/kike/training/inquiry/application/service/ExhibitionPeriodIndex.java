@@ -0,0 +1,385 @@
+package com.kike.training.inquiry.application.service;
+
+import com.kike.training.inquiry.domain.model.ExhibitionPeriod;
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.domain.model.WexhvlocChangeEvent;
+import com.kike.training.inquiry.domain.model.WexhvlocKey;
+import com.kike.training.inquiry.domain.port.out.WexhvlocRepository;
+import com.kike.training.inquiry.infrastructure.db.config.DataSourceContextHolder;
+import com.kike.training.inquiry.infrastructure.db.config.TenantExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice en memoria, por país, de los periodos de exposición (DTINILOC–DTFINLOC) de WEXHVLOC.
+ *
+ * ¿POR QUÉ EXISTE?
+ * Preguntas como "¿qué hay expuesto en el concesionario X el día D?" son, en SQL, un
+ * {@code DTINILOC <= D AND DTFINLOC >= D} que ningún índice resuelve bien en el AS400.
+ * Aquí se contestan en memoria en O(log n + k).
+ *
+ * ¿CÓMO FUNCIONA?
+ * - Cada país tiene una "foto" inmutable: arrays paralelos de enteros primitivos (fechas yyyymmdd,
+ *   compañía y concesionario) ordenados por fecha de inicio, vistos como un árbol binario implícito
+ *   (la raíz de [lo, hi] es el punto medio) y aumentados con la fecha de fin máxima de cada subárbol.
+ *   Una búsqueda descarta cualquier subárbol cuya fecha de fin máxima sea anterior a la pedida.
+ * - La foto se construye la primera vez que se consulta un país, leyendo solo la clave y las fechas.
+ *   Solo para países con DataSource: uno desconocido es un 404, no una foto del país por defecto.
+ * - Las escrituras de {@link WexhvlocService} llegan como {@link WexhvlocChangeEvent} tras el commit y se
+ *   guardan en un pequeño mapa de cambios pendientes que prevalece sobre la foto. Cuando ese mapa
+ *   crece, se funde con la foto en memoria (sin volver a la base de datos).
+ * - Esos eventos solo cubren las escrituras de ESTA instancia. Las de otros pods o las hechas por fuera
+ *   de la aplicación no llegan, así que la foto se vuelve a leer de la base de datos cuando tiene más
+ *   de {@code wexhvloc.period-index.max-staleness-ms}. La relectura la hace la consulta que la detecta;
+ *   las demás siguen leyendo la foto anterior mientras tanto, y los cambios que llegan durante la
+ *   relectura se conservan como pendientes de la foto nueva.
+ */
+@Component
+@Slf4j
+public class ExhibitionPeriodIndex {
+
+    /**
+     * Número de cambios pendientes a partir del cual se reconstruye la foto de un país.
+     */
+    static final int REBUILD_THRESHOLD = 1024;
+
+    /**
+     * DTFINLOC = 0 significa "sin fecha de fin": se indexa como la fecha más lejana posible.
+     */
+    private static final int OPEN_END = Integer.MAX_VALUE;
+
+    private final WexhvlocRepository wexhvlocRepository;
+    private final TenantExecutor tenantExecutor;
+    private final long maxStalenessNanos;
+    private final Map<String, TenantIndex> tenants = new ConcurrentHashMap<>();
+
+    public ExhibitionPeriodIndex(WexhvlocRepository wexhvlocRepository,
+                                 TenantExecutor tenantExecutor,
+                                 @Value("${wexhvloc.period-index.max-staleness-ms:300000}") long maxStalenessMillis) {
+        this.wexhvlocRepository = wexhvlocRepository;
+        this.tenantExecutor = tenantExecutor;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis);
+    }
+
+    // =====================================
+    // = Consultas                         =
+    // =====================================
+
+    /**
+     * Periodos del país actual (el del contexto de enrutamiento) activos en la fecha indicada.
+     *
+     * @param date      Fecha yyyymmdd.
+     * @param cdcompany Compañía, o {@code null} para no filtrar.
+     * @param cddealer  Concesionario, o {@code null} para no filtrar.
+     */
+    public List<ExhibitionPeriod> activeOn(int date, Integer cdcompany, Integer cddealer) {
+        return overlapping(date, date, cdcompany, cddealer);
+    }
+
+    /**
+     * Periodos del país actual que se solapan con el rango [from, to] (ambos incluidos).
+     *
+     * @param from      Fecha inicial yyyymmdd.
+     * @param to        Fecha final yyyymmdd.
+     * @param cdcompany Compañía, o {@code null} para no filtrar.
+     * @param cddealer  Concesionario, o {@code null} para no filtrar.
+     */
+    public List<ExhibitionPeriod> overlapping(int from, int to, Integer cdcompany, Integer cddealer) {
+        TenantIndex index = tenantIndex(DataSourceContextHolder.getBranchContext());
+        index.lock.readLock().lock();
+        try {
+            List<ExhibitionPeriod> result = new ArrayList<>();
+            Snapshot snapshot = index.snapshot;
+            snapshot.collect(0, snapshot.size() - 1, from, to, cdcompany, cddealer, index.pending, result);
+            // Los cambios pendientes (altas y modificaciones posteriores a la foto) se revisan uno a uno.
+            for (Entry entry : index.pending.values()) {
+                if (entry != Entry.REMOVED && entry.matches(from, to, cdcompany, cddealer)) {
+                    result.add(entry.toPeriod());
+                }
+            }
+            result.sort(Comparator.comparingInt(ExhibitionPeriod::dtiniloc));
+            return result;
+        } finally {
+            index.lock.readLock().unlock();
+        }
+    }
+
+    // =====================================
+    // = Mantenimiento                     =
+    // =====================================
+
+    /**
+     * Aplica al índice las escrituras ya confirmadas. Si el país aún no se ha consultado nunca, no
+     * hay nada que mantener: su foto se construirá desde la base de datos cuando haga falta.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(WexhvlocChangeEvent event) {
+        if (event.type() == WexhvlocChangeEvent.Type.UPDATED) {
+            return; // Las actualizaciones parciales no tocan las fechas.
+        }
+        TenantIndex index = tenants.get(event.tenant());
+        if (index == null) {
+            return;
+        }
+        index.lock.writeLock().lock();
+        try {
+            for (Wexhvloc row : event.rows()) {
+                WexhvlocKey key = WexhvlocKey.of(row).normalized();
+                Entry entry = event.type() == WexhvlocChangeEvent.Type.DELETED ? Entry.REMOVED : Entry.of(key, row);
+                index.pending.put(key, entry);
+                if (index.duringReload != null) {
+                    index.duringReload.put(key, entry);
+                }
+            }
+            if (index.snapshot != null && index.pending.size() >= REBUILD_THRESHOLD) {
+                index.snapshot = index.snapshot.mergedWith(index.pending);
+                index.pending.clear();
+            }
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Descarta el índice de un país; se reconstruirá desde la base de datos en la siguiente consulta.
+     */
+    public void invalidate(String tenant) {
+        tenants.remove(tenant.toUpperCase());
+    }
+
+    /**
+     * Índice del país, construyéndolo desde la base de datos si es la primera vez y releyéndolo si la
+     * foto ha caducado. Se ejecuta dentro del contexto de enrutamiento del país (lo establece el aspecto
+     * del servicio).
+     *
+     * <p>El índice se registra (vacío) ANTES de leer la tabla y se carga con su cerrojo de escritura:
+     * así, un evento que llegue durante la carga espera a que termine y se aplica encima, en lugar de
+     * perderse.</p>
+     *
+     * @throws ResponseStatusException 404 si el país no tiene DataSource.
+     */
+    private TenantIndex tenantIndex(String tenant) {
+        if (tenant == null) {
+            throw new IllegalStateException("No hay país en el contexto de enrutamiento.");
+        }
+        String country = tenant.toUpperCase();
+        TenantIndex index = tenants.get(country);
+        if (index == null) {
+            // Con el enrutamiento permisivo, un país desconocido leería la tabla del país por defecto.
+            if (!tenantExecutor.getTenants().contains(country)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No hay base de datos configurada para el país '" + country + "'.");
+            }
+            index = tenants.computeIfAbsent(country, t -> new TenantIndex());
+        }
+        if (index.snapshot == null) {
+            index.lock.writeLock().lock();
+            try {
+                if (index.snapshot == null) {
+                    index.snapshot = load(country);
+                }
+            } finally {
+                index.lock.writeLock().unlock();
+            }
+        } else if (System.nanoTime() - index.snapshot.loadedAtNanos > maxStalenessNanos
+                && index.reloading.compareAndSet(false, true)) {
+            reload(country, index);
+        }
+        return index;
+    }
+
+    /**
+     * Vuelve a leer la foto del país sin bloquear a las consultas, que siguen usando la anterior. Los
+     * cambios que llegan mientras tanto se guardan aparte y pasan a ser los pendientes de la foto nueva
+     * (los anteriores a la lectura ya están en ella).
+     */
+    private void reload(String tenant, TenantIndex index) {
+        try {
+            index.lock.writeLock().lock();
+            try {
+                index.duringReload = new HashMap<>();
+            } finally {
+                index.lock.writeLock().unlock();
+            }
+            Snapshot fresh = load(tenant);
+            index.lock.writeLock().lock();
+            try {
+                index.snapshot = fresh;
+                index.pending.clear();
+                index.pending.putAll(index.duringReload);
+            } finally {
+                index.duringReload = null;
+                index.lock.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            // Si la relectura falla, se sigue sirviendo la foto anterior y se reintenta en la siguiente consulta.
+            index.lock.writeLock().lock();
+            try {
+                index.duringReload = null;
+            } finally {
+                index.lock.writeLock().unlock();
+            }
+            log.warn("No se ha podido releer el índice de periodos de '{}': {}", tenant, e.getMessage());
+        } finally {
+            index.reloading.set(false);
+        }
+    }
+
+    private Snapshot load(String tenant) {
+        long start = System.nanoTime();
+        List<Entry> entries = new ArrayList<>();
+        wexhvlocRepository.forEachExhibitionPeriod(row -> entries.add(Entry.of(WexhvlocKey.of(row).normalized(), row)));
+        Snapshot snapshot = Snapshot.build(entries, start);
+        log.info("Índice de periodos de '{}' construido: {} localizaciones en {} ms.",
+                tenant, entries.size(), (System.nanoTime() - start) / 1_000_000);
+        return snapshot;
+    }
+
+    private static int toInt(BigDecimal value) {
+        return value == null ? 0 : value.intValue();
+    }
+
+    // =====================================
+    // = Estructuras internas              =
+    // =====================================
+
+    private static final class TenantIndex {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        /** Cambios posteriores a la foto; {@link Entry#REMOVED} marca un borrado. */
+        private final Map<WexhvlocKey, Entry> pending = new HashMap<>();
+        /** Foto de la tabla; {@code null} hasta la primera consulta del país. */
+        private volatile Snapshot snapshot;
+        /** Hay una relectura en marcha. */
+        private final AtomicBoolean reloading = new AtomicBoolean();
+        /** Cambios llegados durante la relectura en marcha; {@code null} si no hay ninguna. */
+        private Map<WexhvlocKey, Entry> duringReload;
+    }
+
+    /**
+     * Un periodo con las fechas y el concesionario ya convertidos a enteros.
+     */
+    private record Entry(WexhvlocKey key, int start, int end, int company, int dealer) {
+
+        private static final Entry REMOVED = new Entry(null, 0, 0, 0, 0);
+
+        static Entry of(WexhvlocKey key, Wexhvloc row) {
+            int end = toInt(row.getDtfinloc());
+            return new Entry(key, toInt(row.getDtiniloc()), end == 0 ? OPEN_END : end,
+                    toInt(row.getCdcompany()), toInt(row.getCddealer()));
+        }
+
+        boolean matches(int from, int to, Integer cdcompany, Integer cddealer) {
+            return start <= to && end >= from
+                    && (cdcompany == null || company == cdcompany)
+                    && (cddealer == null || dealer == cddealer);
+        }
+
+        ExhibitionPeriod toPeriod() {
+            return new ExhibitionPeriod(key, start, end == OPEN_END ? 0 : end);
+        }
+    }
+
+    /**
+     * Foto inmutable de los periodos de un país: árbol de intervalos implícito sobre arrays ordenados por inicio.
+     */
+    private static final class Snapshot {
+        private final Entry[] entries;
+        private final int[] starts;
+        private final int[] ends;
+        /** maxEnd[mid]: fecha de fin máxima del subárbol cuya raíz es mid. */
+        private final int[] maxEnd;
+        /** Momento ({@link System#nanoTime()}) en que se empezó a leer de la base de datos. */
+        private final long loadedAtNanos;
+
+        private Snapshot(Entry[] entries, long loadedAtNanos) {
+            this.entries = entries;
+            this.loadedAtNanos = loadedAtNanos;
+            this.starts = new int[entries.length];
+            this.ends = new int[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                starts[i] = entries[i].start();
+                ends[i] = entries[i].end();
+            }
+            this.maxEnd = new int[entries.length];
+            fillMaxEnd(0, entries.length - 1);
+        }
+
+        static Snapshot build(List<Entry> entries, long loadedAtNanos) {
+            Entry[] sorted = entries.toArray(new Entry[0]);
+            Arrays.sort(sorted, Comparator.comparingInt(Entry::start));
+            return new Snapshot(sorted, loadedAtNanos);
+        }
+
+        int size() {
+            return entries.length;
+        }
+
+        private int fillMaxEnd(int lo, int hi) {
+            if (lo > hi) {
+                return Integer.MIN_VALUE;
+            }
+            int mid = (lo + hi) >>> 1;
+            maxEnd[mid] = Math.max(ends[mid], Math.max(fillMaxEnd(lo, mid - 1), fillMaxEnd(mid + 1, hi)));
+            return maxEnd[mid];
+        }
+
+        /**
+         * Recorre el subárbol [lo, hi] añadiendo los periodos que se solapan con [from, to], salvo los
+         * que tienen un cambio pendiente (que se evalúan aparte).
+         */
+        void collect(int lo, int hi, int from, int to, Integer cdcompany, Integer cddealer,
+                     Map<WexhvlocKey, Entry> pending, List<ExhibitionPeriod> out) {
+            if (lo > hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            if (maxEnd[mid] < from) {
+                return; // Todo este subárbol termina antes del rango pedido.
+            }
+            collect(lo, mid - 1, from, to, cdcompany, cddealer, pending, out);
+            if (starts[mid] > to) {
+                return; // Este nodo y todo su subárbol derecho empiezan después del rango pedido.
+            }
+            Entry entry = entries[mid];
+            if (ends[mid] >= from && entry.matches(from, to, cdcompany, cddealer) && !pending.containsKey(entry.key())) {
+                out.add(entry.toPeriod());
+            }
+            collect(mid + 1, hi, from, to, cdcompany, cddealer, pending, out);
+        }
+
+        /**
+         * Nueva foto con los cambios pendientes aplicados.
+         */
+        Snapshot mergedWith(Map<WexhvlocKey, Entry> pending) {
+            Map<WexhvlocKey, Entry> merged = new LinkedHashMap<>(entries.length + pending.size());
+            for (Entry entry : entries) {
+                merged.put(entry.key(), entry);
+            }
+            pending.forEach((key, entry) -> {
+                if (entry == Entry.REMOVED) {
+                    merged.remove(key);
+                } else {
+                    merged.put(key, entry);
+                }
+            });
+            // Fundir los pendientes no relee la base de datos: la foto conserva su antigüedad.
+            return build(new ArrayList<>(merged.values()), loadedAtNanos);
+        }
+    }
+}
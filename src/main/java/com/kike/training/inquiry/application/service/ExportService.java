@@ -0,0 +1,442 @@
+package com.kike.training.inquiry.application.service;
+
+import com.kike.training.inquiry.domain.model.User;
+import com.kike.training.inquiry.domain.port.out.UserRepository;
+import com.kike.training.inquiry.domain.port.out.WexhvlocRepository;
+import com.kike.training.inquiry.infrastructure.db.config.TenantExecutor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Servicio de exportación completa de tablas a CSV, para las conciliaciones de fin de mes.
+ *
+ * ¿POR QUÉ EXISTE?
+ * Hasta ahora la única forma de sacar una tabla entera era el listado JSON, que carga todas las filas
+ * en memoria. Aquí las filas van del cursor de la base de datos (con un fetch size grande) directamente
+ * al CSV comprimido de la respuesta, sin ninguna lista intermedia.
+ *
+ * DOS VARIANTES:
+ * - {@link #exportGzip}: un país, un CSV comprimido con gzip.
+ * - {@link #exportZip}: varios países, un ZIP con una entrada por país. Los países se LEEN en paralelo
+ *   (cada uno escribiendo en un buffer acotado) pero se ESCRIBEN en orden: mientras se escribe el primero,
+ *   los siguientes ya van llenando su buffer. Cuando un buffer se llena, su lector espera, así que la
+ *   memoria usada está acotada aunque el cliente descargue despacio.
+ *
+ * Como un lector puede pasar mucho tiempo esperando a un cliente lento, los lectores NO usan el pool
+ * compartido del {@link TenantExecutor} (lo bloquearían para los lotes, el _mget o los informes), sino
+ * un pool propio de {@code inquiry.export.threads} hilos con una cola de {@code inquiry.export.queue-capacity}
+ * países. Si la cola está llena, la exportación se rechaza con 503 antes de escribir ningún byte.
+ *
+ * Cada exportación deja en el log las filas, los bytes enviados y el rendimiento en filas por segundo.
+ */
+@Service
+@Slf4j
+public class ExportService {
+
+    /**
+     * Tamaño de cada bloque de bytes que un lector paralelo entrega al escritor del ZIP.
+     */
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Bloques que un lector paralelo puede adelantar antes de esperar al escritor (16 x 64 KB = 1 MB por país).
+     */
+    private static final int CHUNKS_PER_TENANT = 16;
+
+    /**
+     * Tablas exportables.
+     */
+    public enum Table {
+        WEXHVLOC("CDISOLOC,CDCOMPANY,CDDEALER,CHASSIS,NMEXHVL,CDEXHVL,DTINILOC,DTFINLOC,ADEXHVL,LGEXHVL," +
+                "TMEXHVL,DTAPPRV,SNCREATE,TSCREATE,SNLSTUPD,TSLSTUPD,CDCHGSTS"),
+        USERS("ID,USERNAME,EMAIL");
+
+        private final String header;
+
+        Table(String header) {
+            this.header = header;
+        }
+
+        /**
+         * Nombre de la tabla en minúsculas, tal y como aparece en las URLs y en los nombres de fichero.
+         */
+        public String fileName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * @throws IllegalArgumentException si la tabla no es exportable.
+         */
+        public static Table fromName(String name) {
+            return Arrays.stream(values())
+                    .filter(t -> t.fileName().equalsIgnoreCase(name))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Tabla no exportable: '" + name + "'."));
+        }
+    }
+
+    private final WexhvlocRepository wexhvlocRepository;
+    private final UserRepository userRepository;
+    private final TenantExecutor tenantExecutor;
+    private final int fetchSize;
+    private final ExecutorService readers;
+
+    public ExportService(WexhvlocRepository wexhvlocRepository,
+                         UserRepository userRepository,
+                         TenantExecutor tenantExecutor,
+                         @Value("${inquiry.export.fetch-size:5000}") int fetchSize,
+                         @Value("${inquiry.export.threads:4}") int threads,
+                         @Value("${inquiry.export.queue-capacity:32}") int queueCapacity) {
+        this.wexhvlocRepository = wexhvlocRepository;
+        this.userRepository = userRepository;
+        this.tenantExecutor = tenantExecutor;
+        this.fetchSize = fetchSize;
+        this.readers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("export-reader-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Valida los países pedidos contra los DataSources configurados.
+     *
+     * @param requested Países pedidos; si es {@code null} o vacío, todos los configurados.
+     * @return Los países en mayúsculas, sin duplicados y en el orden pedido (o alfabético si son todos).
+     * @throws ResponseStatusException (404) si algún país no tiene base de datos configurada.
+     */
+    public List<String> resolveTenants(List<String> requested) {
+        Set<String> known = tenantExecutor.getTenants();
+        if (requested == null || requested.isEmpty()) {
+            return List.copyOf(known);
+        }
+        List<String> tenants = requested.stream().map(t -> t.trim().toUpperCase()).distinct().toList();
+        for (String tenant : tenants) {
+            if (!known.contains(tenant)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No hay base de datos configurada para el país '" + tenant + "'.");
+            }
+        }
+        return tenants;
+    }
+
+    /**
+     * Escribe la tabla de un país como CSV comprimido con gzip. No cierra {@code out}.
+     *
+     * @param tenant País.
+     * @param table  Tabla a exportar.
+     * @param out    Destino (normalmente, el cuerpo de la respuesta HTTP).
+     */
+    public void exportGzip(String tenant, Table table, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        CountingOutputStream counting = new CountingOutputStream(out);
+        GZIPOutputStream gzip = new GZIPOutputStream(counting, CHUNK_SIZE);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), CHUNK_SIZE);
+        long rows;
+        try {
+            rows = tenantExecutor.callInTenant(tenant, () -> writeCsv(table, writer));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        gzip.finish();
+        logStats(table.fileName() + " de " + tenant.toUpperCase() + " (csv.gz)", rows, counting.count, start);
+    }
+
+    /**
+     * Escribe la tabla de varios países como un ZIP con una entrada CSV por país, en el orden indicado.
+     * No cierra {@code out}.
+     *
+     * @param tenants Países, en el orden en que aparecerán en el ZIP.
+     * @param table   Tabla a exportar.
+     * @param out     Destino (normalmente, el cuerpo de la respuesta HTTP).
+     * @throws ResponseStatusException (503) si el pool de lectores de exportación está saturado.
+     */
+    public void exportZip(List<String> tenants, Table table, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        // 1. Lanzar un lector por país en el pool de exportación; cada uno escribe su CSV en su propio buffer acotado.
+        List<ChunkPipe> pipes = new ArrayList<>();
+        List<CompletableFuture<Long>> readerResults = new ArrayList<>();
+        try {
+            for (String tenant : tenants) {
+                ChunkPipe pipe = new ChunkPipe(cancelled);
+                pipes.add(pipe);
+                readerResults.add(CompletableFuture.supplyAsync(() -> tenantExecutor.callInTenant(tenant, () -> {
+                    if (cancelled.get()) {
+                        // La descarga se abandonó mientras este país esperaba turno: ni se abre la consulta.
+                        throw new UncheckedIOException(new IOException("Exportación cancelada."));
+                    }
+                    Writer writer = new OutputStreamWriter(pipe, StandardCharsets.UTF_8);
+                    long rows = writeCsv(table, writer);
+                    try {
+                        // Solo se cierra (marca de fin) si todo ha ido bien: un fallo nunca debe parecer un CSV completo.
+                        writer.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return rows;
+                }), readers).whenComplete((rows, error) -> {
+                    if (error != null) {
+                        pipe.fail(error);
+                    }
+                }));
+            }
+        } catch (RejectedExecutionException e) {
+            cancelled.set(true);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Demasiadas exportaciones en curso; reintente más tarde.", e);
+        }
+
+        // 2. Escribir las entradas en orden, según van llegando los bloques de cada país.
+        CountingOutputStream counting = new CountingOutputStream(out);
+        ZipOutputStream zip = new ZipOutputStream(counting);
+        try {
+            for (int i = 0; i < tenants.size(); i++) {
+                zip.putNextEntry(new ZipEntry(tenants.get(i).toUpperCase() + "_" + table.fileName() + ".csv"));
+                byte[] chunk;
+                while ((chunk = pipes.get(i).take()) != null) {
+                    zip.write(chunk);
+                }
+                zip.closeEntry();
+            }
+            zip.finish();
+        } catch (IOException | RuntimeException e) {
+            // Cliente desconectado o país fallido: los lectores que sigan activos abortan su consulta.
+            cancelled.set(true);
+            throw e;
+        }
+
+        long rows = readerResults.stream().mapToLong(CompletableFuture::join).sum();
+        logStats(table.fileName() + " de " + tenants + " (zip)", rows, counting.count, start);
+    }
+
+    /**
+     * Escribe la cabecera y las filas de la tabla del país actualmente enrutado.
+     *
+     * @return El número de filas escritas.
+     */
+    private long writeCsv(Table table, Writer writer) {
+        long[] rows = {0};
+        try {
+            writer.write(table.header);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        switch (table) {
+            case WEXHVLOC -> wexhvlocRepository.forEachRecord(fetchSize, row -> {
+                writeRow(writer, row.getCdisoloc(), row.getCdcompany(), row.getCddealer(), row.getChassis(),
+                        row.getNmexhvl(), row.getCdexhvl(), row.getDtiniloc(), row.getDtfinloc(), row.getAdexhvl(),
+                        row.getLgexhvl(), row.getTmexhvl(), row.getDtapprv(), row.getSncreate(), row.getTscreate(),
+                        row.getSnlstupd(), row.getTslstupd(), row.getCdchgsts());
+                rows[0]++;
+            });
+            case USERS -> userRepository.forEachUserNative(fetchSize, (User user) -> {
+                writeRow(writer, user.getId(), user.getUsername(), user.getEmail());
+                rows[0]++;
+            });
+        }
+        return rows[0];
+    }
+
+    /**
+     * Escribe una línea CSV (RFC 4180): los textos van sin el relleno de las columnas CHAR y se
+     * entrecomillan solo si contienen comas, comillas o saltos de línea.
+     */
+    private static void writeRow(Writer writer, Object... values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                String text = value instanceof BigDecimal number ? number.toPlainString() : value.toString().stripTrailing();
+                if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(text.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(text);
+                }
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            // Se propaga como excepción no comprobada para que JdbcTemplate cierre el cursor.
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readers.shutdownNow();
+    }
+
+    private static void logStats(String what, long rows, long bytes, long startNanos) {
+        long millis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Exportación de {}: {} filas, {} bytes en {} ms ({} filas/s).", what, rows, bytes, millis, rows * 1000 / millis);
+    }
+
+    // =====================================
+    // = Flujos auxiliares                 =
+    // =====================================
+
+    /**
+     * Cuenta los bytes que pasan hacia el destino, sin cerrarlo nunca.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * Tubería acotada entre el lector de un país (escribe) y el escritor del ZIP (lee), por bloques.
+     */
+    private static final class ChunkPipe extends OutputStream {
+        private static final byte[] END = new byte[0];
+
+        private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(CHUNKS_PER_TENANT);
+        private final AtomicBoolean cancelled;
+        private final byte[] buffer = new byte[CHUNK_SIZE];
+        private int position;
+        private volatile Throwable failure;
+
+        private ChunkPipe(AtomicBoolean cancelled) {
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (position == buffer.length) {
+                flushChunk();
+            }
+            buffer[position++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (position == buffer.length) {
+                    flushChunk();
+                }
+                int n = Math.min(len, buffer.length - position);
+                System.arraycopy(b, off, buffer, position, n);
+                position += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flushChunk();
+            put(END);
+        }
+
+        private void flushChunk() throws IOException {
+            if (position > 0) {
+                put(Arrays.copyOf(buffer, position));
+                position = 0;
+            }
+        }
+
+        /**
+         * Entrega un bloque, esperando si el buffer está lleno; aborta si la exportación se ha cancelado.
+         */
+        private void put(byte[] chunk) throws IOException {
+            try {
+                while (!chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                    if (cancelled.get()) {
+                        throw new IOException("Exportación cancelada.");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Exportación interrumpida.");
+            }
+        }
+
+        /**
+         * Marca el fallo del lector; el escritor lo relanzará en su siguiente lectura.
+         */
+        void fail(Throwable error) {
+            failure = error;
+        }
+
+        /**
+         * Siguiente bloque, o {@code null} al final de los datos del país.
+         */
+        byte[] take() throws IOException {
+            try {
+                while (true) {
+                    byte[] chunk = chunks.poll(100, TimeUnit.MILLISECONDS);
+                    if (chunk == END) {
+                        return null;
+                    }
+                    if (chunk != null) {
+                        return chunk;
+                    }
+                    if (failure != null) {
+                        throw new IOException("Error leyendo los datos de la exportación.", failure);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Exportación interrumpida.");
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.kike.training.inquiry.application.service;
+
+import com.kike.training.inquiry.domain.model.PurgeProgress;
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.domain.model.WexhvlocChangeEvent;
+import com.kike.training.inquiry.domain.model.WexhvlocKey;
+import com.kike.training.inquiry.domain.port.out.UserRepository;
+import com.kike.training.inquiry.domain.port.out.WexhvlocRepository;
+import com.kike.training.inquiry.infrastructure.db.config.DataSourceContextHolder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Purgas (borrados masivos) por bloques.
+ *
+ * ¿POR QUÉ EXISTE?
+ * Un {@code DELETE FROM users} sobre una tabla grande del AS400 es UNA transacción enorme: se registra
+ * fila a fila en el diario, bloquea la tabla y retiene durante minutos una de las pocas conexiones del
+ * pool del país. Aquí el borrado se parte en transacciones cortas.
+ *
+ * ¿CÓMO FUNCIONA?
+ * - Cada bloque borra las siguientes {@code chunk-size} filas en orden de clave y se confirma en su
+ *   propia transacción; entre bloques se espera {@code pause-ms}, con la conexión ya devuelta al pool,
+ *   para dejar pasar al resto del tráfico.
+ * - Tras cada bloque se informa del progreso ({@link PurgeProgress}).
+ * - Reanudable: cada bloque confirmado queda borrado, y el siguiente empieza siempre por la primera
+ *   clave que queda. Si la purga se interrumpe (el cliente se desconecta, se reinicia el pod...), basta
+ *   con volver a lanzarla: continúa por donde se quedó, sin recorrer lo ya borrado.
+ * - Si se purga una tabla entera y el dialecto tiene TRUNCATE, se usa (salvo con
+ *   {@code inquiry.purge.truncate-enabled=false}): vacía la tabla en una sola operación sin diario por fila.
+ *
+ * Se ejecuta en el país actualmente enrutado.
+ */
+@Service
+@Slf4j
+public class PurgeService {
+
+    static final String USERS = "users";
+    static final String WEXHVLOC = "WEXHVLOC";
+
+    private final UserRepository userRepository;
+    private final WexhvlocRepository wexhvlocRepository;
+    private final DealerSummaryService dealerSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final boolean truncateEnabled;
+
+    public PurgeService(UserRepository userRepository,
+                        WexhvlocRepository wexhvlocRepository,
+                        DealerSummaryService dealerSummaryService,
+                        ApplicationEventPublisher eventPublisher,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${inquiry.purge.chunk-size:1000}") int chunkSize,
+                        @Value("${inquiry.purge.pause-ms:50}") long pauseMillis,
+                        @Value("${inquiry.purge.truncate-enabled:true}") boolean truncateEnabled) {
+        this.userRepository = userRepository;
+        this.wexhvlocRepository = wexhvlocRepository;
+        this.dealerSummaryService = dealerSummaryService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.truncateEnabled = truncateEnabled;
+    }
+
+    /**
+     * Borra todos los usuarios del país actual: con TRUNCATE si se puede; si no, por bloques de IDs.
+     *
+     * @param progress Recibe el progreso. Si lanza una excepción (cliente desconectado), la purga se
+     *                 detiene tras el bloque en curso, que queda confirmado.
+     */
+    public void purgeUsers(Consumer<PurgeProgress> progress) {
+        String tenant = DataSourceContextHolder.getBranchContext();
+        long start = System.nanoTime();
+        if (truncateEnabled && Boolean.TRUE.equals(transactionTemplate.execute(status -> userRepository.truncateUsers()))) {
+            log.info("Purga de '{}' en '{}': tabla vaciada con TRUNCATE.", USERS, tenant);
+            progress.accept(new PurgeProgress(USERS, tenant, PurgeProgress.Mode.TRUNCATE, 1, -1, true, elapsedMillis(start)));
+            return;
+        }
+        purgeInChunks(USERS, tenant, () -> userRepository.deleteUsersChunk(chunkSize), progress);
+    }
+
+    /**
+     * Borra todas las localizaciones de un concesionario del país actual, por bloques de claves.
+     * Cada bloque publica sus bajas ({@link WexhvlocChangeEvent}) y actualiza el resumen del
+     * concesionario en su misma transacción.
+     *
+     * @param progress Recibe el progreso (ver {@link #purgeUsers}).
+     */
+    public void purgeDealer(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer, Consumer<PurgeProgress> progress) {
+        String tenant = DataSourceContextHolder.getBranchContext();
+        purgeInChunks(WEXHVLOC, tenant, () -> {
+            List<WexhvlocKey> keys = wexhvlocRepository.findDealerKeys(cdisoloc, cdcompany, cddealer, chunkSize);
+            if (keys.isEmpty()) {
+                return 0;
+            }
+            wexhvlocRepository.batchDelete(keys, 0);
+            List<Wexhvloc> deleted = keys.stream().map(WexhvlocKey::toEntity).toList();
+            dealerSummaryService.dealersChanged(List.of(deleted.get(0)));
+            eventPublisher.publishEvent(WexhvlocChangeEvent.deleted(tenant, deleted));
+            return keys.size();
+        }, progress);
+    }
+
+    /**
+     * Bucle común de las purgas por bloques: ejecuta {@code deleteChunk} en una transacción por bloque
+     * hasta que borra menos de {@code chunk-size} filas.
+     */
+    private void purgeInChunks(String table, String tenant, IntSupplier deleteChunk, Consumer<PurgeProgress> progress) {
+        long start = System.nanoTime();
+        long chunks = 0;
+        long deleted = 0;
+        while (true) {
+            Integer rows = transactionTemplate.execute(status -> deleteChunk.getAsInt());
+            boolean done = rows == null || rows < chunkSize;
+            if (rows != null && rows > 0) {
+                chunks++;
+                deleted += rows;
+            }
+            progress.accept(new PurgeProgress(table, tenant, PurgeProgress.Mode.CHUNKED, chunks, deleted, done, elapsedMillis(start)));
+            if (done) {
+                break;
+            }
+            pause();
+        }
+        log.info("Purga de '{}' en '{}': {} filas en {} bloques, {} ms.", table, tenant, deleted, chunks, elapsedMillis(start));
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Purga interrumpida; se puede reanudar volviendo a lanzarla.", e);
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,75 @@
+package com.kike.training.inquiry.application.service;
+
+import com.kike.training.inquiry.domain.model.User;
+import com.kike.training.inquiry.domain.port.out.ReactiveUserRepository;
+import com.kike.training.inquiry.infrastructure.db.config.ReactiveTenantContext;
+import com.kike.training.inquiry.infrastructure.db.config.TenantExecutor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Versión reactiva (perfil {@code r2dbc}) de las operaciones básicas de {@link UserService}.
+ *
+ * Cada método recibe el país y lo pone en el contexto de Reactor de su cadena (ver
+ * {@link ReactiveWexhvlocService} para el porqué); un país sin base de datos es un 404.
+ */
+@Service
+@Profile("r2dbc")
+public class ReactiveUserService {
+
+    private final ReactiveUserRepository reactiveUserRepository;
+    private final TenantExecutor tenantExecutor;
+
+    public ReactiveUserService(ReactiveUserRepository reactiveUserRepository, TenantExecutor tenantExecutor) {
+        this.reactiveUserRepository = reactiveUserRepository;
+        this.tenantExecutor = tenantExecutor;
+    }
+
+    public Flux<User> getAllUsers(String countryCode) {
+        String tenant = requireTenant(countryCode);
+        return reactiveUserRepository.findAll()
+                .contextWrite(ReactiveTenantContext.withTenant(tenant));
+    }
+
+    public Mono<User> getUserById(String countryCode, Long id) {
+        String tenant = requireTenant(countryCode);
+        return reactiveUserRepository.findById(id)
+                .contextWrite(ReactiveTenantContext.withTenant(tenant));
+    }
+
+    /**
+     * Crea un usuario; error 409 si el email ya existe.
+     */
+    public Mono<User> createUser(String countryCode, User user) {
+        String tenant = requireTenant(countryCode);
+        return reactiveUserRepository.insert(user)
+                .onErrorMap(DuplicateKeyException.class,
+                        e -> new ResponseStatusException(HttpStatus.CONFLICT, "Ya existe un usuario con ese email.", e))
+                .contextWrite(ReactiveTenantContext.withTenant(tenant));
+    }
+
+    /**
+     * Borra un usuario; error 404 si no existía.
+     */
+    public Mono<Void> deleteUser(String countryCode, Long id) {
+        String tenant = requireTenant(countryCode);
+        return reactiveUserRepository.deleteById(id)
+                .flatMap(rows -> rows == 0
+                        ? Mono.<Void>error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuario no encontrado: " + id))
+                        : Mono.<Void>empty())
+                .contextWrite(ReactiveTenantContext.withTenant(tenant));
+    }
+
+    private String requireTenant(String countryCode) {
+        String tenant = countryCode == null ? "" : countryCode.trim().toUpperCase();
+        if (!tenantExecutor.getTenants().contains(tenant)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No hay base de datos configurada para el país '" + tenant + "'.");
+        }
+        return tenant;
+    }
+}
@@ -0,0 +1,116 @@
+package com.kike.training.inquiry.application.service;
+
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.domain.model.WexhvlocChangeEvent;
+import com.kike.training.inquiry.domain.model.WexhvlocKey;
+import com.kike.training.inquiry.domain.port.out.ReactiveWexhvlocRepository;
+import com.kike.training.inquiry.infrastructure.db.config.ReactiveTenantContext;
+import com.kike.training.inquiry.infrastructure.db.config.TenantExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Versión reactiva (perfil {@code r2dbc}) de las operaciones básicas de {@link WexhvlocService}.
+ *
+ * ¿CÓMO SE ENRUTA?
+ * No hay Aspect ni ThreadLocal: cada método añade el país a su cadena con
+ * {@code contextWrite(ReactiveTenantContext.withTenant(cdisoloc))}, y el pool de conexiones lo lee de ahí
+ * al suscribirse. El país se valida antes (404 si no existe), igual que en el resto de servicios.
+ *
+ * LIMITACIONES FRENTE A LA PILA JDBC:
+ * - Las escrituras publican su {@link WexhvlocChangeEvent} (índice de periodos, feed de cambios y caché de
+ *   informes se enteran igual), pero NO mantienen el resumen por concesionario, que se actualiza en la
+ *   transacción JDBC. Por eso el perfil {@code r2dbc} lo desactiva ({@code application-r2dbc.properties}),
+ *   y si aun así se activa {@code wexhvloc.dealer-summary.enabled}, la aplicación no arranca: un resumen
+ *   que se queda atrás en silencio es peor que no tenerlo.
+ * - Sin group commit: cada alta es su propia sentencia.
+ */
+@Service
+@Profile("r2dbc")
+public class ReactiveWexhvlocService {
+
+    private final ReactiveWexhvlocRepository reactiveWexhvlocRepository;
+    private final TenantExecutor tenantExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReactiveWexhvlocService(ReactiveWexhvlocRepository reactiveWexhvlocRepository,
+                                   TenantExecutor tenantExecutor,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${wexhvloc.dealer-summary.enabled:false}") boolean dealerSummaryEnabled) {
+        if (dealerSummaryEnabled) {
+            throw new IllegalStateException("El perfil 'r2dbc' no mantiene el resumen por concesionario: " +
+                    "desactiva 'wexhvloc.dealer-summary.enabled' para usarlo.");
+        }
+        this.reactiveWexhvlocRepository = reactiveWexhvlocRepository;
+        this.tenantExecutor = tenantExecutor;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Localización por su clave compuesta; vacío si no existe.
+     */
+    public Mono<Wexhvloc> findExhibitionLocation(WexhvlocKey key) {
+        String tenant = requireTenant(key.cdisoloc());
+        return reactiveWexhvlocRepository.findByCompositeId(key)
+                .contextWrite(ReactiveTenantContext.withTenant(tenant));
+    }
+
+    /**
+     * Primeras {@code limit} localizaciones de un concesionario, en orden de clave.
+     */
+    public Flux<Wexhvloc> findDealerExhibitionLocations(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer, int limit) {
+        String tenant = requireTenant(cdisoloc);
+        return reactiveWexhvlocRepository.findDealerPage(cdisoloc, cdcompany, cddealer, limit)
+                .contextWrite(ReactiveTenantContext.withTenant(tenant));
+    }
+
+    /**
+     * Crea una localización (rellena TSCREATE y TSLSTUPD, como {@link WexhvlocService#createExhibitionLocation}).
+     *
+     * @return La localización creada; error 409 si la clave ya existe.
+     */
+    public Mono<Wexhvloc> createExhibitionLocation(Wexhvloc exhibitionLocation) {
+        String tenant = requireTenant(exhibitionLocation.getCdisoloc());
+        LocalDateTime now = LocalDateTime.now();
+        exhibitionLocation.setTscreate(now);
+        exhibitionLocation.setTslstupd(now);
+        return reactiveWexhvlocRepository.insert(exhibitionLocation)
+                .onErrorMap(DuplicateKeyException.class,
+                        e -> new ResponseStatusException(HttpStatus.CONFLICT, "El registro de Wexhvloc ya existe.", e))
+                .doOnNext(created -> eventPublisher.publishEvent(WexhvlocChangeEvent.upserted(tenant, List.of(created))))
+                .contextWrite(ReactiveTenantContext.withTenant(tenant));
+    }
+
+    /**
+     * Borra una localización por su clave compuesta.
+     *
+     * @return Vacío al terminar; error 404 si no existía.
+     */
+    public Mono<Void> deleteExhibitionLocation(WexhvlocKey key) {
+        String tenant = requireTenant(key.cdisoloc());
+        return reactiveWexhvlocRepository.deleteByCompositeId(key)
+                .flatMap(rows -> rows == 0
+                        ? Mono.<Void>error(new ResponseStatusException(HttpStatus.NOT_FOUND, "El registro de Wexhvloc no fue encontrado para ser eliminado."))
+                        : Mono.<Void>fromRunnable(() -> eventPublisher.publishEvent(WexhvlocChangeEvent.deleted(tenant, List.of(key.toEntity())))))
+                .contextWrite(ReactiveTenantContext.withTenant(tenant));
+    }
+
+    private String requireTenant(String cdisoloc) {
+        String tenant = cdisoloc == null ? "" : cdisoloc.trim().toUpperCase();
+        if (!tenantExecutor.getTenants().contains(tenant)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No hay base de datos configurada para el país '" + tenant + "'.");
+        }
+        return tenant;
+    }
+}
@@ -0,0 +1,104 @@
+package com.kike.training.inquiry.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * "Single flight": agrupa las lecturas idénticas y simultáneas en UNA sola llamada a la base de datos.
+ *
+ * ¿POR QUÉ EXISTE?
+ * En campañas de concesionario decenas de clientes piden el mismo registro en los mismos milisegundos,
+ * y cada petición era su propia consulta al AS400 (y su propia conexión del pool del país).
+ *
+ * ¿CÓMO FUNCIONA?
+ * - La primera petición de una clave (el "líder") ejecuta la consulta; mientras dura, las que llegan
+ *   con la misma clave no consultan: esperan a ese mismo resultado (o a su misma excepción).
+ * - En cuanto el líder termina, la clave se retira: la siguiente petición vuelve a consultar. No es una
+ *   caché, pero SÍ tiene una ventana de datos viejos: quien se une a un vuelo en curso recibe lo que lee
+ *   la consulta del líder, que pudo empezar ANTES de que llegara. Por ejemplo, un PUT que se confirma
+ *   mientras la consulta del líder está en marcha, seguido de un GET de la misma clave que se une a ella,
+ *   devuelve la fila anterior al PUT. La ventana dura como mucho una consulta; quien necesite leer su
+ *   propia escritura debe usar la respuesta de la escritura (o desactivar {@code inquiry.single-flight.enabled}).
+ * - La clave debe incluir el país: la misma clave en dos países son dos consultas distintas.
+ * - El líder devuelve el objeto leído y cada petición agrupada, una COPIA hecha con {@code copier}: así
+ *   ninguna petición ve lo que otra modifique en el suyo.
+ *
+ * Métrica: {@code inquiry.single_flight.calls} con las etiquetas {@code lookup} y
+ * {@code result} ({@code executed}: consultas hechas; {@code coalesced}: peticiones que se han ahorrado
+ * la consulta esperando a otra).
+ */
+final class SingleFlight<K, V> {
+
+    private final boolean enabled;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+    private final UnaryOperator<V> copier;
+
+    /**
+     * @param copier Copia el resultado para cada petición agrupada (no se llama con el del líder).
+     */
+    SingleFlight(String lookup, boolean enabled, MeterRegistry meterRegistry, UnaryOperator<V> copier) {
+        this.enabled = enabled;
+        this.copier = copier;
+        this.executed = counter(lookup, "executed", meterRegistry);
+        this.coalesced = counter(lookup, "coalesced", meterRegistry);
+    }
+
+    /**
+     * Devuelve el resultado de {@code loader} para la clave, compartiendo la llamada con cualquier otra
+     * petición de la misma clave que esté en curso.
+     */
+    V execute(K key, Supplier<V> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            coalesced.increment();
+            return copier.apply(await(running));
+        }
+        executed.increment();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            // La misma excepción que ha recibido el líder (p. ej., un 404 o un error de conexión).
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter counter(String lookup, String result, MeterRegistry meterRegistry) {
+        return Counter.builder("inquiry.single_flight.calls")
+                .description("Lecturas del single flight: consultas ejecutadas o peticiones agrupadas con otra en curso")
+                .tag("lookup", lookup)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
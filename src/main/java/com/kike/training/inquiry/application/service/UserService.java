@@ -1,11 +1,24 @@
 package com.kike.training.inquiry.application.service;
 
 import com.kike.training.inquiry.application.port.in.UserServicePort;
+import com.kike.training.inquiry.domain.model.KeysetCursor;
+import com.kike.training.inquiry.domain.model.KeysetPage;
+import com.kike.training.inquiry.domain.model.PurgeProgress;
 import com.kike.training.inquiry.domain.model.User;
 import com.kike.training.inquiry.domain.port.out.UserRepository; // Asumiendo que tu repo tiene un puerto
+import com.kike.training.inquiry.infrastructure.db.config.DataSourceContextHolder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -24,11 +37,27 @@ import java.util.stream.StreamSupport;
 @Service
 public class UserService implements UserServicePort {
 
+    /**
+     * Tamaño máximo de página aceptado en la paginación por clave.
+     */
+    static final int MAX_PAGE_SIZE = 1000;
+
     // Inyectamos el puerto de salida (el repositorio)
     private final UserRepository userRepository;
+    private final PurgeService purgeService;
+    private final SingleFlight<UserKey, Optional<User>> findByIdFlight;
+    private final BatchLoader<Long, User> findByIdLoader;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PurgeService purgeService, MeterRegistry meterRegistry,
+                       BatchLoaders batchLoaders,
+                       @Value("${inquiry.single-flight.enabled:true}") boolean singleFlightEnabled) {
         this.userRepository = userRepository;
+        this.purgeService = purgeService;
+        this.findByIdFlight = new SingleFlight<>("users.getUserById", singleFlightEnabled, meterRegistry,
+                found -> found.map(user -> new User(user.getId(), user.getUsername(), user.getEmail())));
+        // findAllById de Spring Data JDBC: una única SELECT ... WHERE ID IN (...).
+        this.findByIdLoader = batchLoaders.create("users.findById",
+                ids -> userRepository.findAllById(ids).stream().collect(Collectors.toMap(User::getId, Function.identity())));
     }
 // =========================================================
     // === MÉTODOS ESTÁNDAR (usando Spring Data Repository) ===
@@ -54,10 +83,16 @@ public class UserService implements UserServicePort {
 
     /**
      * Busca un usuario por ID usando el repositorio Spring Data.
+     * Las búsquedas simultáneas del mismo ID en el mismo país comparten una única consulta
+     * ({@link SingleFlight}), y cada una recibe su propia copia del usuario.
+     * Con {@code inquiry.batch-loader.enabled}, las de IDs distintos del mismo país se resuelven juntas
+     * en una consulta ({@link BatchLoader}).
      */
     @Override
     public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id); // Spring Data
+        UserKey key = new UserKey(DataSourceContextHolder.getBranchContext(), id);
+        return findByIdFlight.execute(key, () -> Optional.ofNullable(findByIdLoader.load(key.tenant(), id,
+                () -> userRepository.findById(id).orElse(null)))); // Spring Data
     }
 
     // =========================================================
@@ -71,6 +106,14 @@ public class UserService implements UserServicePort {
         return userRepository.insertUserNative(user);  // Ya devuelve el User con ID
     }
 
+    /**
+     * Inserta varios usuarios en un único batch JDBC, dentro de una transacción.
+     */
+    @Transactional
+    public List<User> batchInsertUsersNative(List<User> users) {
+        return userRepository.batchInsertUsersNative(users);
+    }
+
     /**
      * Actualiza un usuario con SQL puro.
      */
@@ -86,10 +129,19 @@ public class UserService implements UserServicePort {
     }
 
     /**
-     * Borra todos los usuarios de la tabla con SQL directo.
+     * Borra todos los usuarios de la tabla. Ya no es un único {@code DELETE FROM users}: usa la purga
+     * por bloques (o TRUNCATE) de {@link PurgeService}, sin informar del progreso.
      */
     public void deleteAllUsersNative() {
-        userRepository.deleteAllUsersNative();
+        purgeService.purgeUsers(progress -> { });
+    }
+
+    /**
+     * Purga todos los usuarios informando del progreso (ver {@link PurgeService#purgeUsers}).
+     */
+    @Override
+    public void purgeUsers(Consumer<PurgeProgress> progress) {
+        purgeService.purgeUsers(progress);
     }
 
     /**
@@ -105,4 +157,58 @@ public class UserService implements UserServicePort {
     public List<User> findAllNative() {
         return userRepository.findAllNative();
     }
-}
\ No newline at end of file
+
+    /**
+     * Recorre todos los usuarios en streaming (cursor de solo avance), sin crear una lista intermedia.
+     */
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        userRepository.forEachUserNative(action);
+    }
+
+    /**
+     * Busca un usuario por ID leyendo solo las columnas pedidas. Un campo desconocido es un 400.
+     */
+    @Override
+    public Optional<Map<String, Object>> getUserFieldsById(Long id, List<String> fields) {
+        try {
+            return userRepository.findProjectionByIdNative(id, fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Devuelve una página de usuarios por ID con paginación por clave.
+     * Se pide una fila más de las necesarias para saber si existe página siguiente sin hacer un COUNT.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<User> getUsersPage(int limit, String cursor) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El parámetro 'limit' debe estar entre 1 y " + MAX_PAGE_SIZE + ".");
+        }
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                afterId = Long.valueOf(KeysetCursor.decode(cursor, 1).get(0));
+            } catch (IllegalArgumentException e) { // incluye NumberFormatException
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor de paginación no válido.", e);
+            }
+        }
+
+        List<User> rows = userRepository.findPageNative(afterId, limit + 1);
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<User> items = rows.subList(0, limit);
+        String next = KeysetCursor.encode(List.of(String.valueOf(items.get(limit - 1).getId())));
+        return new KeysetPage<>(List.copyOf(items), next);
+    }
+
+    /**
+     * Clave del single flight de {@link #getUserById}: el mismo ID en dos países son dos usuarios distintos.
+     */
+    private record UserKey(String tenant, Long id) {
+    }
+}
@@ -0,0 +1,218 @@
+package com.kike.training.inquiry.application.service;
+
+import com.kike.training.inquiry.domain.model.BatchRowResult;
+import com.kike.training.inquiry.domain.model.MultiGetResult;
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.domain.model.WexhvlocChangeEvent;
+import com.kike.training.inquiry.domain.model.WexhvlocKey;
+import com.kike.training.inquiry.domain.port.out.WexhvlocRepository;
+import com.kike.training.inquiry.infrastructure.db.config.TenantExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Servicio de aplicación para las operaciones MASIVAS sobre localizaciones de exhibición.
+ *
+ * <p>A diferencia de {@link WexhvlocService}, aquí una misma petición puede contener filas de
+ * varios países. Por eso este servicio NO está interceptado por el {@code WexhvlocRoutingAspect}:
+ * agrupa las filas por {@code CDISOLOC} y ejecuta cada grupo en el contexto de su propio tenant
+ * mediante el {@link TenantExecutor}, en paralelo.</p>
+ *
+ * <p>Dentro de cada país, las filas se insertan en lotes JDBC en UNA sola transacción. El tamaño de
+ * lote es el óptimo del dialecto SQL del país, salvo que se fije {@code wexhvloc.batch.size}.</p>
+ *
+ * <p>Las lecturas de muchas claves ({@link #findExhibitionLocations}) siguen el mismo esquema: una
+ * consulta por país (o por bloque de claves), con los países en paralelo.</p>
+ */
+@Service
+@Slf4j
+public class WexhvlocBatchService {
+
+    private final WexhvlocRepository wexhvlocRepository;
+    private final TenantExecutor tenantExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DealerSummaryService dealerSummaryService;
+    private final int batchSize;
+    private final int maxMultiGetKeys;
+
+    public WexhvlocBatchService(WexhvlocRepository wexhvlocRepository,
+                                TenantExecutor tenantExecutor,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                DealerSummaryService dealerSummaryService,
+                                @Value("${wexhvloc.batch.size:0}") int batchSize,
+                                @Value("${inquiry.mget.max-keys:1000}") int maxMultiGetKeys) {
+        this.wexhvlocRepository = wexhvlocRepository;
+        this.tenantExecutor = tenantExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.dealerSummaryService = dealerSummaryService;
+        this.batchSize = batchSize;
+        this.maxMultiGetKeys = maxMultiGetKeys;
+    }
+
+    /**
+     * Crea varias localizaciones de exhibición, posiblemente de distintos países.
+     *
+     * <p>Cada país se procesa en su propia transacción: si algo falla en un país, todas las filas
+     * de ESE país se marcan como fallidas (se ha hecho rollback) y el resto de países no se ve afectado.</p>
+     *
+     * @param exhibitionLocations Las localizaciones a crear.
+     * @return Un resultado por fila, en el mismo orden que la petición.
+     */
+    public List<BatchRowResult> createExhibitionLocations(List<Wexhvloc> exhibitionLocations) {
+        BatchRowResult[] results = new BatchRowResult[exhibitionLocations.size()];
+
+        // 1. Agrupar los índices de las filas por país, conservando el orden de llegada. Una fila sin país
+        //    o de un país sin base de datos falla sola: nunca se inserta en la base de datos por defecto.
+        Set<String> tenants = tenantExecutor.getTenants();
+        Map<String, List<Integer>> indexesByTenant = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < exhibitionLocations.size(); i++) {
+            Wexhvloc location = exhibitionLocations.get(i);
+            if (location == null || location.getCdisoloc() == null || location.getCdisoloc().isBlank()) {
+                results[i] = BatchRowResult.failed(i, null, "La fila no tiene CDISOLOC; no se puede enrutar.");
+                continue;
+            }
+            String tenant = location.getCdisoloc().trim().toUpperCase();
+            if (!tenants.contains(tenant)) {
+                results[i] = BatchRowResult.failed(i, tenant, "No hay base de datos para el país " + tenant + ".");
+                continue;
+            }
+            location.setTscreate(now);
+            location.setTslstupd(now);
+            indexesByTenant.computeIfAbsent(tenant, k -> new ArrayList<>()).add(i);
+        }
+
+        // 2. Lanzar un grupo por país en paralelo.
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        indexesByTenant.forEach((tenant, indexes) -> {
+            List<Wexhvloc> rows = indexes.stream().map(exhibitionLocations::get).toList();
+            futures.add(tenantExecutor.submit(tenant, () -> {
+                insertTenantGroup(tenant, indexes, rows, results);
+                return null;
+            }));
+        });
+
+        // 3. Esperar a que terminen todos los países.
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Inserta las filas de un único país en una transacción y anota el resultado de cada una.
+     * Se ejecuta ya dentro del contexto del tenant (lo establece el {@link TenantExecutor}).
+     */
+    private void insertTenantGroup(String tenant, List<Integer> indexes, List<Wexhvloc> rows, BatchRowResult[] results) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                wexhvlocRepository.batchInsert(rows, batchSize);
+                dealerSummaryService.locationsInserted(rows);
+                eventPublisher.publishEvent(WexhvlocChangeEvent.upserted(tenant, rows));
+            });
+            indexes.forEach(i -> results[i] = BatchRowResult.inserted(i, tenant));
+            log.info("Lote WEXHVLOC para '{}': {} filas insertadas en {} ms.",
+                    tenant, rows.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            String reason = "Rollback del lote de " + tenant + ": " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            indexes.forEach(i -> results[i] = BatchRowResult.failed(i, tenant, reason));
+            log.warn("Lote WEXHVLOC para '{}' fallido ({} filas): {}", tenant, rows.size(), reason);
+        }
+    }
+
+    /**
+     * Busca varias localizaciones por su clave compuesta, posiblemente de distintos países.
+     *
+     * <p>Las claves se agrupan por {@code CDISOLOC} y cada país se resuelve con una consulta por bloque de
+     * claves (no una por clave), con los países en paralelo. Si la consulta de un país falla, sus claves se
+     * marcan como fallidas y el resto de países no se ve afectado.</p>
+     *
+     * @param keys Las claves a buscar.
+     * @return Un resultado por clave, en el mismo orden que la petición: encontrada (con el registro),
+     *         no encontrada, o fallida (sin país, país sin base de datos o error de la consulta).
+     * @throws ResponseStatusException (400) si se piden más de {@code inquiry.mget.max-keys} claves.
+     */
+    public List<MultiGetResult> findExhibitionLocations(List<WexhvlocKey> keys) {
+        if (keys.size() > maxMultiGetKeys) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Se han pedido " + keys.size() + " claves; el máximo por petición es " + maxMultiGetKeys + ".");
+        }
+        MultiGetResult[] results = new MultiGetResult[keys.size()];
+
+        // 1. Agrupar los índices de las claves por país, conservando el orden de llegada.
+        Set<String> tenants = tenantExecutor.getTenants();
+        Map<String, List<Integer>> indexesByTenant = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            WexhvlocKey key = keys.get(i);
+            if (key == null || key.cdisoloc() == null || key.cdisoloc().isBlank()) {
+                results[i] = MultiGetResult.failed(i, key, "La clave no tiene CDISOLOC; no se puede enrutar.");
+                continue;
+            }
+            String tenant = key.cdisoloc().trim().toUpperCase();
+            if (!tenants.contains(tenant)) {
+                results[i] = MultiGetResult.failed(i, key, "No hay base de datos para el país " + tenant + ".");
+                continue;
+            }
+            indexesByTenant.computeIfAbsent(tenant, k -> new ArrayList<>()).add(i);
+        }
+
+        // 2. Lanzar un grupo por país en paralelo y esperar a que terminen todos.
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        indexesByTenant.forEach((tenant, indexes) -> futures.add(tenantExecutor.submit(tenant, () -> {
+            findTenantGroup(tenant, indexes, keys, results);
+            return null;
+        })));
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Busca las claves de un único país y anota el resultado de cada una.
+     * Se ejecuta ya dentro del contexto del tenant (lo establece el {@link TenantExecutor}).
+     */
+    private void findTenantGroup(String tenant, List<Integer> indexes, List<WexhvlocKey> keys, MultiGetResult[] results) {
+        long start = System.nanoTime();
+        try {
+            // Claves normalizadas (y sin repetir) para la consulta y para casar las filas leídas con la petición.
+            Map<Integer, WexhvlocKey> lookupKeys = new HashMap<>();
+            for (int i : indexes) {
+                WexhvlocKey key = keys.get(i);
+                lookupKeys.put(i, new WexhvlocKey(tenant, key.cdcompany(), key.cddealer(), key.chassis(),
+                        key.nmexhvl(), key.cdexhvl()).normalized());
+            }
+            Map<WexhvlocKey, Wexhvloc> found = new HashMap<>();
+            wexhvlocRepository.findByCompositeIds(lookupKeys.values().stream().distinct().toList())
+                    .forEach(location -> found.put(WexhvlocKey.of(location).normalized(), location));
+
+            for (int i : indexes) {
+                Wexhvloc location = found.get(lookupKeys.get(i));
+                results[i] = location != null ? MultiGetResult.found(i, keys.get(i), location) : MultiGetResult.notFound(i, keys.get(i));
+            }
+            log.debug("_mget WEXHVLOC para '{}': {} claves, {} encontradas en {} ms.",
+                    tenant, indexes.size(), found.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            String reason = "Error al buscar en " + tenant + ": " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            indexes.forEach(i -> results[i] = MultiGetResult.failed(i, keys.get(i), reason));
+            log.warn("_mget WEXHVLOC para '{}' fallido ({} claves): {}", tenant, indexes.size(), reason);
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package com.kike.training.inquiry.application.service;
+
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.domain.model.WexhvlocChangeEvent;
+import com.kike.training.inquiry.domain.port.out.WexhvlocRepository;
+import com.kike.training.inquiry.infrastructure.db.config.TenantExecutor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * "Group commit" de las escrituras individuales de WEXHVLOC (altas y actualizaciones).
+ *
+ * ¿POR QUÉ EXISTE?
+ * Cada {@code createExhibitionLocation}/{@code updateExhibitionLocation} abre y confirma su propia
+ * transacción de una sola fila. Con ráfagas de tráfico de los concesionarios, el pool del AS400
+ * (4 conexiones) se satura esperando la latencia de los commits, no haciendo trabajo útil.
+ *
+ * ¿CÓMO FUNCIONA?
+ * - Las escrituras de un mismo país se encolan en lugar de ejecutarse en el hilo de la petición.
+ * - La primera de una ráfaga programa un volcado dentro de {@code window-ms}; si antes se juntan
+ *   {@code max-rows} filas, el volcado se lanza en el acto.
+ * - Los volcados de cada país se ejecutan en SU hilo de volcado, y como mucho hay uno en marcha o
+ *   pendiente por país: un país con el AS400 lento no retrasa los commits de los demás, y llenar la
+ *   cola muchas veces no acumula volcados repetidos. El planificador compartido solo cronometra ventanas.
+ * - Un volcado ejecuta las filas como lotes JDBC en UNA transacción (un solo commit para todas) y
+ *   completa el future de cada llamante con el resultado de SU fila.
+ * - Si el lote falla (p. ej. una clave duplicada), se repite fila a fila, cada una en su transacción,
+ *   para que el error de una fila no arrastre a las demás.
+ *
+ * Es opcional ({@code wexhvloc.group-commit.enabled}, desactivado por defecto): a cambio de menos
+ * commits, cada escritura puede esperar hasta {@code window-ms} antes de empezar.
+ *
+ * Solo se encolan escrituras de países con base de datos configurada: sin este filtro, un CDISOLOC
+ * inventado crearía su propia cola y sus métricas, y acabaría escribiendo en la base de datos por defecto.
+ *
+ * MÉTRICAS (Micrometer):
+ * - {@code wexhvloc.group_commit.queue.depth} (gauge, por país): escrituras esperando volcado.
+ * - {@code wexhvloc.group_commit.batch.size} (histograma, por país): filas por transacción.
+ */
+@Component
+@Slf4j
+public class WexhvlocGroupCommitter {
+
+    private final WexhvlocRepository wexhvlocRepository;
+    private final TenantExecutor tenantExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DealerSummaryService dealerSummaryService;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long windowMillis;
+    private final int maxRows;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long timeoutMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, TenantQueue> queues = new ConcurrentHashMap<>();
+    private final Map<String, ExecutorService> dispatchers = new ConcurrentHashMap<>();
+
+    public WexhvlocGroupCommitter(WexhvlocRepository wexhvlocRepository,
+                                  TenantExecutor tenantExecutor,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher,
+                                  DealerSummaryService dealerSummaryService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${wexhvloc.group-commit.enabled:false}") boolean enabled,
+                                  @Value("${wexhvloc.group-commit.window-ms:5}") long windowMillis,
+                                  @Value("${wexhvloc.group-commit.max-rows:100}") int maxRows,
+                                  @Value("${wexhvloc.group-commit.queue-capacity:2000}") int queueCapacity,
+                                  @Value("${wexhvloc.group-commit.threads:1}") int threads,
+                                  @Value("${wexhvloc.group-commit.timeout-ms:10000}") long timeoutMillis,
+                                  @Value("${wexhvloc.batch.size:0}") int batchSize) {
+        this.wexhvlocRepository = wexhvlocRepository;
+        this.tenantExecutor = tenantExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.dealerSummaryService = dealerSummaryService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.windowMillis = windowMillis;
+        this.maxRows = maxRows;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.timeoutMillis = timeoutMillis;
+        this.scheduler = Executors.newScheduledThreadPool(threads,
+                Thread.ofPlatform().name("group-commit-", 0).daemon(true).factory());
+        if (enabled) {
+            log.info("Group commit de WEXHVLOC activado: ventana de {} ms, hasta {} filas por transacción.", windowMillis, maxRows);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // =====================================
+    // = API asíncrona                     =
+    // =====================================
+
+    /**
+     * Encola el alta de una localización.
+     *
+     * @return Un future que se completa con 1 cuando la fila está confirmada, o con el error de ESA fila.
+     * @throws ResponseStatusException (400) si la fila no tiene CDISOLOC; (404) si su país no tiene base de datos.
+     */
+    public CompletableFuture<Integer> submitInsert(Wexhvloc location) {
+        return enqueue(new PendingWrite(Operation.INSERT, location));
+    }
+
+    /**
+     * Encola la actualización de una localización.
+     *
+     * @return Un future que se completa con las filas afectadas (0 si el registro no existía).
+     * @throws ResponseStatusException (400) si la fila no tiene CDISOLOC; (404) si su país no tiene base de datos.
+     */
+    public CompletableFuture<Integer> submitUpdate(Wexhvloc location) {
+        return enqueue(new PendingWrite(Operation.UPDATE, location));
+    }
+
+    // =====================================
+    // = API síncrona                      =
+    // =====================================
+
+    /**
+     * Como {@link #submitInsert}, pero esperando el resultado y relanzando el error original de la fila.
+     *
+     * @throws ResponseStatusException (503) si el resultado no llega en {@code timeout-ms}.
+     */
+    public int insert(Wexhvloc location) {
+        return await(submitInsert(location));
+    }
+
+    /**
+     * Como {@link #submitUpdate}, pero esperando el resultado y relanzando el error original de la fila.
+     *
+     * @throws ResponseStatusException (503) si el resultado no llega en {@code timeout-ms}.
+     */
+    public int update(Wexhvloc location) {
+        return await(submitUpdate(location));
+    }
+
+    /**
+     * Espera el resultado como mucho {@code timeout-ms}. Si se agota, la petición recibe un 503, pero la
+     * escritura sigue en su grupo y puede acabar confirmándose: el cliente debe comprobarlo antes de reintentar.
+     */
+    private int await(CompletableFuture<Integer> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "La escritura no se ha confirmado en " + timeoutMillis + " ms; compruebe el registro antes de reintentar.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Espera de la escritura interrumpida.");
+        }
+    }
+
+    // =====================================
+    // = Cola y volcado                    =
+    // =====================================
+
+    private CompletableFuture<Integer> enqueue(PendingWrite write) {
+        String tenant = requireTenant(write.location().getCdisoloc());
+        TenantQueue queue = queues.computeIfAbsent(tenant, this::newQueue);
+        if (!queue.writes.offer(write)) {
+            write.result().completeExceptionally(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Cola de escrituras de " + tenant + " llena; reintente más tarde."));
+            return write.result();
+        }
+        if (queue.writes.size() >= maxRows) {
+            requestFlush(queue);
+        } else if (queue.windowScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(() -> {
+                queue.windowScheduled.set(false);
+                requestFlush(queue);
+            }, windowMillis, TimeUnit.MILLISECONDS);
+        }
+        return write.result();
+    }
+
+    /**
+     * País normalizado de la escritura, si tiene base de datos; si no, la escritura se rechaza antes de encolarla.
+     */
+    private String requireTenant(String cdisoloc) {
+        if (cdisoloc == null || cdisoloc.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La localización no tiene CDISOLOC; no se puede enrutar.");
+        }
+        String tenant = cdisoloc.trim().toUpperCase();
+        if (!tenantExecutor.getTenants().contains(tenant)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No hay base de datos configurada para el país '" + tenant + "'.");
+        }
+        return tenant;
+    }
+
+    private TenantQueue newQueue(String tenant) {
+        TenantQueue queue = new TenantQueue(tenant, new ArrayBlockingQueue<>(queueCapacity),
+                DistributionSummary.builder("wexhvloc.group_commit.batch.size")
+                        .description("Filas confirmadas por cada transacción del group commit")
+                        .tag("tenant", tenant)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+        Gauge.builder("wexhvloc.group_commit.queue.depth", queue.writes, BlockingQueue::size)
+                .description("Escrituras de WEXHVLOC esperando al siguiente group commit")
+                .tag("tenant", tenant)
+                .register(meterRegistry);
+        return queue;
+    }
+
+    /**
+     * Pide un volcado en el hilo de volcado del país, salvo que ya haya uno en marcha o pendiente (ese
+     * volcado se lleva también las filas recién llegadas).
+     */
+    private void requestFlush(TenantQueue queue) {
+        if (queue.flushing.compareAndSet(false, true)) {
+            dispatcher(queue.tenant).execute(() -> flush(queue));
+        }
+    }
+
+    private ExecutorService dispatcher(String tenant) {
+        return dispatchers.computeIfAbsent(tenant, t -> Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("group-commit-" + t).daemon(true).factory()));
+    }
+
+    /**
+     * Vacía la cola de un país en transacciones de hasta {@code maxRows} filas, en el contexto del país.
+     */
+    private void flush(TenantQueue queue) {
+        try {
+            tenantExecutor.runInTenant(queue.tenant, () -> {
+                List<PendingWrite> batch = new ArrayList<>(maxRows);
+                while (true) {
+                    if (queue.writes.drainTo(batch, maxRows) == 0) {
+                        // Se desmarca y se vuelve a mirar: lo que llegue justo entre medias no se queda sin volcado.
+                        queue.flushing.set(false);
+                        if (queue.writes.isEmpty() || !queue.flushing.compareAndSet(false, true)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    commitBatch(queue, batch);
+                    batch.clear();
+                }
+            });
+        } catch (RuntimeException e) {
+            queue.flushing.set(false);
+            log.error("Error inesperado en el group commit de '{}'.", queue.tenant, e);
+        }
+    }
+
+    /**
+     * Ejecuta un grupo de escrituras en una transacción; si falla, aísla la fila culpable repitiéndolas una a una.
+     */
+    private void commitBatch(TenantQueue queue, List<PendingWrite> batch) {
+        long start = System.nanoTime();
+        try {
+            int[] counts = transactionTemplate.execute(status -> apply(queue.tenant, batch));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(counts[i]);
+            }
+            queue.batchSizes.record(batch.size());
+            log.debug("Group commit de '{}': {} filas en {} ms.", queue.tenant, batch.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(e);
+                return;
+            }
+            log.warn("Group commit de '{}' fallido ({} filas); se repite fila a fila: {}", queue.tenant, batch.size(), e.getMessage());
+            for (PendingWrite write : batch) {
+                try {
+                    int[] counts = transactionTemplate.execute(status -> apply(queue.tenant, List.of(write)));
+                    write.result().complete(counts[0]);
+                } catch (RuntimeException rowError) {
+                    write.result().completeExceptionally(rowError);
+                }
+                queue.batchSizes.record(1);
+            }
+        }
+    }
+
+    /**
+     * Aplica las escrituras dentro de la transacción en curso, respetando el orden de llegada: cada
+     * tramo consecutivo de altas o de actualizaciones va en su propio lote JDBC.
+     *
+     * @return Las filas afectadas por cada escritura, alineadas con la entrada.
+     */
+    private int[] apply(String tenant, List<PendingWrite> batch) {
+        int[] counts = new int[batch.size()];
+        int from = 0;
+        while (from < batch.size()) {
+            Operation operation = batch.get(from).operation();
+            int to = from + 1;
+            while (to < batch.size() && batch.get(to).operation() == operation) {
+                to++;
+            }
+            List<Wexhvloc> rows = batch.subList(from, to).stream().map(PendingWrite::location).toList();
+            int[] runCounts = operation == Operation.INSERT
+                    ? wexhvlocRepository.batchInsert(rows, batchSize)
+                    : wexhvlocRepository.batchUpdate(rows, batchSize);
+            for (int i = 0; i < runCounts.length; i++) {
+                // Algunos drivers solo informan de que la sentencia ha ido bien, sin el número de filas.
+                counts[from + i] = runCounts[i] == Statement.SUCCESS_NO_INFO ? 1 : runCounts[i];
+            }
+            if (operation == Operation.INSERT) {
+                dealerSummaryService.locationsInserted(rows);
+                eventPublisher.publishEvent(WexhvlocChangeEvent.upserted(tenant, rows));
+            } else {
+                for (int i = 0; i < rows.size(); i++) {
+                    if (counts[from + i] > 0) {
+                        eventPublisher.publishEvent(WexhvlocChangeEvent.updated(tenant, rows.get(i)));
+                    }
+                }
+            }
+            from = to;
+        }
+        return counts;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Se vacían las colas antes de parar: ninguna escritura aceptada se queda sin respuesta. Las colas
+        // con un volcado en marcha las termina ese volcado.
+        scheduler.shutdown();
+        queues.values().forEach(queue -> {
+            if (queue.flushing.compareAndSet(false, true)) {
+                flush(queue);
+            }
+        });
+        dispatchers.values().forEach(ExecutorService::shutdown);
+    }
+
+    // =====================================
+    // = Estructuras internas              =
+    // =====================================
+
+    private enum Operation { INSERT, UPDATE }
+
+    private record PendingWrite(Operation operation, Wexhvloc location, CompletableFuture<Integer> result) {
+        PendingWrite(Operation operation, Wexhvloc location) {
+            this(operation, location, new CompletableFuture<>());
+        }
+    }
+
+    private static final class TenantQueue {
+        private final String tenant;
+        private final BlockingQueue<PendingWrite> writes;
+        private final DistributionSummary batchSizes;
+        /** Hay un volcado programado al final de la ventana en curso. */
+        private final AtomicBoolean windowScheduled = new AtomicBoolean();
+        /** Hay un volcado en marcha o pendiente en el hilo de volcado del país. */
+        private final AtomicBoolean flushing = new AtomicBoolean();
+
+        private TenantQueue(String tenant, BlockingQueue<PendingWrite> writes, DistributionSummary batchSizes) {
+            this.tenant = tenant;
+            this.writes = writes;
+            this.batchSizes = batchSizes;
+        }
+    }
+}
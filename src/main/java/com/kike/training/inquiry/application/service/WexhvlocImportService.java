@@ -0,0 +1,338 @@
+package com.kike.training.inquiry.application.service;
+
+import com.kike.training.inquiry.domain.model.ImportEvent;
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.domain.model.WexhvlocChangeEvent;
+import com.kike.training.inquiry.domain.port.out.WexhvlocRepository;
+import com.kike.training.inquiry.infrastructure.db.config.TenantExecutor;
+import com.kike.training.inquiry.infrastructure.db.repository.WexhvlocColumn;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Servicio de importación masiva de localizaciones de exhibición desde un CSV.
+ *
+ * ¿POR QUÉ EXISTE?
+ * Dar de alta la red de un concesionario nuevo eran miles de POST manuales. Aquí se sube un CSV
+ * (con la misma cabecera que genera la exportación) y se inserta por lotes, país a país.
+ *
+ * ¿CÓMO FUNCIONA?
+ * - El CSV se lee registro a registro ({@link CsvReader}) directamente del cuerpo de la petición.
+ * - Cada fila se valida contra los tipos y anchos de WEXHVLOC ({@link WexhvlocColumn#parse}) y se
+ *   acumula en el lote de su país ({@code CDISOLOC}).
+ * - Cada lote completo se inserta en el {@link TenantExecutor}, en su propia transacción. Como mucho
+ *   hay {@code max-in-flight-batches} lotes pendientes: si la base de datos va más despacio que la
+ *   subida, el lector ESPERA, deja de leer la petición y TCP frena al cliente. La memoria usada está
+ *   acotada, sea cual sea el tamaño del fichero.
+ * - Si un lote falla, se repite fila a fila para informar exactamente de qué líneas han fallado.
+ * - El informe se devuelve en streaming: un {@link ImportEvent} por línea rechazada, uno de progreso
+ *   cada {@link #PROGRESS_EVERY_LINES} registros y un resumen al final.
+ */
+@Service
+@Slf4j
+public class WexhvlocImportService {
+
+    static final int PROGRESS_EVERY_LINES = 1000;
+
+    private final WexhvlocRepository wexhvlocRepository;
+    private final TenantExecutor tenantExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DealerSummaryService dealerSummaryService;
+    private final int batchRows;
+    private final int maxInFlightBatches;
+
+    public WexhvlocImportService(WexhvlocRepository wexhvlocRepository,
+                                 TenantExecutor tenantExecutor,
+                                 PlatformTransactionManager transactionManager,
+                                 ApplicationEventPublisher eventPublisher,
+                                 DealerSummaryService dealerSummaryService,
+                                 @Value("${wexhvloc.import.batch-rows:500}") int batchRows,
+                                 @Value("${wexhvloc.import.max-in-flight-batches:4}") int maxInFlightBatches) {
+        this.wexhvlocRepository = wexhvlocRepository;
+        this.tenantExecutor = tenantExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.dealerSummaryService = dealerSummaryService;
+        this.batchRows = batchRows;
+        this.maxInFlightBatches = maxInFlightBatches;
+    }
+
+    /**
+     * Importa un CSV de localizaciones.
+     *
+     * @param input  El CSV; la primera línea es la cabecera con los nombres de columna de WEXHVLOC
+     *               (en cualquier orden; al menos las 6 de la clave).
+     * @param report Recibe el informe (errores, progreso y resumen) según se produce. Si lanza una
+     *               excepción (cliente desconectado), la importación se interrumpe; los lotes ya
+     *               enviados terminan igualmente.
+     */
+    public void importCsv(Reader input, Consumer<ImportEvent> report) {
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun(report);
+        CsvReader csv = new CsvReader(input);
+        try {
+            List<WexhvlocColumn> columns = readHeader(csv, run);
+            if (columns != null) {
+                readRows(csv, columns, run);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            run.awaitBatches();
+        }
+        report.accept(ImportEvent.summary(run.linesRead, run.written.get(), run.failures.get()));
+        log.info("Importación CSV de WEXHVLOC: {} líneas, {} filas insertadas, {} rechazadas en {} ms.",
+                run.linesRead, run.written.get(), run.failures.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Lee y valida la cabecera.
+     *
+     * @return Las columnas en el orden del fichero, o {@code null} si la cabecera no es válida (ya informado).
+     */
+    private List<WexhvlocColumn> readHeader(CsvReader csv, ImportRun run) throws IOException {
+        List<String> header;
+        try {
+            header = csv.next();
+        } catch (IllegalArgumentException e) {
+            run.report.accept(ImportEvent.error(csv.recordLine(), null, "Cabecera: " + e.getMessage()));
+            return null;
+        }
+        if (header == null) {
+            run.report.accept(ImportEvent.error(1, null, "El fichero está vacío."));
+            return null;
+        }
+        List<WexhvlocColumn> columns = new ArrayList<>(header.size());
+        for (String name : header) {
+            try {
+                columns.add(WexhvlocColumn.fromProperty(name));
+            } catch (IllegalArgumentException e) {
+                run.report.accept(ImportEvent.error(csv.recordLine(), null, "Cabecera: " + e.getMessage()));
+                return null;
+            }
+        }
+        if (!columns.containsAll(WexhvlocColumn.keyColumns())) {
+            run.report.accept(ImportEvent.error(csv.recordLine(), null,
+                    "Cabecera: faltan columnas de la clave; son obligatorias " + WexhvlocColumn.keyColumns() + "."));
+            return null;
+        }
+        return columns;
+    }
+
+    private void readRows(CsvReader csv, List<WexhvlocColumn> columns, ImportRun run) throws IOException {
+        Set<String> tenants = tenantExecutor.getTenants();
+        Map<String, List<ImportRow>> batches = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        while (true) {
+            List<String> fields;
+            try {
+                fields = csv.next();
+            } catch (IllegalArgumentException e) {
+                // Registro ilegible (p. ej. un campo enorme): se rechaza solo esa línea y se sigue leyendo.
+                run.linesRead++;
+                run.failures.incrementAndGet();
+                run.report.accept(ImportEvent.error(csv.recordLine(), null, e.getMessage()));
+                reportProgress(run);
+                continue;
+            }
+            if (fields == null) {
+                break;
+            }
+            long line = csv.recordLine();
+            run.linesRead++;
+            try {
+                Wexhvloc location = toLocation(columns, fields, now);
+                String tenant = location.getCdisoloc().trim().toUpperCase();
+                if (!tenants.contains(tenant)) {
+                    throw new IllegalArgumentException("No hay base de datos configurada para el país '" + tenant + "'.");
+                }
+                location.setCdisoloc(tenant);
+                List<ImportRow> batch = batches.computeIfAbsent(tenant, t -> new ArrayList<>(batchRows));
+                batch.add(new ImportRow(line, location));
+                if (batch.size() >= batchRows) {
+                    run.submit(tenant, batch);
+                    batches.remove(tenant);
+                }
+            } catch (IllegalArgumentException e) {
+                run.failures.incrementAndGet();
+                run.report.accept(ImportEvent.error(line, null, e.getMessage()));
+            }
+            reportProgress(run);
+        }
+        batches.forEach(run::submit);
+    }
+
+    /**
+     * Cada {@link #PROGRESS_EVERY_LINES} registros, reenvía los errores de los lotes y un evento de progreso.
+     */
+    private static void reportProgress(ImportRun run) {
+        if (run.linesRead % PROGRESS_EVERY_LINES == 0) {
+            run.drainErrors();
+            run.report.accept(ImportEvent.progress(run.linesRead, run.written.get(), run.failures.get()));
+        }
+    }
+
+    /**
+     * Convierte un registro del CSV en una localización, validando cada campo contra su columna.
+     *
+     * @throws IllegalArgumentException con el primer problema encontrado.
+     */
+    private static Wexhvloc toLocation(List<WexhvlocColumn> columns, List<String> fields, LocalDateTime now) {
+        if (fields.size() != columns.size()) {
+            throw new IllegalArgumentException("Se esperaban " + columns.size() + " campos y hay " + fields.size() + ".");
+        }
+        Wexhvloc location = new Wexhvloc();
+        // Primero los valores por defecto de la tabla, para las columnas que no vienen en el fichero.
+        for (WexhvlocColumn column : WexhvlocColumn.values()) {
+            column.set(location, column.parse(null));
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            columns.get(i).set(location, columns.get(i).parse(fields.get(i)));
+        }
+        if (location.getCdisoloc().isBlank()) {
+            throw new IllegalArgumentException("CDISOLOC es obligatorio.");
+        }
+        if (location.getTscreate() == null) {
+            location.setTscreate(now);
+        }
+        if (location.getTslstupd() == null) {
+            location.setTslstupd(now);
+        }
+        return location;
+    }
+
+    /**
+     * Inserta un lote de un país en una transacción. Se ejecuta ya en el contexto del país.
+     * Si falla, repite fila a fila para saber qué líneas concretas lo impiden.
+     */
+    private void writeBatch(String tenant, List<ImportRow> batch, ImportRun run) {
+        List<Wexhvloc> rows = batch.stream().map(ImportRow::location).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                wexhvlocRepository.batchInsert(rows, 0);
+                dealerSummaryService.locationsInserted(rows);
+                eventPublisher.publishEvent(WexhvlocChangeEvent.upserted(tenant, rows));
+            });
+            run.written.addAndGet(rows.size());
+        } catch (RuntimeException batchError) {
+            for (ImportRow row : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        wexhvlocRepository.insertRecord(row.location());
+                        dealerSummaryService.locationsInserted(List.of(row.location()));
+                        eventPublisher.publishEvent(WexhvlocChangeEvent.upserted(tenant, List.of(row.location())));
+                    });
+                    run.written.incrementAndGet();
+                } catch (RuntimeException e) {
+                    run.failures.incrementAndGet();
+                    run.errors.add(ImportEvent.error(row.line(), tenant, NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+                }
+            }
+        }
+    }
+
+    // =====================================
+    // = Estado de una importación         =
+    // =====================================
+
+    private record ImportRow(long line, Wexhvloc location) {
+    }
+
+    /**
+     * Estado de una importación en curso. Solo el hilo lector escribe en {@link #report}; los lotes
+     * (en otros hilos) dejan sus errores en {@link #errors} y el lector los reenvía.
+     */
+    private final class ImportRun {
+        private final Consumer<ImportEvent> report;
+        private final Semaphore inFlight = new Semaphore(maxInFlightBatches);
+        private final List<CompletableFuture<Void>> pending = new ArrayList<>();
+        private final Queue<ImportEvent> errors = new ConcurrentLinkedQueue<>();
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private long linesRead;
+
+        private ImportRun(Consumer<ImportEvent> report) {
+            this.report = report;
+        }
+
+        /**
+         * Envía un lote a su país. Si ya hay demasiados lotes pendientes, espera (contrapresión),
+         * reenviando mientras tanto los errores que vayan llegando.
+         */
+        void submit(String tenant, List<ImportRow> batch) {
+            try {
+                while (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                    drainErrors();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Importación interrumpida.", e);
+            }
+            pending.removeIf(CompletableFuture::isDone);
+            pending.add(tenantExecutor.submit(tenant, () -> {
+                writeBatch(tenant, batch, this);
+                return (Void) null;
+            }).whenComplete((ignored, error) -> {
+                inFlight.release();
+                if (error != null) {
+                    failures.addAndGet(batch.size());
+                    errors.add(ImportEvent.error(batch.get(0).line(), tenant, "Lote no procesado: " + error.getMessage()));
+                }
+            }));
+        }
+
+        /**
+         * Espera a que terminen todos los lotes enviados, reenviando sus errores.
+         */
+        void awaitBatches() {
+            CompletableFuture<Void> all = CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]));
+            while (true) {
+                try {
+                    all.get(100, TimeUnit.MILLISECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    drainErrors();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException e) {
+                    break; // Ya contabilizado en whenComplete.
+                }
+            }
+            drainErrors();
+        }
+
+        void drainErrors() {
+            ImportEvent error;
+            while ((error = errors.poll()) != null) {
+                report.accept(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.kike.training.inquiry.application.service;
+
+import com.kike.training.inquiry.domain.model.WexhvlocChangeEvent;
+import com.kike.training.inquiry.domain.model.WexhvlocGroupCount;
+import com.kike.training.inquiry.domain.model.WexhvlocReport;
+import com.kike.training.inquiry.domain.port.out.WexhvlocRepository;
+import com.kike.training.inquiry.infrastructure.db.config.TenantExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Informes de recuento de WEXHVLOC (por país, por estado y por concesionario) sobre varios países.
+ *
+ * ¿POR QUÉ EXISTE?
+ * Dirección pedía estos recuentos con una consulta ad hoc por agregado y por país. Aquí basta una
+ * petición, y las repetidas se contestan desde memoria.
+ *
+ * ¿CÓMO FUNCIONA?
+ * - Cada país se resume con UN único {@code GROUP BY CDCOMPANY, CDDEALER, CDCHGSTS} (ver
+ *   {@link WexhvlocRepository#countByDealerAndStatus()}); los tres agregados salen de sumar esas filas.
+ * - Los países se consultan en paralelo en el {@link TenantExecutor} y sus resultados parciales se
+ *   funden al final.
+ * - El resultado de cada país (su "porción") se cachea como mucho {@code max-staleness-ms}. Se guarda
+ *   el {@link CompletableFuture}, no el valor: las peticiones que llegan mientras un país se está
+ *   recalculando esperan a ese mismo cálculo en lugar de lanzar otro.
+ * - Cualquier escritura confirmada en un país (llega como {@link WexhvlocChangeEvent}) descarta su
+ *   porción; los demás países siguen sirviéndose desde la caché.
+ */
+@Service
+@Slf4j
+public class WexhvlocReportService {
+
+    private final WexhvlocRepository wexhvlocRepository;
+    private final TenantExecutor tenantExecutor;
+    private final long maxStalenessNanos;
+    private final long timeoutMillis;
+    private final Map<String, CompletableFuture<Slice>> slices = new ConcurrentHashMap<>();
+
+    public WexhvlocReportService(WexhvlocRepository wexhvlocRepository,
+                                 TenantExecutor tenantExecutor,
+                                 @Value("${wexhvloc.report.max-staleness-ms:30000}") long maxStalenessMillis,
+                                 @Value("${wexhvloc.report.timeout-ms:10000}") long timeoutMillis) {
+        this.wexhvlocRepository = wexhvlocRepository;
+        this.tenantExecutor = tenantExecutor;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Informe de recuentos de los países pedidos.
+     *
+     * @param countries Países, o una lista vacía (o {@code null}) para todos.
+     * @throws ResponseStatusException 404 si algún país no existe; 504 si algún país no responde a tiempo.
+     */
+    public WexhvlocReport report(List<String> countries) {
+        List<String> tenants = resolveTenants(countries);
+        List<CompletableFuture<Slice>> pending = tenants.stream().map(this::slice).toList();
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Algún país no ha respondido en " + timeoutMillis + " ms.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Informe interrumpido.", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+        return merge(tenants, pending.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Descarta la porción cacheada del país de cada escritura confirmada.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(WexhvlocChangeEvent event) {
+        invalidate(event.tenant());
+    }
+
+    /**
+     * Descarta la porción cacheada de un país; se recalculará en el siguiente informe que lo incluya.
+     */
+    public void invalidate(String tenant) {
+        slices.remove(tenant.toUpperCase());
+    }
+
+    // =====================================
+    // = Caché por país                    =
+    // =====================================
+
+    /**
+     * Porción de un país: la cacheada si aún es válida, o una nueva consulta (compartida por todas las
+     * peticiones que la pidan mientras se calcula).
+     */
+    private CompletableFuture<Slice> slice(String tenant) {
+        return slices.compute(tenant, (t, cached) -> cached != null && !isExpired(cached) ? cached : load(t));
+    }
+
+    private boolean isExpired(CompletableFuture<Slice> cached) {
+        if (!cached.isDone()) {
+            return false; // Se está calculando: se espera a ese mismo cálculo.
+        }
+        if (cached.isCompletedExceptionally()) {
+            return true;
+        }
+        return System.nanoTime() - cached.join().loadedAtNanos() > maxStalenessNanos;
+    }
+
+    private CompletableFuture<Slice> load(String tenant) {
+        return tenantExecutor.submit(tenant, () -> {
+            long start = System.nanoTime();
+            List<WexhvlocGroupCount> groups = wexhvlocRepository.countByDealerAndStatus();
+            log.debug("Recuentos de WEXHVLOC de '{}' recalculados: {} grupos en {} ms.",
+                    tenant, groups.size(), (System.nanoTime() - start) / 1_000_000);
+            return new Slice(tenant, LocalDateTime.now(), start, groups);
+        });
+    }
+
+    /**
+     * Funde los agregados parciales de cada país en el informe.
+     */
+    private static WexhvlocReport merge(List<String> tenants, List<Slice> parts) {
+        Map<String, Long> byCountry = new TreeMap<>();
+        Map<String, Long> byStatus = new TreeMap<>();
+        List<WexhvlocReport.DealerCount> byDealer = new ArrayList<>();
+        LocalDateTime dataAsOf = LocalDateTime.now();
+        tenants.forEach(tenant -> byCountry.put(tenant, 0L));
+
+        for (Slice slice : parts) {
+            if (slice.loadedAt().isBefore(dataAsOf)) {
+                dataAsOf = slice.loadedAt();
+            }
+            Map<Long, Long> dealers = new TreeMap<>();
+            for (WexhvlocGroupCount group : slice.groups()) {
+                byCountry.merge(slice.tenant(), group.count(), Long::sum);
+                byStatus.merge(group.cdchgsts(), group.count(), Long::sum);
+                // Compañía y concesionario empaquetados en un long: ordena igual que por (compañía, concesionario).
+                dealers.merge(((long) group.cdcompany() << 32) | (group.cddealer() & 0xFFFFFFFFL), group.count(), Long::sum);
+            }
+            dealers.forEach((dealer, count) ->
+                    byDealer.add(new WexhvlocReport.DealerCount(slice.tenant(), (int) (dealer >> 32), (int) (long) dealer, count)));
+        }
+        byDealer.sort(Comparator.comparing(WexhvlocReport.DealerCount::cdisoloc));
+        return new WexhvlocReport(dataAsOf, byCountry, byStatus, byDealer);
+    }
+
+    private List<String> resolveTenants(List<String> requested) {
+        Set<String> known = tenantExecutor.getTenants();
+        if (requested == null || requested.isEmpty()) {
+            return List.copyOf(known);
+        }
+        List<String> tenants = requested.stream().map(t -> t.trim().toUpperCase()).distinct().toList();
+        for (String tenant : tenants) {
+            if (!known.contains(tenant)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No hay base de datos configurada para el país '" + tenant + "'.");
+            }
+        }
+        return tenants;
+    }
+
+    /**
+     * Resultado del {@code GROUP BY} de un país y el momento en que se leyó.
+     */
+    private record Slice(String tenant, LocalDateTime loadedAt, long loadedAtNanos, List<WexhvlocGroupCount> groups) {
+    }
+}
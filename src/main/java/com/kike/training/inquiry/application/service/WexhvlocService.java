@@ -1,16 +1,36 @@
 package com.kike.training.inquiry.application.service;
 
+import com.kike.training.inquiry.domain.model.CompactWexhvloc;
+import com.kike.training.inquiry.domain.model.DealerSummary;
+import com.kike.training.inquiry.domain.model.ExhibitionPeriod;
+import com.kike.training.inquiry.domain.model.KeysetCursor;
+import com.kike.training.inquiry.domain.model.KeysetPage;
+import com.kike.training.inquiry.domain.model.PurgeProgress;
+import com.kike.training.inquiry.domain.model.UpsertResult;
 import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.domain.model.WexhvlocChangeEvent;
+import com.kike.training.inquiry.domain.model.WexhvlocKey;
 import com.kike.training.inquiry.domain.port.out.WexhvlocRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Servicio de aplicación para gestionar las localizaciones de exhibición (Wexhvloc).
@@ -18,15 +38,63 @@ import java.util.Optional;
  * <p>Esta clase encapsula la lógica de negocio (o casos de uso) para la entidad Wexhvloc.
  * Actúa como un intermediario entre el controlador (la capa de API) y el repositorio (la capa de persistencia),
  * orquestando las operaciones y asegurando la integridad de los datos y las reglas de negocio.</p>
+ *
+ * <p>Cada escritura publica un {@link WexhvlocChangeEvent} dentro de su transacción, para que los
+ * índices en memoria (como {@link ExhibitionPeriodIndex}) se actualicen cuando se confirme, y
+ * mantiene en esa misma transacción el resumen por concesionario ({@link DealerSummaryService}).</p>
  */
 @Service
 public class WexhvlocService {
 
+    /**
+     * Tamaño máximo de página aceptado en la paginación por clave.
+     */
+    static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Fecha yyyymmdd mínima y máxima aceptadas en las consultas por periodo.
+     */
+    private static final int MIN_DATE = 10000101;
+    private static final int MAX_DATE = 99991231;
+
     private final WexhvlocRepository wexhvlocRepository;
+    private final ExhibitionPeriodIndex exhibitionPeriodIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WexhvlocGroupCommitter groupCommitter;
+    private final DealerSummaryService dealerSummaryService;
+    private final PurgeService purgeService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final SingleFlight<WexhvlocKey, Optional<Wexhvloc>> findByKeyFlight;
+    private final BatchLoader<WexhvlocKey, Wexhvloc> findByKeyLoader;
 
     @Autowired
-    public WexhvlocService(WexhvlocRepository wexhvlocRepository) {
+    public WexhvlocService(WexhvlocRepository wexhvlocRepository,
+                           ExhibitionPeriodIndex exhibitionPeriodIndex,
+                           ApplicationEventPublisher eventPublisher,
+                           WexhvlocGroupCommitter groupCommitter,
+                           DealerSummaryService dealerSummaryService,
+                           PurgeService purgeService,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           BatchLoaders batchLoaders,
+                           @Value("${wexhvloc.batch.size:0}") int batchSize,
+                           @Value("${inquiry.single-flight.enabled:true}") boolean singleFlightEnabled) {
         this.wexhvlocRepository = wexhvlocRepository;
+        this.exhibitionPeriodIndex = exhibitionPeriodIndex;
+        this.eventPublisher = eventPublisher;
+        this.groupCommitter = groupCommitter;
+        this.dealerSummaryService = dealerSummaryService;
+        this.purgeService = purgeService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.findByKeyFlight = new SingleFlight<>("wexhvloc.findExhibitionLocation", singleFlightEnabled, meterRegistry,
+                found -> found.map(Wexhvloc::copy));
+        this.findByKeyLoader = batchLoaders.create("wexhvloc.findByCompositeId", keys -> {
+            Map<WexhvlocKey, Wexhvloc> found = new HashMap<>();
+            wexhvlocRepository.findByCompositeIds(keys).forEach(row -> found.put(WexhvlocKey.of(row).normalized(), row));
+            return found;
+        });
     }
 
     /**
@@ -35,19 +103,73 @@ public class WexhvlocService {
      * Antes de la inserción, enriquece el objeto con metadatos de auditoría,
      * como las marcas de tiempo de creación y última actualización.
      * </p>
+     * <p>
+     * Con el group commit activado, la fila se confirma junto con las de otras peticiones concurrentes
+     * del mismo país (ver {@link WexhvlocGroupCommitter}). Por eso la transacción se abre aquí con un
+     * {@link TransactionTemplate} y no con {@code @Transactional}: el hilo de la petición no debe ocupar
+     * una conexión mientras espera al grupo.
+     * </p>
      *
      * @param exhibitionLocation El objeto a crear, proporcionado por la capa de API.
      * @return El objeto {@link Wexhvloc} persistido, incluyendo los campos de auditoría.
+     * @throws ResponseStatusException (409) si ya existe un registro con la misma clave primaria.
      */
-    @Transactional
     public Wexhvloc createExhibitionLocation(Wexhvloc exhibitionLocation) {
         LocalDateTime now = LocalDateTime.now();
         exhibitionLocation.setTscreate(now);
         exhibitionLocation.setTslstupd(now);
-        wexhvlocRepository.insertRecord(exhibitionLocation);
+        try {
+            if (groupCommitter.isEnabled()) {
+                groupCommitter.insert(exhibitionLocation);
+                return exhibitionLocation;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                wexhvlocRepository.insertRecord(exhibitionLocation);
+                dealerSummaryService.locationsInserted(List.of(exhibitionLocation));
+                eventPublisher.publishEvent(WexhvlocChangeEvent.upserted(exhibitionLocation.getCdisoloc(), List.of(exhibitionLocation)));
+            });
+        } catch (DuplicateKeyException e) {
+            // Igual que en ReactiveWexhvlocService: una clave repetida es un conflicto, no un error del servidor.
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "El registro de Wexhvloc ya existe.", e);
+        }
         return exhibitionLocation;
     }
 
+    /**
+     * Inserta o actualiza (upsert) varias localizaciones de un mismo país con un MERGE por fila,
+     * enviado en lotes JDBC. Sustituye al patrón "buscar y luego insertar o actualizar" de los
+     * procesos de sincronización, que necesitaba dos o tres idas y vueltas por fila.
+     * <p>
+     * El parámetro {@code cdisoloc} es el que usa el {@code WexhvlocRoutingAspect} para enrutar;
+     * por eso todas las filas deben pertenecer a ese país.
+     * </p>
+     *
+     * @param cdisoloc            País (tenant) de todas las filas.
+     * @param exhibitionLocations Las localizaciones a insertar o actualizar.
+     * @return Cuántas filas se han insertado y cuántas se han actualizado (aproximado con upserts
+     *         concurrentes de las mismas claves: ver {@link UpsertResult}).
+     * @throws ResponseStatusException (400) si alguna fila es de otro país.
+     */
+    @Transactional
+    public UpsertResult upsertExhibitionLocations(String cdisoloc, List<Wexhvloc> exhibitionLocations) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Wexhvloc location : exhibitionLocations) {
+            if (location.getCdisoloc() == null || !location.getCdisoloc().equalsIgnoreCase(cdisoloc)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Todas las filas del upsert deben tener CDISOLOC = " + cdisoloc + ".");
+            }
+            // TSCREATE solo se usa si la fila acaba insertándose (el MERGE no lo toca al actualizar).
+            if (location.getTscreate() == null) {
+                location.setTscreate(now);
+            }
+            location.setTslstupd(now);
+        }
+        UpsertResult result = wexhvlocRepository.upsert(exhibitionLocations, batchSize);
+        dealerSummaryService.dealersChanged(exhibitionLocations);
+        eventPublisher.publishEvent(WexhvlocChangeEvent.upserted(cdisoloc, exhibitionLocations));
+        return result;
+    }
+
     /**
      * Busca una localización de exhibición por su clave primaria compuesta completa.
      *
@@ -58,11 +180,165 @@ public class WexhvlocService {
      * @param nmexhvl   Parte de la clave primaria.
      * @param cdexhvl   Parte de la clave primaria.
      * @return Un {@link Optional} que contiene la localización si se encuentra; de lo contrario, está vacío.
+     *         Las búsquedas simultáneas de la misma clave comparten la consulta ({@link SingleFlight}), y
+     *         cada una recibe su propia copia del registro. Con {@code inquiry.batch-loader.enabled},
+     *         las de claves distintas del mismo país se resuelven juntas en una consulta ({@link BatchLoader}).
      */
-    @Transactional(readOnly = true)
     public Optional<Wexhvloc> findExhibitionLocation(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer, String chassis, BigDecimal nmexhvl, String cdexhvl) {
-        // Llama al método corregido del repositorio que incluye todos los campos de la clave.
-        return wexhvlocRepository.findByCompositeId(cdisoloc, cdcompany, cddealer, chassis, nmexhvl, cdexhvl);
+        // Sin @Transactional: una única SELECT no necesita transacción, y así las peticiones que esperan
+        // a la consulta de otra no ocupan una conexión del pool mientras tanto (ni dejan de agruparse).
+        WexhvlocKey key = new WexhvlocKey(cdisoloc.trim().toUpperCase(), cdcompany, cddealer, chassis, nmexhvl, cdexhvl).normalized();
+        return findByKeyFlight.execute(key, () -> Optional.ofNullable(findByKeyLoader.load(key.cdisoloc(), key,
+                () -> wexhvlocRepository.findByCompositeId(cdisoloc, cdcompany, cddealer, chassis, nmexhvl, cdexhvl).orElse(null))));
+    }
+
+    /**
+     * Busca una localización por su clave compuesta devolviendo solo los campos pedidos.
+     * <p>
+     * La proyección se traslada a la lista de columnas del SELECT, así que las columnas que no se
+     * piden (por ejemplo, los 100 caracteres de ADEXHVL) ni se leen del AS400 ni viajan por la red.
+     * </p>
+     *
+     * @param fields Nombres de las propiedades a devolver.
+     * @return Un {@link Optional} con el mapa propiedad → valor si el registro existe.
+     * @throws ResponseStatusException (400) si algún campo no es una columna de WEXHVLOC.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> findExhibitionLocationFields(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer,
+                                                                      String chassis, BigDecimal nmexhvl, String cdexhvl,
+                                                                      List<String> fields) {
+        WexhvlocKey key = new WexhvlocKey(cdisoloc, cdcompany, cddealer, chassis, nmexhvl, cdexhvl);
+        try {
+            return wexhvlocRepository.findProjectionByCompositeId(key, fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Devuelve todas las localizaciones de un chasis en un país (por ejemplo, su historial de exposiciones).
+     *
+     * @param cdisoloc País (usado también para enrutar).
+     * @param chassis  Número de chasis.
+     * @return Las localizaciones del chasis; vacía si no hay ninguna.
+     */
+    @Transactional(readOnly = true)
+    public List<Wexhvloc> findChassisExhibitionLocations(String cdisoloc, String chassis) {
+        return wexhvlocRepository.findByChassis(cdisoloc, chassis);
+    }
+
+    /**
+     * Localizaciones de un país (opcionalmente de un concesionario) modificadas desde un instante, incluido.
+     * La usa el feed de cambios para reanudar una suscripción sin perder eventos.
+     *
+     * @param cdisoloc  País (usado también para enrutar).
+     * @param cdcompany Compañía, o {@code null} para todas.
+     * @param cddealer  Concesionario, o {@code null} para todos.
+     * @param since     Instante inclusivo desde el que se buscan cambios.
+     * @param limit     Número máximo de registros.
+     * @return Los registros modificados, de más antiguo a más reciente.
+     */
+    @Transactional(readOnly = true)
+    public List<Wexhvloc> findExhibitionLocationsModifiedSince(String cdisoloc, Integer cdcompany, Integer cddealer,
+                                                               LocalDateTime since, int limit) {
+        return wexhvlocRepository.findModifiedSince(cdisoloc, cdcompany, cddealer, since, limit);
+    }
+
+    /**
+     * Lista las localizaciones de un concesionario con paginación por clave (keyset), ordenadas por
+     * CHASSIS, NMEXHVL y CDEXHVL. El cursor codifica esos tres valores del último registro devuelto.
+     *
+     * @param cdisoloc  País del concesionario (usado también para enrutar).
+     * @param cdcompany Compañía del concesionario.
+     * @param cddealer  Código del concesionario.
+     * @param limit     Número máximo de registros por página.
+     * @param cursor    Cursor opaco de la página anterior, o {@code null} para la primera.
+     * @return La página, con el cursor de la siguiente si hay más registros.
+     * @throws ResponseStatusException (400) si el límite o el cursor no son válidos.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Wexhvloc> findDealerExhibitionLocations(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer,
+                                                              int limit, String cursor) {
+        WexhvlocKey after = decodeDealerCursor(cdisoloc, cdcompany, cddealer, limit, cursor);
+        // Pedimos una fila de más para saber si hay página siguiente sin hacer un COUNT.
+        List<Wexhvloc> rows = wexhvlocRepository.findDealerPage(cdisoloc, cdcompany, cddealer, after, limit + 1);
+        return toDealerPage(rows, limit, last -> List.of(last.getChassis(), last.getNmexhvl().toPlainString(), last.getCdexhvl()));
+    }
+
+    /**
+     * Igual que {@link #findDealerExhibitionLocations}, pero con la representación compacta
+     * {@link CompactWexhvloc}. Los cursores de ambas variantes son intercambiables.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<CompactWexhvloc> findCompactDealerExhibitionLocations(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer,
+                                                                            int limit, String cursor) {
+        WexhvlocKey after = decodeDealerCursor(cdisoloc, cdcompany, cddealer, limit, cursor);
+        List<CompactWexhvloc> rows = wexhvlocRepository.findDealerPageCompact(cdisoloc, cdcompany, cddealer, after, limit + 1);
+        return toDealerPage(rows, limit, last -> List.of(last.chassis(), Integer.toString(last.nmexhvl()), last.cdexhvl()));
+    }
+
+    /**
+     * Resumen de un concesionario (número de localizaciones y rango de fechas de exposición), leído de
+     * la tabla de resumen con una búsqueda por clave primaria, sin agregar WEXHVLOC.
+     *
+     * @param cdisoloc  País del concesionario (usado también para enrutar).
+     * @param cdcompany Compañía del concesionario.
+     * @param cddealer  Código del concesionario.
+     * @return El resumen, o vacío si el concesionario no tiene localizaciones.
+     * @throws ResponseStatusException (503) si el resumen está desactivado.
+     */
+    @Transactional(readOnly = true)
+    public Optional<DealerSummary> findDealerSummary(String cdisoloc, int cdcompany, int cddealer) {
+        return dealerSummaryService.find(cdisoloc, cdcompany, cddealer);
+    }
+
+    /**
+     * Recalcula por bloques el resumen por concesionario de un país (ver {@link DealerSummaryService#rebuild}).
+     *
+     * @param cdisoloc País (usado también para enrutar).
+     * @return Número de concesionarios resumidos.
+     */
+    public long rebuildDealerSummaries(String cdisoloc) {
+        return dealerSummaryService.rebuild(cdisoloc);
+    }
+
+    /**
+     * Localizaciones de un país expuestas en una fecha (DTINILOC &lt;= date &lt;= DTFINLOC, o sin fecha de fin).
+     * <p>
+     * Se resuelve con el índice en memoria {@link ExhibitionPeriodIndex}, sin consultar la base de datos
+     * salvo la primera vez que se pregunta por el país.
+     * </p>
+     *
+     * @param cdisoloc  País (usado también para enrutar).
+     * @param date      Fecha yyyymmdd.
+     * @param cdcompany Compañía, o {@code null} para todas.
+     * @param cddealer  Concesionario, o {@code null} para todos.
+     * @return Los periodos activos, ordenados por fecha de inicio.
+     * @throws ResponseStatusException (400) si la fecha no tiene formato yyyymmdd.
+     */
+    public List<ExhibitionPeriod> findActiveExhibitionPeriods(String cdisoloc, int date, Integer cdcompany, Integer cddealer) {
+        validateDate("date", date);
+        return exhibitionPeriodIndex.activeOn(date, cdcompany, cddealer);
+    }
+
+    /**
+     * Localizaciones de un país cuyo periodo de exposición se solapa con el rango [from, to].
+     *
+     * @param cdisoloc  País (usado también para enrutar).
+     * @param from      Fecha inicial yyyymmdd (incluida).
+     * @param to        Fecha final yyyymmdd (incluida).
+     * @param cdcompany Compañía, o {@code null} para todas.
+     * @param cddealer  Concesionario, o {@code null} para todos.
+     * @return Los periodos que se solapan, ordenados por fecha de inicio.
+     * @throws ResponseStatusException (400) si alguna fecha no es válida o {@code from > to}.
+     */
+    public List<ExhibitionPeriod> findOverlappingExhibitionPeriods(String cdisoloc, int from, int to, Integer cdcompany, Integer cddealer) {
+        validateDate("from", from);
+        validateDate("to", to);
+        if (from > to) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El parámetro 'from' no puede ser posterior a 'to'.");
+        }
+        return exhibitionPeriodIndex.overlapping(from, to, cdcompany, cddealer);
     }
 
     /**
@@ -73,11 +349,13 @@ public class WexhvlocService {
      * no existía. En ese caso, se lanza una {@link ResponseStatusException} que resultará en
      * una respuesta HTTP 404 Not Found.
      * </p>
+     * <p>
+     * Igual que el alta, puede confirmarse en grupo (ver {@link #createExhibitionLocation}).
+     * </p>
      *
      * @param exhibitionLocation El objeto con los datos a actualizar y la clave primaria completa.
      * @throws ResponseStatusException si el registro a actualizar no se encuentra en la base de datos.
      */
-    @Transactional
     public void updateExhibitionLocation(Wexhvloc exhibitionLocation) {
         // Establece la lógica de negocio para la actualización (campos de auditoría).
         exhibitionLocation.setTslstupd(LocalDateTime.now());
@@ -85,7 +363,18 @@ public class WexhvlocService {
         // exhibitionLocation.setSnlstupd("API_USER");
 
         // Llama al método de actualización del repositorio que ahora devuelve el número de filas afectadas.
-        int rowsAffected = wexhvlocRepository.updateRecord(exhibitionLocation);
+        int rowsAffected;
+        if (groupCommitter.isEnabled()) {
+            rowsAffected = groupCommitter.update(exhibitionLocation);
+        } else {
+            rowsAffected = transactionTemplate.execute(status -> {
+                int rows = wexhvlocRepository.updateRecord(exhibitionLocation);
+                if (rows > 0) {
+                    eventPublisher.publishEvent(WexhvlocChangeEvent.updated(exhibitionLocation.getCdisoloc(), exhibitionLocation));
+                }
+                return rows;
+            });
+        }
 
         // Si no se actualizó ninguna fila, el registro no existía. Lanza una excepción.
         if (rowsAffected == 0) {
@@ -119,5 +408,75 @@ public class WexhvlocService {
         if (rowsAffected == 0) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "El registro de Wexhvloc no fue encontrado para ser eliminado.");
         }
+
+        Wexhvloc deleted = new Wexhvloc();
+        deleted.setCdisoloc(cdisoloc);
+        deleted.setCdcompany(cdcompany);
+        deleted.setCddealer(cddealer);
+        deleted.setChassis(chassis);
+        deleted.setNmexhvl(nmexhvl);
+        deleted.setCdexhvl(cdexhvl);
+        dealerSummaryService.dealersChanged(List.of(deleted));
+        eventPublisher.publishEvent(WexhvlocChangeEvent.deleted(cdisoloc, List.of(deleted)));
+    }
+
+    /**
+     * Borra TODAS las localizaciones de un concesionario por bloques de claves, con una transacción
+     * corta por bloque (ver {@link PurgeService#purgeDealer}). Si se interrumpe, se reanuda volviendo a llamarlo.
+     *
+     * @param cdisoloc  País del concesionario (usado también para enrutar).
+     * @param cdcompany Compañía del concesionario.
+     * @param cddealer  Código del concesionario.
+     * @param progress  Recibe un mensaje por bloque borrado y uno final.
+     */
+    public void purgeDealerExhibitionLocations(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer,
+                                               Consumer<PurgeProgress> progress) {
+        purgeService.purgeDealer(cdisoloc, cdcompany, cddealer, progress);
+    }
+
+    /**
+     * Valida el límite de página y decodifica el cursor de la paginación por concesionario.
+     *
+     * @return La clave del último registro de la página anterior, o {@code null} para la primera página.
+     * @throws ResponseStatusException (400) si el límite o el cursor no son válidos.
+     */
+    private static WexhvlocKey decodeDealerCursor(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer,
+                                                  int limit, String cursor) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El parámetro 'limit' debe estar entre 1 y " + MAX_PAGE_SIZE + ".");
+        }
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            List<String> values = KeysetCursor.decode(cursor, 3);
+            return new WexhvlocKey(cdisoloc, cdcompany, cddealer, values.get(0), new BigDecimal(values.get(1)), values.get(2));
+        } catch (IllegalArgumentException e) { // incluye NumberFormatException
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor de paginación no válido.", e);
+        }
+    }
+
+    /**
+     * Recorta a {@code limit} las filas leídas (se pidió una de más) y calcula el cursor de la página siguiente.
+     *
+     * @param cursorValues CHASSIS, NMEXHVL y CDEXHVL de una fila, para codificarlos en el cursor.
+     */
+    private static <T> KeysetPage<T> toDealerPage(List<T> rows, int limit, Function<T, List<String>> cursorValues) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = List.copyOf(rows.subList(0, limit));
+        return new KeysetPage<>(items, KeysetCursor.encode(cursorValues.apply(items.get(limit - 1))));
+    }
+
+    /**
+     * Comprueba que una fecha tiene formato yyyymmdd (8 dígitos, mes 1-12, día 1-31).
+     */
+    private static void validateDate(String name, int date) {
+        int month = date / 100 % 100;
+        int day = date % 100;
+        if (date < MIN_DATE || date > MAX_DATE || month < 1 || month > 12 || day < 1 || day > 31) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El parámetro '" + name + "' debe ser una fecha yyyymmdd.");
+        }
     }
 }
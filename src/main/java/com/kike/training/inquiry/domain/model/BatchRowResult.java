@@ -0,0 +1,25 @@
+package com.kike.training.inquiry.domain.model;
+
+/**
+ * Resultado de una fila dentro de una operación por lotes.
+ *
+ * @param index    Posición de la fila en la petición original (empezando en 0).
+ * @param cdisoloc País (tenant) al que se enrutó la fila.
+ * @param status   Resultado de la fila.
+ * @param message  Detalle del error si la fila falló; null en caso de éxito.
+ */
+public record BatchRowResult(int index, String cdisoloc, Status status, String message) {
+
+    public enum Status {
+        INSERTED,
+        FAILED
+    }
+
+    public static BatchRowResult inserted(int index, String cdisoloc) {
+        return new BatchRowResult(index, cdisoloc, Status.INSERTED, null);
+    }
+
+    public static BatchRowResult failed(int index, String cdisoloc, String message) {
+        return new BatchRowResult(index, cdisoloc, Status.FAILED, message);
+    }
+}
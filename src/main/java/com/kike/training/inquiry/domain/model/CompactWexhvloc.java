@@ -0,0 +1,127 @@
+package com.kike.training.inquiry.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Representación compacta (solo lectura) de un registro WEXHVLOC.
+ *
+ * ¿POR QUÉ EXISTE?
+ * {@link Wexhvloc} refleja la tabla tal cual: siete {@code BigDecimal} para columnas que caben de sobra
+ * en un {@code int} (CDCOMPANY NUMERIC(1), CDDEALER NUMERIC(5), NMEXHVL DECIMAL(9), LGEXHVL DECIMAL(6) y
+ * las fechas DECIMAL(8)) y un {@code String} nuevo, relleno de espacios, por cada columna CHAR de cada fila.
+ * Para listados largos eso es mucha memoria por fila que no aporta nada.
+ *
+ * ¿QUÉ CAMBIA AQUÍ?
+ * - Los números son {@code int} primitivos. En la tabla todas las columnas numéricas son
+ *   {@code NOT NULL DEFAULT 0}, así que al leer de la base de datos no se pierde nada; un {@code null} de una
+ *   entidad construida en memoria se convierte en 0 y no se puede recuperar (ver {@link #toEntity()}).
+ * - Los textos llegan sin los espacios de relleno.
+ * - Los códigos de pocos valores distintos (CDISOLOC, CDEXHVL, CDCHGSTS, TMEXHVL) se comparten: todas las
+ *   filas de "ES" apuntan a la misma instancia de "ES" (ver {@link #code(String)}).
+ *
+ * La normalización se hace en el constructor canónico, así que se aplica igual al leer de la base de
+ * datos, al convertir desde {@link Wexhvloc} con {@link #from(Wexhvloc)} y al deserializar desde JSON.
+ */
+public record CompactWexhvloc(String cdisoloc, int cdcompany, int cddealer, String chassis, int nmexhvl, String cdexhvl,
+                              int dtiniloc, int dtfinloc, String adexhvl, int lgexhvl, String tmexhvl, int dtapprv,
+                              String sncreate, LocalDateTime tscreate, String snlstupd, LocalDateTime tslstupd,
+                              String cdchgsts) {
+
+    /**
+     * Número máximo de códigos distintos que se comparten. Por encima (datos inesperados), los valores
+     * nuevos simplemente no se comparten, para que el almacén no crezca sin límite.
+     */
+    private static final int MAX_CODES = 4096;
+
+    private static final Map<String, String> CODES = new ConcurrentHashMap<>();
+
+    public CompactWexhvloc {
+        cdisoloc = code(cdisoloc);
+        chassis = trim(chassis);
+        cdexhvl = code(cdexhvl);
+        adexhvl = trim(adexhvl);
+        tmexhvl = code(tmexhvl);
+        sncreate = trim(sncreate);
+        snlstupd = trim(snlstupd);
+        cdchgsts = code(cdchgsts);
+    }
+
+    /**
+     * Convierte un registro completo a su forma compacta.
+     */
+    public static CompactWexhvloc from(Wexhvloc loc) {
+        return new CompactWexhvloc(loc.getCdisoloc(), toInt(loc.getCdcompany()), toInt(loc.getCddealer()),
+                loc.getChassis(), toInt(loc.getNmexhvl()), loc.getCdexhvl(),
+                toInt(loc.getDtiniloc()), toInt(loc.getDtfinloc()), loc.getAdexhvl(), toInt(loc.getLgexhvl()),
+                loc.getTmexhvl(), toInt(loc.getDtapprv()), loc.getSncreate(), loc.getTscreate(),
+                loc.getSnlstupd(), loc.getTslstupd(), loc.getCdchgsts());
+    }
+
+    /**
+     * Convierte de vuelta a la entidad, por ejemplo para reutilizar las operaciones de escritura.
+     *
+     * <p>No es la inversa exacta de {@link #from(Wexhvloc)}: los números nulos llegan como
+     * {@code BigDecimal.ZERO} (no se puede distinguir un 0 real de un nulo, y el 0 es el valor por defecto
+     * de esas columnas), la escala de los {@code BigDecimal} es 0 y los textos llegan sin los espacios de
+     * relleno. Para un registro leído de la tabla el resultado es equivalente al que se leyó.</p>
+     */
+    public Wexhvloc toEntity() {
+        Wexhvloc loc = new Wexhvloc();
+        loc.setCdisoloc(cdisoloc);
+        loc.setCdcompany(BigDecimal.valueOf(cdcompany));
+        loc.setCddealer(BigDecimal.valueOf(cddealer));
+        loc.setChassis(chassis);
+        loc.setNmexhvl(BigDecimal.valueOf(nmexhvl));
+        loc.setCdexhvl(cdexhvl);
+        loc.setDtiniloc(BigDecimal.valueOf(dtiniloc));
+        loc.setDtfinloc(BigDecimal.valueOf(dtfinloc));
+        loc.setAdexhvl(adexhvl);
+        loc.setLgexhvl(BigDecimal.valueOf(lgexhvl));
+        loc.setTmexhvl(tmexhvl);
+        loc.setDtapprv(BigDecimal.valueOf(dtapprv));
+        loc.setSncreate(sncreate);
+        loc.setTscreate(tscreate);
+        loc.setSnlstupd(snlstupd);
+        loc.setTslstupd(tslstupd);
+        loc.setCdchgsts(cdchgsts);
+        return loc;
+    }
+
+    /**
+     * Clave compuesta del registro (ya normalizada: sin espacios de relleno).
+     */
+    public WexhvlocKey key() {
+        return new WexhvlocKey(cdisoloc, BigDecimal.valueOf(cdcompany), BigDecimal.valueOf(cddealer),
+                chassis, BigDecimal.valueOf(nmexhvl), cdexhvl);
+    }
+
+    /**
+     * Devuelve la instancia compartida de un código corto (sin espacios de relleno).
+     */
+    public static String code(String value) {
+        String trimmed = trim(value);
+        if (trimmed == null) {
+            return null;
+        }
+        String shared = CODES.get(trimmed);
+        if (shared != null) {
+            return shared;
+        }
+        if (CODES.size() >= MAX_CODES) {
+            return trimmed;
+        }
+        shared = CODES.putIfAbsent(trimmed, trimmed);
+        return shared != null ? shared : trimmed;
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.stripTrailing();
+    }
+
+    private static int toInt(BigDecimal value) {
+        return value == null ? 0 : value.intValueExact();
+    }
+}
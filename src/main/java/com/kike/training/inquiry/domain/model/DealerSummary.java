@@ -0,0 +1,23 @@
+package com.kike.training.inquiry.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resumen de las localizaciones de exhibición de un concesionario (una fila de WEXHVLOC_DEALER_SUMMARY).
+ *
+ * @param cdisoloc  País.
+ * @param cdcompany Compañía.
+ * @param cddealer  Concesionario.
+ * @param locations Número de localizaciones.
+ * @param dtinimin  Primer DTINILOC (yyyymmdd).
+ * @param dtfinmax  Último DTFINLOC (yyyymmdd); {@link #OPEN_END} si alguna exposición no tiene fecha de fin.
+ * @param tslstupd  Última vez que se modificó el resumen.
+ */
+public record DealerSummary(String cdisoloc, int cdcompany, int cddealer, long locations,
+                            int dtinimin, int dtfinmax, LocalDateTime tslstupd) {
+
+    /**
+     * Valor de {@code dtfinmax} cuando alguna localización tiene DTFINLOC = 0 ("sin fecha de fin").
+     */
+    public static final int OPEN_END = 99999999;
+}
@@ -0,0 +1,14 @@
+package com.kike.training.inquiry.domain.model;
+
+/**
+ * Periodo de exposición de una localización: la clave del registro y sus fechas DTINILOC–DTFINLOC.
+ *
+ * <p>Las fechas se guardan como enteros primitivos con formato yyyymmdd (p. ej. 20250131), que se
+ * comparan igual que las fechas. Un DTFINLOC a 0 significa "sin fecha de fin".</p>
+ *
+ * @param key      Clave compuesta (normalizada) de la localización.
+ * @param dtiniloc Fecha de inicio, yyyymmdd.
+ * @param dtfinloc Fecha de fin, yyyymmdd, o 0 si la exposición sigue abierta.
+ */
+public record ExhibitionPeriod(WexhvlocKey key, int dtiniloc, int dtfinloc) {
+}
@@ -0,0 +1,37 @@
+package com.kike.training.inquiry.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Mensaje del informe de una importación masiva, que se envía al cliente en streaming (NDJSON).
+ *
+ * <p>Tres tipos: {@link Type#ERROR} para cada línea rechazada (con su número y el motivo),
+ * {@link Type#PROGRESS} periódicamente y un {@link Type#SUMMARY} final. Los campos que no aplican a
+ * un tipo no se serializan.</p>
+ *
+ * @param type        Tipo de mensaje.
+ * @param line        Línea del fichero donde empieza el registro (solo en errores).
+ * @param tenant      País de la fila (solo en errores, si se conoce).
+ * @param message     Motivo del error.
+ * @param linesRead   Registros leídos hasta el momento (sin la cabecera).
+ * @param rowsWritten Filas confirmadas en la base de datos.
+ * @param rowsFailed  Filas rechazadas (validación o base de datos).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportEvent(Type type, Long line, String tenant, String message,
+                          Long linesRead, Long rowsWritten, Long rowsFailed) {
+
+    public enum Type { ERROR, PROGRESS, SUMMARY }
+
+    public static ImportEvent error(long line, String tenant, String message) {
+        return new ImportEvent(Type.ERROR, line, tenant, message, null, null, null);
+    }
+
+    public static ImportEvent progress(long linesRead, long rowsWritten, long rowsFailed) {
+        return new ImportEvent(Type.PROGRESS, null, null, null, linesRead, rowsWritten, rowsFailed);
+    }
+
+    public static ImportEvent summary(long linesRead, long rowsWritten, long rowsFailed) {
+        return new ImportEvent(Type.SUMMARY, null, null, null, linesRead, rowsWritten, rowsFailed);
+    }
+}
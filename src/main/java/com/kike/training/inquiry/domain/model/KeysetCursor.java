@@ -0,0 +1,50 @@
+package com.kike.training.inquiry.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Codificador de los cursores opacos usados por la paginación por clave ({@link KeysetPage}).
+ *
+ * <p>Un cursor es simplemente la lista de valores de la última clave devuelta, unidos con un
+ * separador de control y codificados en Base64 "url-safe". Al cliente no le importa su contenido:
+ * solo tiene que devolverlo tal cual.</p>
+ */
+public final class KeysetCursor {
+
+    /**
+     * Separador de unidades ASCII (0x1F): no puede aparecer en los valores de las claves.
+     */
+    private static final String SEPARATOR = "\u001F";
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Codifica los valores de una clave en un cursor opaco.
+     */
+    public static String encode(List<String> keyValues) {
+        String raw = String.join(SEPARATOR, keyValues);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor y comprueba que tiene el número de valores esperado.
+     *
+     * @throws IllegalArgumentException si el cursor no es válido.
+     */
+    public static List<String> decode(String cursor, int expectedValues) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de paginación no válido.", e);
+        }
+        List<String> values = List.of(raw.split(SEPARATOR, -1));
+        if (values.size() != expectedValues) {
+            throw new IllegalArgumentException("Cursor de paginación no válido.");
+        }
+        return values;
+    }
+}
@@ -0,0 +1,16 @@
+package com.kike.training.inquiry.domain.model;
+
+import java.util.List;
+
+/**
+ * Una página de resultados obtenida con paginación por clave (keyset / "seek").
+ *
+ * <p>En lugar de un número de página u OFFSET (que obliga a la base de datos a leer y descartar
+ * todas las filas anteriores), el cliente recibe un cursor opaco con la última clave devuelta y
+ * lo reenvía para pedir la página siguiente.</p>
+ *
+ * @param items      Los elementos de esta página, en el orden de la clave.
+ * @param nextCursor Cursor para pedir la página siguiente, o {@code null} si esta es la última.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,31 @@
+package com.kike.training.inquiry.domain.model;
+
+/**
+ * Resultado de una clave dentro de una búsqueda de varias claves a la vez ({@code _mget}).
+ *
+ * @param index    Posición de la clave en la petición original (empezando en 0).
+ * @param key      La clave tal y como llegó en la petición.
+ * @param status   Resultado de la búsqueda de esa clave.
+ * @param location El registro si se ha encontrado; null en otro caso.
+ * @param message  Detalle del error si la clave no se pudo buscar; null en otro caso.
+ */
+public record MultiGetResult(int index, WexhvlocKey key, Status status, Wexhvloc location, String message) {
+
+    public enum Status {
+        FOUND,
+        NOT_FOUND,
+        FAILED
+    }
+
+    public static MultiGetResult found(int index, WexhvlocKey key, Wexhvloc location) {
+        return new MultiGetResult(index, key, Status.FOUND, location, null);
+    }
+
+    public static MultiGetResult notFound(int index, WexhvlocKey key) {
+        return new MultiGetResult(index, key, Status.NOT_FOUND, null, null);
+    }
+
+    public static MultiGetResult failed(int index, WexhvlocKey key, String message) {
+        return new MultiGetResult(index, key, Status.FAILED, null, message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.kike.training.inquiry.domain.model;
+
+/**
+ * Progreso de una purga (borrado masivo), que se envía al cliente en streaming (NDJSON): un mensaje
+ * por bloque borrado y uno final con {@code done = true}.
+ *
+ * @param table     Tabla purgada.
+ * @param tenant    País.
+ * @param mode      {@code TRUNCATE} (vaciado de la tabla en una sola sentencia) o {@code CHUNKED} (por bloques).
+ * @param chunks    Bloques confirmados hasta el momento.
+ * @param deleted   Filas borradas hasta el momento (en {@code TRUNCATE} no se conocen: -1).
+ * @param done      {@code true} en el último mensaje.
+ * @param elapsedMs Milisegundos desde el inicio de la purga.
+ */
+public record PurgeProgress(String table, String tenant, Mode mode, long chunks, long deleted,
+                            boolean done, long elapsedMs) {
+
+    public enum Mode { TRUNCATE, CHUNKED }
+}
@@ -0,0 +1,15 @@
+package com.kike.training.inquiry.domain.model;
+
+/**
+ * Resultado de una operación de upsert (MERGE) masiva.
+ *
+ * <p>Los recuentos son APROXIMADOS: salen de una consulta de existencia hecha justo antes del MERGE
+ * (el MERGE en lote informa de "1 fila" tanto si inserta como si actualiza). Si otra petición inserta
+ * o borra las mismas claves entre esa consulta y el MERGE, el reparto entre insertadas y actualizadas
+ * puede no ser exacto; la suma siempre es el número de filas enviadas y los datos siempre son correctos.</p>
+ *
+ * @param inserted Filas que no existían y se han insertado.
+ * @param updated  Filas que ya existían y se han actualizado.
+ */
+public record UpsertResult(int inserted, int updated) {
+}
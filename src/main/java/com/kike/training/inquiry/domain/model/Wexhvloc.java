@@ -41,6 +41,32 @@ public class Wexhvloc {
     private LocalDateTime tslstupd;
     private String cdchgsts;
 
+    /**
+     * Copia del registro. Todos los campos son inmutables (String, BigDecimal, LocalDateTime), así que
+     * basta con copiar las referencias.
+     */
+    public Wexhvloc copy() {
+        Wexhvloc copy = new Wexhvloc();
+        copy.cdisoloc = cdisoloc;
+        copy.cdcompany = cdcompany;
+        copy.cddealer = cddealer;
+        copy.chassis = chassis;
+        copy.nmexhvl = nmexhvl;
+        copy.cdexhvl = cdexhvl;
+        copy.dtiniloc = dtiniloc;
+        copy.dtfinloc = dtfinloc;
+        copy.adexhvl = adexhvl;
+        copy.lgexhvl = lgexhvl;
+        copy.tmexhvl = tmexhvl;
+        copy.dtapprv = dtapprv;
+        copy.sncreate = sncreate;
+        copy.tscreate = tscreate;
+        copy.snlstupd = snlstupd;
+        copy.tslstupd = tslstupd;
+        copy.cdchgsts = cdchgsts;
+        return copy;
+    }
+
     // --- Getters y Setters ---
 
     public String getCdisoloc() {
@@ -0,0 +1,38 @@
+package com.kike.training.inquiry.domain.model;
+
+import java.util.List;
+
+/**
+ * Evento que se publica cada vez que se escriben localizaciones de exhibición de un país.
+ *
+ * <p>Lo publican los servicios de aplicación dentro de la transacción de escritura; los oyentes
+ * (índices en memoria, notificaciones...) lo reciben una vez confirmada la transacción.</p>
+ *
+ * @param tenant País (tenant) de todas las filas del evento, en mayúsculas.
+ * @param type   Tipo de cambio.
+ * @param rows   Filas afectadas. En {@link Type#DELETED} solo se garantiza que la clave esté informada;
+ *               en {@link Type#UPDATED} solo la clave y los campos modificables.
+ */
+public record WexhvlocChangeEvent(String tenant, Type type, List<Wexhvloc> rows) {
+
+    public enum Type {
+        /** Filas nuevas, o reemplazadas por completo (upsert). */
+        UPSERTED,
+        /** Actualización parcial: no cambian las fechas de exposición. */
+        UPDATED,
+        /** Filas borradas. */
+        DELETED
+    }
+
+    public static WexhvlocChangeEvent upserted(String tenant, List<Wexhvloc> rows) {
+        return new WexhvlocChangeEvent(tenant.toUpperCase(), Type.UPSERTED, List.copyOf(rows));
+    }
+
+    public static WexhvlocChangeEvent updated(String tenant, Wexhvloc row) {
+        return new WexhvlocChangeEvent(tenant.toUpperCase(), Type.UPDATED, List.of(row));
+    }
+
+    public static WexhvlocChangeEvent deleted(String tenant, List<Wexhvloc> rows) {
+        return new WexhvlocChangeEvent(tenant.toUpperCase(), Type.DELETED, List.copyOf(rows));
+    }
+}
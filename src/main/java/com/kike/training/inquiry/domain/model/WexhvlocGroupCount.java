@@ -0,0 +1,14 @@
+package com.kike.training.inquiry.domain.model;
+
+/**
+ * Agregado parcial de WEXHVLOC dentro de un país: número de localizaciones de un concesionario en un
+ * estado ({@code CDCHGSTS}). Es la fila de un {@code GROUP BY CDCOMPANY, CDDEALER, CDCHGSTS}; los
+ * totales por concesionario, por estado y por país se obtienen sumando estas filas.
+ *
+ * @param cdcompany Compañía.
+ * @param cddealer  Concesionario.
+ * @param cdchgsts  Estado, sin espacios de relleno.
+ * @param count     Número de localizaciones.
+ */
+public record WexhvlocGroupCount(int cdcompany, int cddealer, String cdchgsts, long count) {
+}
@@ -0,0 +1,52 @@
+package com.kike.training.inquiry.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Clave primaria compuesta de un registro WEXHVLOC como objeto de valor.
+ *
+ * <p>Los campos CHAR llegan de la base de datos rellenos con espacios y los DECIMAL pueden venir
+ * con escalas distintas; por eso, para comparar claves, hay que usar {@link #normalized()}.</p>
+ */
+public record WexhvlocKey(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer,
+                          String chassis, BigDecimal nmexhvl, String cdexhvl) {
+
+    /**
+     * Extrae la clave de un registro completo.
+     */
+    public static WexhvlocKey of(Wexhvloc location) {
+        return new WexhvlocKey(location.getCdisoloc(), location.getCdcompany(), location.getCddealer(),
+                location.getChassis(), location.getNmexhvl(), location.getCdexhvl());
+    }
+
+    /**
+     * Registro con solo la clave (el resto de propiedades a {@code null}), p. ej. para los eventos de borrado.
+     */
+    public Wexhvloc toEntity() {
+        Wexhvloc location = new Wexhvloc();
+        location.setCdisoloc(cdisoloc);
+        location.setCdcompany(cdcompany);
+        location.setCddealer(cddealer);
+        location.setChassis(chassis);
+        location.setNmexhvl(nmexhvl);
+        location.setCdexhvl(cdexhvl);
+        return location;
+    }
+
+    /**
+     * Devuelve una copia comparable con {@code equals}: textos sin espacios finales y
+     * números sin ceros de escala sobrantes.
+     */
+    public WexhvlocKey normalized() {
+        return new WexhvlocKey(strip(cdisoloc), strip(cdcompany), strip(cddealer),
+                strip(chassis), strip(nmexhvl), strip(cdexhvl));
+    }
+
+    private static String strip(String value) {
+        return value == null ? null : value.stripTrailing();
+    }
+
+    private static BigDecimal strip(BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros();
+    }
+}
@@ -0,0 +1,26 @@
+package com.kike.training.inquiry.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Informe de recuento de localizaciones de exhibición de uno o varios países.
+ *
+ * @param dataAsOf  Momento en que se leyó el dato más antiguo del informe (los resultados se cachean
+ *                  por país, así que pueden tener como mucho la antigüedad configurada).
+ * @param byCountry Localizaciones por país (los países sin filas aparecen con 0).
+ * @param byStatus  Localizaciones por estado ({@code CDCHGSTS}), sumando todos los países.
+ * @param byDealer  Localizaciones por concesionario, ordenadas por país, compañía y concesionario.
+ */
+public record WexhvlocReport(LocalDateTime dataAsOf,
+                             Map<String, Long> byCountry,
+                             Map<String, Long> byStatus,
+                             List<DealerCount> byDealer) {
+
+    /**
+     * Recuento de un concesionario.
+     */
+    public record DealerCount(String cdisoloc, int cdcompany, int cddealer, long count) {
+    }
+}
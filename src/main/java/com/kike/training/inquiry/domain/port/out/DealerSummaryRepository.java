@@ -0,0 +1,54 @@
+package com.kike.training.inquiry.domain.port.out;
+
+import com.kike.training.inquiry.domain.model.DealerSummary;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio (Puerto de Salida) del resumen por concesionario de WEXHVLOC (tabla WEXHVLOC_DEALER_SUMMARY).
+ *
+ * <p>Todas las operaciones trabajan sobre el país actualmente enrutado y, las de escritura, dentro de
+ * la transacción en curso: el resumen se confirma (o se deshace) junto con las filas que resume.</p>
+ */
+public interface DealerSummaryRepository {
+
+    /**
+     * Lee el resumen de un concesionario: una búsqueda por clave primaria.
+     */
+    Optional<DealerSummary> find(String cdisoloc, int cdcompany, int cddealer);
+
+    /**
+     * Suma al resumen de un concesionario las localizaciones insertadas: {@code added} más, y amplía
+     * el rango de fechas si hace falta. Si el concesionario aún no tiene resumen, lo crea.
+     *
+     * @param minStart Menor DTINILOC de las filas insertadas.
+     * @param maxEnd   Mayor DTFINLOC de las filas insertadas ({@link DealerSummary#OPEN_END} si alguna es 0).
+     */
+    void addLocations(String cdisoloc, int cdcompany, int cddealer, long added, int minStart, int maxEnd);
+
+    /**
+     * Recalcula el resumen de un concesionario a partir de sus filas en WEXHVLOC (un recorrido por el
+     * índice de la clave, acotado al concesionario). Si ya no tiene filas, borra el resumen.
+     */
+    void refresh(String cdisoloc, int cdcompany, int cddealer);
+
+    /**
+     * Calcula desde WEXHVLOC el resumen de los siguientes {@code limit} concesionarios, en orden de clave.
+     * No bloquea nada: sirve para delimitar un bloque, no para escribir sus valores.
+     *
+     * @param after Último concesionario del bloque anterior ({@code cdisoloc}, {@code cdcompany} y
+     *              {@code cddealer}), o {@code null} para empezar por el principio.
+     */
+    List<DealerSummary> computeChunk(DealerSummary after, int limit);
+
+    /**
+     * Sustituye los resúmenes del rango de concesionarios ({@code after}, {@code last}] por los que se
+     * agregan de WEXHVLOC. Borra el rango ANTES de agregar, para que las filas borradas queden bloqueadas
+     * frente a los incrementos concurrentes mientras se recalcula.
+     *
+     * @param after Límite inferior exclusivo, o {@code null} para "desde el principio".
+     * @param last  Límite superior inclusivo, o {@code null} para "hasta el final".
+     */
+    void rebuildRange(DealerSummary after, DealerSummary last);
+}
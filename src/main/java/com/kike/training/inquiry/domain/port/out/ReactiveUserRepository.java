@@ -0,0 +1,42 @@
+package com.kike.training.inquiry.domain.port.out;
+
+import com.kike.training.inquiry.domain.model.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Puerto de salida REACTIVO para los usuarios: la misma persistencia que {@link UserRepository}, pero
+ * sin bloquear hilos (cada operación devuelve un {@link Mono} o un {@link Flux} que se resuelve cuando
+ * la base de datos contesta).
+ *
+ * Es un puerto aparte, y no una segunda implementación de {@link UserRepository}, porque las firmas
+ * bloqueantes (List, Optional) obligarían a esperar el resultado en el hilo que llama.
+ *
+ * El país se toma del contexto de Reactor de la suscripción (ver {@code ReactiveTenantContext}).
+ */
+public interface ReactiveUserRepository {
+
+    /**
+     * Todos los usuarios, en orden de ID, emitidos según se leen.
+     */
+    Flux<User> findAll();
+
+    /**
+     * Usuario por ID, o vacío si no existe.
+     */
+    Mono<User> findById(Long id);
+
+    /**
+     * Inserta un usuario. El ID lo asigna la base de datos (secuencia USERS_ID_SEQ).
+     *
+     * @return El usuario insertado, ya con su ID.
+     */
+    Mono<User> insert(User user);
+
+    /**
+     * Borra un usuario por ID.
+     *
+     * @return Filas borradas (0 o 1).
+     */
+    Mono<Long> deleteById(Long id);
+}
@@ -0,0 +1,42 @@
+package com.kike.training.inquiry.domain.port.out;
+
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.domain.model.WexhvlocKey;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Puerto de salida REACTIVO para WEXHVLOC: las operaciones más usadas de {@link WexhvlocRepository}
+ * (lectura por clave, página de un concesionario, alta y baja), sin bloquear hilos.
+ *
+ * Igual que {@link ReactiveUserRepository}, es un puerto aparte porque las firmas del puerto
+ * bloqueante no se pueden cumplir sin esperar. El país se toma del contexto de Reactor.
+ */
+public interface ReactiveWexhvlocRepository {
+
+    /**
+     * Registro por su clave compuesta, o vacío si no existe.
+     */
+    Mono<Wexhvloc> findByCompositeId(WexhvlocKey key);
+
+    /**
+     * Primeros {@code limit} registros de un concesionario en orden de clave (CHASSIS, NMEXHVL, CDEXHVL).
+     */
+    Flux<Wexhvloc> findDealerPage(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer, int limit);
+
+    /**
+     * Inserta un registro completo.
+     *
+     * @return El mismo registro.
+     */
+    Mono<Wexhvloc> insert(Wexhvloc location);
+
+    /**
+     * Borra un registro por su clave compuesta.
+     *
+     * @return Filas borradas (0 o 1).
+     */
+    Mono<Long> deleteByCompositeId(WexhvlocKey key);
+}
@@ -4,7 +4,9 @@ import com.kike.training.inquiry.domain.model.User;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Interfaz para operaciones personalizadas sobre la entidad User
@@ -27,6 +29,15 @@ public interface UserRepositoryCustom {
      */
     User insertUserNative(User user);
 
+    /**
+     * Inserta varios usuarios con un único batch JDBC.
+     * Los IDs se asignan en cliente (por bloques) antes de insertar, sin recuperar claves generadas.
+     *
+     * @param users Usuarios a insertar. Se les asigna el ID.
+     * @return Los mismos usuarios, ya con su ID.
+     */
+    List<User> batchInsertUsersNative(List<User> users);
+
     /**
      * Actualiza un usuario existente por su ID.
      *
@@ -46,6 +57,22 @@ public interface UserRepositoryCustom {
      */
     void deleteAllUsersNative();
 
+    /**
+     * Borra el siguiente bloque de usuarios: los {@code limit} de menor ID, con un único DELETE por
+     * rango de clave ({@code id BETWEEN primero AND último}). Pensado para purgas por bloques, con una
+     * transacción corta por llamada.
+     *
+     * @return Filas borradas; 0 si la tabla ya está vacía.
+     */
+    int deleteUsersChunk(int limit);
+
+    /**
+     * Vacía la tabla con la sentencia TRUNCATE del dialecto, si la tiene.
+     *
+     * @return {@code false} si el dialecto no la admite (no se ha borrado nada).
+     */
+    boolean truncateUsers();
+
     /**
      * Recupera un usuario por su ID usando SQL personalizado.
      *
@@ -60,4 +87,43 @@ public interface UserRepositoryCustom {
      * @return Lista de todos los usuarios.
      */
     List<User> findAllNative();
+
+    /**
+     * Recupera una página de usuarios ordenados por ID con paginación por clave (keyset):
+     * {@code WHERE id > afterId ORDER BY id FETCH FIRST limit ROWS ONLY}.
+     * A diferencia de OFFSET, el coste no crece al avanzar por la tabla.
+     *
+     * @param afterId ID del último usuario de la página anterior, o {@code null} para la primera página.
+     * @param limit   Número máximo de usuarios a devolver.
+     * @return Los usuarios de la página, ordenados por ID.
+     */
+    List<User> findPageNative(Long afterId, int limit);
+
+    /**
+     * Recorre todos los usuarios SIN cargarlos en memoria: cada fila se entrega a {@code action}
+     * según se lee de un cursor de solo avance, y se descarta después.
+     * Si {@code action} lanza una excepción, la lectura se aborta y el cursor se cierra.
+     *
+     * @param action Acción a ejecutar para cada usuario, en orden de ID.
+     */
+    void forEachUserNative(Consumer<User> action);
+
+    /**
+     * Igual que {@link #forEachUserNative(Consumer)}, pero con un fetch size explícito
+     * (p. ej. uno grande para las exportaciones completas).
+     *
+     * @param fetchSize Filas por ida y vuelta al servidor.
+     * @param action    Acción a ejecutar para cada usuario, en orden de ID.
+     */
+    void forEachUserNative(int fetchSize, Consumer<User> action);
+
+    /**
+     * Busca un usuario por su ID leyendo SOLO las columnas pedidas.
+     *
+     * @param id     ID del usuario.
+     * @param fields Nombres de los campos a devolver ("id", "username", "email").
+     * @return Un mapa campo → valor, en el orden pedido, o vacío si no existe el usuario.
+     * @throws IllegalArgumentException si algún campo no es una columna de la tabla users.
+     */
+    Optional<Map<String, Object>> findProjectionByIdNative(Long id, List<String> fields);
 }
@@ -0,0 +1,189 @@
+package com.kike.training.inquiry.domain.port.out;
+
+import com.kike.training.inquiry.domain.model.CompactWexhvloc;
+import com.kike.training.inquiry.domain.model.UpsertResult;
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.domain.model.WexhvlocGroupCount;
+import com.kike.training.inquiry.domain.model.WexhvlocKey;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Interfaz para operaciones personalizadas sobre la entidad Wexhvloc
+ * utilizando SQL manual (JdbcTemplate).
+ *
+ * Igual que `UserRepositoryCustom`, se implementa en una clase `WexhvlocRepositoryImpl`
+ * y Spring Data la combina con los métodos declarados en `WexhvlocRepository`.
+ */
+public interface WexhvlocRepositoryCustom {
+
+    /**
+     * Inserta un nuevo registro de localización de exhibición en la tabla WEXHVLOC.
+     *
+     * @param exLoc El objeto {@link Wexhvloc} que contiene todos los datos a insertar. No debe ser nulo.
+     */
+    void insertRecord(Wexhvloc exLoc);
+
+    /**
+     * Actualiza un subconjunto de campos (ADEXHVL, CDCHGSTS, TSLSTUPD, SNLSTUPD) de un registro existente,
+     * localizado por su clave primaria compuesta completa.
+     *
+     * @param exLoc El objeto con los valores nuevos y la clave primaria del registro.
+     * @return El número de filas afectadas: 1 en caso de éxito y 0 si no se encontró el registro.
+     */
+    int updateRecord(Wexhvloc exLoc);
+
+    /**
+     * Inserta varios registros usando batching JDBC (addBatch/executeBatch) en lotes del tamaño indicado.
+     * Todas las filas deben pertenecer al país (tenant) actualmente enrutado.
+     *
+     * @param locations Registros a insertar.
+     * @param batchSize Número máximo de filas por executeBatch (0: el óptimo del motor de base de datos).
+     * @return El número de filas afectadas por cada registro, en el mismo orden que la lista de entrada.
+     */
+    int[] batchInsert(List<Wexhvloc> locations, int batchSize);
+
+    /**
+     * Aplica {@link #updateRecord(Wexhvloc)} a varios registros usando batching JDBC.
+     * Todas las filas deben pertenecer al país (tenant) actualmente enrutado.
+     *
+     * @param locations Registros a actualizar (valores nuevos y clave primaria).
+     * @param batchSize Número máximo de filas por executeBatch (0: el óptimo del motor de base de datos).
+     * @return El número de filas afectadas por cada registro (0 si no existía), en el mismo orden que la entrada.
+     */
+    int[] batchUpdate(List<Wexhvloc> locations, int batchSize);
+
+    /**
+     * Inserta o actualiza varios registros con un único {@code MERGE} por fila, enviados en lotes JDBC.
+     * La coincidencia se hace por la clave primaria compuesta (6 columnas).
+     * Todas las filas deben pertenecer al país (tenant) actualmente enrutado.
+     *
+     * @param locations Registros a insertar o actualizar.
+     * @param batchSize Número máximo de filas por executeBatch (0: el óptimo del motor de base de datos).
+     * @return Cuántas filas se han insertado y cuántas se han actualizado. El reparto es aproximado si otra
+     *         transacción escribe las mismas claves a la vez (ver {@link UpsertResult}).
+     */
+    UpsertResult upsert(List<Wexhvloc> locations, int batchSize);
+
+    /**
+     * Busca un registro de localización de exhibición por su clave primaria compuesta completa
+     * (los seis campos), así que devuelve como mucho un registro.
+     *
+     * @param cdisoloc  Parte de la clave primaria.
+     * @param cdcompany Parte de la clave primaria.
+     * @param cddealer  Parte de la clave primaria.
+     * @param chassis   Parte de la clave primaria.
+     * @param nmexhvl   Parte de la clave primaria.
+     * @param cdexhvl   Parte de la clave primaria.
+     * @return Un {@link Optional} que contiene el {@link Wexhvloc} si se encuentra, o un Optional vacío si no.
+     */
+    Optional<Wexhvloc> findByCompositeId(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer,
+                                         String chassis, BigDecimal nmexhvl, String cdexhvl);
+
+    /**
+     * Busca varios registros por su clave compuesta con una consulta por bloque de claves (el tamaño
+     * de bloque es el del dialecto SQL), en lugar de una consulta por clave.
+     * Todas las claves deben pertenecer al país (tenant) actualmente enrutado.
+     *
+     * @param keys Claves a buscar.
+     * @return Los registros encontrados, sin orden definido; las claves que no existen no aparecen.
+     */
+    List<Wexhvloc> findByCompositeIds(List<WexhvlocKey> keys);
+
+    /**
+     * Recupera una página de localizaciones de un concesionario con paginación por clave (keyset),
+     * ordenadas por el resto de la clave compuesta: CHASSIS, NMEXHVL, CDEXHVL.
+     *
+     * @param cdisoloc  País del concesionario.
+     * @param cdcompany Compañía del concesionario.
+     * @param cddealer  Código del concesionario.
+     * @param after     Clave del último registro de la página anterior, o {@code null} para la primera página.
+     * @param limit     Número máximo de registros a devolver.
+     * @return Los registros de la página, en el orden de la clave.
+     */
+    List<Wexhvloc> findDealerPage(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer, WexhvlocKey after, int limit);
+
+    /**
+     * Igual que {@link #findDealerPage}, pero devolviendo la representación compacta {@link CompactWexhvloc}
+     * (números primitivos, textos sin relleno y códigos compartidos).
+     */
+    List<CompactWexhvloc> findDealerPageCompact(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer, WexhvlocKey after, int limit);
+
+    /**
+     * Recupera todas las localizaciones de un chasis dentro de un país (índice WEXHVLOC_CHASSIS_IX),
+     * ordenadas por compañía, concesionario y exposición.
+     *
+     * @param cdisoloc País.
+     * @param chassis  Número de chasis.
+     * @return Las localizaciones del chasis; vacía si no hay ninguna.
+     */
+    List<Wexhvloc> findByChassis(String cdisoloc, String chassis);
+
+    /**
+     * Recupera las localizaciones de un país modificadas desde un instante, INCLUIDO (TSLSTUPD &gt;= since),
+     * en orden de modificación y, a igual TSLSTUPD, de clave. Sirve para reanudar un feed de cambios: con
+     * un límite exclusivo se perderían las filas que comparten TSLSTUPD con el último evento recibido.
+     *
+     * @param cdisoloc  País.
+     * @param cdcompany Compañía, o {@code null} para todas.
+     * @param cddealer  Concesionario, o {@code null} para todos.
+     * @param since     Instante (inclusivo) a partir del cual se buscan cambios.
+     * @param limit     Número máximo de registros a devolver.
+     * @return Los registros modificados, de más antiguo a más reciente.
+     */
+    List<Wexhvloc> findModifiedSince(String cdisoloc, Integer cdcompany, Integer cddealer, LocalDateTime since, int limit);
+
+    /**
+     * Busca un registro por su clave compuesta leyendo SOLO las columnas pedidas.
+     *
+     * @param key    Clave primaria compuesta completa.
+     * @param fields Nombres de las propiedades a devolver (p. ej. "chassis", "dtiniloc").
+     * @return Un mapa propiedad → valor, en el orden pedido, o vacío si no existe el registro.
+     * @throws IllegalArgumentException si algún campo no es una columna de WEXHVLOC.
+     */
+    Optional<Map<String, Object>> findProjectionByCompositeId(WexhvlocKey key, List<String> fields);
+
+    /**
+     * Recorre TODAS las localizaciones del país actualmente enrutado leyendo solo la clave y las fechas
+     * de exposición (DTINILOC, DTFINLOC), con un cursor de solo avance. El resto de propiedades de cada
+     * {@link Wexhvloc} entregado queda a {@code null}.
+     *
+     * @param action Acción a ejecutar con cada fila, en cuanto se lee.
+     */
+    void forEachExhibitionPeriod(Consumer<Wexhvloc> action);
+
+    /**
+     * Recorre TODOS los registros completos del país actualmente enrutado, en orden de clave, con un
+     * cursor de solo avance: cada fila se entrega a {@code action} y se descarta, sin listas intermedias.
+     * Si {@code action} lanza una excepción, la lectura se aborta y el cursor se cierra.
+     *
+     * @param fetchSize Filas por ida y vuelta al servidor.
+     * @param action    Acción a ejecutar con cada registro.
+     */
+    void forEachRecord(int fetchSize, Consumer<Wexhvloc> action);
+
+    /**
+     * Cuenta las localizaciones del país actualmente enrutado agrupadas por compañía, concesionario y
+     * estado, con un único {@code GROUP BY} que resuelve la base de datos.
+     */
+    List<WexhvlocGroupCount> countByDealerAndStatus();
+
+    /**
+     * Claves de las primeras {@code limit} localizaciones de un concesionario, en orden de clave.
+     * Con las de {@link #batchDelete} forman un bloque de una purga por concesionario.
+     */
+    List<WexhvlocKey> findDealerKeys(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer, int limit);
+
+    /**
+     * Borra las localizaciones indicadas por clave, en lotes JDBC.
+     *
+     * @param batchSize Tamaño de lote, o 0 para el óptimo del dialecto.
+     * @return Las filas borradas por cada clave, alineadas con la entrada.
+     */
+    int[] batchDelete(List<WexhvlocKey> keys, int batchSize);
+}
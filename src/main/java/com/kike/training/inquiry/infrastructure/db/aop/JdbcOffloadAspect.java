@@ -0,0 +1,39 @@
+package com.kike.training.inquiry.infrastructure.db.aop;
+
+import com.kike.training.inquiry.infrastructure.db.config.JdbcOffloadExecutor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Saca de los hilos virtuales las llamadas a los servicios que trabajan con JDBC (ver
+ * {@link JdbcOffloadExecutor}).
+ *
+ * Es el aspecto MÁS EXTERNO ({@code HIGHEST_PRECEDENCE}): el cambio de hilo ocurre antes que el
+ * {@link WexhvlocRoutingAspect} y que el proxy de {@code @Transactional}, así que el enrutado, la
+ * transacción y todas las consultas del método se ejecutan en el mismo hilo de plataforma. Hacerlo más
+ * abajo (por ejemplo, en cada repositorio) rompería las transacciones, que atan la conexión al hilo.
+ *
+ * En hilos de plataforma (el modo por defecto) no hace nada más que llamar al método.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class JdbcOffloadAspect {
+
+    private final JdbcOffloadExecutor jdbcOffloadExecutor;
+
+    public JdbcOffloadAspect(JdbcOffloadExecutor jdbcOffloadExecutor) {
+        this.jdbcOffloadExecutor = jdbcOffloadExecutor;
+    }
+
+    @Around("execution(public * com.kike.training.inquiry.application.service.WexhvlocService.*(..))" +
+            " || execution(public * com.kike.training.inquiry.application.service.UserService.*(..))" +
+            " || execution(public * com.kike.training.inquiry.application.service.ExportService.export*(..))")
+    public Object offload(ProceedingJoinPoint joinPoint) throws Throwable {
+        return jdbcOffloadExecutor.call(joinPoint::proceed);
+    }
+}
@@ -21,6 +21,7 @@ import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 
 import javax.sql.DataSource;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -143,9 +144,24 @@ public class DataSourceConfig {
             // 2. Si existe (en dev2.env), la usamos.
             // 3. Si NO existe (en un OpenShift real), usamos el valor por defecto de AS400.
             String driverClassName = env.getProperty("db.driverClassName", DatabaseDriver.DB2_AS400.getDriverClassName());
-            String validationQuery = env.getProperty("db.validationQuery", DatabaseDriver.DB2_AS400.getValidationQuery());
 
-            log.info("Usando Driver: [{}]. Usando Validation Query: [{}]", driverClassName, validationQuery);
+            // El dialecto decide los ajustes de cada pool: propiedades JDBC del driver y forma de validar
+            // las conexiones (isValid() o consulta). 'db.validationQuery' sigue permitiendo forzar una consulta.
+            final SqlDialect dialect = DatabaseDriver.fromDriverClassName(driverClassName);
+            String validationQuery = env.getProperty("db.validationQuery",
+                    dialect.validatesWithIsValid() ? null : dialect.getValidationQuery());
+
+            log.info("Usando Driver: [{}]. Dialecto: [{}]. Validation Query: [{}]", driverClassName, dialect,
+                    validationQuery != null ? validationQuery : "Connection.isValid()");
+
+            // El paquete SQL del servidor ("extended dynamic" en JTOpen) es opcional: exige permiso para crear
+            // el paquete en la biblioteca del usuario, y no todos los entornos lo tienen.
+            final Map<String, String> connectionProperties = new HashMap<>(dialect.getConnectionProperties());
+            if (env.getProperty("db.extendedDynamic", Boolean.class, false)) {
+                String packageName = env.getProperty("db.package", "INQUIRY");
+                connectionProperties.putAll(dialect.getStatementPackageProperties(packageName));
+                log.info("Paquete SQL de sentencias activado: [{}].", packageName);
+            }
 
             final boolean isLocalSimulation = Arrays.asList(env.getActiveProfiles()).contains("localOS");
 
@@ -173,7 +189,11 @@ public class DataSourceConfig {
                                 .driverClassName(driverClassName)
                                 .build();
 
-                        dataSource.setConnectionTestQuery(validationQuery);
+                        if (validationQuery != null) {
+                            dataSource.setConnectionTestQuery(validationQuery);
+                        }
+                        // Presets del dialecto (p. ej. en JTOpen: block size, lazy close, caché de sentencias).
+                        connectionProperties.forEach(dataSource::addDataSourceProperty);
                         dataSource.setMaximumPoolSize(4);
                         dataSource.setMinimumIdle(1);
                         dataSource.setAutoCommit(true);
@@ -1,7 +1,168 @@
 package com.kike.training.inquiry.infrastructure.db.config;
 
-public enum DatabaseDriver {
-    DB2_AS400("com.ibm.as400.access.AS400JDBCDriver", "SELECT 1 FROM SYSIBM.SYSDUMMY1");
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Motores de base de datos soportados y su dialecto SQL ({@link SqlDialect}).
+ *
+ * <ul>
+ *     <li>{@link #DB2_AS400}: DB2 for i con el driver JTOpen, en los entornos OpenShift.</li>
+ *     <li>{@link #H2}: bases de datos en memoria de los perfiles local/test (y de la simulación 'localOS').</li>
+ * </ul>
+ */
+public enum DatabaseDriver implements SqlDialect {
+
+    DB2_AS400("com.ibm.as400.access.AS400JDBCDriver", "SELECT 1 FROM SYSIBM.SYSDUMMY1") {
+
+        /**
+         * Propiedades del driver JTOpen:
+         * - "block size" (KB): tamaño del bloque con el que el servidor envía filas; 512 es el máximo.
+         * - "prefetch": el servidor envía el primer bloque junto con la respuesta al OPEN.
+         * - "lazy close": el cierre de cursores viaja con la siguiente petición, no en una propia.
+         * El paquete SQL ("extended dynamic") va aparte, en {@link #getStatementPackageProperties(String)}.
+         */
+        @Override
+        public Map<String, String> getConnectionProperties() {
+            return Map.of(
+                    "block size", "512",
+                    "prefetch", "true",
+                    "lazy close", "true");
+        }
+
+        /**
+         * "extended dynamic" + "package" + "package cache": las sentencias preparadas se guardan en un
+         * paquete SQL del servidor (*SQLPKG) y en caché local, y no se vuelven a preparar en cada conexión.
+         * El usuario de la conexión necesita permiso para crear el paquete en su biblioteca.
+         */
+        @Override
+        public Map<String, String> getStatementPackageProperties(String packageName) {
+            return Map.of(
+                    "extended dynamic", "true",
+                    "package", packageName,
+                    "package cache", "true");
+        }
+
+        @Override
+        public boolean validatesWithIsValid() {
+            // Se mantiene la validación por consulta: es la que se ha usado siempre con JTOpen en estos entornos.
+            return false;
+        }
+
+        @Override
+        public boolean matchesProductName(String databaseProductName) {
+            return databaseProductName.toUpperCase().contains("AS/400") || databaseProductName.toUpperCase().contains("DB2");
+        }
+
+        @Override
+        public int getBatchSize() {
+            return 500;
+        }
+
+        @Override
+        public int getFetchSize() {
+            return 1000;
+        }
+
+        @Override
+        public int getMaxKeysPerQuery() {
+            // 600 marcadores: con más predicados OR el optimizador deja de resolverlos con el índice de la clave.
+            return 100;
+        }
+
+        @Override
+        public String limit(String sql, int rows) {
+            return sql + " FETCH FIRST " + rows + " ROWS ONLY";
+        }
+
+        @Override
+        public String nextSequenceValue(String sequenceName) {
+            return "SELECT NEXT VALUE FOR " + sequenceName + " FROM SYSIBM.SYSDUMMY1";
+        }
+
+        @Override
+        public String sequenceIncrementQuery() {
+            return "SELECT INCREMENT FROM QSYS2.SYSSEQUENCES WHERE SEQUENCE_NAME = ? AND SEQUENCE_SCHEMA = CURRENT SCHEMA";
+        }
+
+        @Override
+        public String nationalCharType(int length) {
+            return "NCHAR(" + length + ")";
+        }
+
+        @Override
+        public Optional<String> truncate(String table) {
+            // IMMEDIATE: se ejecuta en el acto, con una única entrada en el diario en lugar de una por fila.
+            return Optional.of("TRUNCATE TABLE " + table + " IMMEDIATE");
+        }
+    },
+
+    H2("org.h2.Driver", "SELECT 1") {
+
+        @Override
+        public Map<String, String> getConnectionProperties() {
+            // H2 en memoria no tiene red ni caché de sentencias configurable por conexión.
+            return Map.of();
+        }
+
+        @Override
+        public Map<String, String> getStatementPackageProperties(String packageName) {
+            // H2 no tiene paquetes SQL en el servidor: la opción se ignora.
+            return Map.of();
+        }
+
+        @Override
+        public boolean validatesWithIsValid() {
+            return true;
+        }
+
+        @Override
+        public boolean matchesProductName(String databaseProductName) {
+            return databaseProductName.equalsIgnoreCase("H2");
+        }
+
+        @Override
+        public int getBatchSize() {
+            return 1000;
+        }
+
+        @Override
+        public int getFetchSize() {
+            return 200;
+        }
+
+        @Override
+        public int getMaxKeysPerQuery() {
+            return 500;
+        }
+
+        @Override
+        public String limit(String sql, int rows) {
+            return sql + " LIMIT " + rows;
+        }
+
+        @Override
+        public String nextSequenceValue(String sequenceName) {
+            return "SELECT NEXT VALUE FOR " + sequenceName;
+        }
+
+        @Override
+        public String sequenceIncrementQuery() {
+            return "SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?";
+        }
+
+        @Override
+        public String nationalCharType(int length) {
+            // La migración V2 traduce el NCHAR original de DB2 a VARCHAR en H2.
+            return "VARCHAR(" + length + ")";
+        }
+
+        @Override
+        public Optional<String> truncate(String table) {
+            return Optional.of("TRUNCATE TABLE " + table);
+        }
+    };
 
     private final String driverClassName;
     private final String validationQuery;
@@ -11,11 +172,38 @@ public enum DatabaseDriver {
         this.validationQuery = validationQuery;
     }
 
+    @Override
     public String getDriverClassName() {
         return driverClassName;
     }
 
+    @Override
     public String getValidationQuery() {
         return validationQuery;
     }
+
+    /**
+     * Dialecto correspondiente a una clase de driver JDBC.
+     *
+     * @throws IllegalStateException si el driver no está soportado (antes se suponía DB2 for i, y un
+     *                               driver mal escrito acababa con los presets de JTOpen en otro motor).
+     */
+    public static DatabaseDriver fromDriverClassName(String driverClassName) {
+        return Arrays.stream(values())
+                .filter(d -> d.driverClassName.equals(driverClassName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Driver JDBC no soportado: " + driverClassName));
+    }
+
+    /**
+     * Dialecto correspondiente al nombre de producto de {@code DatabaseMetaData}.
+     *
+     * @throws IllegalStateException si el producto no está soportado.
+     */
+    public static DatabaseDriver fromProductName(String databaseProductName) {
+        return Arrays.stream(values())
+                .filter(d -> d.matchesProductName(databaseProductName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Base de datos no soportada: " + databaseProductName));
+    }
 }
@@ -0,0 +1,115 @@
+package com.kike.training.inquiry.infrastructure.db.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Ejecuta el trabajo JDBC de los hilos virtuales en un pool acotado de hilos de plataforma.
+ *
+ * ¿POR QUÉ EXISTE?
+ * Con {@code spring.threads.virtual.enabled=true} cada petición se atiende en un hilo virtual. En Java 21
+ * un hilo virtual que se bloquea DENTRO de un bloque {@code synchronized} no suelta su hilo portador
+ * ("carrier"): lo deja "clavado" (pinning). El driver JDBC del AS400 (jt400) y partes de Hikari
+ * sincronizan con {@code synchronized} alrededor de la E/S de red, así que unas pocas consultas lentas
+ * bastan para clavar todos los portadores (tantos como núcleos) y parar la aplicación entera.
+ *
+ * ¿CÓMO FUNCIONA?
+ * - Si el hilo actual es virtual, la acción se ejecuta en un pool FIJO de hilos de plataforma
+ *   ("jdbc-offload-") y el hilo virtual espera el resultado, aparcado, sin ocupar portador.
+ * - Si el hilo actual ya es de plataforma (modo clásico, el propio pool, el {@link TenantExecutor}...),
+ *   se ejecuta en el sitio: sin cambio de hilo y sin riesgo de bloquear el pool esperándose a sí mismo.
+ * - El país enrutado ({@link DataSourceContextHolder}) se copia al hilo del pool antes de ejecutar y se
+ *   limpia después, igual que en {@link TenantExecutor#callInTenant}.
+ * - Acotado: como mucho {@code jdbc-offload-threads} acciones en ejecución y {@code jdbc-offload-queue}
+ *   esperando. Por encima de eso, el hilo virtual espera turno en un {@link Semaphore} (aparcado, sin
+ *   clavar nada) en lugar de crecer una cola sin límite.
+ *
+ * Lo usa {@link com.kike.training.inquiry.infrastructure.db.aop.JdbcOffloadAspect} en la frontera de los
+ * servicios, de modo que la transacción entera (que vive en ThreadLocals) empieza y acaba en el mismo hilo.
+ */
+@Component
+@Slf4j
+public class JdbcOffloadExecutor {
+
+    /**
+     * Acción que puede lanzar cualquier excepción (la firma de {@code ProceedingJoinPoint#proceed}).
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T call() throws Throwable;
+    }
+
+    private final boolean enabled;
+    private final ExecutorService executor;
+    private final Semaphore slots;
+
+    public JdbcOffloadExecutor(@Value("${inquiry.virtual-threads.offload-jdbc:true}") boolean enabled,
+                               @Value("${inquiry.virtual-threads.jdbc-offload-threads:16}") int threads,
+                               @Value("${inquiry.virtual-threads.jdbc-offload-queue:1000}") int queueCapacity) {
+        this.enabled = enabled;
+        this.executor = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("jdbc-offload-", 0).daemon(true).factory());
+        this.slots = new Semaphore(threads + queueCapacity, true);
+        log.info("JdbcOffloadExecutor inicializado: activo={}, {} hilos, cola de {}.", enabled, threads, queueCapacity);
+    }
+
+    /**
+     * Ejecuta la acción fuera del hilo virtual actual; en un hilo de plataforma, la ejecuta en el sitio.
+     *
+     * @return El resultado de la acción.
+     * @throws Throwable La misma excepción que haya lanzado la acción.
+     */
+    public <T> T call(Work<T> work) throws Throwable {
+        if (!enabled || !Thread.currentThread().isVirtual()) {
+            return work.call();
+        }
+        String tenant = DataSourceContextHolder.getBranchContext();
+        slots.acquire();
+        Future<T> future = null;
+        try {
+            future = executor.submit(() -> runInContext(tenant, work));
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Wrapped wrapped ? wrapped.getCause() : e.getCause();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            slots.release();
+        }
+    }
+
+    private <T> T runInContext(String tenant, Work<T> work) throws Wrapped {
+        if (tenant != null) {
+            DataSourceContextHolder.setBranchContext(tenant);
+        }
+        try {
+            return work.call();
+        } catch (Throwable e) {
+            // Callable solo admite Exception: los Error (y cualquier Throwable) viajan envueltos.
+            throw new Wrapped(e);
+        } finally {
+            DataSourceContextHolder.clearBranchContext();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class Wrapped extends Exception {
+        Wrapped(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.kike.training.inquiry.infrastructure.db.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pila R2DBC (no bloqueante), alternativa a los DataSources JDBC para los adaptadores reactivos.
+ *
+ * ¿CÓMO SE ACTIVA?
+ * Con el perfil {@code r2dbc}, AÑADIDO al del entorno (p. ej. {@code local,r2dbc} o {@code test,r2dbc}).
+ * La pila JDBC sigue existiendo (Flyway, los endpoints de siempre); el perfil solo añade los endpoints
+ * reactivos, así que ambas pilas se pueden medir con la misma base de datos y la misma carga.
+ *
+ * ¿QUÉ CREA?
+ * - Un {@link ConnectionPool} por país, con las propiedades {@code inquiry.r2dbc.<PAÍS>.url/username/password}.
+ *   Los países son los de {@code inquiry.r2dbc.names} (por defecto, los de {@code spring.datasource.names}).
+ *   El tamaño máximo por defecto es el mismo que el de los pools Hikari (4), para comparar a igualdad de conexiones.
+ * - El {@link TenantRoutingConnectionFactory} que elige el pool según el contexto de Reactor.
+ * - El {@link DatabaseClient} que usan los repositorios R2DBC.
+ *
+ * LIMITACIÓN: no hay driver R2DBC para DB2 for i (AS400); en los entornos superiores este perfil no
+ * tiene a qué conectarse. Está pensado para H2 (local y tests) y para medir.
+ */
+@Configuration
+@Profile("r2dbc")
+@Slf4j
+public class R2dbcConfig {
+
+    private final Map<String, ConnectionPool> pools = new LinkedHashMap<>();
+
+    @Bean
+    public ConnectionFactory tenantConnectionFactory(Environment env,
+                                                     @Value("${inquiry.r2dbc.names:${spring.datasource.names:}}") String names,
+                                                     @Value("${inquiry.r2dbc.pool.initial-size:1}") int initialSize,
+                                                     @Value("${inquiry.r2dbc.pool.max-size:4}") int maxSize,
+                                                     @Value("${inquiry.r2dbc.pool.max-idle-ms:60000}") long maxIdleMillis) {
+        if (names.isBlank()) {
+            throw new IllegalStateException("La propiedad 'inquiry.r2dbc.names' (o 'spring.datasource.names') no está definida para el perfil 'r2dbc'.");
+        }
+        Arrays.stream(names.split(",")).map(String::trim).forEach(name -> {
+            String prefix = "inquiry.r2dbc." + name + ".";
+            ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(env.getRequiredProperty(prefix + "url"))
+                    .mutate()
+                    .option(ConnectionFactoryOptions.USER, env.getProperty(prefix + "username", ""))
+                    .option(ConnectionFactoryOptions.PASSWORD, env.getProperty(prefix + "password", ""))
+                    .build();
+            ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                    .name("r2dbc-" + name)
+                    .initialSize(initialSize)
+                    .maxSize(maxSize)
+                    .maxIdleTime(Duration.ofMillis(maxIdleMillis))
+                    .build());
+            pools.put(name.toUpperCase(), pool);
+            log.info("PERFIL 'r2dbc' ACTIVO: pool R2DBC '{}' creado (máximo {} conexiones).", name, maxSize);
+        });
+
+        TenantRoutingConnectionFactory routing = new TenantRoutingConnectionFactory();
+        routing.setTargetConnectionFactories(new LinkedHashMap<>(pools));
+        routing.setDefaultTargetConnectionFactory(pools.values().iterator().next());
+        // Un país sin pool es un error, no una consulta en la base de datos por defecto.
+        routing.setLenientFallback(false);
+        return routing;
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory tenantConnectionFactory) {
+        return DatabaseClient.create(tenantConnectionFactory);
+    }
+
+    @PreDestroy
+    public void closePools() {
+        pools.values().forEach(ConnectionPool::dispose);
+    }
+}
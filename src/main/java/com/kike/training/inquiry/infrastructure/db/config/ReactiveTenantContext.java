@@ -0,0 +1,45 @@
+package com.kike.training.inquiry.infrastructure.db.config;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Equivalente reactivo del {@link DataSourceContextHolder}: lleva el código de país en el
+ * <b>contexto de Reactor</b> en lugar de en un ThreadLocal.
+ *
+ * ¿POR QUÉ NO SIRVE EL ThreadLocal?
+ * Una cadena reactiva no tiene "su" hilo: cada señal puede procesarse en un hilo distinto del driver
+ * o del pool de conexiones, y un mismo hilo atiende a la vez muchas cadenas de países diferentes.
+ * El contexto de Reactor, en cambio, viaja con la suscripción: se escribe al final de la cadena
+ * ({@code contextWrite}) y lo ve cualquier operador que esté por encima, incluido el
+ * {@link TenantRoutingConnectionFactory} cuando pide la conexión.
+ *
+ * Esta clase no debe ser instanciada.
+ */
+public final class ReactiveTenantContext {
+
+    /**
+     * Clave del código de país en el contexto de Reactor.
+     */
+    public static final String TENANT_KEY = ReactiveTenantContext.class.getName() + ".TENANT";
+
+    private ReactiveTenantContext() {
+        // Prevenir instanciación
+    }
+
+    /**
+     * Contexto que enruta la cadena al país indicado: {@code mono.contextWrite(ReactiveTenantContext.withTenant("ES"))}.
+     *
+     * @param tenant El código de país. Se normaliza a mayúsculas.
+     */
+    public static Context withTenant(String tenant) {
+        return Context.of(TENANT_KEY, tenant.toUpperCase());
+    }
+
+    /**
+     * País de la suscripción actual, o vacío si la cadena no lo tiene en su contexto.
+     */
+    public static Mono<String> currentTenant() {
+        return Mono.deferContextual(context -> Mono.justOrEmpty(context.<String>getOrEmpty(TENANT_KEY)));
+    }
+}
@@ -0,0 +1,146 @@
+package com.kike.training.inquiry.infrastructure.db.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * SPI de dialecto SQL: todo lo que cambia entre los motores de base de datos que usa la aplicación
+ * (DB2 for i en los entornos OpenShift, H2 en los perfiles local/test).
+ *
+ * ¿POR QUÉ EXISTE?
+ * Antes, cada repositorio decidía por su cuenta qué SQL generar (o asumía que todo era DB2), y la
+ * configuración de los pools solo conocía la clase del driver y la consulta de validación.
+ * Ahora los repositorios piden al dialecto del tenant actual ({@link SqlDialectResolver}) la sintaxis
+ * optimizada, y {@link DataSourceConfig} aplica sus ajustes de conexión a cada pool.
+ *
+ * La implementación es el enum {@link DatabaseDriver}.
+ */
+public interface SqlDialect {
+
+    // ==========================================
+    // = Identificación y conexión              =
+    // ==========================================
+
+    /**
+     * Clase del driver JDBC.
+     */
+    String getDriverClassName();
+
+    /**
+     * Consulta de validación de conexiones (solo se usa si {@link #validatesWithIsValid()} es {@code false}).
+     */
+    String getValidationQuery();
+
+    /**
+     * {@code true} si el driver implementa {@code Connection.isValid()} de forma fiable y barata; en ese
+     * caso el pool no necesita consulta de validación. {@code false} para validar con {@link #getValidationQuery()}.
+     */
+    boolean validatesWithIsValid();
+
+    /**
+     * Propiedades JDBC que se pasan al driver al abrir cada conexión del pool (tamaño de bloque,
+     * caché de sentencias preparadas, cierre perezoso de cursores...).
+     */
+    Map<String, String> getConnectionProperties();
+
+    /**
+     * Propiedades JDBC para guardar las sentencias preparadas en un paquete SQL del servidor, que
+     * sobrevive a las conexiones. Es opcional ({@code db.extendedDynamic}): solo se añaden a
+     * {@link #getConnectionProperties()} si se activa. Vacío si el motor no tiene ese concepto.
+     *
+     * @param packageName Nombre del paquete SQL.
+     */
+    Map<String, String> getStatementPackageProperties(String packageName);
+
+    /**
+     * Indica si este dialecto corresponde al nombre de producto que informa {@code DatabaseMetaData}.
+     */
+    boolean matchesProductName(String databaseProductName);
+
+    // ==========================================
+    // = Tamaños óptimos                        =
+    // ==========================================
+
+    /**
+     * Filas por executeBatch a partir de las cuales el motor deja de mejorar (o empeora).
+     */
+    int getBatchSize();
+
+    /**
+     * Filas por ida y vuelta al recorrer un {@code ResultSet} grande.
+     */
+    int getFetchSize();
+
+    /**
+     * Claves compuestas por consulta en las búsquedas de varias claves a la vez
+     * ({@code (k1 AND ...) OR (k2 AND ...)}): por encima, la consulta se parte en varias.
+     */
+    int getMaxKeysPerQuery();
+
+    // ==========================================
+    // = Sintaxis SQL                           =
+    // ==========================================
+
+    /**
+     * Añade a una consulta (que ya termina en ORDER BY) la cláusula que limita el número de filas.
+     * El límite va en línea porque DB2 for i no admite marcadores '?' en esa cláusula.
+     */
+    String limit(String sql, int rows);
+
+    /**
+     * Consulta que devuelve el siguiente valor de una secuencia.
+     */
+    String nextSequenceValue(String sequenceName);
+
+    /**
+     * Consulta del incremento (INCREMENT BY) de una secuencia, con un único marcador '?' para su nombre.
+     * Busca solo en el esquema actual de la conexión (otra biblioteca puede tener una secuencia con el
+     * mismo nombre). No devuelve filas si la secuencia no existe.
+     */
+    String sequenceIncrementQuery();
+
+    /**
+     * Sentencia que vacía una tabla entera sin registrar el borrado fila a fila, o vacío si el motor no
+     * tiene una equivalente (en ese caso hay que borrar con DELETE). Debe ejecutarse en una transacción
+     * propia, sin otros cambios pendientes, y no se puede deshacer.
+     */
+    default Optional<String> truncate(String table) {
+        return Optional.empty();
+    }
+
+    /**
+     * Tipo SQL de una columna de texto nacional (Unicode) de longitud fija en este motor.
+     */
+    String nationalCharType(int length);
+
+    /**
+     * Sentencia MERGE de UNA fila, con un marcador '?' por columna en el orden de {@code columns}:
+     * actualiza {@code columns - keyColumns - insertOnlyColumns} si la clave existe, o inserta todas si no.
+     *
+     * @param table             Tabla destino.
+     * @param columns           Columnas, en el orden de los parámetros.
+     * @param sqlTypes          Tipo SQL de cada columna (para tipar los '?' dentro de VALUES).
+     * @param keyColumns        Columnas de la clave con las que se hace la coincidencia.
+     * @param insertOnlyColumns Columnas que solo se escriben al insertar (p. ej. datos de creación).
+     */
+    default String merge(String table, List<String> columns, List<String> sqlTypes,
+                         List<String> keyColumns, Set<String> insertOnlyColumns) {
+        StringBuilder casts = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            casts.append(i == 0 ? "" : ", ").append("CAST(? AS ").append(sqlTypes.get(i)).append(')');
+        }
+        String names = String.join(", ", columns);
+        String on = String.join(" AND ", keyColumns.stream().map(c -> "T." + c + " = S." + c).toList());
+        String set = String.join(", ", columns.stream()
+                .filter(c -> !keyColumns.contains(c) && !insertOnlyColumns.contains(c))
+                .map(c -> c + " = S." + c).toList());
+        String values = String.join(", ", columns.stream().map(c -> "S." + c).toList());
+
+        return "MERGE INTO " + table + " T USING (VALUES (" + casts + ")) AS S (" + names + ") " +
+                "ON " + on + " " +
+                "WHEN MATCHED THEN UPDATE SET " + set + " " +
+                "WHEN NOT MATCHED THEN INSERT (" + names + ") VALUES (" + values + ")";
+    }
+}
@@ -0,0 +1,58 @@
+package com.kike.training.inquiry.infrastructure.db.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Devuelve el {@link SqlDialect} de la base de datos del tenant actualmente enrutado.
+ *
+ * Cada país puede estar en un motor distinto (en la simulación 'localOS', por ejemplo), así que el
+ * dialecto se detecta por tenant, UNA sola vez, a partir de {@code DatabaseMetaData#getDatabaseProductName()},
+ * y se guarda en caché.
+ */
+@Component
+@Slf4j
+public class SqlDialectResolver {
+
+    /**
+     * Clave usada cuando no hay tenant en el contexto (se enruta al DataSource por defecto).
+     */
+    private static final String DEFAULT_TENANT = "__DEFAULT__";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, SqlDialect> dialects = new ConcurrentHashMap<>();
+
+    public SqlDialectResolver(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Dialecto del tenant actual (el de {@link DataSourceContextHolder}).
+     */
+    public SqlDialect current() {
+        String tenant = DataSourceContextHolder.getBranchContext();
+        String key = tenant != null ? tenant : DEFAULT_TENANT;
+        SqlDialect dialect = dialects.get(key);
+        if (dialect != null) {
+            return dialect;
+        }
+        // Se detecta FUERA de computeIfAbsent: la consulta de metadatos va por red al AS400, y dentro
+        // de la lambda bloquearía el resto del mapa mientras dura. Si dos hilos detectan a la vez el
+        // mismo país, ambos llegan al mismo resultado y se queda el primero.
+        SqlDialect detected = detect(key);
+        SqlDialect previous = dialects.putIfAbsent(key, detected);
+        return previous != null ? previous : detected;
+    }
+
+    private SqlDialect detect(String tenant) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        SqlDialect dialect = DatabaseDriver.fromProductName(product);
+        log.info("Dialecto SQL para '{}': {} (producto '{}').", tenant, dialect, product);
+        return dialect;
+    }
+}
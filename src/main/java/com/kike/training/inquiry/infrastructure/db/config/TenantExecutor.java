@@ -0,0 +1,111 @@
+package com.kike.training.inquiry.infrastructure.db.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta trabajo "en nombre de" un tenant (país), fuera del flujo normal de una petición web.
+ *
+ * ¿POR QUÉ EXISTE?
+ * El enrutamiento normal depende de que un Aspect establezca el país en el `DataSourceContextHolder`
+ * del hilo de la petición. Cuando una misma operación afecta a VARIOS países (un lote con filas de
+ * ES y DE, un informe global...) ese mecanismo no basta: cada país necesita su propio contexto y,
+ * a ser posible, ejecutarse en paralelo con los demás.
+ *
+ * Esta clase encapsula ese patrón:
+ * - `callInTenant`: ejecuta en el hilo actual con el contexto del país indicado y RESTAURA el
+ *   contexto anterior al terminar (nunca deja "fugas" en el ThreadLocal).
+ * - `submit`: lo mismo, pero en un pool de hilos propio y acotado, devolviendo un CompletableFuture.
+ *
+ * IMPORTANTE: el pool es privado de esta clase (no es un bean `Executor`) para no interferir con
+ * el `applicationTaskExecutor` que Spring Boot auto-configura para MVC asíncrono.
+ */
+@Component
+@Slf4j
+public class TenantExecutor {
+
+    private final DataSource dataSource;
+    private final ExecutorService executor;
+
+    public TenantExecutor(DataSource dataSource,
+                          @Value("${inquiry.tenant-executor.threads:8}") int threads) {
+        this.dataSource = dataSource;
+        this.executor = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("tenant-exec-", 0).daemon(true).factory());
+        log.info("TenantExecutor inicializado con {} hilos.", threads);
+    }
+
+    /**
+     * Ejecuta la acción en el hilo actual con el contexto del país indicado.
+     *
+     * @param tenant El código de país (ej: "ES"). Se normaliza a mayúsculas.
+     * @param action La acción a ejecutar.
+     * @return El resultado de la acción.
+     */
+    public <T> T callInTenant(String tenant, Supplier<T> action) {
+        String previous = DataSourceContextHolder.getBranchContext();
+        DataSourceContextHolder.setBranchContext(tenant.toUpperCase());
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                DataSourceContextHolder.setBranchContext(previous);
+            } else {
+                DataSourceContextHolder.clearBranchContext();
+            }
+        }
+    }
+
+    /**
+     * Variante de {@link #callInTenant(String, Supplier)} para acciones sin resultado.
+     */
+    public void runInTenant(String tenant, Runnable action) {
+        callInTenant(tenant, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta la acción de forma asíncrona en el pool de tenants, con el contexto del país indicado.
+     *
+     * NOTA: no llamar a `join()` sobre el resultado desde DENTRO de otra tarea de este mismo pool;
+     * con un pool fijo eso puede bloquearlo.
+     *
+     * @param tenant El código de país.
+     * @param action La acción a ejecutar.
+     * @return Un future que se completa con el resultado (o con la excepción) de la acción.
+     */
+    public <T> CompletableFuture<T> submit(String tenant, Supplier<T> action) {
+        return CompletableFuture.supplyAsync(() -> callInTenant(tenant, action), executor);
+    }
+
+    /**
+     * Devuelve los códigos de país para los que existe un DataSource configurado, ordenados.
+     */
+    public Set<String> getTenants() {
+        if (dataSource instanceof AbstractRoutingDataSource routing) {
+            Set<String> tenants = new TreeSet<>();
+            routing.getResolvedDataSources().keySet().forEach(key -> tenants.add(key.toString().toUpperCase()));
+            return Collections.unmodifiableSet(tenants);
+        }
+        return Collections.emptySet();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
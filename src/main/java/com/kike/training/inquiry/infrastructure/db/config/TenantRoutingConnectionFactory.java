@@ -0,0 +1,20 @@
+package com.kike.training.inquiry.infrastructure.db.config;
+
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * Equivalente reactivo del {@link DataSourceRouting}: elige el pool R2DBC del país en cada petición de
+ * conexión, con la clave que la cadena lleva en su contexto ({@link ReactiveTenantContext}).
+ *
+ * Una cadena sin país usa el pool por defecto (igual que el DataSource); un país sin pool es un error
+ * (la "caída" al pool por defecto está desactivada en {@link R2dbcConfig}): nunca se consulta en
+ * silencio la base de datos de otro país.
+ */
+public class TenantRoutingConnectionFactory extends AbstractRoutingConnectionFactory {
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return ReactiveTenantContext.currentTenant().cast(Object.class);
+    }
+}
@@ -0,0 +1,92 @@
+package com.kike.training.inquiry.infrastructure.db.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Detecta, con JFR, los hilos virtuales que se quedan clavados a su portador (evento
+ * {@code jdk.VirtualThreadPinned}) y los notifica.
+ *
+ * ¿POR QUÉ EXISTE?
+ * El {@link JdbcOffloadExecutor} saca de los hilos virtuales el JDBC de los servicios conocidos, pero
+ * cualquier otro código bloqueante dentro de un {@code synchronized} (una librería nueva, una consulta
+ * hecha fuera de los servicios...) puede volver a clavar portadores sin que nada falle: solo se nota
+ * cuando la aplicación entera deja de responder. Este monitor lo hace visible desde el primer caso.
+ *
+ * ¿CÓMO FUNCIONA?
+ * - Solo existe con {@code spring.threads.virtual.enabled=true}.
+ * - Abre un {@link RecordingStream} de JFR en el propio proceso (sin fichero ni herramientas externas)
+ *   con el evento {@code jdk.VirtualThreadPinned} y el umbral {@code pinned-threshold-ms}.
+ * - Por cada evento: un WARN con la duración y las primeras líneas de la pila (indican qué
+ *   {@code synchronized} lo ha provocado) y el contador {@code jvm.threads.virtual.pinned}.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int STACK_FRAMES = 8;
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${inquiry.virtual-threads.pinned-threshold-ms:20}") long thresholdMillis) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Veces que un hilo virtual se ha bloqueado clavado a su portador más del umbral")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Monitor de pinning de hilos virtuales activo (umbral {} ms).", threshold.toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        log.warn("Hilo virtual clavado a su portador durante {} ms:\n{}",
+                event.getDuration().toMillis(), topFrames(event.getStackTrace()));
+    }
+
+    private static String topFrames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t(sin pila)";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(STACK_FRAMES)
+                .map(VirtualThreadPinningMonitor::describe)
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + "(línea " + frame.getLineNumber() + ")";
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
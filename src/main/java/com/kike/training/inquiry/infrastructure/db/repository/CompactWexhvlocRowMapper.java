@@ -0,0 +1,42 @@
+package com.kike.training.inquiry.infrastructure.db.repository;
+
+import com.kike.training.inquiry.domain.model.CompactWexhvloc;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Conversor de filas de WEXHVLOC a {@link CompactWexhvloc}, por posición.
+ *
+ * <p>Igual que {@link WexhvlocRowMapper}, solo vale para consultas que seleccionen exactamente
+ * {@link WexhvlocRowMapper#SELECT_LIST}. La diferencia es que las columnas numéricas se leen con
+ * {@code getInt}, sin crear un {@code BigDecimal} intermedio por columna y fila.</p>
+ */
+public class CompactWexhvlocRowMapper implements RowMapper<CompactWexhvloc> {
+
+    @Override
+    public CompactWexhvloc mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp tscreate = rs.getTimestamp(14);
+        Timestamp tslstupd = rs.getTimestamp(16);
+        return new CompactWexhvloc(
+                rs.getString(1),
+                rs.getInt(2),
+                rs.getInt(3),
+                rs.getString(4),
+                rs.getInt(5),
+                rs.getString(6),
+                rs.getInt(7),
+                rs.getInt(8),
+                rs.getString(9),
+                rs.getInt(10),
+                rs.getString(11),
+                rs.getInt(12),
+                rs.getString(13),
+                tscreate != null ? tscreate.toLocalDateTime() : null,
+                rs.getString(15),
+                tslstupd != null ? tslstupd.toLocalDateTime() : null,
+                rs.getString(17));
+    }
+}
@@ -0,0 +1,145 @@
+package com.kike.training.inquiry.infrastructure.db.repository;
+
+import com.kike.training.inquiry.domain.model.DealerSummary;
+import com.kike.training.inquiry.domain.port.out.DealerSummaryRepository;
+import com.kike.training.inquiry.infrastructure.db.config.SqlDialectResolver;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementación con {@link JdbcTemplate} del repositorio del resumen por concesionario.
+ *
+ * <p>Todas las sentencias localizan las filas por la clave primaria (CDISOLOC, CDCOMPANY, CDDEALER) del
+ * resumen o por las tres primeras columnas de la clave de WEXHVLOC, así que nunca recorren tablas enteras
+ * (salvo {@link #computeChunk} y {@link #rebuildRange}, que recorren un tramo del índice de WEXHVLOC a propósito).</p>
+ */
+@Repository
+public class DealerSummaryRepositoryImpl implements DealerSummaryRepository {
+
+    private static final String SELECT_LIST = "CDISOLOC, CDCOMPANY, CDDEALER, NBLOCS, DTINIMIN, DTFINMAX, TSLSTUPD";
+
+    private static final String BY_KEY = "CDISOLOC = ? AND CDCOMPANY = ? AND CDDEALER = ?";
+
+    /**
+     * Agregado de WEXHVLOC por concesionario; trata DTFINLOC = 0 igual que la carga inicial de la migración V5.
+     */
+    private static final String AGGREGATE = "COUNT(*), MIN(DTINILOC), " +
+            "MAX(CASE WHEN DTFINLOC = 0 THEN " + DealerSummary.OPEN_END + " ELSE DTFINLOC END)";
+
+    /**
+     * Predicados "seek" (a, b, c) &gt; (x, y, z) y (a, b, c) &lt;= (x, y, z), expandidos con OR/AND como en
+     * la paginación de {@code WexhvlocRepositoryImpl} para que DB2 for i use el índice de la clave.
+     */
+    private static final String AFTER = "(CDISOLOC > ? OR (CDISOLOC = ? AND (CDCOMPANY > ? OR (CDCOMPANY = ? AND CDDEALER > ?))))";
+    private static final String UP_TO = "(CDISOLOC < ? OR (CDISOLOC = ? AND (CDCOMPANY < ? OR (CDCOMPANY = ? AND CDDEALER <= ?))))";
+
+    private static final String INSERT_SQL = "INSERT INTO WEXHVLOC_DEALER_SUMMARY " +
+            "(CDISOLOC, CDCOMPANY, CDDEALER, NBLOCS, DTINIMIN, DTFINMAX) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final RowMapper<DealerSummary> SUMMARY_MAPPER = (rs, rowNum) -> {
+        Timestamp updated = rs.getTimestamp(7);
+        return new DealerSummary(rs.getString(1).trim(), rs.getInt(2), rs.getInt(3), rs.getLong(4),
+                rs.getInt(5), rs.getInt(6), updated != null ? updated.toLocalDateTime() : null);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SqlDialectResolver dialectResolver;
+
+    public DealerSummaryRepositoryImpl(JdbcTemplate jdbcTemplate, SqlDialectResolver dialectResolver) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialectResolver = dialectResolver;
+    }
+
+    @Override
+    public Optional<DealerSummary> find(String cdisoloc, int cdcompany, int cddealer) {
+        String sql = "SELECT " + SELECT_LIST + " FROM WEXHVLOC_DEALER_SUMMARY WHERE " + BY_KEY;
+        return jdbcTemplate.query(sql, SUMMARY_MAPPER, cdisoloc, cdcompany, cddealer).stream().findFirst();
+    }
+
+    @Override
+    public void addLocations(String cdisoloc, int cdcompany, int cddealer, long added, int minStart, int maxEnd) {
+        // Los CAST tipan los '?' dentro de CASE, que DB2 for i no puede deducir por sí mismo.
+        String sql = "UPDATE WEXHVLOC_DEALER_SUMMARY SET NBLOCS = NBLOCS + ?, " +
+                "DTINIMIN = CASE WHEN CAST(? AS DECIMAL(8)) < DTINIMIN THEN CAST(? AS DECIMAL(8)) ELSE DTINIMIN END, " +
+                "DTFINMAX = CASE WHEN CAST(? AS DECIMAL(8)) > DTFINMAX THEN CAST(? AS DECIMAL(8)) ELSE DTFINMAX END, " +
+                "TSLSTUPD = CURRENT_TIMESTAMP WHERE " + BY_KEY;
+        Object[] args = {added, minStart, minStart, maxEnd, maxEnd, cdisoloc, cdcompany, cddealer};
+        if (jdbcTemplate.update(sql, args) == 0) {
+            insertOrRetry(new DealerSummary(cdisoloc, cdcompany, cddealer, added, minStart, maxEnd, null), sql, args);
+        }
+    }
+
+    @Override
+    public void refresh(String cdisoloc, int cdcompany, int cddealer) {
+        DealerSummary current = jdbcTemplate.queryForObject(
+                "SELECT " + AGGREGATE + " FROM WEXHVLOC WHERE " + BY_KEY,
+                (rs, rowNum) -> new DealerSummary(cdisoloc, cdcompany, cddealer, rs.getLong(1), rs.getInt(2), rs.getInt(3), null),
+                cdisoloc, cdcompany, cddealer);
+        if (current.locations() == 0) {
+            jdbcTemplate.update("DELETE FROM WEXHVLOC_DEALER_SUMMARY WHERE " + BY_KEY, cdisoloc, cdcompany, cddealer);
+            return;
+        }
+        String sql = "UPDATE WEXHVLOC_DEALER_SUMMARY SET NBLOCS = ?, DTINIMIN = ?, DTFINMAX = ?, " +
+                "TSLSTUPD = CURRENT_TIMESTAMP WHERE " + BY_KEY;
+        Object[] args = {current.locations(), current.dtinimin(), current.dtfinmax(), cdisoloc, cdcompany, cddealer};
+        if (jdbcTemplate.update(sql, args) == 0) {
+            insertOrRetry(current, sql, args);
+        }
+    }
+
+    @Override
+    public List<DealerSummary> computeChunk(DealerSummary after, int limit) {
+        String sql = "SELECT CDISOLOC, CDCOMPANY, CDDEALER, " + AGGREGATE + " FROM WEXHVLOC " +
+                (after == null ? "" : "WHERE " + AFTER + " ") +
+                "GROUP BY CDISOLOC, CDCOMPANY, CDDEALER ORDER BY CDISOLOC, CDCOMPANY, CDDEALER";
+        RowMapper<DealerSummary> mapper = (rs, rowNum) -> new DealerSummary(rs.getString(1).trim(), rs.getInt(2), rs.getInt(3),
+                rs.getLong(4), rs.getInt(5), rs.getInt(6), null);
+        return jdbcTemplate.query(dialectResolver.current().limit(sql, limit), mapper, seekArgs(after));
+    }
+
+    @Override
+    public void rebuildRange(DealerSummary after, DealerSummary last) {
+        StringBuilder range = new StringBuilder("1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (after != null) {
+            range.append(" AND ").append(AFTER);
+            args.addAll(List.of(seekArgs(after)));
+        }
+        if (last != null) {
+            range.append(" AND ").append(UP_TO);
+            args.addAll(List.of(seekArgs(last)));
+        }
+        // Primero el DELETE (bloquea el rango) y después el agregado, en una sola sentencia INSERT ... SELECT.
+        jdbcTemplate.update("DELETE FROM WEXHVLOC_DEALER_SUMMARY WHERE " + range, args.toArray());
+        jdbcTemplate.update("INSERT INTO WEXHVLOC_DEALER_SUMMARY (CDISOLOC, CDCOMPANY, CDDEALER, NBLOCS, DTINIMIN, DTFINMAX) " +
+                "SELECT CDISOLOC, CDCOMPANY, CDDEALER, " + AGGREGATE + " FROM WEXHVLOC WHERE " + range +
+                " GROUP BY CDISOLOC, CDCOMPANY, CDDEALER", args.toArray());
+    }
+
+    /**
+     * Crea el resumen de un concesionario que aún no lo tenía. Si otra transacción lo ha creado a la vez
+     * (clave duplicada), repite la actualización, que ahora sí encuentra la fila.
+     */
+    private void insertOrRetry(DealerSummary summary, String updateSql, Object[] updateArgs) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, summary.cdisoloc(), summary.cdcompany(), summary.cddealer(),
+                    summary.locations(), summary.dtinimin(), summary.dtfinmax());
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(updateSql, updateArgs);
+        }
+    }
+
+    private static Object[] seekArgs(DealerSummary key) {
+        if (key == null) {
+            return new Object[0];
+        }
+        return new Object[]{key.cdisoloc(), key.cdisoloc(), key.cdcompany(), key.cdcompany(), key.cddealer()};
+    }
+}
@@ -0,0 +1,70 @@
+package com.kike.training.inquiry.infrastructure.db.repository;
+
+import com.kike.training.inquiry.domain.model.User;
+import com.kike.training.inquiry.domain.port.out.ReactiveUserRepository;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Adaptador R2DBC del {@link ReactiveUserRepository} (perfil {@code r2dbc}).
+ *
+ * Las mismas sentencias que {@link UserRepositoryImpl}, con parámetros con nombre del
+ * {@link DatabaseClient}. Cada operación pide su conexión al pool del país del contexto de Reactor
+ * y la devuelve al terminar; ningún hilo espera mientras la base de datos trabaja.
+ */
+@Repository
+@Profile("r2dbc")
+public class R2dbcUserRepository implements ReactiveUserRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public R2dbcUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Flux<User> findAll() {
+        return databaseClient.sql("SELECT " + UserRowMapper.SELECT_LIST + " FROM users ORDER BY id")
+                .map(R2dbcUserRepository::toUser)
+                .all();
+    }
+
+    @Override
+    public Mono<User> findById(Long id) {
+        return databaseClient.sql("SELECT " + UserRowMapper.SELECT_LIST + " FROM users WHERE id = :id")
+                .bind("id", id)
+                .map(R2dbcUserRepository::toUser)
+                .one();
+    }
+
+    @Override
+    public Mono<User> insert(User user) {
+        // El ID lo pone el DEFAULT de la columna (USERS_ID_SEQ) y se recupera con las claves generadas.
+        return databaseClient.sql("INSERT INTO users (username, email) VALUES (:username, :email)")
+                .bind("username", user.getUsername())
+                .bind("email", user.getEmail())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .map(id -> new User(id, user.getUsername(), user.getEmail()));
+    }
+
+    @Override
+    public Mono<Long> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM users WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Equivalente de {@link UserRowMapper}: lee las columnas de {@link UserRowMapper#SELECT_LIST} por posición.
+     */
+    private static User toUser(Readable row) {
+        return new User(row.get(0, Long.class), row.get(1, String.class), row.get(2, String.class));
+    }
+}
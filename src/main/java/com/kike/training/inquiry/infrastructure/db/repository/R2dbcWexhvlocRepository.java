@@ -0,0 +1,107 @@
+package com.kike.training.inquiry.infrastructure.db.repository;
+
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.domain.model.WexhvlocKey;
+import com.kike.training.inquiry.domain.port.out.ReactiveWexhvlocRepository;
+import com.kike.training.inquiry.infrastructure.db.config.DatabaseDriver;
+import com.kike.training.inquiry.infrastructure.db.config.SqlDialect;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Adaptador R2DBC del {@link ReactiveWexhvlocRepository} (perfil {@code r2dbc}).
+ *
+ * Reutiliza el catálogo {@link WexhvlocColumn} para no repetir la lista de columnas: el INSERT se genera
+ * con un parámetro con nombre por columna, y las filas se leen con el tipo Java de cada una.
+ * El dialecto (para el límite de filas) sale de los metadatos de la conexión, sin ir a la base de datos.
+ */
+@Repository
+@Profile("r2dbc")
+public class R2dbcWexhvlocRepository implements ReactiveWexhvlocRepository {
+
+    private static final List<WexhvlocColumn> COLUMNS = List.of(WexhvlocColumn.values());
+
+    private static final String SELECT_SQL = "SELECT " + WexhvlocRowMapper.SELECT_LIST + " FROM WEXHVLOC ";
+
+    private static final String KEY_WHERE = "WHERE CDISOLOC = :cdisoloc AND CDCOMPANY = :cdcompany AND CDDEALER = :cddealer " +
+            "AND CHASSIS = :chassis AND NMEXHVL = :nmexhvl AND CDEXHVL = :cdexhvl";
+
+    private static final String INSERT_SQL = "INSERT INTO WEXHVLOC (" + WexhvlocRowMapper.SELECT_LIST + ") VALUES (" +
+            COLUMNS.stream().map(c -> ":" + c.getProperty()).collect(Collectors.joining(", ")) + ")";
+
+    private final DatabaseClient databaseClient;
+    private final SqlDialect dialect;
+
+    public R2dbcWexhvlocRepository(DatabaseClient databaseClient, ConnectionFactory tenantConnectionFactory) {
+        this.databaseClient = databaseClient;
+        this.dialect = DatabaseDriver.fromProductName(tenantConnectionFactory.getMetadata().getName());
+    }
+
+    @Override
+    public Mono<Wexhvloc> findByCompositeId(WexhvlocKey key) {
+        return bindKey(databaseClient.sql(SELECT_SQL + KEY_WHERE), key)
+                .map(R2dbcWexhvlocRepository::toWexhvloc)
+                .one();
+    }
+
+    @Override
+    public Flux<Wexhvloc> findDealerPage(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer, int limit) {
+        String sql = dialect.limit(SELECT_SQL + "WHERE CDISOLOC = :cdisoloc AND CDCOMPANY = :cdcompany AND CDDEALER = :cddealer " +
+                "ORDER BY CHASSIS, NMEXHVL, CDEXHVL", limit);
+        return databaseClient.sql(sql)
+                .bind("cdisoloc", cdisoloc)
+                .bind("cdcompany", cdcompany)
+                .bind("cddealer", cddealer)
+                .map(R2dbcWexhvlocRepository::toWexhvloc)
+                .all();
+    }
+
+    @Override
+    public Mono<Wexhvloc> insert(Wexhvloc location) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(INSERT_SQL);
+        for (WexhvlocColumn column : COLUMNS) {
+            Object value = column.get(location);
+            spec = value != null
+                    ? spec.bind(column.getProperty(), value)
+                    : spec.bindNull(column.getProperty(), column.getJavaType());
+        }
+        return spec.fetch().rowsUpdated().thenReturn(location);
+    }
+
+    @Override
+    public Mono<Long> deleteByCompositeId(WexhvlocKey key) {
+        return bindKey(databaseClient.sql("DELETE FROM WEXHVLOC " + KEY_WHERE), key)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindKey(DatabaseClient.GenericExecuteSpec spec, WexhvlocKey key) {
+        return spec.bind("cdisoloc", key.cdisoloc())
+                .bind("cdcompany", key.cdcompany())
+                .bind("cddealer", key.cddealer())
+                .bind("chassis", key.chassis())
+                .bind("nmexhvl", key.nmexhvl())
+                .bind("cdexhvl", key.cdexhvl());
+    }
+
+    /**
+     * Equivalente de {@link WexhvlocRowMapper}: las columnas de {@link WexhvlocRowMapper#SELECT_LIST}, por posición.
+     */
+    private static Wexhvloc toWexhvloc(Readable row) {
+        Wexhvloc loc = new Wexhvloc();
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            WexhvlocColumn column = COLUMNS.get(i);
+            column.set(loc, row.get(i, column.getJavaType()));
+        }
+        return loc;
+    }
+}
@@ -0,0 +1,149 @@
+package com.kike.training.inquiry.infrastructure.db.repository;
+
+import com.kike.training.inquiry.infrastructure.db.config.DataSourceContextHolder;
+import com.kike.training.inquiry.infrastructure.db.config.SqlDialectResolver;
+import com.kike.training.inquiry.infrastructure.db.config.TenantExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asignador de IDs de usuario por bloques (algoritmo "pooled" / hi-lo), uno por tenant.
+ *
+ * ¿POR QUÉ EXISTE?
+ * Para insertar usuarios con un único `JdbcTemplate.batchUpdate` necesitamos conocer los IDs
+ * ANTES de insertar: la recuperación de claves generadas (`RETURN_GENERATED_KEYS`) obliga a una
+ * ida y vuelta por fila y no funciona con batches en todos los drivers.
+ *
+ * ¿CÓMO FUNCIONA?
+ * - La secuencia `USERS_ID_SEQ` se incrementa de `blockSize` en `blockSize` (ver migración V3).
+ * - Cada `NEXT VALUE` reserva en exclusiva el rango [valor, valor + blockSize - 1] para este proceso.
+ * - Los IDs se reparten en memoria hasta agotar el bloque; solo entonces se vuelve a la base de datos.
+ * - Cada país tiene su propia base de datos y, por tanto, su propio bloque en curso.
+ *
+ * El INCREMENT BY de la secuencia y {@code users.id.block-size} TIENEN que coincidir: si el bloque fuera
+ * mayor que el incremento, dos procesos podrían repartir los mismos IDs. Por eso, al arrancar, se
+ * comprueba en cada país ({@link #validateSequenceIncrement()}) y la aplicación no arranca si no coinciden.
+ *
+ * La migración V3 solo se aplica en H2 (perfiles local/test). En DB2 for i la secuencia y el valor por
+ * defecto de la columna se crean a mano; el equivalente es:
+ * <pre>
+ * CREATE SEQUENCE USERS_ID_SEQ AS BIGINT START WITH 1 INCREMENT BY 50;
+ * -- La columna ID no puede tomar su valor de una secuencia por DEFAULT en DB2 for i: los INSERT sin ID
+ * -- (Spring Data, insertUserNative) necesitan un trigger BEFORE INSERT que asigne NEXT VALUE FOR USERS_ID_SEQ.
+ * </pre>
+ */
+@Component
+@Slf4j
+public class UserIdAllocator {
+
+    static final String SEQUENCE_NAME = "USERS_ID_SEQ";
+
+    /**
+     * Clave usada cuando no hay tenant en el contexto (se enruta al DataSource por defecto).
+     */
+    private static final String DEFAULT_TENANT = "__DEFAULT__";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SqlDialectResolver dialectResolver;
+    private final TenantExecutor tenantExecutor;
+    private final int blockSize;
+    private final Map<String, IdBlock> blocks = new ConcurrentHashMap<>();
+
+    public UserIdAllocator(JdbcTemplate jdbcTemplate, SqlDialectResolver dialectResolver, TenantExecutor tenantExecutor,
+                           @Value("${users.id.block-size:50}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialectResolver = dialectResolver;
+        this.tenantExecutor = tenantExecutor;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Comprueba, en cada país, que el INCREMENT BY de {@value #SEQUENCE_NAME} es igual a {@code users.id.block-size}.
+     * Se ejecuta al terminar el arranque (con las migraciones ya aplicadas en los perfiles que las usan).
+     * Un país que no responde no impide el arranque: se avisa y sus inserciones por lotes fallarán
+     * hasta que vuelva, igual que si le faltara la secuencia.
+     *
+     * @throws IllegalStateException si en algún país no coinciden: la aplicación no llega a arrancar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void validateSequenceIncrement() {
+        List<String> validated = new ArrayList<>();
+        for (String tenant : tenantExecutor.getTenants()) {
+            List<Long> increments;
+            try {
+                increments = tenantExecutor.callInTenant(tenant, () -> jdbcTemplate.queryForList(
+                        dialectResolver.current().sequenceIncrementQuery(), Long.class, SEQUENCE_NAME));
+            } catch (DataAccessException e) {
+                log.warn("No se ha podido comprobar la secuencia {} en '{}': {}", SEQUENCE_NAME, tenant, e.getMessage());
+                continue;
+            }
+            if (increments.isEmpty()) {
+                // Sin secuencia no hay inserciones por lotes posibles, pero el resto del servicio funciona.
+                log.warn("La secuencia {} no existe en '{}': las inserciones de usuarios por lotes fallarán.", SEQUENCE_NAME, tenant);
+            } else if (increments.get(0) != blockSize) {
+                throw new IllegalStateException("La secuencia " + SEQUENCE_NAME + " de '" + tenant + "' tiene INCREMENT BY "
+                        + increments.get(0) + ", pero users.id.block-size es " + blockSize + ". Deben coincidir.");
+            } else {
+                validated.add(tenant);
+            }
+        }
+        log.info("Secuencia {} validada: incremento {} en {}.", SEQUENCE_NAME, blockSize, validated);
+    }
+
+    /**
+     * Reserva `count` IDs para el tenant actualmente enrutado.
+     *
+     * @param count Número de IDs necesarios.
+     * @return Un array con IDs únicos y crecientes.
+     */
+    public long[] allocate(int count) {
+        String tenant = DataSourceContextHolder.getBranchContext();
+        IdBlock block = blocks.computeIfAbsent(tenant != null ? tenant : DEFAULT_TENANT, t -> new IdBlock());
+
+        long[] ids = new long[count];
+        // Usamos un ReentrantLock (y no 'synchronized') para no anclar hilos virtuales durante la consulta.
+        block.lock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                if (block.next > block.last) {
+                    long start = fetchNextBlockStart();
+                    block.next = start;
+                    block.last = start + blockSize - 1;
+                    log.debug("Nuevo bloque de IDs de usuario para '{}': [{}, {}]", tenant, block.next, block.last);
+                }
+                ids[i] = block.next++;
+            }
+        } finally {
+            block.lock.unlock();
+        }
+        return ids;
+    }
+
+    private long fetchNextBlockStart() {
+        Long value = jdbcTemplate.queryForObject(dialectResolver.current().nextSequenceValue(SEQUENCE_NAME), Long.class);
+        if (value == null) {
+            throw new IllegalStateException("La secuencia " + SEQUENCE_NAME + " no devolvió ningún valor.");
+        }
+        return value;
+    }
+
+    /**
+     * Bloque de IDs en curso de un tenant. Empieza "agotado" para forzar la primera reserva.
+     */
+    private static final class IdBlock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next = 1;
+        private long last = 0;
+    }
+}
@@ -0,0 +1,21 @@
+package com.kike.training.inquiry.infrastructure.db.repository;
+
+import com.kike.training.inquiry.domain.model.User;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Vincula un `User` a los parámetros posicionales de un INSERT con las columnas de
+ * {@link UserRowMapper#SELECT_LIST} (id, username, email), en ese orden.
+ */
+public class UserParameterBinder implements ParameterizedPreparedStatementSetter<User> {
+
+    @Override
+    public void setValues(PreparedStatement ps, User user) throws SQLException {
+        ps.setLong(1, user.getId());
+        ps.setString(2, user.getUsername());
+        ps.setString(3, user.getEmail());
+    }
+}
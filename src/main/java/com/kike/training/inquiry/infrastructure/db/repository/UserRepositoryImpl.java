@@ -2,16 +2,24 @@ package com.kike.training.inquiry.infrastructure.db.repository;
 
 import com.kike.training.inquiry.domain.model.User;
 import com.kike.training.inquiry.domain.port.out.UserRepositoryCustom;
+import com.kike.training.inquiry.infrastructure.db.config.SqlDialect;
+import com.kike.training.inquiry.infrastructure.db.config.SqlDialectResolver;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /*============================================================
 🔍 ¿POR QUÉ SPRING NO USA AUTOMÁTICAMENTE UserRepositoryCustomImpl?
@@ -112,10 +120,29 @@ Es una excelente oportunidad para explicar el mecanismo de autoconfiguración po
 @Repository
 public class UserRepositoryImpl implements UserRepositoryCustom {
 
+    /**
+     * Lista blanca de columnas que se pueden pedir en una proyección ({@code ?fields=}).
+     */
+    private static final Set<String> PROJECTABLE_COLUMNS = Set.of("id", "username", "email");
+
     private final JdbcTemplate jdbcTemplate;
+    private final UserIdAllocator idAllocator;
+    private final SqlDialectResolver dialectResolver;
+    private final int batchSize;
+    private final int streamFetchSize;
 
-    public UserRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    /**
+     * @param batchSize       Filas por executeBatch; si es 0, se usa el óptimo del dialecto.
+     * @param streamFetchSize Fetch size al recorrer la tabla entera; si es 0, se usa el del dialecto.
+     */
+    public UserRepositoryImpl(JdbcTemplate jdbcTemplate, UserIdAllocator idAllocator, SqlDialectResolver dialectResolver,
+                              @Value("${users.batch.size:0}") int batchSize,
+                              @Value("${inquiry.stream.fetch-size:0}") int streamFetchSize) {
         this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+        this.dialectResolver = dialectResolver;
+        this.batchSize = batchSize;
+        this.streamFetchSize = streamFetchSize;
     }
 
     // ===============================
@@ -123,13 +150,11 @@ public class UserRepositoryImpl implements UserRepositoryCustom {
     // ===============================
 
     /**
-     * Conversor de filas de la tabla a objetos `User`.
+     * Conversor de filas a objetos `User` por posición; las consultas seleccionan siempre
+     * {@link UserRowMapper#SELECT_LIST}.
      */
-    private final RowMapper<User> rowMapper = (rs, rowNum) -> new User(
-            rs.getLong("id"),
-            rs.getString("username"),
-            rs.getString("email")
-    );
+    private static final UserRowMapper ROW_MAPPER = new UserRowMapper();
+    private static final UserParameterBinder BINDER = new UserParameterBinder();
 
     // =====================================
     // = Implementaciones de la interfaz ==
@@ -154,6 +179,24 @@ public class UserRepositoryImpl implements UserRepositoryCustom {
         return user;
     }
 
+    @Override
+    public List<User> batchInsertUsersNative(List<User> users) {
+        if (users.isEmpty()) {
+            return users;
+        }
+
+        // 1. Reservar todos los IDs de golpe (normalmente sin ir a la BBDD: salen del bloque en memoria).
+        long[] ids = idAllocator.allocate(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setId(ids[i]);
+        }
+
+        // 2. Un único batch JDBC con los IDs ya asignados.
+        String sql = "INSERT INTO users (" + UserRowMapper.SELECT_LIST + ") VALUES (?, ?, ?)";
+        int size = batchSize > 0 ? batchSize : dialectResolver.current().getBatchSize();
+        jdbcTemplate.batchUpdate(sql, users, size, BINDER);
+        return users;
+    }
 
     @Override
     public void updateUserNative(User user) {
@@ -173,16 +216,87 @@ public class UserRepositoryImpl implements UserRepositoryCustom {
         jdbcTemplate.update(sql);
     }
 
+    @Override
+    public int deleteUsersChunk(int limit) {
+        List<Long> ids = jdbcTemplate.queryForList(dialectResolver.current().limit("SELECT id FROM users ORDER BY id", limit), Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("DELETE FROM users WHERE id BETWEEN ? AND ?", ids.get(0), ids.get(ids.size() - 1));
+    }
+
+    @Override
+    public boolean truncateUsers() {
+        Optional<String> truncate = dialectResolver.current().truncate("users");
+        truncate.ifPresent(jdbcTemplate::execute);
+        return truncate.isPresent();
+    }
+
     @Override
     public Optional<User> findByIdNative(Long id) {
-        String sql = "SELECT * FROM users WHERE id = ?";
-        List<User> results = jdbcTemplate.query(sql, rowMapper, id);
+        String sql = "SELECT " + UserRowMapper.SELECT_LIST + " FROM users WHERE id = ?";
+        List<User> results = jdbcTemplate.query(sql, ROW_MAPPER, id);
         return results.stream().findFirst();
     }
 
     @Override
     public List<User> findAllNative() {
-        String sql = "SELECT * FROM users";
-        return jdbcTemplate.query(sql, rowMapper);
+        String sql = "SELECT " + UserRowMapper.SELECT_LIST + " FROM users";
+        return jdbcTemplate.query(sql, ROW_MAPPER);
+    }
+
+    @Override
+    public void forEachUserNative(Consumer<User> action) {
+        forEachUserNative(streamFetchSize > 0 ? streamFetchSize : dialectResolver.current().getFetchSize(), action);
+    }
+
+    @Override
+    public void forEachUserNative(int fetchSize, Consumer<User> action) {
+        String sql = "SELECT " + UserRowMapper.SELECT_LIST + " FROM users ORDER BY id";
+        // Cursor de solo avance y solo lectura, con un fetch size explícito: el driver trae las filas
+        // por bloques en lugar de todas de golpe (o de una en una).
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (ResultSet rs) -> action.accept(ROW_MAPPER.mapRow(rs, 0)));
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findProjectionByIdNative(Long id, List<String> fields) {
+        List<String> columns = fields.stream()
+                .map(f -> f.trim().toLowerCase(Locale.ROOT))
+                .distinct()
+                .toList();
+        for (String column : columns) {
+            if (!PROJECTABLE_COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Campo desconocido: '" + column + "'.");
+            }
+        }
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("Hay que indicar al menos un campo.");
+        }
+
+        String sql = "SELECT " + String.join(", ", columns) + " FROM users WHERE id = ?";
+        List<Map<String, Object>> rows = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                row.put(columns.get(i), "id".equals(columns.get(i)) ? rs.getLong(i + 1) : rs.getString(i + 1));
+            }
+            return row;
+        }, id);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public List<User> findPageNative(Long afterId, int limit) {
+        // La cláusula de límite la pone el dialecto (FETCH FIRST en DB2 for i, LIMIT en H2).
+        SqlDialect dialect = dialectResolver.current();
+        if (afterId == null) {
+            String sql = "SELECT " + UserRowMapper.SELECT_LIST + " FROM users ORDER BY id";
+            return jdbcTemplate.query(dialect.limit(sql, limit), ROW_MAPPER);
+        }
+        String sql = "SELECT " + UserRowMapper.SELECT_LIST + " FROM users WHERE id > ? ORDER BY id";
+        return jdbcTemplate.query(dialect.limit(sql, limit), ROW_MAPPER, afterId);
     }
 }
@@ -0,0 +1,26 @@
+package com.kike.training.inquiry.infrastructure.db.repository;
+
+import com.kike.training.inquiry.domain.model.User;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Conversor de filas de la tabla `users` a objetos `User` que lee las columnas POR POSICIÓN,
+ * para consultas que seleccionen exactamente {@link #SELECT_LIST}.
+ *
+ * Sustituye a la búsqueda por nombre (`rs.getString("username")`) que se hacía en cada fila.
+ */
+public class UserRowMapper implements RowMapper<User> {
+
+    /**
+     * Lista fija de columnas; su orden determina las posiciones que lee {@link #mapRow(ResultSet, int)}.
+     */
+    public static final String SELECT_LIST = "id, username, email";
+
+    @Override
+    public User mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new User(rs.getLong(1), rs.getString(2), rs.getString(3));
+    }
+}
@@ -0,0 +1,228 @@
+package com.kike.training.inquiry.infrastructure.db.repository;
+
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.infrastructure.db.config.SqlDialect;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Catálogo de las columnas de la tabla WEXHVLOC, en el orden físico de la tabla.
+ *
+ * <p>Centraliza lo que antes estaba repetido en cada sentencia SQL: el nombre de la columna,
+ * la propiedad equivalente de {@code Wexhvloc}, su tipo SQL (tal y como lo define la migración V2; las
+ * columnas de texto nacional dependen del dialecto) y si forma parte de la clave primaria compuesta.</p>
+ */
+public enum WexhvlocColumn {
+
+    CDISOLOC("cdisoloc", "CHAR(2)", true),
+    CDCOMPANY("cdcompany", "NUMERIC(1)", true),
+    CDDEALER("cddealer", "NUMERIC(5)", true),
+    CHASSIS("chassis", "CHAR(17)", true),
+    NMEXHVL("nmexhvl", "DECIMAL(9)", true),
+    CDEXHVL("cdexhvl", "CHAR(3)", true),
+    DTINILOC("dtiniloc", "DECIMAL(8)", false),
+    DTFINLOC("dtfinloc", "DECIMAL(8)", false),
+    ADEXHVL("adexhvl", "VARCHAR(100)", 100, false),
+    LGEXHVL("lgexhvl", "DECIMAL(6)", false),
+    TMEXHVL("tmexhvl", "CHAR(4)", false),
+    DTAPPRV("dtapprv", "DECIMAL(8)", false),
+    SNCREATE("sncreate", "CHAR(10)", false),
+    TSCREATE("tscreate", "TIMESTAMP", false),
+    SNLSTUPD("snlstupd", "CHAR(10)", false),
+    TSLSTUPD("tslstupd", "TIMESTAMP", false),
+    CDCHGSTS("cdchgsts", "CHAR(2)", false);
+
+    private static final Pattern LENGTH = Pattern.compile("\\((\\d+)\\)");
+
+    private final String property;
+    private final String sqlType;
+    private final int nationalLength;
+    private final boolean key;
+
+    WexhvlocColumn(String property, String sqlType, boolean key) {
+        this(property, sqlType, 0, key);
+    }
+
+    /**
+     * Columna de texto nacional (NCHAR en DB2 for i) de la longitud indicada.
+     */
+    WexhvlocColumn(String property, String sqlType, int nationalLength, boolean key) {
+        this.property = property;
+        this.sqlType = sqlType;
+        this.nationalLength = nationalLength;
+        this.key = key;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String getSqlType() {
+        return sqlType;
+    }
+
+    /**
+     * Tipo de la columna en el motor del dialecto indicado.
+     */
+    public String getSqlType(SqlDialect dialect) {
+        return nationalLength > 0 ? dialect.nationalCharType(nationalLength) : sqlType;
+    }
+
+    public boolean isKey() {
+        return key;
+    }
+
+    /**
+     * Lee el valor de esta columna de la posición indicada del {@code ResultSet}, con el mismo tipo Java
+     * que la propiedad de {@code Wexhvloc} (String, BigDecimal o LocalDateTime).
+     */
+    public Object read(ResultSet rs, int index) throws SQLException {
+        if (sqlType.startsWith("TIMESTAMP")) {
+            return rs.getObject(index, LocalDateTime.class);
+        }
+        if (sqlType.contains("CHAR")) {
+            return rs.getString(index);
+        }
+        return rs.getBigDecimal(index);
+    }
+
+    /**
+     * Convierte un valor de texto (por ejemplo, un campo de un CSV) al tipo Java de la columna,
+     * comprobando que cabe en ella: longitud máxima de CHAR/VARCHAR y número de dígitos (sin decimales)
+     * de NUMERIC/DECIMAL. Un valor vacío se convierte en el valor por defecto de la tabla
+     * (un espacio, 0, o {@code null} en los TIMESTAMP para que lo rellene quien inserta).
+     *
+     * @throws IllegalArgumentException si el valor no es del tipo de la columna o no cabe en ella.
+     */
+    public Object parse(String text) {
+        boolean blank = text == null || text.isBlank();
+        if (sqlType.startsWith("TIMESTAMP")) {
+            try {
+                return blank ? null : LocalDateTime.parse(text.trim());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(name() + ": '" + text + "' no es un TIMESTAMP (yyyy-MM-ddTHH:mm:ss).");
+            }
+        }
+        int length = length();
+        if (sqlType.contains("CHAR")) {
+            String value = blank ? " " : text.stripTrailing();
+            if (value.length() > length) {
+                throw new IllegalArgumentException(name() + ": '" + value + "' supera la longitud máxima de " + length + ".");
+            }
+            return value;
+        }
+        if (blank) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal value;
+        try {
+            value = new BigDecimal(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name() + ": '" + text + "' no es un número.");
+        }
+        BigDecimal integral = value.stripTrailingZeros();
+        if (integral.scale() > 0 || integral.precision() - integral.scale() > length) {
+            throw new IllegalArgumentException(name() + ": '" + text + "' no es un entero de hasta " + length + " dígitos.");
+        }
+        return integral.setScale(0);
+    }
+
+    /**
+     * Asigna a la propiedad de {@code Wexhvloc} equivalente a esta columna un valor del tipo Java
+     * de la columna (el que devuelven {@link #read} y {@link #parse}).
+     */
+    public void set(Wexhvloc loc, Object value) {
+        switch (this) {
+            case CDISOLOC -> loc.setCdisoloc((String) value);
+            case CDCOMPANY -> loc.setCdcompany((BigDecimal) value);
+            case CDDEALER -> loc.setCddealer((BigDecimal) value);
+            case CHASSIS -> loc.setChassis((String) value);
+            case NMEXHVL -> loc.setNmexhvl((BigDecimal) value);
+            case CDEXHVL -> loc.setCdexhvl((String) value);
+            case DTINILOC -> loc.setDtiniloc((BigDecimal) value);
+            case DTFINLOC -> loc.setDtfinloc((BigDecimal) value);
+            case ADEXHVL -> loc.setAdexhvl((String) value);
+            case LGEXHVL -> loc.setLgexhvl((BigDecimal) value);
+            case TMEXHVL -> loc.setTmexhvl((String) value);
+            case DTAPPRV -> loc.setDtapprv((BigDecimal) value);
+            case SNCREATE -> loc.setSncreate((String) value);
+            case TSCREATE -> loc.setTscreate((LocalDateTime) value);
+            case SNLSTUPD -> loc.setSnlstupd((String) value);
+            case TSLSTUPD -> loc.setTslstupd((LocalDateTime) value);
+            case CDCHGSTS -> loc.setCdchgsts((String) value);
+        }
+    }
+
+    /**
+     * Valor de la propiedad de {@code Wexhvloc} equivalente a esta columna (la inversa de {@link #set}).
+     */
+    public Object get(Wexhvloc loc) {
+        return switch (this) {
+            case CDISOLOC -> loc.getCdisoloc();
+            case CDCOMPANY -> loc.getCdcompany();
+            case CDDEALER -> loc.getCddealer();
+            case CHASSIS -> loc.getChassis();
+            case NMEXHVL -> loc.getNmexhvl();
+            case CDEXHVL -> loc.getCdexhvl();
+            case DTINILOC -> loc.getDtiniloc();
+            case DTFINLOC -> loc.getDtfinloc();
+            case ADEXHVL -> loc.getAdexhvl();
+            case LGEXHVL -> loc.getLgexhvl();
+            case TMEXHVL -> loc.getTmexhvl();
+            case DTAPPRV -> loc.getDtapprv();
+            case SNCREATE -> loc.getSncreate();
+            case TSCREATE -> loc.getTscreate();
+            case SNLSTUPD -> loc.getSnlstupd();
+            case TSLSTUPD -> loc.getTslstupd();
+            case CDCHGSTS -> loc.getCdchgsts();
+        };
+    }
+
+    /**
+     * Tipo Java de la columna (el de la propiedad de {@code Wexhvloc}): String, BigDecimal o LocalDateTime.
+     */
+    public Class<?> getJavaType() {
+        if (sqlType.startsWith("TIMESTAMP")) {
+            return LocalDateTime.class;
+        }
+        return sqlType.contains("CHAR") ? String.class : BigDecimal.class;
+    }
+
+    /**
+     * Longitud (CHAR/VARCHAR) o número de dígitos (NUMERIC/DECIMAL) declarados en el tipo SQL.
+     */
+    private int length() {
+        Matcher matcher = LENGTH.matcher(sqlType);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Busca una columna por el nombre de su propiedad (sin distinguir mayúsculas). Es la lista blanca
+     * que protege las proyecciones: nunca se concatena en SQL un nombre que no esté en este enum.
+     *
+     * @throws IllegalArgumentException si no existe ninguna columna con ese nombre.
+     */
+    public static WexhvlocColumn fromProperty(String property) {
+        String normalized = property.trim().toLowerCase(Locale.ROOT);
+        return Arrays.stream(values())
+                .filter(c -> c.property.equals(normalized))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Campo desconocido: '" + property.trim() + "'."));
+    }
+
+    /**
+     * Las seis columnas de la clave primaria compuesta, en orden.
+     */
+    public static List<WexhvlocColumn> keyColumns() {
+        return Arrays.stream(values()).filter(WexhvlocColumn::isKey).toList();
+    }
+}
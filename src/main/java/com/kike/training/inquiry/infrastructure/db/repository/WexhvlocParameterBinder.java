@@ -0,0 +1,66 @@
+package com.kike.training.inquiry.infrastructure.db.repository;
+
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+/**
+ * Vincula los 17 campos de un `Wexhvloc` a parámetros posicionales '?', en el orden físico de la tabla
+ * (el mismo que {@link WexhvlocRowMapper#SELECT_LIST}).
+ *
+ * Es la contrapartida del {@link WexhvlocRowMapper} para las escrituras: sirve tanto para el INSERT
+ * como para el MERGE, que declaran sus parámetros en ese mismo orden.
+ */
+public class WexhvlocParameterBinder implements ParameterizedPreparedStatementSetter<Wexhvloc> {
+
+    /**
+     * Número de parámetros que vincula {@link #setValues(PreparedStatement, Wexhvloc)}.
+     */
+    public static final int PARAMETER_COUNT = 17;
+
+    @Override
+    public void setValues(PreparedStatement ps, Wexhvloc loc) throws SQLException {
+        bind(ps, 1, loc);
+    }
+
+    /**
+     * Vincula el registro a partir de la posición {@code first} (útil si la sentencia tiene parámetros antes).
+     */
+    public void bind(PreparedStatement ps, int first, Wexhvloc loc) throws SQLException {
+        int i = first;
+        ps.setString(i++, loc.getCdisoloc());
+        ps.setBigDecimal(i++, loc.getCdcompany());
+        ps.setBigDecimal(i++, loc.getCddealer());
+        ps.setString(i++, loc.getChassis());
+        ps.setBigDecimal(i++, loc.getNmexhvl());
+        ps.setString(i++, loc.getCdexhvl());
+        ps.setBigDecimal(i++, loc.getDtiniloc());
+        ps.setBigDecimal(i++, loc.getDtfinloc());
+        ps.setString(i++, loc.getAdexhvl());
+        ps.setBigDecimal(i++, loc.getLgexhvl());
+        ps.setString(i++, loc.getTmexhvl());
+        ps.setBigDecimal(i++, loc.getDtapprv());
+        ps.setString(i++, loc.getSncreate());
+        setTimestamp(ps, i++, loc.getTscreate());
+        ps.setString(i++, loc.getSnlstupd());
+        setTimestamp(ps, i++, loc.getTslstupd());
+        ps.setString(i, loc.getCdchgsts());
+    }
+
+    /**
+     * Vincula un TIMESTAMP; el null va tipado ({@code setNull}), porque el driver del AS400 no acepta
+     * siempre un {@code setTimestamp(i, null)}.
+     */
+    static void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.TIMESTAMP);
+        } else {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        }
+    }
+}
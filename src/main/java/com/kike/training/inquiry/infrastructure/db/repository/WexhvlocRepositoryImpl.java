@@ -0,0 +1,417 @@
+package com.kike.training.inquiry.infrastructure.db.repository;
+
+import com.kike.training.inquiry.domain.model.CompactWexhvloc;
+import com.kike.training.inquiry.domain.model.UpsertResult;
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.domain.model.WexhvlocGroupCount;
+import com.kike.training.inquiry.domain.model.WexhvlocKey;
+import com.kike.training.inquiry.domain.port.out.WexhvlocRepositoryCustom;
+import com.kike.training.inquiry.infrastructure.db.config.SqlDialect;
+import com.kike.training.inquiry.infrastructure.db.config.SqlDialectResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación de las operaciones personalizadas para la entidad `Wexhvloc`
+ * utilizando SQL manual con `JdbcTemplate`.
+ *
+ * Sigue la misma convención que `UserRepositoryImpl`: Spring Data la detecta por su nombre
+ * (`WexhvlocRepositoryImpl`) y la une a la interfaz principal `WexhvlocRepository`.
+ */
+@Repository
+public class WexhvlocRepositoryImpl implements WexhvlocRepositoryCustom {
+
+    /**
+     * INSERT con parámetros posicionales, en el mismo orden de columnas que la tabla
+     * (el que vincula {@link WexhvlocParameterBinder}).
+     */
+    static final String INSERT_SQL = "INSERT INTO WEXHVLOC (" + WexhvlocRowMapper.SELECT_LIST + ") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * UPDATE de los campos modificables, localizando el registro por la clave compuesta.
+     * Parámetros: 4 valores nuevos (1-4) y las 6 columnas de la clave (5-10).
+     */
+    static final String UPDATE_SQL = "UPDATE WEXHVLOC SET ADEXHVL = ?, CDCHGSTS = ?, TSLSTUPD = ?, SNLSTUPD = ? " +
+            "WHERE CDISOLOC = ? AND CDCOMPANY = ? AND CDDEALER = ? AND CHASSIS = ? AND NMEXHVL = ? AND CDEXHVL = ?";
+
+    /**
+     * Predicado de una clave compuesta completa; las búsquedas de varias claves los unen con OR.
+     */
+    private static final String KEY_PREDICATE =
+            "(CDISOLOC = ? AND CDCOMPANY = ? AND CDDEALER = ? AND CHASSIS = ? AND NMEXHVL = ? AND CDEXHVL = ?)";
+
+    /**
+     * Columnas que el MERGE solo escribe al insertar: los datos de creación no cambian al actualizar.
+     */
+    private static final Set<String> INSERT_ONLY_COLUMNS = Set.of(WexhvlocColumn.SNCREATE.name(), WexhvlocColumn.TSCREATE.name());
+
+    private static final WexhvlocRowMapper ROW_MAPPER = new WexhvlocRowMapper();
+    private static final CompactWexhvlocRowMapper COMPACT_ROW_MAPPER = new CompactWexhvlocRowMapper();
+    private static final WexhvlocParameterBinder BINDER = new WexhvlocParameterBinder();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SqlDialectResolver dialectResolver;
+    private final Map<SqlDialect, String> mergeSqlByDialect = new ConcurrentHashMap<>();
+
+    public WexhvlocRepositoryImpl(JdbcTemplate jdbcTemplate, SqlDialectResolver dialectResolver) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialectResolver = dialectResolver;
+    }
+
+    /**
+     * Sentencia MERGE de una fila para el dialecto indicado (se genera una vez por dialecto):
+     * <pre>
+     * MERGE INTO WEXHVLOC T
+     * USING (VALUES (CAST(? AS CHAR(2)), ...)) AS S (CDISOLOC, ...)
+     * ON T.CDISOLOC = S.CDISOLOC AND ... (las 6 columnas de la clave)
+     * WHEN MATCHED THEN UPDATE SET DTINILOC = S.DTINILOC, ... (sin tocar SNCREATE/TSCREATE)
+     * WHEN NOT MATCHED THEN INSERT (...) VALUES (S.CDISOLOC, ...)
+     * </pre>
+     * Lo que cambia entre DB2 for i y H2 son los tipos de los CAST (ADEXHVL es NCHAR en DB2).
+     * El orden de los parámetros es el de la tabla, así que reutiliza el {@link WexhvlocParameterBinder} del INSERT.
+     */
+    private String mergeSql(SqlDialect dialect) {
+        return mergeSqlByDialect.computeIfAbsent(dialect, d -> {
+            List<WexhvlocColumn> columns = Arrays.asList(WexhvlocColumn.values());
+            return d.merge("WEXHVLOC",
+                    columns.stream().map(Enum::name).toList(),
+                    columns.stream().map(c -> c.getSqlType(d)).toList(),
+                    WexhvlocColumn.keyColumns().stream().map(Enum::name).toList(),
+                    INSERT_ONLY_COLUMNS);
+        });
+    }
+
+    /**
+     * Tamaño de lote efectivo: el pedido, o el óptimo del dialecto si no se ha fijado ninguno (&lt;= 0).
+     */
+    private static int effectiveBatchSize(int requested, SqlDialect dialect) {
+        return requested > 0 ? requested : dialect.getBatchSize();
+    }
+
+    // =====================================
+    // = Implementaciones de la interfaz ==
+    // =====================================
+
+    /**
+     * Sustituye al antiguo {@code @Query} con SpEL: el SQL es una constante con '?' (no hay que
+     * volver a analizar parámetros con nombre) y los valores se vinculan directamente por posición.
+     * La reutilización del PreparedStatement entre llamadas queda en manos del driver/pool.
+     */
+    @Override
+    public void insertRecord(Wexhvloc exLoc) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_SQL);
+            BINDER.setValues(ps, exLoc);
+            return ps;
+        });
+    }
+
+    @Override
+    public int updateRecord(Wexhvloc exLoc) {
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UPDATE_SQL);
+            bindUpdate(ps, exLoc);
+            return ps;
+        });
+    }
+
+    @Override
+    public int[] batchInsert(List<Wexhvloc> locations, int batchSize) {
+        int size = effectiveBatchSize(batchSize, dialectResolver.current());
+        return flatten(jdbcTemplate.batchUpdate(INSERT_SQL, locations, size, BINDER), locations.size());
+    }
+
+    @Override
+    public int[] batchUpdate(List<Wexhvloc> locations, int batchSize) {
+        int size = effectiveBatchSize(batchSize, dialectResolver.current());
+        return flatten(jdbcTemplate.batchUpdate(UPDATE_SQL, locations, size, WexhvlocRepositoryImpl::bindUpdate), locations.size());
+    }
+
+    /**
+     * Vincula los parámetros de {@link #UPDATE_SQL}: los 4 valores nuevos y las 6 columnas de la clave.
+     */
+    private static void bindUpdate(PreparedStatement ps, Wexhvloc exLoc) throws SQLException {
+        ps.setString(1, exLoc.getAdexhvl());
+        ps.setString(2, exLoc.getCdchgsts());
+        WexhvlocParameterBinder.setTimestamp(ps, 3, exLoc.getTslstupd());
+        ps.setString(4, exLoc.getSnlstupd());
+        ps.setString(5, exLoc.getCdisoloc());
+        ps.setBigDecimal(6, exLoc.getCdcompany());
+        ps.setBigDecimal(7, exLoc.getCddealer());
+        ps.setString(8, exLoc.getChassis());
+        ps.setBigDecimal(9, exLoc.getNmexhvl());
+        ps.setString(10, exLoc.getCdexhvl());
+    }
+
+    /**
+     * Aplana los resultados de cada executeBatch en un único array alineado con la entrada.
+     */
+    private static int[] flatten(int[][] perBatch, int size) {
+        int[] counts = new int[size];
+        int position = 0;
+        for (int[] batch : perBatch) {
+            System.arraycopy(batch, 0, counts, position, batch.length);
+            position += batch.length;
+        }
+        return counts;
+    }
+
+    @Override
+    public UpsertResult upsert(List<Wexhvloc> locations, int batchSize) {
+        if (locations.isEmpty()) {
+            return new UpsertResult(0, 0);
+        }
+
+        // 1. Contamos qué claves existen YA, antes del MERGE. Un MERGE en lote devuelve "1 fila afectada"
+        //    tanto si inserta como si actualiza, así que el recuento tiene que salir de aquí. Es una foto
+        //    previa: lo que otra transacción escriba entre esta consulta y el MERGE no se refleja (ver UpsertResult).
+        Set<WexhvlocKey> distinctKeys = locations.stream()
+                .map(loc -> WexhvlocKey.of(loc).normalized())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<WexhvlocKey> existing = findExistingKeys(new ArrayList<>(distinctKeys));
+
+        // 2. Un MERGE por fila, enviados con addBatch/executeBatch: una ida y vuelta por lote, no por fila.
+        SqlDialect dialect = dialectResolver.current();
+        jdbcTemplate.batchUpdate(mergeSql(dialect), locations, effectiveBatchSize(batchSize, dialect), BINDER);
+
+        // Si una clave se repite en la petición, la primera aparición inserta y el resto actualizan.
+        int inserted = distinctKeys.size() - existing.size();
+        return new UpsertResult(inserted, locations.size() - inserted);
+    }
+
+    /**
+     * Antes era un {@code @Query} del puerto con {@code rowMapperClass}; aquí el conversor de filas no
+     * obliga a la capa de dominio a importar clases de infraestructura.
+     */
+    @Override
+    public Optional<Wexhvloc> findByCompositeId(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer,
+                                                String chassis, BigDecimal nmexhvl, String cdexhvl) {
+        String sql = "SELECT " + WexhvlocRowMapper.SELECT_LIST + " FROM WEXHVLOC WHERE " + KEY_PREDICATE;
+        return jdbcTemplate.query(sql, ROW_MAPPER, cdisoloc, cdcompany, cddealer, chassis, nmexhvl, cdexhvl)
+                .stream().findFirst();
+    }
+
+    @Override
+    public List<Wexhvloc> findByCompositeIds(List<WexhvlocKey> keys) {
+        List<Wexhvloc> found = new ArrayList<>();
+        queryByKeys(WexhvlocRowMapper.SELECT_LIST, keys, ROW_MAPPER, found::add);
+        return found;
+    }
+
+    @Override
+    public List<Wexhvloc> findDealerPage(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer,
+                                         WexhvlocKey after, int limit) {
+        return queryDealerPage(cdisoloc, cdcompany, cddealer, after, limit, ROW_MAPPER);
+    }
+
+    @Override
+    public List<CompactWexhvloc> findDealerPageCompact(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer,
+                                                       WexhvlocKey after, int limit) {
+        return queryDealerPage(cdisoloc, cdcompany, cddealer, after, limit, COMPACT_ROW_MAPPER);
+    }
+
+    /**
+     * Consulta común de las dos variantes de la página de concesionario; solo cambia el conversor de filas.
+     */
+    private <T> List<T> queryDealerPage(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer,
+                                        WexhvlocKey after, int limit, RowMapper<T> rowMapper) {
+        String select = "SELECT " + WexhvlocRowMapper.SELECT_LIST + " FROM WEXHVLOC " +
+                "WHERE CDISOLOC = ? AND CDCOMPANY = ? AND CDDEALER = ? ";
+        String orderBy = "ORDER BY CHASSIS, NMEXHVL, CDEXHVL";
+        SqlDialect dialect = dialectResolver.current();
+
+        if (after == null) {
+            return jdbcTemplate.query(dialect.limit(select + orderBy, limit), rowMapper, cdisoloc, cdcompany, cddealer);
+        }
+
+        // Predicado "seek" expandido: (a, b, c) > (x, y, z). Se escribe con OR/AND en lugar de con
+        // comparación de filas porque así el optimizador de DB2 for i lo resuelve con el índice de la clave.
+        String seek = "AND (CHASSIS > ? OR (CHASSIS = ? AND (NMEXHVL > ? OR (NMEXHVL = ? AND CDEXHVL > ?)))) ";
+        return jdbcTemplate.query(dialect.limit(select + seek + orderBy, limit), rowMapper,
+                cdisoloc, cdcompany, cddealer,
+                after.chassis(), after.chassis(), after.nmexhvl(), after.nmexhvl(), after.cdexhvl());
+    }
+
+    @Override
+    public List<Wexhvloc> findByChassis(String cdisoloc, String chassis) {
+        String sql = "SELECT " + WexhvlocRowMapper.SELECT_LIST + " FROM WEXHVLOC " +
+                "WHERE CDISOLOC = ? AND CHASSIS = ? ORDER BY CDCOMPANY, CDDEALER, NMEXHVL, CDEXHVL";
+        return jdbcTemplate.query(sql, ROW_MAPPER, cdisoloc, chassis);
+    }
+
+    @Override
+    public List<Wexhvloc> findModifiedSince(String cdisoloc, Integer cdcompany, Integer cddealer, LocalDateTime since, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(WexhvlocRowMapper.SELECT_LIST)
+                .append(" FROM WEXHVLOC WHERE CDISOLOC = ? AND TSLSTUPD >= ?");
+        List<Object> args = new ArrayList<>(List.of(cdisoloc, Timestamp.valueOf(since)));
+        if (cdcompany != null) {
+            sql.append(" AND CDCOMPANY = ?");
+            args.add(cdcompany);
+        }
+        if (cddealer != null) {
+            sql.append(" AND CDDEALER = ?");
+            args.add(cddealer);
+        }
+        // La clave desempata las filas con el mismo TSLSTUPD: el orden es el mismo en cada reanudación.
+        sql.append(" ORDER BY TSLSTUPD, CDCOMPANY, CDDEALER, CHASSIS, NMEXHVL, CDEXHVL");
+        return jdbcTemplate.query(dialectResolver.current().limit(sql.toString(), limit), ROW_MAPPER, args.toArray());
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findProjectionByCompositeId(WexhvlocKey key, List<String> fields) {
+        // Validación contra la lista blanca y eliminación de duplicados, conservando el orden pedido.
+        List<WexhvlocColumn> columns = fields.stream()
+                .map(WexhvlocColumn::fromProperty)
+                .distinct()
+                .toList();
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("Hay que indicar al menos un campo.");
+        }
+
+        String sql = "SELECT " + columns.stream().map(Enum::name).collect(Collectors.joining(", ")) +
+                " FROM WEXHVLOC WHERE CDISOLOC = ? AND CDCOMPANY = ? AND CDDEALER = ? " +
+                "AND CHASSIS = ? AND NMEXHVL = ? AND CDEXHVL = ?";
+        List<Map<String, Object>> rows = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                row.put(columns.get(i).getProperty(), columns.get(i).read(rs, i + 1));
+            }
+            return row;
+        }, key.cdisoloc(), key.cdcompany(), key.cddealer(), key.chassis(), key.nmexhvl(), key.cdexhvl());
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public void forEachExhibitionPeriod(Consumer<Wexhvloc> action) {
+        String sql = "SELECT CDISOLOC, CDCOMPANY, CDDEALER, CHASSIS, NMEXHVL, CDEXHVL, DTINILOC, DTFINLOC FROM WEXHVLOC";
+        int fetchSize = dialectResolver.current().getFetchSize();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (ResultSet rs) -> {
+            Wexhvloc row = new Wexhvloc();
+            row.setCdisoloc(rs.getString(1));
+            row.setCdcompany(rs.getBigDecimal(2));
+            row.setCddealer(rs.getBigDecimal(3));
+            row.setChassis(rs.getString(4));
+            row.setNmexhvl(rs.getBigDecimal(5));
+            row.setCdexhvl(rs.getString(6));
+            row.setDtiniloc(rs.getBigDecimal(7));
+            row.setDtfinloc(rs.getBigDecimal(8));
+            action.accept(row);
+        });
+    }
+
+    @Override
+    public void forEachRecord(int fetchSize, Consumer<Wexhvloc> action) {
+        String sql = "SELECT " + WexhvlocRowMapper.SELECT_LIST + " FROM WEXHVLOC " +
+                "ORDER BY CDISOLOC, CDCOMPANY, CDDEALER, CHASSIS, NMEXHVL, CDEXHVL";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (ResultSet rs) -> action.accept(ROW_MAPPER.mapRow(rs, 0)));
+    }
+
+    @Override
+    public List<WexhvlocGroupCount> countByDealerAndStatus() {
+        String sql = "SELECT CDCOMPANY, CDDEALER, CDCHGSTS, COUNT(*) FROM WEXHVLOC GROUP BY CDCOMPANY, CDDEALER, CDCHGSTS";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new WexhvlocGroupCount(
+                rs.getInt(1), rs.getInt(2), rs.getString(3) == null ? "" : rs.getString(3).trim(), rs.getLong(4)));
+    }
+
+    @Override
+    public List<WexhvlocKey> findDealerKeys(String cdisoloc, BigDecimal cdcompany, BigDecimal cddealer, int limit) {
+        String sql = "SELECT CDISOLOC, CDCOMPANY, CDDEALER, CHASSIS, NMEXHVL, CDEXHVL FROM WEXHVLOC " +
+                "WHERE CDISOLOC = ? AND CDCOMPANY = ? AND CDDEALER = ? ORDER BY CHASSIS, NMEXHVL, CDEXHVL";
+        return jdbcTemplate.query(dialectResolver.current().limit(sql, limit), (rs, rowNum) -> new WexhvlocKey(
+                rs.getString(1), rs.getBigDecimal(2), rs.getBigDecimal(3), rs.getString(4), rs.getBigDecimal(5), rs.getString(6)),
+                cdisoloc, cdcompany, cddealer);
+    }
+
+    @Override
+    public int[] batchDelete(List<WexhvlocKey> keys, int batchSize) {
+        String sql = "DELETE FROM WEXHVLOC WHERE " +
+                "CDISOLOC = ? AND CDCOMPANY = ? AND CDDEALER = ? AND CHASSIS = ? AND NMEXHVL = ? AND CDEXHVL = ?";
+        int size = effectiveBatchSize(batchSize, dialectResolver.current());
+        return flatten(jdbcTemplate.batchUpdate(sql, keys, size, (ps, key) -> {
+            ps.setString(1, key.cdisoloc());
+            ps.setBigDecimal(2, key.cdcompany());
+            ps.setBigDecimal(3, key.cddealer());
+            ps.setString(4, key.chassis());
+            ps.setBigDecimal(5, key.nmexhvl());
+            ps.setString(6, key.cdexhvl());
+        }), keys.size());
+    }
+
+    // =====================================
+    // = Búsquedas de varias claves ========
+    // =====================================
+
+    /**
+     * Devuelve (normalizadas) las claves de la lista que ya existen en la tabla.
+     */
+    private Set<WexhvlocKey> findExistingKeys(List<WexhvlocKey> keys) {
+        Set<WexhvlocKey> existing = new HashSet<>();
+        queryByKeys("CDISOLOC, CDCOMPANY, CDDEALER, CHASSIS, NMEXHVL, CDEXHVL", keys,
+                (rs, rowNum) -> new WexhvlocKey(rs.getString(1), rs.getBigDecimal(2), rs.getBigDecimal(3),
+                        rs.getString(4), rs.getBigDecimal(5), rs.getString(6)).normalized(),
+                existing::add);
+        return existing;
+    }
+
+    /**
+     * Lee las filas de varias claves compuestas con un predicado {@code (k1 AND ...) OR (k2 AND ...)},
+     * en bloques de {@link SqlDialect#getMaxKeysPerQuery()} claves: una ida y vuelta por bloque, no por clave.
+     * Se usa OR/AND y no {@code (c1, ..., c6) IN (VALUES ...)} por lo mismo que el "seek" de la página de
+     * concesionario: así DB2 for i resuelve cada término con el índice de la clave.
+     *
+     * @param selectList Columnas a leer, en el orden que espera {@code rowMapper}.
+     * @param action     Acción a ejecutar con cada fila leída.
+     */
+    private <T> void queryByKeys(String selectList, List<WexhvlocKey> keys, RowMapper<T> rowMapper, Consumer<T> action) {
+        int chunkSize = dialectResolver.current().getMaxKeysPerQuery();
+        String select = "SELECT " + selectList + " FROM WEXHVLOC WHERE ";
+
+        for (int from = 0; from < keys.size(); from += chunkSize) {
+            List<WexhvlocKey> chunk = keys.subList(from, Math.min(from + chunkSize, keys.size()));
+            String sql = select + String.join(" OR ", Collections.nCopies(chunk.size(), KEY_PREDICATE));
+
+            Object[] args = new Object[chunk.size() * 6];
+            int i = 0;
+            for (WexhvlocKey key : chunk) {
+                args[i++] = key.cdisoloc();
+                args[i++] = key.cdcompany();
+                args[i++] = key.cddealer();
+                args[i++] = key.chassis();
+                args[i++] = key.nmexhvl();
+                args[i++] = key.cdexhvl();
+            }
+
+            jdbcTemplate.query(sql, (ResultSet rs) -> action.accept(rowMapper.mapRow(rs, 0)), args);
+        }
+    }
+}
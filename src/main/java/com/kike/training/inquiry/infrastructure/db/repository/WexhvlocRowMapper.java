@@ -0,0 +1,55 @@
+package com.kike.training.inquiry.infrastructure.db.repository;
+
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Conversor de filas de la tabla WEXHVLOC a objetos `Wexhvloc` que lee las columnas POR POSICIÓN.
+ *
+ * ¿POR QUÉ POR POSICIÓN?
+ * - El mapeo por defecto de Spring Data JDBC usa reflexión sobre los 17 setters de la entidad.
+ * - Leer por nombre (`rs.getString("CHASSIS")`) obliga al driver a buscar el nombre en cada fila.
+ * Aquí la consulta siempre usa la lista fija {@link #SELECT_LIST}, así que la posición de cada columna
+ * se conoce de antemano y cada fila se reduce a 17 llamadas directas.
+ *
+ * IMPORTANTE: solo es válido para consultas que seleccionen exactamente {@link #SELECT_LIST}, en ese orden.
+ * Lo usan las consultas manuales de {@code WexhvlocRepositoryImpl} (y su gemelo reactivo); el puerto
+ * {@code WexhvlocRepository} no lo referencia para no depender de la capa de infraestructura.
+ */
+public class WexhvlocRowMapper implements RowMapper<Wexhvloc> {
+
+    /**
+     * Lista de columnas (en el orden físico de la tabla, el mismo que {@link WexhvlocColumn}).
+     */
+    public static final String SELECT_LIST = "CDISOLOC, CDCOMPANY, CDDEALER, CHASSIS, NMEXHVL, CDEXHVL, " +
+            "DTINILOC, DTFINLOC, ADEXHVL, LGEXHVL, TMEXHVL, DTAPPRV, SNCREATE, TSCREATE, SNLSTUPD, TSLSTUPD, CDCHGSTS";
+
+    @Override
+    public Wexhvloc mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Wexhvloc loc = new Wexhvloc();
+        loc.setCdisoloc(rs.getString(1));
+        loc.setCdcompany(rs.getBigDecimal(2));
+        loc.setCddealer(rs.getBigDecimal(3));
+        loc.setChassis(rs.getString(4));
+        loc.setNmexhvl(rs.getBigDecimal(5));
+        loc.setCdexhvl(rs.getString(6));
+        loc.setDtiniloc(rs.getBigDecimal(7));
+        loc.setDtfinloc(rs.getBigDecimal(8));
+        loc.setAdexhvl(rs.getString(9));
+        loc.setLgexhvl(rs.getBigDecimal(10));
+        loc.setTmexhvl(rs.getString(11));
+        loc.setDtapprv(rs.getBigDecimal(12));
+        loc.setSncreate(rs.getString(13));
+        Timestamp tscreate = rs.getTimestamp(14);
+        loc.setTscreate(tscreate != null ? tscreate.toLocalDateTime() : null);
+        loc.setSnlstupd(rs.getString(15));
+        Timestamp tslstupd = rs.getTimestamp(16);
+        loc.setTslstupd(tslstupd != null ? tslstupd.toLocalDateTime() : null);
+        loc.setCdchgsts(rs.getString(17));
+        return loc;
+    }
+}
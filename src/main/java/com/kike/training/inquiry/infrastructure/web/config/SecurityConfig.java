@@ -1,12 +1,20 @@
 package com.kike.training.inquiry.infrastructure.web.config;
 
+import com.kike.training.inquiry.infrastructure.web.security.CachingPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.logout.LogoutSuccessHandler;
 
+import java.time.Duration;
+
 import static org.springframework.security.config.Customizer.withDefaults;
 
 /**
@@ -77,6 +85,27 @@ public class SecurityConfig {
         };
     }
 
+    /**
+     * Encoder de contraseñas usado por la autenticación HTTP Basic (usuarios 'spring.security.user.*').
+     *
+     * Es un {@link DelegatingPasswordEncoder} estándar ({bcrypt}, {noop}, ...) envuelto en un
+     * {@link CachingPasswordEncoder}, de modo que las peticiones Basic repetidas de un mismo cliente
+     * no vuelven a pagar el hash completo mientras la verificación siga en caché.
+     *
+     * NOTA: Las contraseñas sin prefijo (como las de application.properties) se siguen tratando como
+     * texto plano, igual que hacía la auto-configuración de Spring Boot al añadirles '{noop}'.
+     * Spring Security las re-codifica a BCrypt tras el primer login correcto.
+     */
+    @Bean
+    @SuppressWarnings("deprecation")
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.credential-cache.ttl:2m}") Duration ttl,
+            @Value("${security.credential-cache.max-entries:1000}") int maxEntries) {
+        DelegatingPasswordEncoder delegating = (DelegatingPasswordEncoder) PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        delegating.setDefaultPasswordEncoderForMatches(NoOpPasswordEncoder.getInstance());
+        return new CachingPasswordEncoder(delegating, ttl, maxEntries);
+    }
+
     // Todos los demás beans (oidcUserService, jwtAuthenticationConverter, etc.) que tuvieras
     // relacionados con la validación de tokens o roles de API ya no son necesarios.
 }
@@ -0,0 +1,156 @@
+package com.kike.training.inquiry.infrastructure.web.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Decorador de {@link PasswordEncoder} que recuerda, durante un tiempo corto, las verificaciones
+ * de credenciales que han tenido ÉXITO.
+ *
+ * ¿POR QUÉ EXISTE?
+ * Nuestros clientes batch se autentican con HTTP Basic en CADA petición. Con un hash fuerte
+ * (BCrypt) eso supone decenas de milisegundos de CPU por petición, solo para volver a comprobar
+ * una contraseña que ya comprobamos hace un segundo.
+ *
+ * ¿CÓMO FUNCIONA?
+ * 1. La clave de la caché es un HMAC-SHA256 (con una sal aleatoria generada al arrancar) de la
+ *    contraseña presentada JUNTO con el hash almacenado. Nunca guardamos la contraseña en claro.
+ * 2. Solo se cachean los aciertos. Un fallo SIEMPRE paga el hash completo, así que la caché no
+ *    abarata ataques de fuerza bruta.
+ * 3. Como el hash almacenado forma parte de la clave, cuando la contraseña cambia (nuevo hash)
+ *    las entradas antiguas dejan de coincidir automáticamente: quedan invalidadas y caducan solas.
+ * 4. La caché está acotada en tamaño y cada entrada tiene un TTL corto. Con la caché llena se
+ *    descarta la credencial usada hace más tiempo (LRU), en tiempo constante: nunca se recorre
+ *    la caché entera en el camino de la petición.
+ */
+public class CachingPasswordEncoder implements PasswordEncoder {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final PasswordEncoder delegate;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final SecretKeySpec fingerprintKey;
+    private final LongSupplier nanoClock;
+
+    /**
+     * Huella de la credencial -> instante (en nanosegundos del reloj) en el que caduca la verificación.
+     * En orden de acceso: la primera entrada es la usada hace más tiempo. Se accede siempre con el
+     * monitor del propio mapa; el HMAC y el hash se calculan fuera de él.
+     */
+    private final Map<String, Long> verified;
+
+    /**
+     * @param delegate   El encoder real (BCrypt, delegating, etc.) que hace el trabajo caro.
+     * @param ttl        Cuánto tiempo se considera válida una verificación con éxito.
+     * @param maxEntries Número máximo de credenciales recordadas a la vez.
+     */
+    public CachingPasswordEncoder(PasswordEncoder delegate, Duration ttl, int maxEntries) {
+        this(delegate, ttl, maxEntries, System::nanoTime);
+    }
+
+    /**
+     * Variante con el reloj explícito, para poder probar la caducidad sin esperas.
+     */
+    CachingPasswordEncoder(PasswordEncoder delegate, Duration ttl, int maxEntries, LongSupplier nanoClock) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+        this.verified = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        byte[] salt = new byte[32];
+        new SecureRandom().nextBytes(salt);
+        this.fingerprintKey = new SecretKeySpec(salt, HMAC_ALGORITHM);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null || ttlNanos <= 0 || maxEntries <= 0) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+
+        String fingerprint = fingerprint(rawPassword, encodedPassword);
+        long now = nanoClock.getAsLong();
+
+        // 1. ¿Ya verificamos esta misma credencial contra este mismo hash hace poco?
+        synchronized (verified) {
+            Long expiresAt = verified.get(fingerprint);
+            if (expiresAt != null) {
+                if (now - expiresAt < 0) {
+                    return true;
+                }
+                verified.remove(fingerprint);
+            }
+        }
+
+        // 2. Si no, pagamos el hash completo y solo recordamos el resultado si es un acierto.
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        if (matches) {
+            synchronized (verified) {
+                // Si la caché está llena, removeEldestEntry descarta la credencial usada hace más tiempo.
+                verified.put(fingerprint, now + ttlNanos);
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Olvida todas las verificaciones recordadas (por ejemplo, tras un cambio masivo de credenciales).
+     */
+    public void invalidateAll() {
+        synchronized (verified) {
+            verified.clear();
+        }
+    }
+
+    /**
+     * Número de verificaciones recordadas ahora mismo (caducadas incluidas, hasta que se vuelvan a consultar).
+     */
+    int size() {
+        synchronized (verified) {
+            return verified.size();
+        }
+    }
+
+    /**
+     * Calcula la huella HMAC (salada) de la credencial presentada y del hash almacenado.
+     */
+    private String fingerprint(CharSequence rawPassword, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(fingerprintKey);
+            mac.update(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo calcular la huella de la credencial.", e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- Secuencia "pooled" para asignar los IDs de usuarios en BLOQUES desde la aplicación (UserIdAllocator).
+-- Cada NEXT VALUE reserva un bloque completo de 50 IDs: [valor, valor + 49].
+-- ¡IMPORTANTE! El INCREMENT BY debe coincidir con la propiedad 'users.id.block-size'.
+CREATE SEQUENCE USERS_ID_SEQ START WITH 1 INCREMENT BY 50;
+
+-- La columna deja de ser IDENTITY y toma su valor por defecto de la MISMA secuencia.
+-- Así los INSERT sin ID (Spring Data, insertUserNative) y los bloques asignados en cliente
+-- (batchInsertUsersNative) nunca pueden colisionar entre sí.
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT NEXT VALUE FOR USERS_ID_SEQ;
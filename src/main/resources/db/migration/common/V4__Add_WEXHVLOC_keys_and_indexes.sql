@@ -0,0 +1,13 @@
+-- Clave primaria e índices de WEXHVLOC.
+-- Hasta ahora la tabla no tenía ninguno, así que en H2 cualquier búsqueda era un recorrido completo.
+
+-- Clave primaria compuesta (la misma que usan todas las consultas por clave y el MERGE).
+ALTER TABLE WEXHVLOC ADD CONSTRAINT WEXHVLOC_PK
+    PRIMARY KEY (CDISOLOC, CDCOMPANY, CDDEALER, CHASSIS, NMEXHVL, CDEXHVL);
+
+-- Consultas por concesionario (CDISOLOC, CDCOMPANY, CDDEALER): NO necesitan un índice propio,
+-- porque son exactamente las tres primeras columnas de la clave primaria y su índice las resuelve
+-- (y además devuelve las filas ya ordenadas por CHASSIS, NMEXHVL, CDEXHVL para la paginación).
+
+-- Consultas por chasis dentro de un país.
+CREATE INDEX WEXHVLOC_CHASSIS_IX ON WEXHVLOC (CDISOLOC, CHASSIS);
@@ -0,0 +1,29 @@
+-- Resumen de WEXHVLOC por concesionario, mantenido por la aplicación en la misma transacción que
+-- cada escritura (ver DealerSummaryService). Los cuadros de mando leen aquí UNA fila por concesionario
+-- en lugar de agregar toda la tabla.
+
+CREATE TABLE WEXHVLOC_DEALER_SUMMARY
+(
+    CDISOLOC  CHAR(2)      default ' ' not null,
+    CDCOMPANY NUMERIC(1)   default 0   not null,
+    CDDEALER  NUMERIC(5)   default 0   not null,
+
+    -- Número de localizaciones del concesionario.
+    NBLOCS    DECIMAL(9)   default 0   not null,
+
+    -- Primer DTINILOC y último DTFINLOC del concesionario (yyyymmdd). DTFINLOC = 0 ("sin fecha de fin")
+    -- se resume como 99999999, para que MAX lo trate como la fecha más lejana.
+    DTINIMIN  DECIMAL(8)   default 0   not null,
+    DTFINMAX  DECIMAL(8)   default 0   not null,
+
+    TSLSTUPD  TIMESTAMP    default CURRENT_TIMESTAMP not null,
+
+    CONSTRAINT WEXHVLOC_DEALER_SUMMARY_PK PRIMARY KEY (CDISOLOC, CDCOMPANY, CDDEALER)
+);
+
+-- Carga inicial con los datos que ya existan. A partir de aquí, lo mantiene la aplicación.
+INSERT INTO WEXHVLOC_DEALER_SUMMARY (CDISOLOC, CDCOMPANY, CDDEALER, NBLOCS, DTINIMIN, DTFINMAX)
+SELECT CDISOLOC, CDCOMPANY, CDDEALER, COUNT(*), MIN(DTINILOC),
+       MAX(CASE WHEN DTFINLOC = 0 THEN 99999999 ELSE DTFINLOC END)
+FROM WEXHVLOC
+GROUP BY CDISOLOC, CDCOMPANY, CDDEALER;
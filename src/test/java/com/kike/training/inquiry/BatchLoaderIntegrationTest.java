@@ -0,0 +1,158 @@
+package com.kike.training.inquiry;
+
+import com.kike.training.inquiry.config.TestClientConfig;
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.infrastructure.db.config.DataSourceContextHolder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test de integración del agrupador de lecturas por clave ({@code BatchLoader}) a través del API.
+ *
+ * <p>El agrupador está desactivado por defecto, también en el perfil de test; solo esta clase lo activa,
+ * con una ventana larga (200 ms) para que las lecturas simultáneas caigan en la misma ventana. Que las
+ * claves se agrupan de forma determinista lo comprueba {@code BatchLoaderTest}; aquí se comprueba la
+ * cadena completa: controlador, servicio, consulta de varias claves y reparto de resultados.</p>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "inquiry.batch-loader.enabled=true",
+        "inquiry.batch-loader.window-micros=200000"
+})
+@Import(TestClientConfig.class)
+@DisplayName("Tests de Integración del agrupador de lecturas por clave")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BatchLoaderIntegrationTest {
+
+    private static final String BASE_URL = "/api/v1/exhibition-locations";
+    private static final List<String> TENANTS = List.of("DE", "GB", "ES");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @BeforeEach
+    void cleanAllTenantDatabases() {
+        for (String tenantId : TENANTS) {
+            DataSourceContextHolder.setBranchContext(tenantId);
+            jdbcTemplate.execute("TRUNCATE TABLE WEXHVLOC");
+            jdbcTemplate.execute("TRUNCATE TABLE WEXHVLOC_DEALER_SUMMARY");
+        }
+        DataSourceContextHolder.clearBranchContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DataSourceContextHolder.clearBranchContext();
+    }
+
+    /**
+     * Lecturas simultáneas de claves distintas de un país: cada una recibe SU registro, y se resuelven
+     * con menos consultas que lecturas (al menos una consulta lleva varias claves).
+     */
+    @Test
+    @DisplayName("Las lecturas simultáneas de claves distintas se resuelven en consultas agrupadas")
+    void testConcurrentLookupsAreBatched() throws Exception {
+        List<Wexhvloc> locations = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            locations.add(createSampleWexhvloc("ES", "CHASSIS_ES_BL" + i, "B01"));
+        }
+        restTemplate.withBasicAuth("testuser", "testpassword").postForEntity(BASE_URL + "/batch", locations, String.class);
+
+        try (ExecutorService clients = Executors.newFixedThreadPool(locations.size())) {
+            List<Future<ResponseEntity<Wexhvloc>>> responses = new ArrayList<>();
+            for (Wexhvloc loc : locations) {
+                responses.add(clients.submit(() -> restTemplate.withBasicAuth("testuser", "testpassword")
+                        .getForEntity(buildGetUri(loc, "ES"), Wexhvloc.class)));
+            }
+            for (int i = 0; i < locations.size(); i++) {
+                ResponseEntity<Wexhvloc> response = responses.get(i).get();
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                assertThat(response.getBody().getChassis().trim()).isEqualTo("CHASSIS_ES_BL" + i);
+            }
+        }
+
+        DistributionSummary batchSizes = meterRegistry.get("inquiry.batch_loader.batch.size")
+                .tag("lookup", "wexhvloc.findByCompositeId").tag("tenant", "ES").summary();
+        // Cada clave ha ido en exactamente una consulta, y no cada una en la suya.
+        assertThat(batchSizes.totalAmount()).isEqualTo(locations.size());
+        assertThat(batchSizes.count()).isLessThan(locations.size());
+        assertThat(batchSizes.max()).isGreaterThan(1);
+        // Una clave que no existe sigue siendo un 404.
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(buildGetUri(locations.get(0), "DE"), Wexhvloc.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private Wexhvloc createSampleWexhvloc(String cdisoloc, String chassis, String cdexhvl) {
+        Wexhvloc loc = new Wexhvloc();
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal dateAsDecimal = new BigDecimal(now.format(DateTimeFormatter.ofPattern("yyyyMMdd")));
+        loc.setCdisoloc(cdisoloc);
+        loc.setCdcompany(BigDecimal.ONE);
+        loc.setCddealer(new BigDecimal("54321"));
+        loc.setChassis(chassis);
+        loc.setNmexhvl(new BigDecimal("123456789"));
+        loc.setCdexhvl(cdexhvl);
+        loc.setDtfinloc(dateAsDecimal);
+        loc.setDtiniloc(dateAsDecimal);
+        loc.setDtapprv(dateAsDecimal);
+        loc.setLgexhvl(BigDecimal.ZERO);
+        loc.setTmexhvl(now.format(DateTimeFormatter.ofPattern("HHmm")));
+        loc.setAdexhvl("Dirección de prueba para " + cdisoloc);
+        loc.setSncreate("JUNIT-TEST");
+        loc.setSnlstupd("JUNIT-TEST");
+        loc.setTscreate(now);
+        loc.setTslstupd(now);
+        loc.setCdchgsts("NW");
+        return loc;
+    }
+
+    private URI buildGetUri(Wexhvloc loc, String targetTenant) {
+        return UriComponentsBuilder.fromPath(BASE_URL)
+                .queryParam("cdisoloc", targetTenant)
+                .queryParam("cdcompany", loc.getCdcompany())
+                .queryParam("cddealer", loc.getCddealer())
+                .queryParam("chassis", loc.getChassis())
+                .queryParam("nmexhvl", loc.getNmexhvl())
+                .queryParam("cdexhvl", loc.getCdexhvl())
+                .build().toUri();
+    }
+}
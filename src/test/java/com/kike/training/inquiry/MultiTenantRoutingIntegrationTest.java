@@ -2,8 +2,12 @@ package com.kike.training.inquiry;
 
 import com.kike.training.inquiry.application.port.in.UserServicePort;
 import com.kike.training.inquiry.config.TestClientConfig;
+import com.kike.training.inquiry.domain.model.KeysetPage;
 import com.kike.training.inquiry.domain.model.User;
 import com.kike.training.inquiry.infrastructure.db.config.DataSourceContextHolder;
+import com.kike.training.inquiry.infrastructure.db.config.SqlDialectResolver;
+import com.kike.training.inquiry.infrastructure.db.config.TenantExecutor;
+import com.kike.training.inquiry.infrastructure.db.repository.UserIdAllocator;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,11 +28,14 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest(
         webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
@@ -52,6 +59,12 @@ class MultiTenantRoutingIntegrationTest {
     @Autowired
     private UserServicePort userServicePort;
 
+    @Autowired
+    private SqlDialectResolver dialectResolver;
+
+    @Autowired
+    private TenantExecutor tenantExecutor;
+
     @LocalServerPort
     private int port;
 
@@ -326,6 +339,99 @@ class MultiTenantRoutingIntegrationTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    @Test
+    void testRestNativeBatchInsert() {
+        System.out.println(">>> testRestNativeBatchInsert");
+
+        List<User> batch = List.of(
+                new User(null, "Ada", "ada@gb.com"),
+                new User(null, "Alan", "alan@gb.com"),
+                new User(null, "Grace", "grace@gb.com"));
+
+        ResponseEntity<List<User>> created = restTemplate.withBasicAuth("testuser", "testpassword").exchange(
+                baseNativeUrl("GB") + "/batch",
+                HttpMethod.POST,
+                new HttpEntity<>(batch),
+                new ParameterizedTypeReference<>() {}
+        );
+
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(created.getBody()).hasSize(3).extracting(User::getId).doesNotContainNull().doesNotHaveDuplicates();
+
+        // Un INSERT individual posterior (ID por defecto de la secuencia) no debe colisionar con el bloque.
+        ResponseEntity<User> single = restTemplate.withBasicAuth("testuser", "testpassword").postForEntity(baseNativeUrl("GB"), new User(null, "Linus", "linus@gb.com"), User.class);
+        assertThat(single.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        ResponseEntity<List<User>> all = restTemplate.withBasicAuth("testuser", "testpassword").exchange(
+                baseNativeUrl("GB"),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {}
+        );
+        assertThat(all.getBody()).hasSize(4);
+    }
+
+    @Test
+    void testRestNdjsonStreaming() {
+        System.out.println(">>> testRestNdjsonStreaming");
+
+        List<User> batch = List.of(
+                new User(null, "Ada", "ada@de.com"),
+                new User(null, "Alan", "alan@de.com"),
+                new User(null, "Grace", "grace@de.com"));
+        restTemplate.withBasicAuth("testuser", "testpassword").exchange(
+                baseNativeUrl("DE") + "/batch", HttpMethod.POST, new HttpEntity<>(batch), new ParameterizedTypeReference<List<User>>() {});
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        ResponseEntity<String> response = restTemplate.withBasicAuth("testuser", "testpassword").exchange(
+                baseNativeUrl("DE"), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType().isCompatibleWith(MediaType.APPLICATION_NDJSON)).isTrue();
+        // Un objeto JSON por línea, en orden de ID, y solo los usuarios de 'DE'.
+        List<String> lines = response.getBody().lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).startsWith("{").contains("\"username\":\"Ada\"");
+        assertThat(lines.get(2)).contains("grace@de.com");
+    }
+
+    @Test
+    void testRestKeysetPagination() {
+        System.out.println(">>> testRestKeysetPagination");
+
+        List<User> batch = List.of(
+                new User(null, "Ada", "ada@es.com"),
+                new User(null, "Alan", "alan@es.com"),
+                new User(null, "Grace", "grace@es.com"),
+                new User(null, "Linus", "linus@es.com"),
+                new User(null, "Barbara", "barbara@es.com"));
+        restTemplate.withBasicAuth("testuser", "testpassword").exchange(
+                baseNativeUrl("ES") + "/batch", HttpMethod.POST, new HttpEntity<>(batch), new ParameterizedTypeReference<List<User>>() {});
+
+        // Recorremos la tabla de 2 en 2 siguiendo el cursor: 2 + 2 + 1, sin repetir ni saltar usuarios.
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = baseUrl("ES") + "/page?limit=2" + (cursor != null ? "&cursor=" + cursor : "");
+            ResponseEntity<KeysetPage<User>> page = restTemplate.withBasicAuth("testuser", "testpassword").exchange(
+                    url, HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+            assertThat(page.getStatusCode()).isEqualTo(HttpStatus.OK);
+            page.getBody().items().forEach(u -> seen.add(u.getId()));
+            cursor = page.getBody().nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(5).doesNotHaveDuplicates().isSorted();
+
+        // Un cursor manipulado debe devolver 400.
+        ResponseEntity<String> invalid = restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(baseUrl("ES") + "/page?cursor=@@@", String.class);
+        assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     void testRestNativeDeleteAll() {
         System.out.println(">>> testRestNativeDeleteAll");
@@ -349,4 +455,14 @@ class MultiTenantRoutingIntegrationTest {
 
         assertThat(response.getBody()).isEmpty();
     }
+
+    @Test
+    void testIdBlockSizeMustMatchSequenceIncrement() {
+        // V3 crea USERS_ID_SEQ con INCREMENT BY 50 en los tres países.
+        assertThatCode(() -> new UserIdAllocator(jdbcTemplate, dialectResolver, tenantExecutor, 50).validateSequenceIncrement())
+                .doesNotThrowAnyException();
+        assertThatThrownBy(() -> new UserIdAllocator(jdbcTemplate, dialectResolver, tenantExecutor, 100).validateSequenceIncrement())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("INCREMENT BY 50");
+    }
 }
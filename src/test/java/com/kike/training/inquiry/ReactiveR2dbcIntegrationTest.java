@@ -0,0 +1,173 @@
+package com.kike.training.inquiry;
+
+import com.kike.training.inquiry.config.TestClientConfig;
+import com.kike.training.inquiry.domain.model.User;
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.infrastructure.db.config.DataSourceContextHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de integración del adaptador R2DBC (perfil {@code r2dbc} además de {@code test}).
+ *
+ * <p>Las conexiones R2DBC apuntan a las mismas bases de datos H2 en memoria que los DataSources JDBC,
+ * así que además del enrutamiento por país se comprueba que ambas pilas ven los mismos datos.</p>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "r2dbc"})
+@Import(TestClientConfig.class)
+@DisplayName("Tests de Integración del adaptador R2DBC")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ReactiveR2dbcIntegrationTest {
+
+    private static final String USERS_URL = "/api/reactive/users/";
+    private static final String LOCATIONS_URL = "/api/v1/reactive/exhibition-locations";
+    private static final List<String> TENANTS = List.of("DE", "GB", "ES");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @BeforeEach
+    void cleanAllTenantDatabases() {
+        for (String tenantId : TENANTS) {
+            DataSourceContextHolder.setBranchContext(tenantId);
+            jdbcTemplate.execute("TRUNCATE TABLE users");
+            jdbcTemplate.execute("TRUNCATE TABLE WEXHVLOC");
+        }
+        DataSourceContextHolder.clearBranchContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DataSourceContextHolder.clearBranchContext();
+    }
+
+    @Test
+    @DisplayName("Usuarios: alta, lectura y baja reactivas, aisladas por país")
+    void testReactiveUsersAreRoutedByTenant() {
+        ResponseEntity<User> created = restTemplate.withBasicAuth("testuser", "testpassword")
+                .postForEntity(USERS_URL + "ES", new User(null, "reactivo", "reactivo@example.com"), User.class);
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Long id = created.getBody().getId();
+        assertThat(id).isNotNull();
+
+        // La pila JDBC ve el usuario creado por R2DBC, y solo en su país.
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity("/api/users/ES/" + id, User.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+        ResponseEntity<List<User>> inDe = restTemplate.withBasicAuth("testuser", "testpassword")
+                .exchange(USERS_URL + "DE", HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+        assertThat(inDe.getBody()).isEmpty();
+
+        ResponseEntity<User> found = restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(USERS_URL + "ES/" + id, User.class);
+        assertThat(found.getBody().getEmail()).isEqualTo("reactivo@example.com");
+
+        // Email repetido: 409.
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .postForEntity(USERS_URL + "ES", new User(null, "otro", "reactivo@example.com"), String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+
+        restTemplate.withBasicAuth("testuser", "testpassword").delete(USERS_URL + "ES/" + id);
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(USERS_URL + "ES/" + id, User.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+        // País sin base de datos: 404, no una consulta en la base de datos por defecto.
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(USERS_URL + "XX", String.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("WEXHVLOC: alta, lectura por clave y por concesionario, y baja reactivas")
+    void testReactiveExhibitionLocations() {
+        Wexhvloc loc = createSampleWexhvloc("CHASSIS_R2_0001", "R01");
+        ResponseEntity<Wexhvloc> created = restTemplate.withBasicAuth("testuser", "testpassword")
+                .postForEntity(LOCATIONS_URL, loc, Wexhvloc.class);
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        restTemplate.withBasicAuth("testuser", "testpassword")
+                .postForEntity(LOCATIONS_URL, createSampleWexhvloc("CHASSIS_R2_0002", "R02"), Wexhvloc.class);
+
+        ResponseEntity<Wexhvloc> found = restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(keyUri(LOCATIONS_URL, loc, "ES"), Wexhvloc.class);
+        assertThat(found.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(found.getBody().getChassis().trim()).isEqualTo("CHASSIS_R2_0001");
+        assertThat(found.getBody().getTscreate()).isNotNull();
+        // La pila JDBC lee lo mismo; en otro país no existe.
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(keyUri("/api/v1/exhibition-locations", loc, "ES"), Wexhvloc.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(keyUri(LOCATIONS_URL, loc, "DE"), Wexhvloc.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+        ResponseEntity<List<Wexhvloc>> dealer = restTemplate.withBasicAuth("testuser", "testpassword").exchange(
+                LOCATIONS_URL + "/dealer?cdisoloc=ES&cdcompany=1&cddealer=54321&limit=1", HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+        assertThat(dealer.getBody()).extracting(l -> l.getChassis().trim()).containsExactly("CHASSIS_R2_0001");
+
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .postForEntity(LOCATIONS_URL, loc, String.class).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+
+        ResponseEntity<Void> deleted = restTemplate.withBasicAuth("testuser", "testpassword")
+                .exchange(keyUri(LOCATIONS_URL, loc, "ES"), HttpMethod.DELETE, null, Void.class);
+        assertThat(deleted.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .exchange(keyUri(LOCATIONS_URL, loc, "ES"), HttpMethod.DELETE, null, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private static URI keyUri(String path, Wexhvloc loc, String tenant) {
+        return UriComponentsBuilder.fromPath(path)
+                .queryParam("cdisoloc", tenant)
+                .queryParam("cdcompany", loc.getCdcompany())
+                .queryParam("cddealer", loc.getCddealer())
+                .queryParam("chassis", loc.getChassis())
+                .queryParam("nmexhvl", loc.getNmexhvl())
+                .queryParam("cdexhvl", loc.getCdexhvl())
+                .build().toUri();
+    }
+
+    private static Wexhvloc createSampleWexhvloc(String chassis, String cdexhvl) {
+        Wexhvloc loc = new Wexhvloc();
+        loc.setCdisoloc("ES");
+        loc.setCdcompany(BigDecimal.ONE);
+        loc.setCddealer(new BigDecimal("54321"));
+        loc.setChassis(chassis);
+        loc.setNmexhvl(BigDecimal.ONE);
+        loc.setCdexhvl(cdexhvl);
+        loc.setDtiniloc(new BigDecimal("20250101"));
+        loc.setDtfinloc(BigDecimal.ZERO);
+        loc.setAdexhvl("Localización de prueba R2DBC");
+        loc.setLgexhvl(BigDecimal.ZERO);
+        loc.setTmexhvl("1200");
+        loc.setDtapprv(BigDecimal.ZERO);
+        loc.setSncreate("TEST");
+        loc.setSnlstupd("TEST");
+        loc.setCdchgsts("A");
+        return loc;
+    }
+}
@@ -1,16 +1,38 @@
 package com.kike.training.inquiry;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kike.training.inquiry.application.service.ExhibitionPeriodIndex;
+import com.kike.training.inquiry.application.service.WexhvlocGroupCommitter;
+import com.kike.training.inquiry.application.service.WexhvlocReportService;
+import com.kike.training.inquiry.application.service.WexhvlocService;
 import com.kike.training.inquiry.config.TestClientConfig;
+import com.kike.training.inquiry.domain.model.BatchRowResult;
+import com.kike.training.inquiry.domain.model.CompactWexhvloc;
+import com.kike.training.inquiry.domain.model.DealerSummary;
+import com.kike.training.inquiry.domain.model.ExhibitionPeriod;
+import com.kike.training.inquiry.domain.model.ImportEvent;
+import com.kike.training.inquiry.domain.model.KeysetPage;
+import com.kike.training.inquiry.domain.model.MultiGetResult;
+import com.kike.training.inquiry.domain.model.PurgeProgress;
+import com.kike.training.inquiry.domain.model.UpsertResult;
 import com.kike.training.inquiry.domain.model.Wexhvloc;
+import com.kike.training.inquiry.domain.model.WexhvlocKey;
+import com.kike.training.inquiry.domain.model.WexhvlocReport;
 import com.kike.training.inquiry.infrastructure.db.config.DataSourceContextHolder;
+import com.kike.training.inquiry.infrastructure.db.config.JdbcOffloadExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
@@ -18,15 +40,39 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 // === IMPORT ORIGINAL MANTENIDO, TAL COMO SOLICITASTE ===
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
 /**
  * Test de integración para el controlador de Wexhvloc y su lógica de enrutamiento multi-tenant.
@@ -49,6 +95,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 // ClientRegistrationRepository por un mock.
 class WexhvlocRoutingIntegrationTest {
 
+    private static final Logger log = LoggerFactory.getLogger(WexhvlocRoutingIntegrationTest.class);
+
     /**
      * URL base para el API endpoint que se está probando.
      */
@@ -74,6 +122,34 @@ class WexhvlocRoutingIntegrationTest {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    /**
+     * Índice en memoria de periodos de exposición. Como el TRUNCATE no pasa por el servicio,
+     * hay que descartarlo a mano para que no conserve filas de otros tests.
+     */
+    @Autowired
+    private ExhibitionPeriodIndex exhibitionPeriodIndex;
+
+    @Autowired
+    private WexhvlocGroupCommitter groupCommitter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WexhvlocReportService reportService;
+
+    @Autowired
+    private WexhvlocService wexhvlocService;
+
+    @Autowired
+    private JdbcOffloadExecutor jdbcOffloadExecutor;
+
+    @Value("${inquiry.virtual-threads.jdbc-offload-threads:16}")
+    private int offloadThreads;
+
     // =========================================================================
     // === LA SOLUCIÓN DEFINITIVA, MODERNA Y SIN ADVERTENCIAS ===
     //
@@ -99,6 +175,9 @@ class WexhvlocRoutingIntegrationTest {
         for (String tenantId : TENANTS) {
             DataSourceContextHolder.setBranchContext(tenantId);
             jdbcTemplate.execute("TRUNCATE TABLE WEXHVLOC");
+            jdbcTemplate.execute("TRUNCATE TABLE WEXHVLOC_DEALER_SUMMARY");
+            exhibitionPeriodIndex.invalidate(tenantId);
+            reportService.invalidate(tenantId);
         }
         // Limpia el contexto al final para no dejar estado residual.
         DataSourceContextHolder.clearBranchContext();
@@ -221,6 +300,770 @@ class WexhvlocRoutingIntegrationTest {
         assertThat(getDeletedResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Valida que dar de alta dos veces la misma clave primaria es un conflicto del cliente.
+     *
+     * <p><b>Escenario:</b> el primer POST crea el registro (201); el segundo, con la misma clave,
+     * debe devolver 409 (Conflict) y no un 500, y el registro original no cambia.</p>
+     */
+    @Test
+    @DisplayName("CRUD: Un alta con clave duplicada devuelve 409 Conflict")
+    void testDuplicateCreateReturnsConflict() {
+        Wexhvloc loc = createSampleWexhvloc("DE", "CHASSIS_DE_DUP", "D01");
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .postForEntity(BASE_URL, loc, Wexhvloc.class).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        Wexhvloc duplicate = createSampleWexhvloc("DE", "CHASSIS_DE_DUP", "D01");
+        duplicate.setAdexhvl("No debe sobrescribir");
+        ResponseEntity<String> conflict = restTemplate.withBasicAuth("testuser", "testpassword")
+                .postForEntity(BASE_URL, duplicate, String.class);
+        assertThat(conflict.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+
+        ResponseEntity<Wexhvloc> stored = restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(buildGetUri(loc), Wexhvloc.class);
+        assertThat(stored.getBody().getAdexhvl()).isEqualTo("Dirección de prueba para DE");
+    }
+
+    /**
+     * Valida el endpoint de inserción por lotes con filas de varios países.
+     *
+     * <p><b>Escenario:</b>
+     * 1. <b>POST /batch:</b> Se envían dos filas de 'ES' y una de 'DE' en la misma petición.
+     * 2. <b>Assert:</b> Cada fila devuelve INSERTED, en el orden de la petición, y cada registro
+     *    solo es visible en la base de datos de su propio país.
+     * </p>
+     */
+    @Test
+    @DisplayName("Batch: Inserción por lotes multi-país con un resultado por fila")
+    void testBatchInsertAcrossTenants() {
+        Wexhvloc es1 = createSampleWexhvloc("ES", "CHASSIS_ES_B01", "B01");
+        Wexhvloc de1 = createSampleWexhvloc("DE", "CHASSIS_DE_B02", "B02");
+        Wexhvloc es2 = createSampleWexhvloc("ES", "CHASSIS_ES_B03", "B03");
+
+        ResponseEntity<List<BatchRowResult>> response = restTemplate.withBasicAuth("testuser", "testpassword")
+                .exchange(BASE_URL + "/batch", HttpMethod.POST, new HttpEntity<>(List.of(es1, de1, es2)),
+                        new ParameterizedTypeReference<>() {});
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).extracting(BatchRowResult::status)
+                .containsExactly(BatchRowResult.Status.INSERTED, BatchRowResult.Status.INSERTED, BatchRowResult.Status.INSERTED);
+        assertThat(response.getBody()).extracting(BatchRowResult::cdisoloc).containsExactly("ES", "DE", "ES");
+
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(buildGetUri(es2), Wexhvloc.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(buildGetUri(de1), Wexhvloc.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(buildGetUri(es1, "DE"), Wexhvloc.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Valida que el lote no enruta lo que no puede enrutar: una fila sin país o de un país sin base de
+     * datos falla sola (sin tumbar la petición ni caer en la base de datos por defecto).
+     */
+    @Test
+    @DisplayName("Batch: filas sin país o de un país desconocido fallan solas")
+    void testBatchInsertRejectsUnroutableRows() {
+        Wexhvloc es = createSampleWexhvloc("ES", "CHASSIS_ES_B04", "B04");
+        Wexhvloc unknown = createSampleWexhvloc("XX", "CHASSIS_XX_B05", "B05");
+        Wexhvloc noTenant = createSampleWexhvloc("ES", "CHASSIS_ES_B06", "B06");
+        noTenant.setCdisoloc(null);
+
+        ResponseEntity<List<BatchRowResult>> response = restTemplate.withBasicAuth("testuser", "testpassword")
+                .exchange(BASE_URL + "/batch", HttpMethod.POST, new HttpEntity<>(List.of(es, unknown, noTenant)),
+                        new ParameterizedTypeReference<>() {});
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).extracting(BatchRowResult::status)
+                .containsExactly(BatchRowResult.Status.INSERTED, BatchRowResult.Status.FAILED, BatchRowResult.Status.FAILED);
+        assertThat(response.getBody().get(1).message()).contains("XX");
+
+        // La fila de XX no ha acabado en ninguna base de datos.
+        for (String tenantId : TENANTS) {
+            DataSourceContextHolder.setBranchContext(tenantId);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM WEXHVLOC WHERE CHASSIS = 'CHASSIS_XX_B05'", Integer.class))
+                    .isZero();
+        }
+        DataSourceContextHolder.clearBranchContext();
+    }
+
+    /**
+     * Valida el endpoint de upsert (MERGE) masivo.
+     *
+     * <p><b>Escenario:</b>
+     * 1. <b>Arrange:</b> Se crea una fila en 'GB' con el endpoint normal.
+     * 2. <b>POST /upsert:</b> Se envía esa misma fila modificada más una fila nueva.
+     * 3. <b>Assert:</b> El resultado informa de 1 insertada y 1 actualizada, y la fila existente
+     *    tiene la nueva dirección.
+     * </p>
+     */
+    @Test
+    @DisplayName("Upsert: MERGE masivo informa de filas insertadas y actualizadas")
+    void testUpsertInsertsAndUpdates() {
+        Wexhvloc existing = createSampleWexhvloc("GB", "CHASSIS_GB_U01", "U01");
+        restTemplate.withBasicAuth("testuser", "testpassword").postForEntity(BASE_URL, existing, Wexhvloc.class);
+
+        existing.setAdexhvl("Dirección actualizada por MERGE");
+        Wexhvloc fresh = createSampleWexhvloc("GB", "CHASSIS_GB_U02", "U02");
+
+        ResponseEntity<UpsertResult> response = restTemplate.withBasicAuth("testuser", "testpassword")
+                .postForEntity(BASE_URL + "/upsert?cdisoloc=GB", List.of(existing, fresh), UpsertResult.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(new UpsertResult(1, 1));
+
+        ResponseEntity<Wexhvloc> updated = restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(buildGetUri(existing), Wexhvloc.class);
+        assertThat(updated.getBody()).isNotNull();
+        assertThat(updated.getBody().getAdexhvl().trim()).isEqualTo("Dirección actualizada por MERGE");
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(buildGetUri(fresh), Wexhvloc.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    /**
+     * Valida la proyección de campos ({@code ?fields=}) en la lectura por clave.
+     *
+     * <p><b>Escenario:</b> se crea un registro en 'DE' y se pide solo {@code chassis} y {@code cdchgsts}.
+     * La respuesta contiene exactamente esos dos campos; un campo fuera de la lista blanca devuelve 400.</p>
+     */
+    @Test
+    @DisplayName("Proyección: ?fields= devuelve solo las columnas pedidas y valida los nombres")
+    void testFieldProjection() {
+        Wexhvloc loc = createSampleWexhvloc("DE", "CHASSIS_DE_P01", "P01");
+        restTemplate.withBasicAuth("testuser", "testpassword").postForEntity(BASE_URL, loc, Wexhvloc.class);
+
+        URI uri = UriComponentsBuilder.fromUri(buildGetUri(loc)).queryParam("fields", "chassis,cdchgsts").build().toUri();
+        ResponseEntity<Map<String, Object>> response = restTemplate.withBasicAuth("testuser", "testpassword")
+                .exchange(uri, HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsOnlyKeys("chassis", "cdchgsts");
+        assertThat(response.getBody().get("cdchgsts").toString().trim()).isEqualTo("NW");
+
+        URI invalid = UriComponentsBuilder.fromUri(buildGetUri(loc)).queryParam("fields", "chassis,password").build().toUri();
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(invalid, String.class).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Valida las consultas por concesionario y por chasis, y que usan los índices de la migración V4.
+     *
+     * <p><b>Escenario:</b>
+     * 1. <b>Arrange:</b> Se crean tres registros en 'ES': dos del mismo chasis y uno de otro.
+     * 2. <b>Assert:</b> {@code /chassis} devuelve los dos del chasis y {@code /dealer} los tres.
+     * 3. <b>Assert:</b> El plan de H2 ({@code EXPLAIN}) de ambas consultas usa un índice, no un recorrido completo.
+     * </p>
+     */
+    @Test
+    @DisplayName("Índices: consultas por concesionario y por chasis resueltas con índice")
+    void testDealerAndChassisQueriesUseIndexes() {
+        Wexhvloc first = createSampleWexhvloc("ES", "CHASSIS_ES_IX1", "I01");
+        Wexhvloc second = createSampleWexhvloc("ES", "CHASSIS_ES_IX1", "I02");
+        Wexhvloc other = createSampleWexhvloc("ES", "CHASSIS_ES_IX2", "I03");
+        restTemplate.withBasicAuth("testuser", "testpassword").exchange(BASE_URL + "/batch", HttpMethod.POST,
+                new HttpEntity<>(List.of(first, second, other)), new ParameterizedTypeReference<List<BatchRowResult>>() {});
+
+        ResponseEntity<List<Wexhvloc>> byChassis = restTemplate.withBasicAuth("testuser", "testpassword")
+                .exchange(BASE_URL + "/chassis?cdisoloc=ES&chassis=CHASSIS_ES_IX1", HttpMethod.GET, null,
+                        new ParameterizedTypeReference<>() {});
+        assertThat(byChassis.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(byChassis.getBody()).extracting(Wexhvloc::getCdexhvl).containsExactly("I01", "I02");
+
+        ResponseEntity<String> byDealer = restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(BASE_URL + "/dealer?cdisoloc=ES&cdcompany=1&cddealer=54321", String.class);
+        assertThat(byDealer.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(byDealer.getBody()).contains("I01", "I02", "I03");
+
+        DataSourceContextHolder.setBranchContext("ES");
+        String chassisPlan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT * FROM WEXHVLOC WHERE CDISOLOC = 'ES' AND CHASSIS = 'CHASSIS_ES_IX1'", String.class);
+        String dealerPlan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT * FROM WEXHVLOC WHERE CDISOLOC = 'ES' AND CDCOMPANY = 1 AND CDDEALER = 54321", String.class);
+        assertThat(chassisPlan).contains("WEXHVLOC_CHASSIS_IX");
+        // H2 nombra el índice de la clave primaria como PRIMARY_KEY_xx, no con el nombre de la restricción.
+        assertThat(dealerPlan).contains("PRIMARY_KEY");
+    }
+
+    /**
+     * Valida las consultas por periodo de exposición servidas desde el índice en memoria, y que el
+     * índice se mantiene al día con las escrituras hechas a través de la API.
+     */
+    @Test
+    @DisplayName("Periodos activos y solapados se sirven desde el índice y siguen a las escrituras")
+    void testActiveAndOverlappingExhibitionPeriods() {
+        Wexhvloc january = createSampleWexhvloc("ES", "CHASSIS_ES_PER1", "P01");
+        january.setDtiniloc(new BigDecimal("20250101"));
+        january.setDtfinloc(new BigDecimal("20250131"));
+        Wexhvloc open = createSampleWexhvloc("ES", "CHASSIS_ES_PER2", "P02");
+        open.setDtiniloc(new BigDecimal("20250115"));
+        open.setDtfinloc(BigDecimal.ZERO); // Sin fecha de fin.
+        restTemplate.withBasicAuth("testuser", "testpassword").exchange(BASE_URL + "/batch", HttpMethod.POST,
+                new HttpEntity<>(List.of(january, open)), new ParameterizedTypeReference<List<BatchRowResult>>() {});
+
+        assertThat(getPeriods("/active?cdisoloc=ES&date=20250120")).extracting(p -> p.key().cdexhvl())
+                .containsExactly("P01", "P02");
+        assertThat(getPeriods("/active?cdisoloc=ES&date=20250301")).extracting(p -> p.key().cdexhvl())
+                .containsExactly("P02");
+        assertThat(getPeriods("/overlapping?cdisoloc=ES&from=20241201&to=20250110&cddealer=54321"))
+                .extracting(p -> p.key().cdexhvl()).containsExactly("P01");
+        assertThat(getPeriods("/active?cdisoloc=ES&date=20250120&cddealer=1")).isEmpty();
+
+        // Un alta posterior a la construcción del índice aparece sin reconstruirlo.
+        Wexhvloc march = createSampleWexhvloc("ES", "CHASSIS_ES_PER3", "P03");
+        march.setDtiniloc(new BigDecimal("20250301"));
+        march.setDtfinloc(new BigDecimal("20250331"));
+        restTemplate.withBasicAuth("testuser", "testpassword").postForEntity(BASE_URL, march, Wexhvloc.class);
+        assertThat(getPeriods("/active?cdisoloc=ES&date=20250301")).extracting(p -> p.key().cdexhvl())
+                .containsExactly("P02", "P03");
+
+        // Y un borrado desaparece.
+        restTemplate.withBasicAuth("testuser", "testpassword").exchange(buildGetUri(open), HttpMethod.DELETE, null, Void.class);
+        assertThat(getPeriods("/active?cdisoloc=ES&date=20250301")).extracting(p -> p.key().cdexhvl())
+                .containsExactly("P03");
+
+        ResponseEntity<String> badDate = restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(BASE_URL + "/active?cdisoloc=ES&date=2025013", String.class);
+        assertThat(badDate.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        ResponseEntity<String> badRange = restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(BASE_URL + "/overlapping?cdisoloc=ES&from=20250201&to=20250101", String.class);
+        assertThat(badRange.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Valida la variante compacta del listado por concesionario: mismos registros y cursores, con
+     * números primitivos, textos sin relleno y códigos compartidos entre filas.
+     */
+    @Test
+    @DisplayName("El listado compacto devuelve los mismos registros con textos recortados")
+    void testCompactDealerPage() {
+        Wexhvloc first = createSampleWexhvloc("ES", "CHASSIS_ES_CMP1", "C01");
+        Wexhvloc second = createSampleWexhvloc("ES", "CHASSIS_ES_CMP2", "C01");
+        restTemplate.withBasicAuth("testuser", "testpassword").exchange(BASE_URL + "/batch", HttpMethod.POST,
+                new HttpEntity<>(List.of(first, second)), new ParameterizedTypeReference<List<BatchRowResult>>() {});
+
+        String url = BASE_URL + "/dealer?compact=true&cdisoloc=ES&cdcompany=1&cddealer=54321&limit=1";
+        ResponseEntity<KeysetPage<CompactWexhvloc>> page1 = restTemplate.withBasicAuth("testuser", "testpassword")
+                .exchange(url, HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+        assertThat(page1.getStatusCode()).isEqualTo(HttpStatus.OK);
+        CompactWexhvloc row1 = page1.getBody().items().get(0);
+        assertThat(row1.chassis()).isEqualTo("CHASSIS_ES_CMP1"); // CHAR(17) sin los espacios de relleno.
+        assertThat(row1.cdcompany()).isEqualTo(1);
+        assertThat(row1.cddealer()).isEqualTo(54321);
+        assertThat(row1.nmexhvl()).isEqualTo(123456789);
+
+        ResponseEntity<KeysetPage<CompactWexhvloc>> page2 = restTemplate.withBasicAuth("testuser", "testpassword")
+                .exchange(url + "&cursor=" + page1.getBody().nextCursor(), HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+        CompactWexhvloc row2 = page2.getBody().items().get(0);
+        assertThat(row2.chassis()).isEqualTo("CHASSIS_ES_CMP2");
+        assertThat(row2.cdexhvl()).isSameAs(row1.cdexhvl());
+
+        // Ida y vuelta con la entidad.
+        assertThat(CompactWexhvloc.from(row2.toEntity())).isEqualTo(row2);
+    }
+
+    /**
+     * Valida el group commit: escrituras concurrentes de un país se confirman juntas y cada llamante
+     * recibe el resultado de su fila, incluso cuando otra fila del mismo grupo falla.
+     */
+    @Test
+    @DisplayName("El group commit agrupa escrituras y aísla la fila que falla")
+    void testGroupCommitIsolatesFailingRow() {
+        List<CompletableFuture<Integer>> inserts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            inserts.add(groupCommitter.submitInsert(createSampleWexhvloc("ES", "CHASSIS_ES_GC" + i, "G01")));
+        }
+        // Clave repetida: viola la clave primaria y hace fallar el lote entero.
+        CompletableFuture<Integer> duplicate = groupCommitter.submitInsert(createSampleWexhvloc("ES", "CHASSIS_ES_GC0", "G01"));
+
+        assertThat(inserts).allSatisfy(f -> assertThat(f.join()).isEqualTo(1));
+        assertThatThrownBy(duplicate::join).isInstanceOf(CompletionException.class);
+
+        Wexhvloc changed = createSampleWexhvloc("ES", "CHASSIS_ES_GC1", "G01");
+        changed.setAdexhvl("Actualizada en grupo");
+        assertThat(groupCommitter.update(changed)).isEqualTo(1);
+        assertThat(groupCommitter.update(createSampleWexhvloc("ES", "CHASSIS_ES_NONE", "G01"))).isZero();
+
+        DataSourceContextHolder.setBranchContext("ES");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM WEXHVLOC WHERE CHASSIS LIKE 'CHASSIS_ES_GC%'", Integer.class))
+                .isEqualTo(10);
+        assertThat(meterRegistry.get("wexhvloc.group_commit.batch.size").tag("tenant", "ES").summary().count()).isPositive();
+        assertThat(meterRegistry.get("wexhvloc.group_commit.queue.depth").tag("tenant", "ES").gauge().value()).isZero();
+    }
+
+    /**
+     * Valida que el group commit rechaza, antes de encolarlas, las escrituras sin país (400) o de un país
+     * sin base de datos (404), sin crear colas ni métricas para ellas.
+     */
+    @Test
+    @DisplayName("El group commit rechaza escrituras sin país o de un país desconocido")
+    void testGroupCommitRejectsUnroutableWrites() {
+        Wexhvloc unknown = createSampleWexhvloc("XX", "CHASSIS_XX_GC", "G01");
+        assertThatThrownBy(() -> groupCommitter.submitInsert(unknown))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+
+        Wexhvloc withoutCountry = createSampleWexhvloc("ES", "CHASSIS_NULL_GC", "G01");
+        withoutCountry.setCdisoloc(null);
+        assertThatThrownBy(() -> groupCommitter.submitUpdate(withoutCountry))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+
+        assertThat(meterRegistry.find("wexhvloc.group_commit.batch.size").tag("tenant", "XX").summary()).isNull();
+    }
+
+    /**
+     * Valida el feed SSE: un suscriptor recibe los cambios confirmados de su concesionario y, al
+     * reconectar con {@code Last-Event-ID}, recupera los que se hicieron mientras no estaba conectado.
+     */
+    @Test
+    @DisplayName("El feed SSE empuja los cambios y permite reanudar con Last-Event-ID")
+    void testChangeFeedPushesAndResumes() {
+        LocalDateTime beforeChanges = LocalDateTime.now().minusSeconds(1);
+        assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            try (BufferedReader feed = openChangeFeed("cdisoloc=ES&cddealer=54321", null)) {
+                readUntil(feed, "event:ready");
+                restTemplate.withBasicAuth("testuser", "testpassword")
+                        .postForEntity(BASE_URL, createSampleWexhvloc("ES", "CHASSIS_ES_SSE1", "S01"), Wexhvloc.class);
+                readUntil(feed, "event:upserted");
+                assertThat(readUntil(feed, "data:")).contains("CHASSIS_ES_SSE1");
+            }
+            // Reconexión: el cambio anterior se reenvía a partir del token de reanudación.
+            try (BufferedReader feed = openChangeFeed("cdisoloc=ES", beforeChanges.toString())) {
+                readUntil(feed, "event:upserted");
+                assertThat(readUntil(feed, "data:")).contains("CHASSIS_ES_SSE1");
+            }
+        });
+    }
+
+    /**
+     * Valida que reanudar con el id EXACTO de un evento no pierde las filas que comparten su TSLSTUPD
+     * (un upsert da el mismo TSLSTUPD a todas sus filas), y que no se puede abrir el feed de un país
+     * sin base de datos.
+     */
+    @Test
+    @DisplayName("Reanudar el feed SSE no pierde filas con el mismo TSLSTUPD que el token")
+    void testChangeFeedResumeKeepsRowsSharingTheToken() {
+        Wexhvloc first = createSampleWexhvloc("ES", "CHASSIS_ES_TIE1", "T01");
+        Wexhvloc second = createSampleWexhvloc("ES", "CHASSIS_ES_TIE2", "T01");
+        restTemplate.withBasicAuth("testuser", "testpassword")
+                .postForEntity(BASE_URL + "/upsert?cdisoloc=ES", List.of(first, second), UpsertResult.class);
+        LocalDateTime token = restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(buildGetUri(first), Wexhvloc.class).getBody().getTslstupd();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            try (BufferedReader feed = openChangeFeed("cdisoloc=ES", token.toString())) {
+                List<String> replayed = new ArrayList<>();
+                while (replayed.stream().noneMatch(d -> d.contains("CHASSIS_ES_TIE1"))
+                        || replayed.stream().noneMatch(d -> d.contains("CHASSIS_ES_TIE2"))) {
+                    readUntil(feed, "event:upserted");
+                    replayed.add(readUntil(feed, "data:"));
+                }
+            }
+        });
+
+        String credentials = Base64.getEncoder().encodeToString("testuser:testpassword".getBytes(StandardCharsets.UTF_8));
+        HttpRequest unknownTenant = HttpRequest.newBuilder(URI.create(restTemplate.getRootUri() + BASE_URL + "/changes?cdisoloc=XX"))
+                .header("Authorization", "Basic " + credentials)
+                .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE)
+                .build();
+        assertThat(assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> HttpClient.newHttpClient().send(unknownTenant, HttpResponse.BodyHandlers.discarding()).statusCode()))
+                .isEqualTo(HttpStatus.NOT_FOUND.value());
+    }
+
+    private BufferedReader openChangeFeed(String query, String lastEventId) throws Exception {
+        String credentials = Base64.getEncoder().encodeToString("testuser:testpassword".getBytes(StandardCharsets.UTF_8));
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(restTemplate.getRootUri() + BASE_URL + "/changes?" + query))
+                .header("Authorization", "Basic " + credentials)
+                .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8));
+    }
+
+    private static String readUntil(BufferedReader feed, String prefix) throws Exception {
+        String line;
+        while ((line = feed.readLine()) != null) {
+            if (line.startsWith(prefix)) {
+                return line;
+            }
+        }
+        throw new AssertionError("El feed se cerró sin recibir '" + prefix + "'.");
+    }
+
+    /**
+     * Valida las exportaciones CSV: un país como csv.gz y varios países como ZIP, en el orden pedido.
+     */
+    @Test
+    @DisplayName("Exporta WEXHVLOC como CSV gzip por país y como ZIP multi-país")
+    void testCsvExports() throws Exception {
+        Wexhvloc withComma = createSampleWexhvloc("ES", "CHASSIS_ES_EXP1", "E01");
+        withComma.setAdexhvl("Calle Mayor, 1");
+        restTemplate.withBasicAuth("testuser", "testpassword").exchange(BASE_URL + "/batch", HttpMethod.POST,
+                new HttpEntity<>(List.of(withComma, createSampleWexhvloc("ES", "CHASSIS_ES_EXP2", "E02"),
+                        createSampleWexhvloc("DE", "CHASSIS_DE_EXP1", "E03"))),
+                new ParameterizedTypeReference<List<BatchRowResult>>() {});
+
+        ResponseEntity<byte[]> gzip = restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity("/api/v1/exports/es/wexhvloc", byte[].class);
+        assertThat(gzip.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(gzip.getHeaders().getContentDisposition().getFilename()).isEqualTo("wexhvloc-ES.csv.gz");
+        List<String> lines = new String(new GZIPInputStream(new ByteArrayInputStream(gzip.getBody())).readAllBytes(),
+                StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).startsWith("CDISOLOC,CDCOMPANY,CDDEALER,CHASSIS");
+        assertThat(lines.get(1)).startsWith("ES,1,54321,CHASSIS_ES_EXP1,123456789,E01,").contains("\"Calle Mayor, 1\"");
+
+        ResponseEntity<byte[]> zip = restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity("/api/v1/exports/archive/wexhvloc?countries=DE,ES", byte[].class);
+        assertThat(zip.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<String> entries = new ArrayList<>();
+        List<Long> rowCounts = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip.getBody()))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                entries.add(entry.getName());
+                rowCounts.add(new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().count() - 1);
+            }
+        }
+        assertThat(entries).containsExactly("DE_wexhvloc.csv", "ES_wexhvloc.csv");
+        assertThat(rowCounts).containsExactly(1L, 2L);
+
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity("/api/v1/exports/ES/unknown", String.class).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity("/api/v1/exports/XX/wexhvloc", String.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Valida la importación CSV: las filas válidas se insertan en su país y cada línea rechazada
+     * (por validación o por la base de datos) aparece en el informe con su número.
+     */
+    @Test
+    @DisplayName("Importa un CSV multi-país informando de cada línea rechazada")
+    void testCsvImport() throws Exception {
+        String csv = """
+                CDISOLOC,CDCOMPANY,CDDEALER,CHASSIS,NMEXHVL,CDEXHVL,DTINILOC,DTFINLOC,ADEXHVL
+                ES,1,54321,CHASSIS_ES_IMP1,1,I01,20250101,20251231,"Calle Mayor, 1"
+                es,1,54321,CHASSIS_ES_IMP2,1,I02,20250101,20251231,Plaza
+                DE,1,54321,CHASSIS_DE_IMP1,1,I03,20250101,20251231,Strasse
+                ES,1,54321,CHASSIS_DEMASIADO_LARGO,1,I04,20250101,20251231,Larga
+                XX,1,54321,CHASSIS_XX_IMP1,1,I05,20250101,20251231,Nadie
+                ES,1,54321,CHASSIS_ES_IMP1,1,I01,20250101,20251231,Duplicada
+                """;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        ResponseEntity<String> response = restTemplate.withBasicAuth("testuser", "testpassword")
+                .exchange(BASE_URL + "/import", HttpMethod.POST, new HttpEntity<>(csv, headers), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        List<ImportEvent> events = new ArrayList<>();
+        for (String line : response.getBody().split("\n")) {
+            events.add(objectMapper.readValue(line, ImportEvent.class));
+        }
+        assertThat(events.stream().filter(e -> e.type() == ImportEvent.Type.ERROR).map(ImportEvent::line))
+                .containsExactlyInAnyOrder(5L, 6L, 7L);
+        ImportEvent summary = events.get(events.size() - 1);
+        assertThat(summary.type()).isEqualTo(ImportEvent.Type.SUMMARY);
+        assertThat(summary.linesRead()).isEqualTo(6L);
+        assertThat(summary.rowsWritten()).isEqualTo(3L);
+        assertThat(summary.rowsFailed()).isEqualTo(3L);
+
+        Wexhvloc imported = createSampleWexhvloc("ES", "CHASSIS_ES_IMP1", "I01");
+        imported.setNmexhvl(BigDecimal.ONE);
+        ResponseEntity<Wexhvloc> found = restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(buildGetUri(imported), Wexhvloc.class);
+        assertThat(found.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(found.getBody().getAdexhvl()).isEqualTo("Calle Mayor, 1");
+        assertThat(found.getBody().getTscreate()).isNotNull();
+
+        ResponseEntity<String> badHeader = restTemplate.withBasicAuth("testuser", "testpassword")
+                .exchange(BASE_URL + "/import", HttpMethod.POST, new HttpEntity<>("CDISOLOC,COLOR\nES,rojo\n", headers), String.class);
+        assertThat(badHeader.getBody()).contains("COLOR").contains("\"SUMMARY\"");
+
+        // Un campo gigante (p. ej. una comilla mal puesta) rechaza solo su línea; la siguiente se importa.
+        String oversized = "CDISOLOC,CDCOMPANY,CDDEALER,CHASSIS,NMEXHVL,CDEXHVL,ADEXHVL\n" +
+                "ES,1,54321,CHASSIS_ES_IMP3,1,I06," + "x".repeat(20_000) + "\n" +
+                "ES,1,54321,CHASSIS_ES_IMP4,1,I07,Tras la larga\n";
+        List<ImportEvent> oversizedEvents = new ArrayList<>();
+        for (String line : restTemplate.withBasicAuth("testuser", "testpassword")
+                .exchange(BASE_URL + "/import", HttpMethod.POST, new HttpEntity<>(oversized, headers), String.class)
+                .getBody().split("\n")) {
+            oversizedEvents.add(objectMapper.readValue(line, ImportEvent.class));
+        }
+        assertThat(oversizedEvents.stream().filter(e -> e.type() == ImportEvent.Type.ERROR).map(ImportEvent::line))
+                .containsExactly(2L);
+        assertThat(oversizedEvents.get(oversizedEvents.size() - 1).rowsWritten()).isEqualTo(1L);
+    }
+
+    /**
+     * Valida el informe de recuentos multi-país y que una escritura descarta la porción cacheada de su país.
+     */
+    @Test
+    @DisplayName("El informe agregado suma todos los países y refleja las escrituras al instante")
+    void testAggregateReport() {
+        Wexhvloc approved = createSampleWexhvloc("ES", "CHASSIS_ES_REP2", "R02");
+        approved.setCdchgsts("AP");
+        restTemplate.withBasicAuth("testuser", "testpassword").exchange(BASE_URL + "/batch", HttpMethod.POST,
+                new HttpEntity<>(List.of(createSampleWexhvloc("ES", "CHASSIS_ES_REP1", "R01"), approved,
+                        createSampleWexhvloc("DE", "CHASSIS_DE_REP1", "R03"))),
+                new ParameterizedTypeReference<List<BatchRowResult>>() {});
+
+        WexhvlocReport report = getReport("");
+        assertThat(report.byCountry()).containsEntry("ES", 2L).containsEntry("DE", 1L).containsEntry("GB", 0L);
+        assertThat(report.byStatus()).containsEntry("NW", 2L).containsEntry("AP", 1L);
+        assertThat(report.byDealer()).containsExactly(
+                new WexhvlocReport.DealerCount("DE", 1, 54321, 1),
+                new WexhvlocReport.DealerCount("ES", 1, 54321, 2));
+
+        // La porción de ES está cacheada; el alta la descarta y el siguiente informe ya la incluye.
+        restTemplate.withBasicAuth("testuser", "testpassword")
+                .postForEntity(BASE_URL, createSampleWexhvloc("ES", "CHASSIS_ES_REP3", "R04"), Wexhvloc.class);
+        assertThat(getReport("?countries=es").byCountry()).containsExactly(Map.entry("ES", 3L));
+
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity("/api/v1/reports/exhibition-locations?countries=XX", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Valida que el resumen por concesionario se mantiene en cada alta y baja, y que la reconstrucción
+     * corrige lo escrito por fuera de la aplicación.
+     */
+    @Test
+    @DisplayName("El resumen por concesionario se mantiene con las escrituras y se puede reconstruir")
+    void testDealerSummaryIsMaintained() {
+        Wexhvloc first = createSampleWexhvloc("ES", "CHASSIS_ES_SUM1", "S01");
+        first.setDtiniloc(new BigDecimal("20250101"));
+        first.setDtfinloc(new BigDecimal("20250630"));
+        Wexhvloc second = createSampleWexhvloc("ES", "CHASSIS_ES_SUM2", "S02");
+        second.setDtiniloc(new BigDecimal("20240101"));
+        second.setDtfinloc(BigDecimal.ZERO);
+        restTemplate.withBasicAuth("testuser", "testpassword").postForEntity(BASE_URL, first, Wexhvloc.class);
+        restTemplate.withBasicAuth("testuser", "testpassword").postForEntity(BASE_URL, second, Wexhvloc.class);
+
+        DealerSummary summary = getDealerSummary().getBody();
+        assertThat(summary.locations()).isEqualTo(2);
+        assertThat(summary.dtinimin()).isEqualTo(20240101);
+        assertThat(summary.dtfinmax()).isEqualTo(DealerSummary.OPEN_END);
+
+        // Al borrar la fila abierta, el rango se recalcula con las que quedan.
+        restTemplate.withBasicAuth("testuser", "testpassword").delete(buildGetUri(second));
+        summary = getDealerSummary().getBody();
+        assertThat(summary.locations()).isEqualTo(1);
+        assertThat(summary.dtinimin()).isEqualTo(20250101);
+        assertThat(summary.dtfinmax()).isEqualTo(20250630);
+
+        // Un borrado por fuera de la aplicación deja el resumen desfasado hasta que se reconstruye.
+        DataSourceContextHolder.setBranchContext("ES");
+        jdbcTemplate.execute("DELETE FROM WEXHVLOC");
+        DataSourceContextHolder.clearBranchContext();
+        ResponseEntity<Map<String, Long>> rebuilt = restTemplate.withBasicAuth("testuser", "testpassword")
+                .exchange(BASE_URL + "/dealer/summary/rebuild?cdisoloc=ES", HttpMethod.POST, null, new ParameterizedTypeReference<>() {});
+        assertThat(rebuilt.getBody()).containsEntry("dealers", 0L);
+        assertThat(getDealerSummary().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Valida la purga por bloques de un concesionario: borra solo sus filas, en bloques de
+     * {@code inquiry.purge.chunk-size} (2 en los tests), informando del progreso.
+     */
+    @Test
+    @DisplayName("Purga un concesionario por bloques informando del progreso")
+    void testDealerPurgeInChunks() throws Exception {
+        List<Wexhvloc> rows = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            rows.add(createSampleWexhvloc("ES", "CHASSIS_ES_PRG" + i, "P0" + i));
+        }
+        Wexhvloc otherDealer = createSampleWexhvloc("ES", "CHASSIS_ES_PRG9", "P09");
+        otherDealer.setCddealer(new BigDecimal("11111"));
+        rows.add(otherDealer);
+        restTemplate.withBasicAuth("testuser", "testpassword").exchange(BASE_URL + "/batch", HttpMethod.POST,
+                new HttpEntity<>(rows), new ParameterizedTypeReference<List<BatchRowResult>>() {});
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        ResponseEntity<String> response = restTemplate.withBasicAuth("testuser", "testpassword").exchange(
+                BASE_URL + "/dealer?cdisoloc=ES&cdcompany=1&cddealer=54321", HttpMethod.DELETE, new HttpEntity<>(headers), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        List<PurgeProgress> progress = new ArrayList<>();
+        for (String line : response.getBody().split("\n")) {
+            progress.add(objectMapper.readValue(line, PurgeProgress.class));
+        }
+        assertThat(progress).extracting(PurgeProgress::deleted).containsExactly(2L, 4L, 5L);
+        PurgeProgress last = progress.get(progress.size() - 1);
+        assertThat(last.done()).isTrue();
+        assertThat(last.chunks()).isEqualTo(3);
+        assertThat(last.mode()).isEqualTo(PurgeProgress.Mode.CHUNKED);
+
+        assertThat(getDealerSummary().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(buildGetUri(otherDealer), Wexhvloc.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    /**
+     * Valida el modo de hilos virtuales: el trabajo JDBC lanzado desde un hilo virtual se ejecuta en un
+     * hilo "jdbc-offload-" con el país del llamante (y su consulta va a la base de datos de ese país), y
+     * las llamadas al servicio desde hilos virtuales y de plataforma siguen enrutándose bien.
+     *
+     * <p>Los tiempos de las dos cargas (virtuales frente a un pool de plataforma del mismo tamaño que el
+     * de descarga) solo se informan en el log, no se comprueban: con H2 en memoria y una máquina de CI
+     * compartida no son un criterio fiable. La comparación con el AS400 se hace a mano con estas trazas.</p>
+     */
+    @Test
+    @DisplayName("Hilos virtuales: el JDBC se descarga al pool acotado conservando el país")
+    void testVirtualThreadsOffloadJdbcKeepingTenant() throws Exception {
+        Wexhvloc loc = createSampleWexhvloc("ES", "CHASSIS_ES_VT1", "V01");
+        restTemplate.withBasicAuth("testuser", "testpassword").postForEntity(BASE_URL, loc, Wexhvloc.class);
+
+        int calls = 200;
+        Callable<String> lookup = () -> {
+            boolean inEs = wexhvlocService.findExhibitionLocation("ES", loc.getCdcompany(), loc.getCddealer(),
+                    loc.getChassis(), loc.getNmexhvl(), loc.getCdexhvl()).isPresent();
+            boolean inDe = wexhvlocService.findExhibitionLocation("DE", loc.getCdcompany(), loc.getCddealer(),
+                    loc.getChassis(), loc.getNmexhvl(), loc.getCdexhvl()).isPresent();
+            return inEs + "/" + inDe;
+        };
+
+        // [hilo que ejecuta el JDBC, país enrutado en ese hilo, filas del chasis en la base de datos alcanzada]
+        Callable<List<String>> offloaded = () -> {
+            DataSourceContextHolder.setBranchContext("ES");
+            try {
+                return jdbcOffloadExecutor.call(() -> List.of(Thread.currentThread().getName(),
+                        DataSourceContextHolder.getBranchContext(),
+                        String.valueOf(jdbcTemplate.queryForObject(
+                                "SELECT COUNT(*) FROM WEXHVLOC WHERE CHASSIS = ?", Long.class, loc.getChassis()))));
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            } finally {
+                DataSourceContextHolder.clearBranchContext();
+            }
+        };
+
+        try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<String> work = virtual.submit(offloaded).get();
+            assertThat(work.get(0)).startsWith("jdbc-offload-");
+            assertThat(work.get(1)).isEqualTo("ES");
+            assertThat(work.get(2)).isEqualTo("1");
+
+            runLoad("virtuales", virtual, calls, lookup);
+        }
+        try (ExecutorService platform = Executors.newFixedThreadPool(offloadThreads)) {
+            runLoad("de plataforma (" + offloadThreads + ")", platform, calls, lookup);
+        }
+    }
+
+    /**
+     * Lanza {@code calls} veces la consulta en el ejecutor, comprueba cada resultado y deja en el log
+     * lo que ha tardado la carga completa.
+     */
+    private void runLoad(String mode, ExecutorService executor, int calls, Callable<String> lookup) throws Exception {
+        long start = System.nanoTime();
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            results.add(executor.submit(lookup));
+        }
+        for (Future<String> result : results) {
+            assertThat(result.get()).isEqualTo("true/false");
+        }
+        log.info("Carga de {} búsquedas con hilos {}: {} ms.", calls, mode, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Valida el single flight de la búsqueda por clave: muchas peticiones simultáneas de la misma clave
+     * devuelven todas el registro, y cada una cuenta como consulta ejecutada o como agrupada con otra.
+     * Que de verdad se agrupan (sin depender de los tiempos) lo comprueba {@code SingleFlightTest}.
+     */
+    @Test
+    @DisplayName("Las búsquedas simultáneas de la misma clave comparten la consulta")
+    void testConcurrentLookupsAreCoalesced() throws Exception {
+        Wexhvloc loc = createSampleWexhvloc("ES", "CHASSIS_ES_SF1", "F01");
+        restTemplate.withBasicAuth("testuser", "testpassword").postForEntity(BASE_URL, loc, Wexhvloc.class);
+        double before = singleFlightCalls("executed") + singleFlightCalls("coalesced");
+
+        int calls = 50;
+        try (ExecutorService clients = Executors.newFixedThreadPool(16)) {
+            List<Future<ResponseEntity<Wexhvloc>>> responses = new ArrayList<>();
+            for (int i = 0; i < calls; i++) {
+                responses.add(clients.submit(() -> restTemplate.withBasicAuth("testuser", "testpassword")
+                        .getForEntity(buildGetUri(loc), Wexhvloc.class)));
+            }
+            for (Future<ResponseEntity<Wexhvloc>> response : responses) {
+                assertThat(response.get().getStatusCode()).isEqualTo(HttpStatus.OK);
+                assertThat(response.get().getBody().getChassis().trim()).isEqualTo("CHASSIS_ES_SF1");
+            }
+        }
+        assertThat(singleFlightCalls("executed") + singleFlightCalls("coalesced") - before).isEqualTo(calls);
+        // Una clave de otro país es otra consulta: no se agrupa con la de ES.
+        assertThat(restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(buildGetUri(loc, "DE"), Wexhvloc.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private double singleFlightCalls(String result) {
+        return meterRegistry.get("inquiry.single_flight.calls")
+                .tag("lookup", "wexhvloc.findExhibitionLocation").tag("result", result).counter().count();
+    }
+
+    /**
+     * Valida el {@code _mget}: claves de varios países en una petición, con un resultado por clave
+     * en el orden pedido y los fallos y ausencias explícitos.
+     */
+    @Test
+    @DisplayName("_mget devuelve las claves de varios países en el orden de la petición")
+    void testMultiGetAcrossTenantsKeepsRequestOrder() {
+        Wexhvloc es = createSampleWexhvloc("ES", "CHASSIS_ES_MG1", "M01");
+        Wexhvloc gb = createSampleWexhvloc("GB", "CHASSIS_GB_MG1", "M02");
+        restTemplate.withBasicAuth("testuser", "testpassword").postForEntity(BASE_URL, es, Wexhvloc.class);
+        restTemplate.withBasicAuth("testuser", "testpassword").postForEntity(BASE_URL, gb, Wexhvloc.class);
+
+        WexhvlocKey esKey = WexhvlocKey.of(es);
+        List<WexhvlocKey> keys = List.of(
+                WexhvlocKey.of(gb),
+                new WexhvlocKey("DE", es.getCdcompany(), es.getCddealer(), es.getChassis(), es.getNmexhvl(), es.getCdexhvl()),
+                new WexhvlocKey("es", esKey.cdcompany(), esKey.cddealer(), esKey.chassis(), esKey.nmexhvl(), esKey.cdexhvl()),
+                new WexhvlocKey("XX", esKey.cdcompany(), esKey.cddealer(), esKey.chassis(), esKey.nmexhvl(), esKey.cdexhvl()),
+                new WexhvlocKey(null, esKey.cdcompany(), esKey.cddealer(), esKey.chassis(), esKey.nmexhvl(), esKey.cdexhvl()),
+                esKey);
+
+        ResponseEntity<List<MultiGetResult>> response = restTemplate.withBasicAuth("testuser", "testpassword")
+                .exchange(BASE_URL + "/_mget", HttpMethod.POST, new HttpEntity<>(keys), new ParameterizedTypeReference<>() {});
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<MultiGetResult> results = response.getBody();
+        assertThat(results).extracting(MultiGetResult::index).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(results).extracting(MultiGetResult::status).containsExactly(
+                MultiGetResult.Status.FOUND, MultiGetResult.Status.NOT_FOUND, MultiGetResult.Status.FOUND,
+                MultiGetResult.Status.FAILED, MultiGetResult.Status.FAILED, MultiGetResult.Status.FOUND);
+        assertThat(results.get(0).location().getChassis().trim()).isEqualTo("CHASSIS_GB_MG1");
+        assertThat(results.get(2).location().getChassis().trim()).isEqualTo("CHASSIS_ES_MG1");
+        assertThat(results.get(5).location().getCdisoloc().trim()).isEqualTo("ES");
+        assertThat(results.get(1).location()).isNull();
+        assertThat(results.get(3).message()).contains("XX");
+    }
+
+    private ResponseEntity<DealerSummary> getDealerSummary() {
+        return restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity(BASE_URL + "/dealer/summary?cdisoloc=ES&cdcompany=1&cddealer=54321", DealerSummary.class);
+    }
+
+    private WexhvlocReport getReport(String query) {
+        ResponseEntity<WexhvlocReport> response = restTemplate.withBasicAuth("testuser", "testpassword")
+                .getForEntity("/api/v1/reports/exhibition-locations" + query, WexhvlocReport.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
+    private List<ExhibitionPeriod> getPeriods(String path) {
+        ResponseEntity<List<ExhibitionPeriod>> response = restTemplate.withBasicAuth("testuser", "testpassword")
+                .exchange(BASE_URL + path, HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
     /**
      * Método de utilidad (factory) para crear instancias de {@link Wexhvloc} para los tests.
      *
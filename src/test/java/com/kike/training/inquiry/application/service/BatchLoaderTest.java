@@ -0,0 +1,157 @@
+package com.kike.training.inquiry.application.service;
+
+import com.kike.training.inquiry.infrastructure.db.config.TenantExecutor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios de {@link BatchLoader}: agrupación, errores compartidos, espera acotada y casos en
+ * los que la lectura va directa.
+ *
+ * <p>La ventana es de una hora, así que nunca vence durante un test: los envíos salen solo al juntarse
+ * {@code max-batch} búsquedas, y qué claves van juntas no depende de los tiempos.</p>
+ */
+@DisplayName("Tests unitarios de BatchLoader")
+class BatchLoaderTest {
+
+    private static final long WINDOW_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int MAX_BATCH = 3;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+    private final ExecutorService callers = Executors.newFixedThreadPool(MAX_BATCH);
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private TenantExecutor tenantExecutor;
+
+    @BeforeEach
+    void setUp() {
+        tenantExecutor = mock(TenantExecutor.class);
+        when(tenantExecutor.getTenants()).thenReturn(Set.of("ES"));
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(tenantExecutor).runInTenant(anyString(), any(Runnable.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+        dispatcher.shutdownNow();
+        callers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("max-batch búsquedas simultáneas salen en UNA consulta con todas sus claves")
+    void testConcurrentLookupsShareOneQuery() throws Exception {
+        BatchLoader<String, String> loader = newLoader(keys -> keys.stream().collect(Collectors.toMap(k -> k, k -> "v" + k)), 5000);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (String key : List.of("a", "b", "c")) {
+            results.add(callers.submit(() -> loader.load("es", key, () -> "directa")));
+        }
+
+        assertThat(results.get(0).get(5, TimeUnit.SECONDS)).isEqualTo("va");
+        assertThat(results.get(1).get(5, TimeUnit.SECONDS)).isEqualTo("vb");
+        assertThat(results.get(2).get(5, TimeUnit.SECONDS)).isEqualTo("vc");
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).containsExactlyInAnyOrder("a", "b", "c");
+        DistributionSummary sizes = meterRegistry.get("inquiry.batch_loader.batch.size").tag("tenant", "ES").summary();
+        assertThat(sizes.count()).isEqualTo(1);
+        assertThat(sizes.max()).isEqualTo(MAX_BATCH);
+    }
+
+    @Test
+    @DisplayName("Si la consulta del grupo falla, todas sus búsquedas reciben el error")
+    void testFailureIsSharedByTheBatch() throws Exception {
+        BatchLoader<String, String> loader = newLoader(keys -> {
+            throw new IllegalStateException("AS400 caído");
+        }, 5000);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (String key : List.of("a", "b", "c")) {
+            results.add(callers.submit(() -> loader.load("ES", key, () -> "directa")));
+        }
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasRootCauseMessage("AS400 caído");
+        }
+    }
+
+    @Test
+    @DisplayName("Una búsqueda cuyo grupo no se resuelve a tiempo recibe un 503")
+    void testWaitIsBounded() {
+        BatchLoader<String, String> loader = newLoader(keys -> Map.of(), 50);
+
+        // La ventana no vence y el grupo no se llena: la búsqueda se queda esperando hasta el timeout.
+        assertThatThrownBy(() -> loader.load("ES", "a", () -> "directa"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(batches).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Un país sin DataSource va directo y no registra métricas")
+    void testUnknownTenantGoesDirect() {
+        BatchLoader<String, String> loader = newLoader(keys -> Map.of(), 5000);
+
+        assertThat(loader.load("XX", "a", () -> "directa")).isEqualTo("directa");
+
+        assertThat(batches).isEmpty();
+        assertThat(meterRegistry.find("inquiry.batch_loader.batch.size").summaries()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Dentro de una transacción no se agrupa")
+    void testTransactionGoesDirect() {
+        BatchLoader<String, String> loader = newLoader(keys -> Map.of(), 5000);
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThat(loader.load("ES", "a", () -> "directa")).isEqualTo("directa");
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertThat(batches).isEmpty();
+    }
+
+    private BatchLoader<String, String> newLoader(Function<List<String>, Map<String, String>> query, long timeoutMillis) {
+        Function<List<String>, Map<String, String>> recording = keys -> {
+            batches.add(List.copyOf(keys));
+            return query.apply(keys);
+        };
+        return new BatchLoader<>("test", recording, tenantExecutor, scheduler, tenant -> dispatcher, meterRegistry,
+                true, WINDOW_MICROS, MAX_BATCH, 100, timeoutMillis);
+    }
+}
@@ -0,0 +1,62 @@
+package com.kike.training.inquiry.application.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitarios de {@link CsvReader}: comillas, saltos de línea dentro de un campo, números de línea
+ * y rechazo de un solo registro cuando un campo supera {@link CsvReader#MAX_FIELD_LENGTH}.
+ */
+@DisplayName("Tests unitarios de CsvReader")
+class CsvReaderTest {
+
+    @Test
+    @DisplayName("Lee campos entrecomillados con comas, comillas dobladas y saltos de línea")
+    void testQuotedFields() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,\"b, c\",\"di \"\"x\"\"\"\r\n\n\"multi\nlínea\",z\nfin"));
+
+        assertThat(csv.next()).containsExactly("a", "b, c", "di \"x\"");
+        assertThat(csv.recordLine()).isEqualTo(1);
+        assertThat(csv.next()).containsExactly("multi\nlínea", "z");
+        assertThat(csv.recordLine()).isEqualTo(3);
+        assertThat(csv.next()).containsExactly("fin");
+        assertThat(csv.recordLine()).isEqualTo(5);
+        assertThat(csv.next()).isNull();
+    }
+
+    @Test
+    @DisplayName("Un campo demasiado largo rechaza solo su registro, con su línea real")
+    void testOversizedFieldRejectsOnlyItsRecord() throws IOException {
+        String huge = "x".repeat(CsvReader.MAX_FIELD_LENGTH + 1);
+        CsvReader csv = new CsvReader(new StringReader("h1,h2\n1,2\n3," + huge + "\n5,6\n"));
+
+        assertThat(csv.next()).containsExactly("h1", "h2");
+        assertThat(csv.next()).containsExactly("1", "2");
+        assertThatThrownBy(csv::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(String.valueOf(CsvReader.MAX_FIELD_LENGTH));
+        assertThat(csv.recordLine()).isEqualTo(3);
+        assertThat(csv.next()).containsExactly("5", "6");
+        assertThat(csv.recordLine()).isEqualTo(4);
+        assertThat(csv.next()).isNull();
+    }
+
+    @Test
+    @DisplayName("Una comilla sin cerrar consume el resto del fichero como un único registro rechazado")
+    void testUnclosedQuoteDoesNotGrowWithoutBound() throws IOException {
+        String rest = "y\n".repeat(CsvReader.MAX_FIELD_LENGTH);
+        CsvReader csv = new CsvReader(new StringReader("1,2\n3,\"sin cerrar\n" + rest));
+
+        assertThat(csv.next()).containsExactly("1", "2");
+        assertThatThrownBy(csv::next).isInstanceOf(IllegalArgumentException.class);
+        assertThat(csv.recordLine()).isEqualTo(2);
+        assertThat(csv.next()).isNull();
+    }
+}
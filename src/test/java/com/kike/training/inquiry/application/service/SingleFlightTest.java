@@ -0,0 +1,143 @@
+package com.kike.training.inquiry.application.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitarios de {@link SingleFlight}: agrupación, copia del resultado para los agrupados,
+ * propagación de errores y retirada de la clave al terminar.
+ *
+ * <p>La consulta del líder se queda parada en un latch hasta que el seguidor se ha unido a ella (lo
+ * marca el contador {@code coalesced}), así que la agrupación no depende de la suerte del planificador.</p>
+ */
+@DisplayName("Tests unitarios de SingleFlight")
+class SingleFlightTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService threads = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        threads.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Una petición que llega durante la consulta del líder la comparte y recibe una copia")
+    void testConcurrentCallIsCoalesced() throws Exception {
+        SingleFlight<String, StringBuilder> flight = newFlight(true);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        Future<StringBuilder> leader = threads.submit(() -> flight.execute("ES|1", () -> {
+            loads.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return new StringBuilder("valor");
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<StringBuilder> follower = threads.submit(() -> flight.execute("ES|1", () -> {
+            loads.incrementAndGet();
+            return new StringBuilder("no debería consultarse");
+        }));
+        waitUntil(() -> calls("coalesced") == 1);
+        release.countDown();
+
+        StringBuilder leaderValue = leader.get(5, TimeUnit.SECONDS);
+        StringBuilder followerValue = follower.get(5, TimeUnit.SECONDS);
+        assertThat(loads).hasValue(1);
+        assertThat(calls("executed")).isEqualTo(1);
+        assertThat(calls("coalesced")).isEqualTo(1);
+        assertThat(followerValue.toString()).isEqualTo("valor");
+        assertThat(followerValue).isNotSameAs(leaderValue);
+    }
+
+    @Test
+    @DisplayName("El seguidor recibe la misma excepción que el líder")
+    void testFailureIsSharedWithFollowers() throws Exception {
+        SingleFlight<String, StringBuilder> flight = newFlight(true);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<StringBuilder> leader = threads.submit(() -> flight.execute("ES|1", () -> {
+            leaderStarted.countDown();
+            await(release);
+            throw new IllegalStateException("AS400 caído");
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<StringBuilder> follower = threads.submit(() -> flight.execute("ES|1", StringBuilder::new));
+        waitUntil(() -> calls("coalesced") == 1);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("AS400 caído");
+    }
+
+    @Test
+    @DisplayName("Terminado el líder, la siguiente petición vuelve a consultar")
+    void testKeyIsReleasedAfterTheCall() {
+        SingleFlight<String, StringBuilder> flight = newFlight(true);
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.execute("ES|1", () -> new StringBuilder("v" + loads.incrementAndGet()));
+        StringBuilder second = flight.execute("ES|1", () -> new StringBuilder("v" + loads.incrementAndGet()));
+
+        assertThat(second.toString()).isEqualTo("v2");
+        assertThat(calls("executed")).isEqualTo(2);
+        assertThat(calls("coalesced")).isZero();
+    }
+
+    @Test
+    @DisplayName("Desactivado, cada petición consulta y no se cuenta nada")
+    void testDisabledAlwaysLoads() {
+        SingleFlight<String, StringBuilder> flight = newFlight(false);
+
+        flight.execute("ES|1", StringBuilder::new);
+        flight.execute("ES|1", StringBuilder::new);
+
+        assertThat(calls("executed")).isZero();
+        assertThat(calls("coalesced")).isZero();
+    }
+
+    private SingleFlight<String, StringBuilder> newFlight(boolean enabled) {
+        return new SingleFlight<>("test", enabled, meterRegistry, value -> new StringBuilder(value));
+    }
+
+    private double calls(String result) {
+        return meterRegistry.get("inquiry.single_flight.calls").tag("result", result).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("la condición no se ha cumplido a tiempo").isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+}
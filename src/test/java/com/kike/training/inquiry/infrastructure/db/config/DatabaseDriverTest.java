@@ -0,0 +1,62 @@
+package com.kike.training.inquiry.infrastructure.db.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitarios de la resolución de dialecto de {@link DatabaseDriver}, por clase de driver y por
+ * nombre de producto, y de las propiedades de conexión que aporta cada uno.
+ */
+@DisplayName("Tests unitarios de DatabaseDriver")
+class DatabaseDriverTest {
+
+    @Test
+    @DisplayName("Cada clase de driver soportada resuelve su dialecto")
+    void testFromDriverClassName() {
+        assertThat(DatabaseDriver.fromDriverClassName("com.ibm.as400.access.AS400JDBCDriver")).isEqualTo(DatabaseDriver.DB2_AS400);
+        assertThat(DatabaseDriver.fromDriverClassName("org.h2.Driver")).isEqualTo(DatabaseDriver.H2);
+    }
+
+    @Test
+    @DisplayName("Un driver desconocido es un error, no DB2 for i por defecto")
+    void testUnknownDriverClassNameFails() {
+        assertThatThrownBy(() -> DatabaseDriver.fromDriverClassName("org.postgresql.Driver"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("org.postgresql.Driver");
+        assertThatThrownBy(() -> DatabaseDriver.fromDriverClassName(null))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Los nombres de producto de DatabaseMetaData resuelven su dialecto")
+    void testFromProductName() {
+        assertThat(DatabaseDriver.fromProductName("DB2 UDB for AS/400")).isEqualTo(DatabaseDriver.DB2_AS400);
+        assertThat(DatabaseDriver.fromProductName("DB2/LINUXX8664")).isEqualTo(DatabaseDriver.DB2_AS400);
+        assertThat(DatabaseDriver.fromProductName("H2")).isEqualTo(DatabaseDriver.H2);
+        assertThat(DatabaseDriver.fromProductName("h2")).isEqualTo(DatabaseDriver.H2);
+    }
+
+    @Test
+    @DisplayName("Un producto desconocido es un error")
+    void testUnknownProductNameFails() {
+        assertThatThrownBy(() -> DatabaseDriver.fromProductName("PostgreSQL"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("PostgreSQL");
+    }
+
+    @Test
+    @DisplayName("El paquete SQL de JTOpen no forma parte de las propiedades por defecto")
+    void testExtendedDynamicIsOptIn() {
+        assertThat(DatabaseDriver.DB2_AS400.getConnectionProperties())
+                .containsKeys("block size", "prefetch", "lazy close")
+                .doesNotContainKeys("extended dynamic", "package", "package cache");
+        assertThat(DatabaseDriver.DB2_AS400.getStatementPackageProperties("INQUIRY"))
+                .containsEntry("extended dynamic", "true")
+                .containsEntry("package", "INQUIRY")
+                .containsEntry("package cache", "true");
+        assertThat(DatabaseDriver.H2.getStatementPackageProperties("INQUIRY")).isEmpty();
+    }
+}
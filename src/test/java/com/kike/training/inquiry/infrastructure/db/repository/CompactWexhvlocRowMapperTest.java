@@ -0,0 +1,48 @@
+package com.kike.training.inquiry.infrastructure.db.repository;
+
+import com.kike.training.inquiry.domain.model.CompactWexhvloc;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios de {@link CompactWexhvlocRowMapper}: mismas posiciones que {@link WexhvlocRowMapper},
+ * pero con los números como {@code int} y los textos sin el relleno de los CHAR.
+ */
+@DisplayName("Tests unitarios de CompactWexhvlocRowMapper")
+class CompactWexhvlocRowMapperTest {
+
+    private final CompactWexhvlocRowMapper mapper = new CompactWexhvlocRowMapper();
+
+    @Test
+    @DisplayName("Cada posición del SELECT_LIST se copia a su componente")
+    void testMapsEveryColumnByPosition() throws SQLException {
+        CompactWexhvloc loc = mapper.mapRow(WexhvlocRowMapperTest.fullRow(), 0);
+
+        assertThat(loc).isEqualTo(new CompactWexhvloc("ES", 1, 2, "CHASSIS01", 3, "EX",
+                20250101, 20251231, "Calle Mayor 1", 4, "TM", 20250115,
+                "CREADOR", WexhvlocRowMapperTest.CREATED, "EDITOR", WexhvlocRowMapperTest.UPDATED, "A"));
+    }
+
+    @Test
+    @DisplayName("El relleno de los CHAR se recorta y las marcas de tiempo nulas se quedan en null")
+    void testTrimsPaddingAndKeepsNullTimestamps() throws SQLException {
+        ResultSet rs = WexhvlocRowMapperTest.fullRow();
+        when(rs.getString(4)).thenReturn("CHASSIS01   ");
+        when(rs.getString(17)).thenReturn("A ");
+        when(rs.getTimestamp(14)).thenReturn(null);
+        when(rs.getTimestamp(16)).thenReturn(null);
+
+        CompactWexhvloc loc = mapper.mapRow(rs, 0);
+
+        assertThat(loc.chassis()).isEqualTo("CHASSIS01");
+        assertThat(loc.cdchgsts()).isEqualTo("A");
+        assertThat(loc.tscreate()).isNull();
+        assertThat(loc.tslstupd()).isNull();
+    }
+}
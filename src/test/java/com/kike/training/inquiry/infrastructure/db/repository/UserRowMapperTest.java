@@ -0,0 +1,34 @@
+package com.kike.training.inquiry.infrastructure.db.repository;
+
+import com.kike.training.inquiry.domain.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios de {@link UserRowMapper}: las columnas de {@link UserRowMapper#SELECT_LIST} se leen por posición.
+ */
+@DisplayName("Tests unitarios de UserRowMapper")
+class UserRowMapperTest {
+
+    @Test
+    @DisplayName("id, username y email se leen de las posiciones 1, 2 y 3")
+    void testMapsColumnsByPosition() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(42L);
+        when(rs.getString(2)).thenReturn("ana");
+        when(rs.getString(3)).thenReturn("ana@example.com");
+
+        User user = new UserRowMapper().mapRow(rs, 0);
+
+        assertThat(user.getId()).isEqualTo(42L);
+        assertThat(user.getUsername()).isEqualTo("ana");
+        assertThat(user.getEmail()).isEqualTo("ana@example.com");
+    }
+}
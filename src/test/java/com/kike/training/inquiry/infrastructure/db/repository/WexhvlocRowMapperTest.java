@@ -0,0 +1,102 @@
+package com.kike.training.inquiry.infrastructure.db.repository;
+
+import com.kike.training.inquiry.domain.model.Wexhvloc;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios de {@link WexhvlocRowMapper}: cada columna de {@link WexhvlocRowMapper#SELECT_LIST}
+ * se lee de SU posición y acaba en SU campo.
+ *
+ * <p>El {@link ResultSet} es un mock que solo responde por posición: si el conversor leyera una columna
+ * por nombre, o desplazada, el campo quedaría a {@code null} y el test fallaría.</p>
+ */
+@DisplayName("Tests unitarios de WexhvlocRowMapper")
+class WexhvlocRowMapperTest {
+
+    static final LocalDateTime CREATED = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+    static final LocalDateTime UPDATED = LocalDateTime.of(2025, 6, 7, 8, 9, 10);
+
+    private final WexhvlocRowMapper mapper = new WexhvlocRowMapper();
+
+    @Test
+    @DisplayName("Cada posición del SELECT_LIST se copia a su campo")
+    void testMapsEveryColumnByPosition() throws SQLException {
+        Wexhvloc loc = mapper.mapRow(fullRow(), 0);
+
+        assertThat(loc.getCdisoloc()).isEqualTo("ES");
+        assertThat(loc.getCdcompany()).isEqualByComparingTo("1");
+        assertThat(loc.getCddealer()).isEqualByComparingTo("2");
+        assertThat(loc.getChassis()).isEqualTo("CHASSIS01");
+        assertThat(loc.getNmexhvl()).isEqualByComparingTo("3");
+        assertThat(loc.getCdexhvl()).isEqualTo("EX");
+        assertThat(loc.getDtiniloc()).isEqualByComparingTo("20250101");
+        assertThat(loc.getDtfinloc()).isEqualByComparingTo("20251231");
+        assertThat(loc.getAdexhvl()).isEqualTo("Calle Mayor 1");
+        assertThat(loc.getLgexhvl()).isEqualByComparingTo("4");
+        assertThat(loc.getTmexhvl()).isEqualTo("TM");
+        assertThat(loc.getDtapprv()).isEqualByComparingTo("20250115");
+        assertThat(loc.getSncreate()).isEqualTo("CREADOR");
+        assertThat(loc.getTscreate()).isEqualTo(CREATED);
+        assertThat(loc.getSnlstupd()).isEqualTo("EDITOR");
+        assertThat(loc.getTslstupd()).isEqualTo(UPDATED);
+        assertThat(loc.getCdchgsts()).isEqualTo("A");
+    }
+
+    @Test
+    @DisplayName("Las marcas de tiempo nulas se quedan en null")
+    void testNullTimestampsStayNull() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+
+        Wexhvloc loc = mapper.mapRow(rs, 0);
+
+        assertThat(loc.getTscreate()).isNull();
+        assertThat(loc.getTslstupd()).isNull();
+        verify(rs, never()).getString("CHASSIS");
+    }
+
+    /**
+     * Fila completa con un valor distinto en cada una de las 17 posiciones de {@link WexhvlocRowMapper#SELECT_LIST}.
+     * La comparten los tests de {@link CompactWexhvlocRowMapper}.
+     */
+    static ResultSet fullRow() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn("ES");
+        when(rs.getBigDecimal(2)).thenReturn(new BigDecimal("1"));
+        when(rs.getInt(2)).thenReturn(1);
+        when(rs.getBigDecimal(3)).thenReturn(new BigDecimal("2"));
+        when(rs.getInt(3)).thenReturn(2);
+        when(rs.getString(4)).thenReturn("CHASSIS01");
+        when(rs.getBigDecimal(5)).thenReturn(new BigDecimal("3"));
+        when(rs.getInt(5)).thenReturn(3);
+        when(rs.getString(6)).thenReturn("EX");
+        when(rs.getBigDecimal(7)).thenReturn(new BigDecimal("20250101"));
+        when(rs.getInt(7)).thenReturn(20250101);
+        when(rs.getBigDecimal(8)).thenReturn(new BigDecimal("20251231"));
+        when(rs.getInt(8)).thenReturn(20251231);
+        when(rs.getString(9)).thenReturn("Calle Mayor 1");
+        when(rs.getBigDecimal(10)).thenReturn(new BigDecimal("4"));
+        when(rs.getInt(10)).thenReturn(4);
+        when(rs.getString(11)).thenReturn("TM");
+        when(rs.getBigDecimal(12)).thenReturn(new BigDecimal("20250115"));
+        when(rs.getInt(12)).thenReturn(20250115);
+        when(rs.getString(13)).thenReturn("CREADOR");
+        when(rs.getTimestamp(14)).thenReturn(Timestamp.valueOf(CREATED));
+        when(rs.getString(15)).thenReturn("EDITOR");
+        when(rs.getTimestamp(16)).thenReturn(Timestamp.valueOf(UPDATED));
+        when(rs.getString(17)).thenReturn("A");
+        return rs;
+    }
+}
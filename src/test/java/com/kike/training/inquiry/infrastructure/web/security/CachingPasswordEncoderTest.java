@@ -0,0 +1,130 @@
+package com.kike.training.inquiry.infrastructure.web.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios de {@link CachingPasswordEncoder}: aciertos, fallos, caducidad y expulsión LRU.
+ *
+ * <p>El encoder real se sustituye por uno que compara en claro y cuenta cuántas veces se le llama,
+ * y el reloj es manual, así que ningún test depende de esperas.</p>
+ */
+@DisplayName("Tests unitarios de CachingPasswordEncoder")
+class CachingPasswordEncoderTest {
+
+    private static final Duration TTL = Duration.ofMinutes(2);
+
+    private final AtomicLong clock = new AtomicLong();
+    private CountingEncoder delegate;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new CountingEncoder();
+    }
+
+    @Test
+    @DisplayName("Un acierto repetido dentro del TTL no vuelve a llamar al encoder real")
+    void testRepeatedSuccessIsServedFromCache() {
+        CachingPasswordEncoder encoder = newEncoder(10);
+
+        assertThat(encoder.matches("secreta", "{plain}secreta")).isTrue();
+        assertThat(encoder.matches("secreta", "{plain}secreta")).isTrue();
+
+        assertThat(delegate.calls).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Los fallos nunca se cachean")
+    void testFailuresAlwaysHitTheDelegate() {
+        CachingPasswordEncoder encoder = newEncoder(10);
+
+        assertThat(encoder.matches("mala", "{plain}secreta")).isFalse();
+        assertThat(encoder.matches("mala", "{plain}secreta")).isFalse();
+
+        assertThat(delegate.calls).isEqualTo(2);
+        assertThat(encoder.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Un cambio de hash no reutiliza la verificación anterior")
+    void testNewHashMissesTheCache() {
+        CachingPasswordEncoder encoder = newEncoder(10);
+
+        assertThat(encoder.matches("secreta", "{plain}secreta")).isTrue();
+        assertThat(encoder.matches("secreta", "{plain}otra")).isFalse();
+
+        assertThat(delegate.calls).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Pasado el TTL, la credencial se vuelve a verificar")
+    void testExpiredEntryIsVerifiedAgain() {
+        CachingPasswordEncoder encoder = newEncoder(10);
+
+        encoder.matches("secreta", "{plain}secreta");
+        clock.addAndGet(TTL.toNanos());
+        encoder.matches("secreta", "{plain}secreta");
+
+        assertThat(delegate.calls).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Con la caché llena se expulsa la credencial usada hace más tiempo")
+    void testFullCacheEvictsLeastRecentlyUsed() {
+        CachingPasswordEncoder encoder = newEncoder(2);
+
+        encoder.matches("a", "{plain}a");
+        encoder.matches("b", "{plain}b");
+        encoder.matches("a", "{plain}a"); // "a" pasa a ser la más reciente
+        encoder.matches("c", "{plain}c"); // expulsa a "b"
+        assertThat(encoder.size()).isEqualTo(2);
+        assertThat(delegate.calls).isEqualTo(3);
+
+        encoder.matches("a", "{plain}a");
+        assertThat(delegate.calls).isEqualTo(3);
+        encoder.matches("b", "{plain}b");
+        assertThat(delegate.calls).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("invalidateAll olvida todas las verificaciones")
+    void testInvalidateAll() {
+        CachingPasswordEncoder encoder = newEncoder(10);
+
+        encoder.matches("secreta", "{plain}secreta");
+        encoder.invalidateAll();
+        encoder.matches("secreta", "{plain}secreta");
+
+        assertThat(delegate.calls).isEqualTo(2);
+    }
+
+    private CachingPasswordEncoder newEncoder(int maxEntries) {
+        return new CachingPasswordEncoder(delegate, TTL, maxEntries, clock::get);
+    }
+
+    /**
+     * Encoder de prueba: el "hash" es la contraseña con el prefijo {@code {plain}}.
+     */
+    private static final class CountingEncoder implements PasswordEncoder {
+
+        private int calls;
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "{plain}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            calls++;
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}